@@ -0,0 +1,187 @@
+package com.um.eventos.asientos;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formato binario {@value #MEDIA_TYPE} de una {@link GrillaAsientos}.
+ * <p>
+ * Encabezado (big endian): {@code 'S' 'G'}, versión del formato (1 byte), codificación (1 byte), eventoId
+ * (8 bytes, {@link Long#MIN_VALUE} = sin evento), versión de la grilla (8), fila inicial, columna inicial, filas y
+ * columnas (4 cada uno). Sigue el cuerpo con la codificación más corta de las dos:
+ * <ul>
+ *     <li>{@link #EMPAQUETADA}: 2 bits por celda, 4 celdas por byte (la primera en los bits bajos).</li>
+ *     <li>{@link #RLE}: tramos {@code varint((largo << 2) | estado)} que cubren todas las celdas en orden.</li>
+ * </ul>
+ * Desde la versión 2 del formato siguen las etiquetas de las filas: por cada fila {@code varint(largo)} y la
+ * etiqueta en UTF-8; largo 0 si la fila se nombra con su número. La versión 1 (sin etiquetas) se sigue leyendo.
+ * Un mapa de 100x100 ocupa a lo sumo 2.5 KB (unos bytes si está casi todo libre) contra ~450 KB en JSON.
+ */
+public final class CodecGrillaAsientos {
+
+    public static final String MEDIA_TYPE = "application/x-seatgrid";
+
+    static final byte EMPAQUETADA = 0;
+    static final byte RLE = 1;
+
+    private static final byte FORMATO = 2;
+    private static final byte FORMATO_SIN_ETIQUETAS = 1;
+    private static final int ENCABEZADO = 2 + 1 + 1 + 8 + 8 + 4 * 4;
+
+    private CodecGrillaAsientos() {}
+
+    public static byte[] codificar(GrillaAsientos grilla) {
+        byte[] rle = codificarRle(grilla);
+        int empaquetada = (grilla.getCeldas() + 3) / 4;
+        boolean usarRle = rle.length < empaquetada;
+        byte[] etiquetas = codificarEtiquetas(grilla);
+
+        ByteBuffer buffer = ByteBuffer.allocate(ENCABEZADO + (usarRle ? rle.length : empaquetada) + etiquetas.length);
+        buffer.put((byte) 'S').put((byte) 'G').put(FORMATO).put(usarRle ? RLE : EMPAQUETADA);
+        buffer.putLong(grilla.getEventoId() != null ? grilla.getEventoId() : Long.MIN_VALUE);
+        buffer.putLong(grilla.getVersion());
+        buffer.putInt(grilla.getFilaInicial()).putInt(grilla.getColumnaInicial());
+        buffer.putInt(grilla.getFilas()).putInt(grilla.getColumnas());
+        if (usarRle) {
+            buffer.put(rle);
+        } else {
+            byte actual = 0;
+            for (int i = 0; i < grilla.getCeldas(); i++) {
+                actual |= (byte) (grilla.getEstado(i) << ((i & 3) * 2));
+                if ((i & 3) == 3) {
+                    buffer.put(actual);
+                    actual = 0;
+                }
+            }
+            if ((grilla.getCeldas() & 3) != 0) {
+                buffer.put(actual);
+            }
+        }
+        buffer.put(etiquetas);
+        return buffer.array();
+    }
+
+    /**
+     * @throws IllegalArgumentException si los bytes no son una grilla válida.
+     */
+    public static GrillaAsientos decodificar(byte[] datos) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(datos);
+            if (buffer.get() != 'S' || buffer.get() != 'G') {
+                throw new IllegalArgumentException("No es una grilla de asientos en un formato conocido");
+            }
+            byte formato = buffer.get();
+            if (formato != FORMATO && formato != FORMATO_SIN_ETIQUETAS) {
+                throw new IllegalArgumentException("Versión de grilla de asientos desconocida: " + formato);
+            }
+            byte codificacion = buffer.get();
+            long eventoId = buffer.getLong();
+            long version = buffer.getLong();
+            GrillaAsientos grilla = new GrillaAsientos(
+                eventoId != Long.MIN_VALUE ? eventoId : null,
+                buffer.getInt(),
+                buffer.getInt(),
+                buffer.getInt(),
+                buffer.getInt()
+            );
+            grilla.setVersion(version);
+
+            if (codificacion == EMPAQUETADA) {
+                byte actual = 0;
+                for (int i = 0; i < grilla.getCeldas(); i++) {
+                    if ((i & 3) == 0) {
+                        actual = buffer.get();
+                    }
+                    grilla.setEstado(i, (byte) ((actual >> ((i & 3) * 2)) & 3));
+                }
+            } else if (codificacion == RLE) {
+                int i = 0;
+                while (i < grilla.getCeldas()) {
+                    long tramo = leerVarint(buffer);
+                    long largo = tramo >>> 2;
+                    if (largo == 0 || i + largo > grilla.getCeldas()) {
+                        throw new IllegalArgumentException("Tramo RLE inválido en la celda " + i);
+                    }
+                    byte estado = (byte) (tramo & 3);
+                    for (int fin = (int) (i + largo); i < fin; i++) {
+                        grilla.setEstado(i, estado);
+                    }
+                }
+            } else {
+                throw new IllegalArgumentException("Codificación de grilla desconocida: " + codificacion);
+            }
+            if (formato == FORMATO) {
+                decodificarEtiquetas(buffer, grilla);
+            }
+            return grilla;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Grilla de asientos truncada", e);
+        }
+    }
+
+    private static byte[] codificarRle(GrillaAsientos grilla) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        int i = 0;
+        while (i < grilla.getCeldas()) {
+            byte estado = grilla.getEstado(i);
+            int inicio = i;
+            while (i < grilla.getCeldas() && grilla.getEstado(i) == estado) {
+                i++;
+            }
+            escribirVarint(salida, ((long) (i - inicio) << 2) | estado);
+        }
+        return salida.toByteArray();
+    }
+
+    private static byte[] codificarEtiquetas(GrillaAsientos grilla) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        for (int f = 0; f < grilla.getFilas(); f++) {
+            int fila = grilla.getFilaInicial() + f;
+            String etiqueta = grilla.getEtiquetaFila(fila);
+            if (etiqueta.equals(String.valueOf(fila))) {
+                escribirVarint(salida, 0);
+            } else {
+                byte[] bytes = etiqueta.getBytes(StandardCharsets.UTF_8);
+                escribirVarint(salida, bytes.length);
+                salida.writeBytes(bytes);
+            }
+        }
+        return salida.toByteArray();
+    }
+
+    private static void decodificarEtiquetas(ByteBuffer buffer, GrillaAsientos grilla) {
+        for (int f = 0; f < grilla.getFilas(); f++) {
+            long largo = leerVarint(buffer);
+            if (largo > buffer.remaining()) {
+                throw new IllegalArgumentException("Etiqueta de fila inválida en la fila " + f);
+            }
+            if (largo > 0) {
+                byte[] bytes = new byte[(int) largo];
+                buffer.get(bytes);
+                grilla.setEtiquetaFila(grilla.getFilaInicial() + f, new String(bytes, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private static void escribirVarint(ByteArrayOutputStream salida, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            salida.write((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        salida.write((int) valor);
+    }
+
+    private static long leerVarint(ByteBuffer buffer) {
+        long valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 64; desplazamiento += 7) {
+            byte b = buffer.get();
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Varint demasiado largo");
+    }
+}
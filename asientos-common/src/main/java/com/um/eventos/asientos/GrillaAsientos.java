@@ -0,0 +1,176 @@
+package com.um.eventos.asientos;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de asientos como grilla rectangular de estados, para la representación compacta que intercambian el
+ * proxy y el backend (ver {@link CodecGrillaAsientos}).
+ * <p>
+ * Las filas y columnas son números (fila A = 1, B = 2, ...; columna = número de asiento) y la grilla cubre
+ * {@code filas x columnas} celdas a partir de ({@code filaInicial}, {@code columnaInicial}), de modo que también
+ * puede representar una región del mapa. Las celdas sin asiento se marcan con {@link #SIN_ASIENTO}.
+ * <p>
+ * Cada fila guarda además su etiqueta original (por ejemplo "A"), para que quien decodifica la grilla vea las
+ * mismas filas que en el JSON; sin etiqueta, la fila se nombra con su número.
+ */
+public final class GrillaAsientos {
+
+    public static final byte LIBRE = 0;
+    public static final byte OCUPADO = 1;
+    public static final byte BLOQUEADO = 2;
+    public static final byte SIN_ASIENTO = 3;
+
+    private final Long eventoId;
+    private final int filaInicial;
+    private final int columnaInicial;
+    private final int filas;
+    private final int columnas;
+    private final byte[] estados;
+    private final String[] etiquetasFila;
+    private long version;
+
+    public GrillaAsientos(Long eventoId, int filaInicial, int columnaInicial, int filas, int columnas) {
+        if (filas < 0 || columnas < 0 || (long) filas * columnas > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Dimensiones de grilla inválidas: " + filas + "x" + columnas);
+        }
+        this.eventoId = eventoId;
+        this.filaInicial = filaInicial;
+        this.columnaInicial = columnaInicial;
+        this.filas = filas;
+        this.columnas = columnas;
+        this.estados = new byte[filas * columnas];
+        this.etiquetasFila = new String[filas];
+        Arrays.fill(estados, SIN_ASIENTO);
+    }
+
+    public Long getEventoId() {
+        return eventoId;
+    }
+
+    public int getFilaInicial() {
+        return filaInicial;
+    }
+
+    public int getColumnaInicial() {
+        return columnaInicial;
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+    public int getColumnas() {
+        return columnas;
+    }
+
+    public int getCeldas() {
+        return estados.length;
+    }
+
+    /**
+     * Estado de la celda en la posición {@code indice} (orden por filas).
+     */
+    public byte getEstado(int indice) {
+        return estados[indice];
+    }
+
+    public void setEstado(int indice, byte estado) {
+        if (estado < LIBRE || estado > SIN_ASIENTO) {
+            throw new IllegalArgumentException("Estado de asiento inválido: " + estado);
+        }
+        estados[indice] = estado;
+    }
+
+    /**
+     * Índice de la celda (fila, columna) en coordenadas del mapa, o -1 si queda fuera de la grilla.
+     */
+    public int indice(int fila, int columna) {
+        int f = fila - filaInicial;
+        int c = columna - columnaInicial;
+        if (f < 0 || f >= filas || c < 0 || c >= columnas) {
+            return -1;
+        }
+        return f * columnas + c;
+    }
+
+    public int filaDe(int indice) {
+        return filaInicial + indice / columnas;
+    }
+
+    public int columnaDe(int indice) {
+        return columnaInicial + indice % columnas;
+    }
+
+    /**
+     * Etiqueta de la fila {@code fila} (en coordenadas del mapa), o su número si no tiene.
+     */
+    public String getEtiquetaFila(int fila) {
+        String etiqueta = etiquetasFila[fila - filaInicial];
+        return etiqueta != null ? etiqueta : String.valueOf(fila);
+    }
+
+    /**
+     * Asigna la etiqueta original de la fila {@code fila} (en coordenadas del mapa); {@code null} la nombra con su número.
+     */
+    public void setEtiquetaFila(int fila, String etiqueta) {
+        etiquetasFila[fila - filaInicial] = etiqueta;
+    }
+
+    /**
+     * Etiqueta de la fila de la celda en la posición {@code indice}.
+     */
+    public String etiquetaDe(int indice) {
+        return getEtiquetaFila(filaDe(indice));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Hash FNV-1a de 64 bits de las dimensiones, las etiquetas y los estados: cambia si cambia algún asiento de la grilla.
+     */
+    public long calcularVersion() {
+        long hash = 0xcbf29ce484222325L;
+        hash = mezclar(hash, filaInicial);
+        hash = mezclar(hash, columnaInicial);
+        hash = mezclar(hash, filas);
+        hash = mezclar(hash, columnas);
+        for (byte estado : estados) {
+            hash = (hash ^ estado) * 0x100000001b3L;
+        }
+        for (String etiqueta : etiquetasFila) {
+            hash = mezclar(hash, etiqueta != null ? etiqueta.hashCode() : 0);
+        }
+        return hash;
+    }
+
+    private static long mezclar(long hash, int valor) {
+        for (int i = 0; i < 4; i++) {
+            hash = (hash ^ ((valor >>> (i * 8)) & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Número de fila como lo usan la cátedra y el proxy: A=1, B=2, ...; la fila misma si es numérica; 1 si no se puede convertir.
+     */
+    public static int numeroDeFila(String fila) {
+        if (fila == null || fila.isEmpty()) {
+            return 1;
+        }
+        char primera = Character.toUpperCase(fila.charAt(0));
+        if (primera >= 'A' && primera <= 'Z') {
+            return primera - 'A' + 1;
+        }
+        try {
+            return Integer.parseInt(fila.trim());
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.um.eventos.asientos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link CodecGrillaAsientos}.
+ */
+class CodecGrillaAsientosTest {
+
+    private static final int ENCABEZADO = 36;
+
+    @Test
+    void grillaCasiLibreUsaRleYVuelveIgual() {
+        GrillaAsientos grilla = new GrillaAsientos(7L, 1, 1, 100, 100);
+        for (int i = 0; i < grilla.getCeldas(); i++) {
+            grilla.setEstado(i, GrillaAsientos.LIBRE);
+        }
+        grilla.setEstado(grilla.indice(50, 50), GrillaAsientos.OCUPADO);
+        grilla.setVersion(grilla.calcularVersion());
+
+        byte[] datos = CodecGrillaAsientos.codificar(grilla);
+
+        assertThat(datos[3]).isEqualTo(CodecGrillaAsientos.RLE);
+        assertThat(datos.length).isLessThan(ENCABEZADO + 200);
+        assertIgual(CodecGrillaAsientos.decodificar(datos), grilla);
+    }
+
+    @Test
+    void grillaAlternadaUsaEmpaquetadaYVuelveIgual() {
+        GrillaAsientos grilla = new GrillaAsientos(7L, 1, 1, 10, 10);
+        for (int i = 0; i < grilla.getCeldas(); i++) {
+            grilla.setEstado(i, (byte) (i % 3));
+        }
+
+        byte[] datos = CodecGrillaAsientos.codificar(grilla);
+
+        assertThat(datos[3]).isEqualTo(CodecGrillaAsientos.EMPAQUETADA);
+        // 100 celdas a 2 bits + una etiqueta vacía por fila
+        assertThat(datos.length).isEqualTo(ENCABEZADO + 25 + 10);
+        assertIgual(CodecGrillaAsientos.decodificar(datos), grilla);
+    }
+
+    @Test
+    void celdasQueNoLlenanElUltimoByteVuelvenIguales() {
+        Random random = new Random(42);
+        for (int celdas = 1; celdas <= 9; celdas++) {
+            GrillaAsientos grilla = new GrillaAsientos(1L, 1, 1, 1, celdas);
+            for (int i = 0; i < celdas; i++) {
+                grilla.setEstado(i, (byte) random.nextInt(4));
+            }
+            assertIgual(CodecGrillaAsientos.decodificar(CodecGrillaAsientos.codificar(grilla)), grilla);
+        }
+    }
+
+    @Test
+    void regionConOrigenDesplazadoConservaCoordenadas() {
+        GrillaAsientos region = new GrillaAsientos(null, 12, 30, 3, 4);
+        region.setEstado(region.indice(13, 31), GrillaAsientos.BLOQUEADO);
+        region.setEstado(region.indice(14, 33), GrillaAsientos.LIBRE);
+        region.setVersion(-5L);
+
+        GrillaAsientos decodificada = CodecGrillaAsientos.decodificar(CodecGrillaAsientos.codificar(region));
+
+        assertThat(decodificada.getEventoId()).isNull();
+        assertThat(decodificada.getFilaInicial()).isEqualTo(12);
+        assertThat(decodificada.getColumnaInicial()).isEqualTo(30);
+        assertThat(decodificada.getEstado(decodificada.indice(13, 31))).isEqualTo(GrillaAsientos.BLOQUEADO);
+        assertThat(decodificada.getEstado(decodificada.indice(14, 33))).isEqualTo(GrillaAsientos.LIBRE);
+        assertThat(decodificada.getEstado(decodificada.indice(12, 30))).isEqualTo(GrillaAsientos.SIN_ASIENTO);
+        assertThat(decodificada.indice(11, 30)).isEqualTo(-1);
+        assertIgual(decodificada, region);
+    }
+
+    @Test
+    void etiquetasDeFilaVuelvenIgualesYLasNumericasNoOcupanLugar() {
+        GrillaAsientos grilla = new GrillaAsientos(1L, 1, 1, 3, 2);
+        grilla.setEtiquetaFila(1, "A");
+        grilla.setEtiquetaFila(2, "2");
+
+        GrillaAsientos decodificada = CodecGrillaAsientos.decodificar(CodecGrillaAsientos.codificar(grilla));
+
+        assertThat(decodificada.getEtiquetaFila(1)).isEqualTo("A");
+        assertThat(decodificada.getEtiquetaFila(2)).isEqualTo("2");
+        assertThat(decodificada.getEtiquetaFila(3)).isEqualTo("3");
+        assertThat(decodificada.etiquetaDe(decodificada.indice(1, 2))).isEqualTo("A");
+    }
+
+    @Test
+    void grillaVaciaVuelveIgual() {
+        GrillaAsientos vacia = new GrillaAsientos(3L, 1, 1, 0, 0);
+
+        GrillaAsientos decodificada = CodecGrillaAsientos.decodificar(CodecGrillaAsientos.codificar(vacia));
+
+        assertThat(decodificada.getCeldas()).isZero();
+        assertThat(decodificada.getEventoId()).isEqualTo(3L);
+    }
+
+    @Test
+    void leeElFormatoSinEtiquetas() {
+        GrillaAsientos grilla = new GrillaAsientos(1L, 1, 1, 2, 2);
+        grilla.setEstado(0, GrillaAsientos.LIBRE);
+        byte[] actual = CodecGrillaAsientos.codificar(grilla);
+        // Formato 1: mismo encabezado y cuerpo, sin la sección de etiquetas (una por fila, vacías)
+        byte[] v1 = Arrays.copyOf(actual, actual.length - 2);
+        v1[2] = 1;
+
+        assertIgual(CodecGrillaAsientos.decodificar(v1), grilla);
+    }
+
+    @Test
+    void laVersionCambiaConLosEstadosYLasEtiquetas() {
+        GrillaAsientos grilla = new GrillaAsientos(1L, 1, 1, 2, 2);
+        long inicial = grilla.calcularVersion();
+
+        grilla.setEstado(0, GrillaAsientos.LIBRE);
+        long conEstado = grilla.calcularVersion();
+        grilla.setEtiquetaFila(1, "A");
+
+        assertThat(conEstado).isNotEqualTo(inicial);
+        assertThat(grilla.calcularVersion()).isNotEqualTo(conEstado);
+    }
+
+    @Test
+    void rechazaDatosInvalidos() {
+        GrillaAsientos grilla = new GrillaAsientos(1L, 1, 1, 4, 4);
+        byte[] datos = CodecGrillaAsientos.codificar(grilla);
+
+        byte[] otroFormato = datos.clone();
+        otroFormato[0] = 'X';
+        assertThatThrownBy(() -> CodecGrillaAsientos.decodificar(otroFormato)).isInstanceOf(IllegalArgumentException.class);
+
+        byte[] otraVersion = datos.clone();
+        otraVersion[2] = 9;
+        assertThatThrownBy(() -> CodecGrillaAsientos.decodificar(otraVersion)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThatThrownBy(() -> CodecGrillaAsientos.decodificar(Arrays.copyOf(datos, 20))).isInstanceOf(IllegalArgumentException.class);
+
+        // Un tramo RLE más largo que la grilla
+        byte[] tramoLargo = datos.clone();
+        tramoLargo[3] = CodecGrillaAsientos.RLE;
+        tramoLargo[ENCABEZADO] = (byte) (17 << 2);
+        assertThatThrownBy(() -> CodecGrillaAsientos.decodificar(tramoLargo)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertIgual(GrillaAsientos actual, GrillaAsientos esperada) {
+        assertThat(actual.getEventoId()).isEqualTo(esperada.getEventoId());
+        assertThat(actual.getVersion()).isEqualTo(esperada.getVersion());
+        assertThat(actual.getFilaInicial()).isEqualTo(esperada.getFilaInicial());
+        assertThat(actual.getColumnaInicial()).isEqualTo(esperada.getColumnaInicial());
+        assertThat(actual.getFilas()).isEqualTo(esperada.getFilas());
+        assertThat(actual.getColumnas()).isEqualTo(esperada.getColumnas());
+        for (int i = 0; i < esperada.getCeldas(); i++) {
+            assertThat(actual.getEstado(i)).as("celda %d", i).isEqualTo(esperada.getEstado(i));
+        }
+        for (int f = 0; f < esperada.getFilas(); f++) {
+            int fila = esperada.getFilaInicial() + f;
+            assertThat(actual.getEtiquetaFila(fila)).isEqualTo(esperada.getEtiquetaFila(fila));
+        }
+    }
+}
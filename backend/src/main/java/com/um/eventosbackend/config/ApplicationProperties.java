@@ -1,5 +1,9 @@
 package com.um.eventosbackend.config;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -14,6 +18,11 @@ public class ApplicationProperties {
     private final Liquibase liquibase = new Liquibase();
     private final Catedra catedra = new Catedra();
     private final Proxy proxy = new Proxy();
+    private final Cache cache = new Cache();
+    private final Venta venta = new Venta();
+    private final Warmup warmup = new Warmup();
+    private final Asientos asientos = new Asientos();
+    private final SalaEspera salaEspera = new SalaEspera();
 
     // jhipster-needle-application-properties-property
 
@@ -29,6 +38,26 @@ public class ApplicationProperties {
         return proxy;
     }
 
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Venta getVenta() {
+        return venta;
+    }
+
+    public Warmup getWarmup() {
+        return warmup;
+    }
+
+    public Asientos getAsientos() {
+        return asientos;
+    }
+
+    public SalaEspera getSalaEspera() {
+        return salaEspera;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -98,6 +127,10 @@ public class ApplicationProperties {
 
     public static class Proxy {
         private String baseUrl = "http://localhost:8081";
+        /**
+         * Pedir el mapa de asientos al proxy en la grilla compacta ({@code application/x-seatgrid}) en lugar de JSON.
+         */
+        private Boolean grillaCompacta = true;
 
         public String getBaseUrl() {
             return baseUrl;
@@ -106,6 +139,420 @@ public class ApplicationProperties {
         public void setBaseUrl(String baseUrl) {
             this.baseUrl = baseUrl;
         }
+
+        public Boolean getGrillaCompacta() {
+            return grillaCompacta;
+        }
+
+        public void setGrillaCompacta(Boolean grillaCompacta) {
+            this.grillaCompacta = grillaCompacta;
+        }
+    }
+
+    /**
+     * Políticas de las regiones de cache (Ehcache). La clave es el nombre corto de la región:
+     * la entidad ({@code Evento}), la colección ({@code Evento.integrantes}) o el nombre de la cache
+     * ({@code eventoDetalle}). Las regiones sin política usan {@code jhipster.cache.ehcache}.
+     */
+    public static class Cache {
+
+        private Map<String, Region> regions = new LinkedHashMap<>();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(Map<String, Region> regions) {
+            this.regions = regions;
+        }
+
+        public static class Region {
+
+            private Long heapEntries;
+            /**
+             * Tamaño del tier off-heap en MB; {@code 0} o vacío para usar solo heap.
+             */
+            private Long offheapMb;
+            private Long ttlSeconds;
+            /**
+             * Tiempo sin accesos tras el cual expira la entrada; cada lectura la renueva.
+             */
+            private Long ttiSeconds;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public Long getOffheapMb() {
+                return offheapMb;
+            }
+
+            public void setOffheapMb(Long offheapMb) {
+                this.offheapMb = offheapMb;
+            }
+
+            public Long getTtlSeconds() {
+                return ttlSeconds;
+            }
+
+            public void setTtlSeconds(Long ttlSeconds) {
+                this.ttlSeconds = ttlSeconds;
+            }
+
+            public Long getTtiSeconds() {
+                return ttiSeconds;
+            }
+
+            public void setTtiSeconds(Long ttiSeconds) {
+                this.ttiSeconds = ttiSeconds;
+            }
+        }
+    }
+
+    /**
+     * Confirmación de ventas con la cátedra (outbox y workers).
+     */
+    public static class Venta {
+
+        /**
+         * Workers que despachan confirmaciones fuera de la transacción.
+         */
+        private Integer confirmacionWorkers = 8;
+        /**
+         * Confirmaciones en espera antes de rechazar; las rechazadas las recupera el barrido del outbox.
+         */
+        private Integer confirmacionCola = 500;
+        /**
+         * Tiempo máximo que el POST espera el resultado antes de responder 202 para que el cliente consulte.
+         */
+        private Long esperaResultadoMs = 3000L;
+        /**
+         * Workers que confirman en paralelo las ventas reclamadas por el motor de reintentos.
+         */
+        private Integer reintentoWorkers = 4;
+        /**
+         * Ventas reclamadas por ronda de reintentos.
+         */
+        private Integer reintentoLote = 50;
+        /**
+         * Espera base del backoff exponencial entre reintentos.
+         */
+        private Long reintentoBackoffBaseSegundos = 30L;
+        /**
+         * Tope de espera entre reintentos.
+         */
+        private Long reintentoBackoffMaxSegundos = 1800L;
+        /**
+         * Tiempo que se conserva una clave de idempotencia de {@code POST /api/ventas}.
+         */
+        private Long idempotenciaTtlHoras = 24L;
+        /**
+         * Tiempo que una repetición espera a que termine la request original con la misma clave antes de
+         * responder {@code 409}.
+         */
+        private Long idempotenciaEsperaEnCursoMs = 1000L;
+        /**
+         * Meses futuros con partición ya creada en {@code venta} y {@code asiento_venta} (solo PostgreSQL).
+         */
+        private Integer particionesMesesAdelante = 3;
+        /**
+         * Antigüedad en meses a partir de la cual las particiones se mueven a las tablas de archivo.
+         */
+        private Integer archivoHorizonteMeses = 12;
+
+        public Integer getConfirmacionWorkers() {
+            return confirmacionWorkers;
+        }
+
+        public void setConfirmacionWorkers(Integer confirmacionWorkers) {
+            this.confirmacionWorkers = confirmacionWorkers;
+        }
+
+        public Integer getConfirmacionCola() {
+            return confirmacionCola;
+        }
+
+        public void setConfirmacionCola(Integer confirmacionCola) {
+            this.confirmacionCola = confirmacionCola;
+        }
+
+        public Long getEsperaResultadoMs() {
+            return esperaResultadoMs;
+        }
+
+        public void setEsperaResultadoMs(Long esperaResultadoMs) {
+            this.esperaResultadoMs = esperaResultadoMs;
+        }
+
+        public Integer getReintentoWorkers() {
+            return reintentoWorkers;
+        }
+
+        public void setReintentoWorkers(Integer reintentoWorkers) {
+            this.reintentoWorkers = reintentoWorkers;
+        }
+
+        public Integer getReintentoLote() {
+            return reintentoLote;
+        }
+
+        public void setReintentoLote(Integer reintentoLote) {
+            this.reintentoLote = reintentoLote;
+        }
+
+        public Long getReintentoBackoffBaseSegundos() {
+            return reintentoBackoffBaseSegundos;
+        }
+
+        public void setReintentoBackoffBaseSegundos(Long reintentoBackoffBaseSegundos) {
+            this.reintentoBackoffBaseSegundos = reintentoBackoffBaseSegundos;
+        }
+
+        public Long getReintentoBackoffMaxSegundos() {
+            return reintentoBackoffMaxSegundos;
+        }
+
+        public void setReintentoBackoffMaxSegundos(Long reintentoBackoffMaxSegundos) {
+            this.reintentoBackoffMaxSegundos = reintentoBackoffMaxSegundos;
+        }
+
+        public Long getIdempotenciaTtlHoras() {
+            return idempotenciaTtlHoras;
+        }
+
+        public void setIdempotenciaTtlHoras(Long idempotenciaTtlHoras) {
+            this.idempotenciaTtlHoras = idempotenciaTtlHoras;
+        }
+
+        public Long getIdempotenciaEsperaEnCursoMs() {
+            return idempotenciaEsperaEnCursoMs;
+        }
+
+        public void setIdempotenciaEsperaEnCursoMs(Long idempotenciaEsperaEnCursoMs) {
+            this.idempotenciaEsperaEnCursoMs = idempotenciaEsperaEnCursoMs;
+        }
+
+        public Integer getParticionesMesesAdelante() {
+            return particionesMesesAdelante;
+        }
+
+        public void setParticionesMesesAdelante(Integer particionesMesesAdelante) {
+            this.particionesMesesAdelante = particionesMesesAdelante;
+        }
+
+        public Integer getArchivoHorizonteMeses() {
+            return archivoHorizonteMeses;
+        }
+
+        public void setArchivoHorizonteMeses(Integer archivoHorizonteMeses) {
+            this.archivoHorizonteMeses = archivoHorizonteMeses;
+        }
+    }
+
+    /**
+     * Warm-up de Redis al iniciar: bloquea un asiento por evento activo cuya clave {@code evento_{id}} no exista.
+     */
+    public static class Warmup {
+
+        /**
+         * Eventos procesados en paralelo.
+         */
+        private Integer concurrencia = 4;
+        /**
+         * Tiempo total del warm-up (incluida la espera a que el proxy responda).
+         */
+        private Long presupuestoSegundos = 60L;
+        /**
+         * Bloqueos intentados como máximo por evento.
+         */
+        private Integer intentosPorEvento = 3;
+
+        public Integer getConcurrencia() {
+            return concurrencia;
+        }
+
+        public void setConcurrencia(Integer concurrencia) {
+            this.concurrencia = concurrencia;
+        }
+
+        public Long getPresupuestoSegundos() {
+            return presupuestoSegundos;
+        }
+
+        public void setPresupuestoSegundos(Long presupuestoSegundos) {
+            this.presupuestoSegundos = presupuestoSegundos;
+        }
+
+        public Integer getIntentosPorEvento() {
+            return intentosPorEvento;
+        }
+
+        public void setIntentosPorEvento(Integer intentosPorEvento) {
+            this.intentosPorEvento = intentosPorEvento;
+        }
+    }
+
+    /**
+     * Mapa de asientos: snapshot compartido, prefetch al abrir el detalle de un evento y validación previa de bloqueos.
+     */
+    public static class Asientos {
+
+        /**
+         * Tiempo durante el cual un mapa obtenido por prefetch se considera fresco.
+         */
+        private Long prefetchTtlMs = 3000L;
+        /**
+         * Hilos del prefetch.
+         */
+        private Integer prefetchWorkers = 4;
+        /**
+         * Prefetches encolados como máximo; si la cola está llena el prefetch se descarta.
+         */
+        private Integer prefetchCola = 200;
+        /**
+         * Tiempo máximo que una consulta espera la carga del mapa que ya hizo otra; al vencer se responde con el
+         * último snapshot aunque esté vencido, o con un mapa vacío, sin volver a llamar al proxy.
+         */
+        private Long esperaCargaMs = 10000L;
+        /**
+         * Validación previa de los bloqueos contra el snapshot fresco del mapa: {@code estricta} rechaza
+         * localmente los asientos vendidos (los bloqueados pueden ser del mismo usuario y se envían igual),
+         * {@code advertencia} solo los registra y {@code desactivada} no valida.
+         */
+        private ModoPrevalidacion prevalidacion = ModoPrevalidacion.ESTRICTA;
+        /**
+         * Publicar en {@code /topic/asientos/{eventoId}} los asientos cuyos bloqueos vencieron (aviso del proxy).
+         */
+        private Boolean pushVencimientos = true;
+
+        public Long getPrefetchTtlMs() {
+            return prefetchTtlMs;
+        }
+
+        public void setPrefetchTtlMs(Long prefetchTtlMs) {
+            this.prefetchTtlMs = prefetchTtlMs;
+        }
+
+        public Integer getPrefetchWorkers() {
+            return prefetchWorkers;
+        }
+
+        public void setPrefetchWorkers(Integer prefetchWorkers) {
+            this.prefetchWorkers = prefetchWorkers;
+        }
+
+        public Integer getPrefetchCola() {
+            return prefetchCola;
+        }
+
+        public void setPrefetchCola(Integer prefetchCola) {
+            this.prefetchCola = prefetchCola;
+        }
+
+        public Long getEsperaCargaMs() {
+            return esperaCargaMs;
+        }
+
+        public void setEsperaCargaMs(Long esperaCargaMs) {
+            this.esperaCargaMs = esperaCargaMs;
+        }
+
+        public ModoPrevalidacion getPrevalidacion() {
+            return prevalidacion;
+        }
+
+        public void setPrevalidacion(ModoPrevalidacion prevalidacion) {
+            this.prevalidacion = prevalidacion;
+        }
+
+        public Boolean getPushVencimientos() {
+            return pushVencimientos;
+        }
+
+        public void setPushVencimientos(Boolean pushVencimientos) {
+            this.pushVencimientos = pushVencimientos;
+        }
+
+        public enum ModoPrevalidacion {
+            ESTRICTA,
+            ADVERTENCIA,
+            DESACTIVADA,
+        }
+    }
+
+    /**
+     * Sala de espera virtual para eventos de alta demanda.
+     */
+    public static class SalaEspera {
+
+        /**
+         * Eventos con sala de espera siempre activa, en todos los nodos. Las demás salas se activan y desactivan en
+         * caliente desde {@code /api/admin/sala-espera} y se guardan en la base para que las vean todos. Con la sala
+         * activa el mapa, el bloqueo y la venta del evento exigen el header {@code X-Admision-Token}: los clientes
+         * tienen que pasar por la sala (la app móvil lo hace) o quedan rechazados.
+         */
+        private List<Long> eventos = new ArrayList<>();
+        /**
+         * Usuarios admitidos por segundo en cada evento, sumando todos los nodos.
+         */
+        private Integer admisionesPorSegundo = 20;
+        /**
+         * Nodos del backend detrás del balanceador. Cada nodo tiene su propia cola y admite
+         * {@code admisionesPorSegundo / nodos} (redondeado hacia arriba) por segundo.
+         */
+        private Integer nodos = 1;
+        /**
+         * Validez del token de admisión.
+         */
+        private Long tokenTtlSegundos = 600L;
+        /**
+         * Un usuario en espera que no consulta su estado durante este tiempo pierde su lugar.
+         */
+        private Long inactividadSegundos = 60L;
+
+        public List<Long> getEventos() {
+            return eventos;
+        }
+
+        public void setEventos(List<Long> eventos) {
+            this.eventos = eventos;
+        }
+
+        public Integer getAdmisionesPorSegundo() {
+            return admisionesPorSegundo;
+        }
+
+        public void setAdmisionesPorSegundo(Integer admisionesPorSegundo) {
+            this.admisionesPorSegundo = admisionesPorSegundo;
+        }
+
+        public Integer getNodos() {
+            return nodos;
+        }
+
+        public void setNodos(Integer nodos) {
+            this.nodos = nodos;
+        }
+
+        public Long getTokenTtlSegundos() {
+            return tokenTtlSegundos;
+        }
+
+        public void setTokenTtlSegundos(Long tokenTtlSegundos) {
+            this.tokenTtlSegundos = tokenTtlSegundos;
+        }
+
+        public Long getInactividadSegundos() {
+            return inactividadSegundos;
+        }
+
+        public void setInactividadSegundos(Long inactividadSegundos) {
+            this.inactividadSegundos = inactividadSegundos;
+        }
     }
     // jhipster-needle-application-properties-property-class
 }
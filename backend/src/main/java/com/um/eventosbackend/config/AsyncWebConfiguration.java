@@ -0,0 +1,53 @@
+package com.um.eventosbackend.config;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Timeouts de los requests asíncronos de Spring MVC.
+ * <p>
+ * Todos usan el default del contenedor (30 s en Tomcat), salvo la exportación de ventas: se escribe en streaming
+ * ({@code StreamingResponseBody}) y puede tardar minutos, así que solo ese endpoint tiene un límite propio.
+ */
+@Configuration
+public class AsyncWebConfiguration implements WebMvcConfigurer {
+
+    public static final String RUTA_EXPORTACION_VENTAS = "/api/admin/ventas/exportar";
+    public static final Duration TIMEOUT_EXPORTACION_VENTAS = Duration.ofMinutes(30);
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new TimeoutPorRuta(RUTA_EXPORTACION_VENTAS, TIMEOUT_EXPORTACION_VENTAS));
+    }
+
+    /**
+     * Cambia el timeout del request asíncrono cuando el handler corresponde a la ruta indicada. Corre antes de
+     * iniciar el procesamiento asíncrono, que es cuando el timeout todavía se puede modificar.
+     */
+    public static class TimeoutPorRuta implements CallableProcessingInterceptor {
+
+        private final String ruta;
+        private final Duration timeout;
+
+        public TimeoutPorRuta(String ruta, Duration timeout) {
+            this.ruta = ruta;
+            this.timeout = timeout;
+        }
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (request instanceof AsyncWebRequest asyncWebRequest && ruta.equals(patron)) {
+                asyncWebRequest.setTimeout(timeout.toMillis());
+            }
+        }
+    }
+}
@@ -1,10 +1,21 @@
 package com.um.eventosbackend.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.reflect.Field;
 import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
 import org.ehcache.jsr107.Eh107Configuration;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
@@ -12,6 +23,8 @@ import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.*;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.cache.PrefixedKeyGenerator;
 
@@ -19,22 +32,18 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 @EnableCaching
 public class CacheConfiguration {
 
+    private static final Logger LOG = LoggerFactory.getLogger(CacheConfiguration.class);
+
+    private static final String DOMAIN_PACKAGE = "com.um.eventosbackend.domain";
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
-
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
-
-        jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
-            CacheConfigurationBuilder.newCacheConfigurationBuilder(
-                Object.class,
-                Object.class,
-                ResourcePoolsBuilder.heap(ehcache.getMaxEntries())
-            )
-                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                .build()
-        );
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final Map<String, ApplicationProperties.Cache.Region> regions;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.regions = applicationProperties.getCache().getRegions();
     }
 
     @Bean
@@ -47,20 +56,92 @@ public class CacheConfiguration {
         return cm -> {
             createCache(cm, com.um.eventosbackend.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, com.um.eventosbackend.repository.UserRepository.USERS_BY_EMAIL_CACHE);
-            createCache(cm, com.um.eventosbackend.domain.User.class.getName());
-            createCache(cm, com.um.eventosbackend.domain.Authority.class.getName());
-            createCache(cm, com.um.eventosbackend.domain.User.class.getName() + ".authorities");
+            createCache(cm, com.um.eventosbackend.service.EventoQueryService.EVENTO_DETALLE_CACHE);
+            // Regiones de segundo nivel: todas las entidades y colecciones anotadas con @Cache
+            hibernateRegions().forEach(region -> createCache(cm, region));
             // jhipster-needle-ehcache-add-entry
         };
     }
 
+    @Bean
+    public CacheRegionMetrics cacheRegionMetrics(
+        javax.cache.CacheManager jcacheManager,
+        org.springframework.cache.CacheManager cacheManager,
+        CacheMetricsRegistrar cacheMetricsRegistrar,
+        MeterRegistry meterRegistry
+    ) {
+        return new CacheRegionMetrics(jcacheManager, cacheManager, cacheMetricsRegistrar, meterRegistry);
+    }
+
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, jcacheConfiguration(cacheName));
+        }
+        // Necesario para que las estadísticas JSR-107 (hits, misses, evictions) se publiquen por JMX
+        cm.enableStatistics(cacheName, true);
+    }
+
+    /**
+     * Arma la configuración de la región a partir de {@code application.cache.regions}, usando
+     * {@code jhipster.cache.ehcache} para lo que no esté definido. Si hay TTI, tiene prioridad sobre el TTL.
+     */
+    private javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Region region = regions.get(nombreCorto(cacheName));
+        if (region == null) {
+            region = regions.get(cacheName);
+        }
+
+        long heapEntries = region != null && region.getHeapEntries() != null ? region.getHeapEntries() : ehcache.getMaxEntries();
+        ResourcePoolsBuilder pools = ResourcePoolsBuilder.heap(heapEntries);
+        if (region != null && region.getOffheapMb() != null && region.getOffheapMb() > 0) {
+            pools = pools.offheap(region.getOffheapMb(), MemoryUnit.MB);
+        }
+
+        ExpiryPolicy<Object, Object> expiry;
+        if (region != null && region.getTtiSeconds() != null && region.getTtiSeconds() > 0) {
+            expiry = ExpiryPolicyBuilder.timeToIdleExpiration(Duration.ofSeconds(region.getTtiSeconds()));
+        } else {
+            long ttl = region != null && region.getTtlSeconds() != null ? region.getTtlSeconds() : ehcache.getTimeToLiveSeconds();
+            expiry = ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttl));
+        }
+
+        LOG.debug("Región de cache {}: heap={} entradas, offheap={} MB", cacheName, heapEntries, region != null ? region.getOffheapMb() : null);
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, pools).withExpiry(expiry).build()
+        );
+    }
+
+    /**
+     * Busca en el paquete de dominio las entidades y colecciones con {@code @Cache} y devuelve
+     * los nombres de región que usa Hibernate (nombre de la clase o {@code clase.coleccion}).
+     */
+    private static Set<String> hibernateRegions() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(org.hibernate.annotations.Cache.class));
+
+        Set<String> nombres = new LinkedHashSet<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(DOMAIN_PACKAGE)) {
+            Class<?> entidad = ClassUtils.resolveClassName(candidate.getBeanClassName(), CacheConfiguration.class.getClassLoader());
+            org.hibernate.annotations.Cache cache = entidad.getAnnotation(org.hibernate.annotations.Cache.class);
+            nombres.add(cache.region().isEmpty() ? entidad.getName() : cache.region());
+
+            for (Class<?> clase = entidad; clase != null && clase != Object.class; clase = clase.getSuperclass()) {
+                for (Field field : clase.getDeclaredFields()) {
+                    org.hibernate.annotations.Cache coleccion = field.getAnnotation(org.hibernate.annotations.Cache.class);
+                    if (coleccion != null) {
+                        nombres.add(coleccion.region().isEmpty() ? entidad.getName() + "." + field.getName() : coleccion.region());
+                    }
+                }
+            }
         }
+        return nombres;
+    }
+
+    private static String nombreCorto(String cacheName) {
+        return cacheName.startsWith(DOMAIN_PACKAGE + ".") ? cacheName.substring(DOMAIN_PACKAGE.length() + 1) : cacheName;
     }
 
     @Autowired(required = false)
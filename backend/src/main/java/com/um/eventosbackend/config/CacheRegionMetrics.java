@@ -0,0 +1,70 @@
+package com.um.eventosbackend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import java.util.Map;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.statistics.TierStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Publica en Micrometer las métricas de cada región de cache. Sirve para dimensionar
+ * {@code application.cache.regions} con datos.
+ * <p>
+ * Hits, misses y evictions los registra {@code JCacheMetrics} de Spring Boot a través del
+ * {@link CacheMetricsRegistrar} ({@code cache.gets{result}}, {@code cache.evictions}, con el tag {@code cache}).
+ * {@code JCacheMetrics} no informa el tamaño, así que se agrega {@code cache.region.size}: los mappings del tier
+ * autoritativo (off-heap si la región lo tiene, si no heap) según el {@link StatisticsService} de Ehcache, sin
+ * recorrer las entradas.
+ */
+public class CacheRegionMetrics {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheRegionMetrics.class);
+
+    // Mismo tag que pone Spring Boot al registrar las caches del bean cacheManager, así volver a registrar
+    // una región devuelve los medidores existentes en lugar de crear otra serie
+    private static final Tag CACHE_MANAGER = Tag.of("cacheManager", "cacheManager");
+    private static final String TIER_OFFHEAP = "OffHeap";
+    private static final String TIER_HEAP = "OnHeap";
+
+    public CacheRegionMetrics(
+        javax.cache.CacheManager jcacheManager,
+        CacheManager cacheManager,
+        CacheMetricsRegistrar cacheMetricsRegistrar,
+        MeterRegistry registry
+    ) {
+        StatisticsService estadisticas = EstadisticasEhcache.de(jcacheManager).orElse(null);
+        if (estadisticas == null) {
+            LOG.debug("Ehcache no registró el servicio de estadísticas, no se publica cache.region.size");
+        }
+        for (String nombre : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(nombre);
+            if (cache != null) {
+                cacheMetricsRegistrar.bindCacheToRegistry(cache, CACHE_MANAGER);
+            }
+            TierStatistics tier = estadisticas != null ? tierAutoritativo(estadisticas, nombre) : null;
+            if (tier != null) {
+                Gauge.builder("cache.region.size", tier, TierStatistics::getMappings)
+                    .tag("cache", nombre)
+                    .tag(CACHE_MANAGER.getKey(), CACHE_MANAGER.getValue())
+                    .description("Entradas presentes en la región de cache")
+                    .register(registry);
+            }
+        }
+    }
+
+    private static TierStatistics tierAutoritativo(StatisticsService estadisticas, String nombre) {
+        try {
+            Map<String, TierStatistics> tiers = estadisticas.getCacheStatistics(nombre).getTierStatistics();
+            return tiers.containsKey(TIER_OFFHEAP) ? tiers.get(TIER_OFFHEAP) : tiers.get(TIER_HEAP);
+        } catch (IllegalArgumentException e) {
+            LOG.debug("La región {} no tiene estadísticas en Ehcache", nombre, e);
+            return null;
+        }
+    }
+}
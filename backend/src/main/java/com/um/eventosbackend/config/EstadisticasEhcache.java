@@ -0,0 +1,65 @@
+package com.um.eventosbackend.config;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.ehcache.core.spi.service.CacheManagerProviderService;
+import org.ehcache.core.spi.service.ServiceFactory;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.spi.service.Service;
+import org.ehcache.spi.service.ServiceCreationConfiguration;
+import org.ehcache.spi.service.ServiceDependencies;
+import org.ehcache.spi.service.ServiceProvider;
+
+/**
+ * Servicio de Ehcache que deja accesible el {@link StatisticsService} de cada CacheManager.
+ * <p>
+ * El proveedor JSR-107 no expone su {@code StatisticsService}; este servicio se registra en cada CacheManager
+ * (vía {@link Factory} y {@code META-INF/services}), recibe el {@code StatisticsService} como dependencia y lo
+ * publica asociado a su CacheManager mientras esté iniciado.
+ */
+@ServiceDependencies({ StatisticsService.class, CacheManagerProviderService.class })
+public final class EstadisticasEhcache implements Service {
+
+    private static final Map<org.ehcache.CacheManager, StatisticsService> POR_CACHE_MANAGER = new ConcurrentHashMap<>();
+
+    private org.ehcache.CacheManager cacheManager;
+
+    @Override
+    public void start(ServiceProvider<Service> serviceProvider) {
+        cacheManager = serviceProvider.getService(CacheManagerProviderService.class).getCacheManager();
+        POR_CACHE_MANAGER.put(cacheManager, serviceProvider.getService(StatisticsService.class));
+    }
+
+    @Override
+    public void stop() {
+        POR_CACHE_MANAGER.remove(cacheManager);
+    }
+
+    /**
+     * Estadísticas del CacheManager de Ehcache detrás de un {@link javax.cache.CacheManager}, si el servicio
+     * quedó registrado en él.
+     */
+    public static Optional<StatisticsService> de(javax.cache.CacheManager cacheManager) {
+        return Optional.ofNullable(POR_CACHE_MANAGER.get(cacheManager.unwrap(org.ehcache.CacheManager.class)));
+    }
+
+    public static class Factory implements ServiceFactory<EstadisticasEhcache> {
+
+        // Obligatorio: Ehcache lo crea en cada CacheManager aunque ningún otro servicio dependa de él
+        @Override
+        public boolean isMandatory() {
+            return true;
+        }
+
+        @Override
+        public EstadisticasEhcache create(ServiceCreationConfiguration<EstadisticasEhcache, ?> configuration) {
+            return new EstadisticasEhcache();
+        }
+
+        @Override
+        public Class<EstadisticasEhcache> getServiceType() {
+            return EstadisticasEhcache.class;
+        }
+    }
+}
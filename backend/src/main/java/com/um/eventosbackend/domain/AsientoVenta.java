@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Objects;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
@@ -32,6 +33,13 @@ public class AsientoVenta implements Serializable {
     @JsonIgnoreProperties(value = { "asientos" }, allowSetters = true)
     private Venta venta;
 
+    /**
+     * Fecha de la venta, copiada de {@link Venta}: es la clave de partición de {@code asiento_venta}
+     */
+    @NotNull
+    @Column(name = "fecha_venta", nullable = false, updatable = false)
+    private Instant fechaVenta;
+
     /**
      * Fila del asiento
      */
@@ -74,6 +82,21 @@ public class AsientoVenta implements Serializable {
         this.venta = venta;
     }
 
+    public Instant getFechaVenta() {
+        return fechaVenta;
+    }
+
+    public void setFechaVenta(Instant fechaVenta) {
+        this.fechaVenta = fechaVenta;
+    }
+
+    @PrePersist
+    void copiarFechaVenta() {
+        if (fechaVenta == null && venta != null) {
+            fechaVenta = venta.getFechaVenta();
+        }
+    }
+
     public String getFila() {
         return fila;
     }
@@ -0,0 +1,183 @@
+package com.um.eventosbackend.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Registro de una clave de idempotencia ({@code Idempotency-Key}) de {@code POST /api/ventas}.
+ * <p>
+ * Guarda el hash del request y, una vez terminado, el status y la respuesta para reproducirla ante reintentos del cliente.
+ */
+@Entity
+@Table(name = "idempotencia_venta")
+public class IdempotenciaVenta implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotencia_venta_seq")
+    @SequenceGenerator(name = "idempotencia_venta_seq", sequenceName = "idempotencia_venta_seq", allocationSize = 1)
+    private Long id;
+
+    @NotNull
+    @Column(name = "clave", length = 100, nullable = false)
+    private String clave;
+
+    @NotNull
+    @Column(name = "user_login", length = 50, nullable = false)
+    private String userLogin;
+
+    /**
+     * SHA-256 del cuerpo del request, para detectar la misma clave usada con otro request
+     */
+    @NotNull
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    /**
+     * Estado: EN_CURSO, COMPLETADA
+     */
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoIdempotencia estado;
+
+    @Column(name = "http_status")
+    private Integer httpStatus;
+
+    /**
+     * Venta registrada con esta clave; se escribe en la misma transacción que la venta
+     */
+    @Column(name = "venta_id")
+    private Long ventaId;
+
+    /**
+     * Respuesta serializada en JSON
+     */
+    @Column(name = "respuesta", columnDefinition = "text")
+    private String respuesta;
+
+    @NotNull
+    @Column(name = "fecha_creacion", nullable = false)
+    private Instant fechaCreacion;
+
+    @NotNull
+    @Column(name = "fecha_expiracion", nullable = false)
+    private Instant fechaExpiracion;
+
+    public enum EstadoIdempotencia {
+        EN_CURSO,
+        COMPLETADA
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public void setClave(String clave) {
+        this.clave = clave;
+    }
+
+    public String getUserLogin() {
+        return userLogin;
+    }
+
+    public void setUserLogin(String userLogin) {
+        this.userLogin = userLogin;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public EstadoIdempotencia getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoIdempotencia estado) {
+        this.estado = estado;
+    }
+
+    public Integer getHttpStatus() {
+        return httpStatus;
+    }
+
+    public void setHttpStatus(Integer httpStatus) {
+        this.httpStatus = httpStatus;
+    }
+
+    public Long getVentaId() {
+        return ventaId;
+    }
+
+    public void setVentaId(Long ventaId) {
+        this.ventaId = ventaId;
+    }
+
+    public String getRespuesta() {
+        return respuesta;
+    }
+
+    public void setRespuesta(String respuesta) {
+        this.respuesta = respuesta;
+    }
+
+    public Instant getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(Instant fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public Instant getFechaExpiracion() {
+        return fechaExpiracion;
+    }
+
+    public void setFechaExpiracion(Instant fechaExpiracion) {
+        this.fechaExpiracion = fechaExpiracion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IdempotenciaVenta)) {
+            return false;
+        }
+        return id != null && id.equals(((IdempotenciaVenta) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "IdempotenciaVenta{" +
+            "id=" + id +
+            ", clave='" + clave + "'" +
+            ", userLogin='" + userLogin + "'" +
+            ", estado=" + estado +
+            ", httpStatus=" + httpStatus +
+            ", ventaId=" + ventaId +
+            '}';
+    }
+}
@@ -0,0 +1,76 @@
+package com.um.eventosbackend.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Evento con la sala de espera activada por un administrador. Es la fuente compartida por todos los nodos del
+ * backend; ver {@code SalaEsperaService}.
+ */
+@Entity
+@Table(name = "sala_espera_activa")
+public class SalaEsperaActiva implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * ID del evento, el mismo que usan la sala de espera y el token de admisión
+     */
+    @Id
+    @Column(name = "evento_id")
+    private Long eventoId;
+
+    @NotNull
+    @Column(name = "fecha_activacion", nullable = false)
+    private Instant fechaActivacion;
+
+    public SalaEsperaActiva() {}
+
+    public SalaEsperaActiva(Long eventoId, Instant fechaActivacion) {
+        this.eventoId = eventoId;
+        this.fechaActivacion = fechaActivacion;
+    }
+
+    public Long getEventoId() {
+        return eventoId;
+    }
+
+    public void setEventoId(Long eventoId) {
+        this.eventoId = eventoId;
+    }
+
+    public Instant getFechaActivacion() {
+        return fechaActivacion;
+    }
+
+    public void setFechaActivacion(Instant fechaActivacion) {
+        this.fechaActivacion = fechaActivacion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SalaEsperaActiva)) {
+            return false;
+        }
+        return eventoId != null && eventoId.equals(((SalaEsperaActiva) o).eventoId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(eventoId);
+    }
+
+    @Override
+    public String toString() {
+        return "SalaEsperaActiva{" +
+            "eventoId=" + eventoId +
+            ", fechaActivacion=" + fechaActivacion +
+            '}';
+    }
+}
@@ -53,7 +53,7 @@ public class Venta extends AbstractAuditingEntity<Long> implements Serializable
      * Fecha de la venta
      */
     @NotNull
-    @Column(name = "fecha_venta", nullable = false)
+    @Column(name = "fecha_venta", nullable = false, updatable = false)
     private Instant fechaVenta;
 
     /**
@@ -88,6 +88,12 @@ public class Venta extends AbstractAuditingEntity<Long> implements Serializable
     @Column(name = "ultimo_intento_reintento")
     private Instant ultimoIntentoReintento;
 
+    /**
+     * Fecha a partir de la cual se puede volver a intentar la confirmación (backoff exponencial)
+     */
+    @Column(name = "next_attempt_at")
+    private Instant proximoIntento;
+
     /**
      * Asientos asociados a esta venta
      */
@@ -182,6 +188,14 @@ public class Venta extends AbstractAuditingEntity<Long> implements Serializable
         this.ultimoIntentoReintento = ultimoIntentoReintento;
     }
 
+    public Instant getProximoIntento() {
+        return proximoIntento;
+    }
+
+    public void setProximoIntento(Instant proximoIntento) {
+        this.proximoIntento = proximoIntento;
+    }
+
     public Set<AsientoVenta> getAsientos() {
         return asientos;
     }
@@ -0,0 +1,135 @@
+package com.um.eventosbackend.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Totales de ventas por evento y resultado, mantenidos en la misma transacción que cada cambio de estado de
+ * {@link Venta}. Ver {@code VentaAgregadoService}.
+ */
+@Entity
+@Table(name = "venta_agregado")
+public class VentaAgregado implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "venta_agregado_seq")
+    @SequenceGenerator(name = "venta_agregado_seq", sequenceName = "venta_agregado_seq", allocationSize = 1)
+    private Long id;
+
+    /**
+     * ID interno del evento
+     */
+    @NotNull
+    @Column(name = "evento_id", nullable = false)
+    private Long eventoId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resultado", nullable = false, length = 20)
+    private Venta.ResultadoVenta resultado;
+
+    @NotNull
+    @Column(name = "cantidad_ventas", nullable = false)
+    private Long cantidadVentas;
+
+    @NotNull
+    @Column(name = "cantidad_asientos", nullable = false)
+    private Long cantidadAsientos;
+
+    @NotNull
+    @Column(name = "recaudacion", precision = 21, scale = 2, nullable = false)
+    private BigDecimal recaudacion;
+
+    @NotNull
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private Instant fechaActualizacion;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getEventoId() {
+        return eventoId;
+    }
+
+    public void setEventoId(Long eventoId) {
+        this.eventoId = eventoId;
+    }
+
+    public Venta.ResultadoVenta getResultado() {
+        return resultado;
+    }
+
+    public void setResultado(Venta.ResultadoVenta resultado) {
+        this.resultado = resultado;
+    }
+
+    public Long getCantidadVentas() {
+        return cantidadVentas;
+    }
+
+    public void setCantidadVentas(Long cantidadVentas) {
+        this.cantidadVentas = cantidadVentas;
+    }
+
+    public Long getCantidadAsientos() {
+        return cantidadAsientos;
+    }
+
+    public void setCantidadAsientos(Long cantidadAsientos) {
+        this.cantidadAsientos = cantidadAsientos;
+    }
+
+    public BigDecimal getRecaudacion() {
+        return recaudacion;
+    }
+
+    public void setRecaudacion(BigDecimal recaudacion) {
+        this.recaudacion = recaudacion;
+    }
+
+    public Instant getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+
+    public void setFechaActualizacion(Instant fechaActualizacion) {
+        this.fechaActualizacion = fechaActualizacion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof VentaAgregado)) {
+            return false;
+        }
+        return id != null && id.equals(((VentaAgregado) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "VentaAgregado{" +
+            "eventoId=" + eventoId +
+            ", resultado=" + resultado +
+            ", cantidadVentas=" + cantidadVentas +
+            ", cantidadAsientos=" + cantidadAsientos +
+            ", recaudacion=" + recaudacion +
+            '}';
+    }
+}
@@ -0,0 +1,148 @@
+package com.um.eventosbackend.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Fila del outbox de confirmación de ventas.
+ * <p>
+ * Se guarda en la misma transacción que la {@link Venta} PENDIENTE; un worker la despacha después del
+ * commit, fuera de cualquier transacción, llamando a la cátedra a través del proxy.
+ */
+@Entity
+@Table(name = "venta_outbox")
+public class VentaOutbox implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "venta_outbox_seq")
+    @SequenceGenerator(name = "venta_outbox_seq", sequenceName = "venta_outbox_seq", allocationSize = 1)
+    private Long id;
+
+    /**
+     * ID de la venta a confirmar
+     */
+    @NotNull
+    @Column(name = "venta_id", nullable = false)
+    private Long ventaId;
+
+    /**
+     * Request de confirmación serializado en JSON (eventoIdCatedra y asientos)
+     */
+    @NotNull
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    private String payload;
+
+    /**
+     * Estado del despacho: PENDIENTE, PROCESANDO, PROCESADO
+     */
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoOutbox estado;
+
+    @NotNull
+    @Column(name = "fecha_creacion", nullable = false)
+    private Instant fechaCreacion;
+
+    /**
+     * Momento en que un worker tomó la fila (para recuperar filas de un worker caído)
+     */
+    @Column(name = "fecha_reclamo")
+    private Instant fechaReclamo;
+
+    @Column(name = "fecha_procesado")
+    private Instant fechaProcesado;
+
+    public enum EstadoOutbox {
+        PENDIENTE,
+        PROCESANDO,
+        PROCESADO
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVentaId() {
+        return ventaId;
+    }
+
+    public void setVentaId(Long ventaId) {
+        this.ventaId = ventaId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public EstadoOutbox getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoOutbox estado) {
+        this.estado = estado;
+    }
+
+    public Instant getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(Instant fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public Instant getFechaReclamo() {
+        return fechaReclamo;
+    }
+
+    public void setFechaReclamo(Instant fechaReclamo) {
+        this.fechaReclamo = fechaReclamo;
+    }
+
+    public Instant getFechaProcesado() {
+        return fechaProcesado;
+    }
+
+    public void setFechaProcesado(Instant fechaProcesado) {
+        this.fechaProcesado = fechaProcesado;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof VentaOutbox)) {
+            return false;
+        }
+        return id != null && id.equals(((VentaOutbox) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return "VentaOutbox{" +
+            "id=" + id +
+            ", ventaId=" + ventaId +
+            ", estado=" + estado +
+            ", fechaCreacion=" + fechaCreacion +
+            '}';
+    }
+}
@@ -19,6 +19,12 @@ public interface EventoRepository extends JpaRepository<Evento, Long> {
      */
     Optional<Evento> findByEventoIdCatedra(Long eventoIdCatedra);
 
+    /**
+     * Busca un evento por ID trayendo en la misma consulta el tipo y los integrantes (vista de detalle)
+     */
+    @Query("SELECT e FROM Evento e LEFT JOIN FETCH e.tipo LEFT JOIN FETCH e.integrantes WHERE e.id = :id")
+    Optional<Evento> findConDetalleById(@Param("id") Long id);
+
     /**
      * Busca eventos no cancelados y no expirados (fecha >= ahora)
      */
@@ -0,0 +1,61 @@
+package com.um.eventosbackend.repository;
+
+import com.um.eventosbackend.domain.IdempotenciaVenta;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for the IdempotenciaVenta entity.
+ * <p>
+ * Las operaciones de escritura declaran su transacción porque se usan fuera de la de la venta, salvo
+ * {@link #completarConVenta}, que se une a la transacción que registra la venta.
+ */
+@Repository
+public interface IdempotenciaVentaRepository extends JpaRepository<IdempotenciaVenta, Long> {
+    Optional<IdempotenciaVenta> findByUserLoginAndClave(String userLogin, String clave);
+
+    /**
+     * Retoma una clave EN_CURSO abandonada (el nodo que la tomó no terminó) y sin venta registrada.
+     * Devuelve 1 si se pudo retomar.
+     */
+    @Transactional
+    @Modifying
+    @Query(
+        "UPDATE IdempotenciaVenta i SET i.fechaCreacion = :ahora " +
+        "WHERE i.id = :id AND i.estado = 'EN_CURSO' AND i.ventaId IS NULL AND i.fechaCreacion < :limite"
+    )
+    int retomarAbandonada(@Param("id") Long id, @Param("ahora") Instant ahora, @Param("limite") Instant limite);
+
+    /**
+     * Marca la clave COMPLETADA con la venta registrada. Se ejecuta dentro de la transacción de la venta;
+     * devuelve 0 si la clave ya no está EN_CURSO.
+     */
+    @Modifying
+    @Query(
+        "UPDATE IdempotenciaVenta i SET i.estado = 'COMPLETADA', i.ventaId = :ventaId, i.httpStatus = :httpStatus, " +
+        "i.respuesta = :respuesta WHERE i.id = :id AND i.estado = 'EN_CURSO' AND i.ventaId IS NULL"
+    )
+    int completarConVenta(
+        @Param("id") Long id,
+        @Param("ventaId") Long ventaId,
+        @Param("httpStatus") Integer httpStatus,
+        @Param("respuesta") String respuesta
+    );
+
+    /**
+     * Borra la clave solo si no tiene venta registrada.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotenciaVenta i WHERE i.userLogin = :userLogin AND i.clave = :clave AND i.ventaId IS NULL")
+    int deleteSinVenta(@Param("userLogin") String userLogin, @Param("clave") String clave);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotenciaVenta i WHERE i.fechaExpiracion < :ahora")
+    int deleteExpiradas(@Param("ahora") Instant ahora);
+}
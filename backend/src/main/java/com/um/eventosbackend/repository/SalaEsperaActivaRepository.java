@@ -0,0 +1,16 @@
+package com.um.eventosbackend.repository;
+
+import com.um.eventosbackend.domain.SalaEsperaActiva;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the SalaEsperaActiva entity.
+ */
+@Repository
+public interface SalaEsperaActivaRepository extends JpaRepository<SalaEsperaActiva, Long> {
+    @Query("SELECT s.eventoId FROM SalaEsperaActiva s")
+    List<Long> findEventoIds();
+}
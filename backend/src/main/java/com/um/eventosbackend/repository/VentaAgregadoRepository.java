@@ -0,0 +1,26 @@
+package com.um.eventosbackend.repository;
+
+import com.um.eventosbackend.domain.Venta;
+import com.um.eventosbackend.domain.VentaAgregado;
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the VentaAgregado entity.
+ * <p>
+ * En PostgreSQL las escrituras son upserts nativos en {@code VentaAgregadoService}; en otras bases se usa
+ * {@link #findConLockByEventoIdAndResultado}.
+ */
+@Repository
+public interface VentaAgregadoRepository extends JpaRepository<VentaAgregado, Long> {
+    List<VentaAgregado> findByEventoIdOrderByResultadoAsc(Long eventoId);
+
+    List<VentaAgregado> findAllByOrderByEventoIdAscResultadoAsc();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<VentaAgregado> findConLockByEventoIdAndResultado(Long eventoId, Venta.ResultadoVenta resultado);
+}
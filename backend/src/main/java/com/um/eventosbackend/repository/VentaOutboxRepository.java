@@ -0,0 +1,48 @@
+package com.um.eventosbackend.repository;
+
+import com.um.eventosbackend.domain.VentaOutbox;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the VentaOutbox entity.
+ */
+@Repository
+public interface VentaOutboxRepository extends JpaRepository<VentaOutbox, Long> {
+    /**
+     * Toma la fila para un worker si sigue pendiente, o si quedó en proceso desde antes de {@code limiteReclamo}
+     * (worker caído). Devuelve 1 si se pudo reclamar.
+     */
+    @Modifying
+    @Query(
+        "UPDATE VentaOutbox o SET o.estado = 'PROCESANDO', o.fechaReclamo = :ahora " +
+        "WHERE o.id = :id AND (o.estado = 'PENDIENTE' OR (o.estado = 'PROCESANDO' AND o.fechaReclamo < :limiteReclamo))"
+    )
+    int reclamar(@Param("id") Long id, @Param("ahora") Instant ahora, @Param("limiteReclamo") Instant limiteReclamo);
+
+    /**
+     * IDs de filas que quedaron sin despachar (pendientes antiguas o reclamadas por un worker caído).
+     */
+    @Query(
+        "SELECT o.id FROM VentaOutbox o " +
+        "WHERE (o.estado = 'PENDIENTE' AND o.fechaCreacion < :limiteCreacion) " +
+        "OR (o.estado = 'PROCESANDO' AND o.fechaReclamo < :limiteReclamo) " +
+        "ORDER BY o.id ASC"
+    )
+    List<Long> findIdsSinDespachar(
+        @Param("limiteCreacion") Instant limiteCreacion,
+        @Param("limiteReclamo") Instant limiteReclamo,
+        Pageable pageable
+    );
+
+    /**
+     * Borra filas ya procesadas antes de la fecha indicada.
+     */
+    @Modifying
+    @Query("DELETE FROM VentaOutbox o WHERE o.estado = 'PROCESADO' AND o.fechaProcesado < :limite")
+    int deleteProcesadasAntesDe(@Param("limite") Instant limite);
+}
@@ -1,8 +1,12 @@
 package com.um.eventosbackend.repository;
 
-import com.um.eventosbackend.domain.User;
 import com.um.eventosbackend.domain.Venta;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,20 +19,46 @@ import org.springframework.stereotype.Repository;
 public interface VentaRepository extends JpaRepository<Venta, Long> {
     
     /**
-     * Encuentra todas las ventas de un usuario.
+     * Reclama un lote de ventas pendientes cuyo próximo intento ya venció, bloqueando las filas con
+     * {@code FOR UPDATE SKIP LOCKED}: las filas tomadas por otro nodo se saltean en lugar de esperar.
+     * Se excluyen las ventas cuya confirmación inicial sigue en el outbox.
      */
-    List<Venta> findByUsuarioOrderByFechaVentaDesc(User usuario);
-    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query(
+        "SELECT v FROM Venta v WHERE v.resultado = 'PENDIENTE' AND v.intentosReintento < :maxIntentos " +
+        "AND (v.proximoIntento IS NULL OR v.proximoIntento <= :ahora) " +
+        "AND NOT EXISTS (SELECT o FROM VentaOutbox o WHERE o.ventaId = v.id AND o.estado <> 'PROCESADO') " +
+        "ORDER BY v.proximoIntento ASC NULLS FIRST, v.id ASC"
+    )
+    List<Venta> reclamarPendientesParaReintento(
+        @Param("maxIntentos") Integer maxIntentos,
+        @Param("ahora") Instant ahora,
+        Pageable pageable
+    );
+
     /**
-     * Encuentra todas las ventas pendientes que necesitan reintento.
+     * Cantidad de ventas pendientes de confirmación.
      */
-    @Query("SELECT v FROM Venta v WHERE v.resultado = 'PENDIENTE' AND v.intentosReintento < :maxIntentos")
-    List<Venta> findVentasPendientesParaReintento(@Param("maxIntentos") Integer maxIntentos);
-    
+    @Query("SELECT COUNT(v) FROM Venta v WHERE v.resultado = 'PENDIENTE'")
+    long countPendientes();
+
+    /**
+     * Fecha de la venta pendiente más antigua (vacío si no hay pendientes).
+     */
+    @Query("SELECT MIN(v.fechaVenta) FROM Venta v WHERE v.resultado = 'PENDIENTE'")
+    Optional<Instant> findFechaPendienteMasAntigua();
+
+    /**
+     * Encuentra una venta del usuario trayendo sus asientos en la misma consulta (vista de detalle).
+     */
+    @Query("SELECT DISTINCT v FROM Venta v LEFT JOIN FETCH v.asientos WHERE v.id = :id AND v.usuario.login = :login")
+    Optional<Venta> findConAsientosByIdAndUsuarioLogin(@Param("id") Long id, @Param("login") String login);
+
     /**
-     * Encuentra una venta por su ID y usuario.
+     * Encuentra una venta por su ID trayendo el usuario (para el despacho de confirmaciones).
      */
-    @Query("SELECT v FROM Venta v WHERE v.id = :id AND v.usuario = :usuario")
-    Venta findByIdAndUsuario(@Param("id") Long id, @Param("usuario") User usuario);
+    @Query("SELECT v FROM Venta v JOIN FETCH v.usuario WHERE v.id = :id")
+    Optional<Venta> findConUsuarioById(@Param("id") Long id);
 }
 
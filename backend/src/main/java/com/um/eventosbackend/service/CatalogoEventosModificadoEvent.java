@@ -0,0 +1,36 @@
+package com.um.eventosbackend.service;
+
+/**
+ * Evento de aplicación publicado cuando cambia el catálogo de eventos (sincronización o notificación).
+ * <p>
+ * Se escucha con {@code @TransactionalEventListener} para reconstruir las vistas en memoria
+ * solo después de que la transacción que modificó los eventos haya hecho commit.
+ */
+public class CatalogoEventosModificadoEvent {
+
+    /**
+     * ID interno del evento modificado, o {@code null} si cambió el catálogo completo.
+     */
+    private final Long eventoId;
+
+    public CatalogoEventosModificadoEvent(Long eventoId) {
+        this.eventoId = eventoId;
+    }
+
+    public static CatalogoEventosModificadoEvent catalogoCompleto() {
+        return new CatalogoEventosModificadoEvent(null);
+    }
+
+    public Long getEventoId() {
+        return eventoId;
+    }
+
+    public boolean isCatalogoCompleto() {
+        return eventoId == null;
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogoEventosModificadoEvent{" + "eventoId=" + eventoId + '}';
+    }
+}
@@ -0,0 +1,40 @@
+package com.um.eventosbackend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Cursor opaco de la paginación por keyset (fecha, id) de eventos y del historial de ventas: la posición de la
+ * última fila de la página como {@code segundos:nanos:id} en base64 URL-safe, sin padding.
+ */
+public final class CursorPaginacion {
+
+    /**
+     * Fecha e id de la última fila de la página anterior.
+     */
+    public record Posicion(Instant fecha, Long id) {}
+
+    private CursorPaginacion() {}
+
+    public static String codificar(Instant fecha, Long id) {
+        String valor = fecha.getEpochSecond() + ":" + fecha.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException si el cursor no es válido.
+     */
+    public static Posicion decodificar(String cursor) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (partes.length != 3) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            Instant fecha = Instant.ofEpochSecond(Long.parseLong(partes[0]), Long.parseLong(partes[1]));
+            return new Posicion(fecha, Long.parseLong(partes[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
@@ -1,18 +1,26 @@
 package com.um.eventosbackend.service;
 
-import com.um.eventosbackend.domain.Evento;
 import com.um.eventosbackend.repository.EventoRepository;
+import com.um.eventosbackend.service.asientos.MapaAsientosSnapshotService;
 import com.um.eventosbackend.service.dto.EventoDetalleDTO;
+import com.um.eventosbackend.service.dto.EventoPaginaDTO;
 import com.um.eventosbackend.service.dto.EventoResumenDTO;
 import com.um.eventosbackend.service.dto.MapaAsientosDTO;
 import com.um.eventosbackend.service.mapper.EventoMapper;
 import com.um.eventosbackend.service.proxy.ProxyAsientosService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,46 +33,158 @@ public class EventoQueryService {
 
     private static final Logger LOG = LoggerFactory.getLogger(EventoQueryService.class);
 
+    /**
+     * Región de cache con el {@link EventoDetalleDTO} de cada evento (clave: ID interno).
+     */
+    public static final String EVENTO_DETALLE_CACHE = "eventoDetalle";
+
+    public static final int TAMANIO_PAGINA_DEFAULT = 20;
+    public static final int TAMANIO_PAGINA_MAX = 100;
+
     private final EventoRepository eventoRepository;
     private final EventoMapper eventoMapper;
     private final ProxyAsientosService proxyAsientosService;
+    private final EventosActivosCache eventosActivosCache;
+    private final Cache detalleCache;
+    private final EntityManager entityManager;
+    private final MapaAsientosSnapshotService mapaAsientosSnapshotService;
+
+    // Se incrementa en cada invalidación para no guardar un detalle leído antes del cambio
+    private final AtomicLong generacionDetalle = new AtomicLong();
 
     public EventoQueryService(
         EventoRepository eventoRepository,
         EventoMapper eventoMapper,
-        ProxyAsientosService proxyAsientosService
+        ProxyAsientosService proxyAsientosService,
+        EventosActivosCache eventosActivosCache,
+        CacheManager cacheManager,
+        EntityManager entityManager,
+        MapaAsientosSnapshotService mapaAsientosSnapshotService
     ) {
         this.eventoRepository = eventoRepository;
         this.eventoMapper = eventoMapper;
         this.proxyAsientosService = proxyAsientosService;
+        this.eventosActivosCache = eventosActivosCache;
+        this.detalleCache = cacheManager.getCache(EVENTO_DETALLE_CACHE);
+        this.entityManager = entityManager;
+        this.mapaAsientosSnapshotService = mapaAsientosSnapshotService;
     }
 
     /**
      * Obtiene el listado de eventos activos (no cancelados y no expirados).
+     * <p>
+     * Se sirve desde el snapshot inmutable de {@link EventosActivosCache}, sin consultar la base de datos.
      */
     public List<EventoResumenDTO> obtenerEventosActivos() {
+        return eventosActivosCache.obtenerEventosActivos();
+    }
+
+    /**
+     * Obtiene una página de eventos activos con paginación por keyset sobre (fecha, id).
+     * <p>
+     * Proyecta directamente a {@link EventoResumenDTO} sin hidratar entidades; el costo no depende
+     * de la posición de la página gracias a los índices (cancelado, fecha, id) y (tipo_id, cancelado, fecha, id).
+     *
+     * @param tipo nombre del tipo de evento (opcional).
+     * @param desde fecha mínima (opcional; nunca antes de ahora).
+     * @param hasta fecha máxima (opcional).
+     * @param precioMax precio máximo (opcional).
+     * @param cursor cursor devuelto por la página anterior (opcional).
+     * @param tamanio cantidad de eventos por página.
+     * @throws IllegalArgumentException si el cursor no es válido.
+     */
+    public EventoPaginaDTO buscarEventosActivos(String tipo, Instant desde, Instant hasta, BigDecimal precioMax, String cursor, Integer tamanio) {
+        int limite = tamanio == null || tamanio <= 0 ? TAMANIO_PAGINA_DEFAULT : Math.min(tamanio, TAMANIO_PAGINA_MAX);
         Instant ahora = Instant.now();
-        List<Evento> eventos = eventoRepository.findEventosActivos(ahora);
-        return eventos.stream().map(eventoMapper::toResumenDTO).collect(Collectors.toList());
+        Instant fechaMinima = desde != null && desde.isAfter(ahora) ? desde : ahora;
+
+        StringBuilder jpql = new StringBuilder(
+            "SELECT new com.um.eventosbackend.service.dto.EventoResumenDTO(e.id, e.titulo, e.resumen, e.fecha, e.direccion, e.precio, e.cancelado) " +
+            "FROM Evento e WHERE e.cancelado = false AND e.fecha >= :desde"
+        );
+        Map<String, Object> parametros = new HashMap<>();
+        parametros.put("desde", fechaMinima);
+
+        if (tipo != null && !tipo.isBlank()) {
+            jpql.append(" AND e.tipo.nombre = :tipo");
+            parametros.put("tipo", tipo.trim());
+        }
+        if (hasta != null) {
+            jpql.append(" AND e.fecha <= :hasta");
+            parametros.put("hasta", hasta);
+        }
+        if (precioMax != null) {
+            jpql.append(" AND e.precio <= :precioMax");
+            parametros.put("precioMax", precioMax);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            CursorPaginacion.Posicion posicion = CursorPaginacion.decodificar(cursor);
+            jpql.append(" AND (e.fecha > :cursorFecha OR (e.fecha = :cursorFecha AND e.id > :cursorId))");
+            parametros.put("cursorFecha", posicion.fecha());
+            parametros.put("cursorId", posicion.id());
+        }
+        jpql.append(" ORDER BY e.fecha ASC, e.id ASC");
+
+        TypedQuery<EventoResumenDTO> query = entityManager.createQuery(jpql.toString(), EventoResumenDTO.class);
+        parametros.forEach(query::setParameter);
+        // Se pide uno de más para saber si hay página siguiente
+        List<EventoResumenDTO> eventos = query.setMaxResults(limite + 1).getResultList();
+
+        String siguienteCursor = null;
+        if (eventos.size() > limite) {
+            eventos = eventos.subList(0, limite);
+            EventoResumenDTO ultimo = eventos.get(limite - 1);
+            siguienteCursor = CursorPaginacion.codificar(ultimo.getFecha(), ultimo.getId());
+        }
+        return new EventoPaginaDTO(List.copyOf(eventos), siguienteCursor);
     }
 
     /**
      * Obtiene el detalle de un evento por ID, si está activo (no cancelado y no expirado).
-     * Incluye estadísticas de asientos bloqueados.
+     * <p>
+     * El DTO se cachea por evento; en frío se carga con tipo e integrantes en una sola consulta.
+     * Los filtros de cancelado y fecha se aplican siempre sobre el DTO, también cuando viene de cache.
+     * Si el evento está activo se lanza el prefetch de su mapa de asientos, que suele pedirse a continuación.
      */
     public Optional<EventoDetalleDTO> obtenerDetalleEvento(Long id) {
         Instant ahora = Instant.now();
-        Optional<EventoDetalleDTO> detalleOpt = eventoRepository
-            .findById(id)
+        Optional<EventoDetalleDTO> detalle = cargarDetalle(id)
             .filter(e -> Boolean.FALSE.equals(e.getCancelado()))
-            .filter(e -> e.getFecha() == null || !e.getFecha().isBefore(ahora))
-            .map(eventoMapper::toDetalleDTO);
-
-        // No incluir asientos en el detalle del evento (no establecer la lista)
+            .filter(e -> e.getFecha() == null || !e.getFecha().isBefore(ahora));
+        detalle.ifPresent(e -> mapaAsientosSnapshotService.prefetch(id));
+        return detalle;
+    }
 
-        return detalleOpt;
+    /**
+     * Quita de la cache los detalles afectados por un cambio del catálogo.
+     */
+    public void invalidarDetalle(CatalogoEventosModificadoEvent event) {
+        generacionDetalle.incrementAndGet();
+        if (detalleCache == null) {
+            return;
+        }
+        if (event.isCatalogoCompleto()) {
+            detalleCache.clear();
+        } else {
+            detalleCache.evict(event.getEventoId());
+        }
     }
 
+    private Optional<EventoDetalleDTO> cargarDetalle(Long id) {
+        if (detalleCache != null) {
+            EventoDetalleDTO cacheado = detalleCache.get(id, EventoDetalleDTO.class);
+            if (cacheado != null) {
+                return Optional.of(cacheado);
+            }
+        }
+        long generacionLeida = generacionDetalle.get();
+        Optional<EventoDetalleDTO> detalle = eventoRepository.findConDetalleById(id).map(eventoMapper::toDetalleDTO);
+        // No incluir asientos en el detalle del evento (no establecer la lista)
+        if (detalleCache != null && detalle.isPresent() && generacionDetalle.get() == generacionLeida) {
+            detalleCache.put(id, detalle.orElseThrow());
+        }
+        return detalle;
+    }
 
     /**
      * Obtiene las dimensiones (filas y columnas) de un evento por su ID de cátedra.
@@ -0,0 +1,275 @@
+package com.um.eventosbackend.service;
+
+import com.um.eventosbackend.repository.EventoRepository;
+import com.um.eventosbackend.service.dto.EventoResumenDTO;
+import com.um.eventosbackend.service.mapper.EventoMapper;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Vista en memoria de los eventos activos (no cancelados y no expirados).
+ * <p>
+ * El listado se mantiene como un snapshot inmutable publicado en un campo {@code volatile}:
+ * los lectores nunca bloquean, solo desreferencian el snapshot actual.
+ * <p>
+ * El snapshot se reconstruye desde la base de datos cuando la sincronización o una notificación
+ * de la cátedra hacen commit ({@link CatalogoEventosModificadoEvent}). Los eventos se quitan del
+ * listado exactamente cuando pasa su fecha, usando una cola de prioridad ordenada por fecha y un
+ * timer programado para el vencimiento más próximo (no un TTL).
+ */
+@Component
+public class EventosActivosCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventosActivosCache.class);
+
+    private final EventoRepository eventoRepository;
+    private final EventoMapper eventoMapper;
+
+    // Identifica snapshots solo dentro de este proceso: no sirve como ETag entre instancias ni reinicios
+    private final AtomicLong versiones = new AtomicLong();
+    private final ReentrantLock escritura = new ReentrantLock();
+    // Vencimientos pendientes ordenados por fecha; solo se accede con el lock de escritura tomado
+    private final PriorityQueue<Vencimiento> vencimientos = new PriorityQueue<>(
+        Comparator.comparing(Vencimiento::fecha).thenComparing(Vencimiento::eventoId)
+    );
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "eventos-activos-expiracion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Snapshot snapshot;
+    private ScheduledFuture<?> proximaExpiracion;
+
+    public EventosActivosCache(EventoRepository eventoRepository, EventoMapper eventoMapper) {
+        this.eventoRepository = eventoRepository;
+        this.eventoMapper = eventoMapper;
+    }
+
+    /**
+     * Devuelve el snapshot actual de eventos activos.
+     * <p>
+     * Si el timer de expiración todavía no corrió pero ya pasó la fecha del próximo evento, se intenta
+     * expirar en el mismo hilo sin esperar el lock; si otro hilo lo tiene, se devuelve una vista filtrada
+     * sin modificar el snapshot publicado.
+     */
+    public Snapshot obtenerSnapshot() {
+        Snapshot actual = snapshot;
+        if (actual == null) {
+            actual = cargarInicial();
+        }
+        Instant ahora = Instant.now();
+        if (actual.getProximoVencimiento() == null || !actual.getProximoVencimiento().isBefore(ahora)) {
+            return actual;
+        }
+        if (escritura.tryLock()) {
+            try {
+                expirarVencidos();
+                return snapshot;
+            } finally {
+                escritura.unlock();
+            }
+        }
+        return actual.sinVencidos(ahora);
+    }
+
+    public List<EventoResumenDTO> obtenerEventosActivos() {
+        return obtenerSnapshot().getEventos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        try {
+            recargar();
+        } catch (Exception e) {
+            LOG.warn("No se pudo precargar la vista de eventos activos, se cargará en la primera consulta", e);
+        }
+    }
+
+    /**
+     * Reconstruye el snapshot cuando la transacción que modificó el catálogo hace commit.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogoModificado(CatalogoEventosModificadoEvent event) {
+        LOG.debug("Catálogo de eventos modificado ({}), reconstruyendo vista de eventos activos", event);
+        recargar();
+    }
+
+    /**
+     * Primera carga cuando todavía no hay snapshot (arranque en frío o precarga fallida). Los lectores que llegan
+     * juntos esperan el lock, pero solo el primero consulta la base: el resto encuentra el snapshot ya publicado.
+     */
+    private Snapshot cargarInicial() {
+        escritura.lock();
+        try {
+            Snapshot actual = snapshot;
+            return actual != null ? actual : recargar();
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Reconstruye el snapshot desde la base de datos y reprograma el timer de expiración.
+     */
+    public Snapshot recargar() {
+        escritura.lock();
+        try {
+            Instant ahora = Instant.now();
+            List<EventoResumenDTO> eventos = eventoRepository
+                .findEventosActivos(ahora)
+                .stream()
+                .map(eventoMapper::toResumenDTO)
+                .collect(Collectors.toList());
+
+            vencimientos.clear();
+            for (EventoResumenDTO evento : eventos) {
+                if (evento.getFecha() != null) {
+                    vencimientos.add(new Vencimiento(evento.getFecha(), evento.getId()));
+                }
+            }
+
+            Snapshot nuevo = publicar(eventos);
+            LOG.debug("Vista de eventos activos reconstruida: {} eventos, versión {}", eventos.size(), nuevo.getVersion());
+            return nuevo;
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    /**
+     * Quita del snapshot los eventos cuya fecha ya pasó. Lo ejecuta el timer de expiración.
+     */
+    private void expirarVencidos() {
+        escritura.lock();
+        try {
+            Instant ahora = Instant.now();
+            Set<Long> vencidos = new HashSet<>();
+            while (!vencimientos.isEmpty() && vencimientos.peek().fecha().isBefore(ahora)) {
+                vencidos.add(vencimientos.poll().eventoId());
+            }
+            Snapshot actual = snapshot;
+            if (vencidos.isEmpty() || actual == null) {
+                programarExpiracion();
+                return;
+            }
+            List<EventoResumenDTO> vigentes = actual
+                .getEventos()
+                .stream()
+                .filter(e -> !vencidos.contains(e.getId()))
+                .collect(Collectors.toList());
+            publicar(vigentes);
+            LOG.debug("Expiraron {} eventos de la vista de eventos activos", vencidos.size());
+        } catch (Exception e) {
+            LOG.error("Error al expirar eventos de la vista de eventos activos", e);
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    private Snapshot publicar(List<EventoResumenDTO> eventos) {
+        Vencimiento siguiente = vencimientos.peek();
+        Snapshot nuevo = new Snapshot(
+            versiones.incrementAndGet(),
+            Collections.unmodifiableList(new ArrayList<>(eventos)),
+            siguiente != null ? siguiente.fecha() : null
+        );
+        snapshot = nuevo;
+        programarExpiracion();
+        return nuevo;
+    }
+
+    private void programarExpiracion() {
+        if (proximaExpiracion != null) {
+            proximaExpiracion.cancel(false);
+            proximaExpiracion = null;
+        }
+        Vencimiento siguiente = vencimientos.peek();
+        if (siguiente == null) {
+            return;
+        }
+        // El evento deja de estar activo cuando la fecha queda estrictamente en el pasado
+        long demoraMs = Math.max(1, Duration.between(Instant.now(), siguiente.fecha()).toMillis() + 1);
+        proximaExpiracion = timer.schedule(this::expirarVencidos, demoraMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        timer.shutdownNow();
+    }
+
+    private record Vencimiento(Instant fecha, Long eventoId) {}
+
+    /**
+     * Snapshot inmutable del listado de eventos activos.
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final List<EventoResumenDTO> eventos;
+        private final Instant proximoVencimiento;
+        private final Set<Long> ids;
+
+        private Snapshot(long version, List<EventoResumenDTO> eventos, Instant proximoVencimiento) {
+            this.version = version;
+            this.eventos = eventos;
+            this.proximoVencimiento = proximoVencimiento;
+            this.ids = eventos.stream().map(EventoResumenDTO::getId).collect(Collectors.toUnmodifiableSet());
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<EventoResumenDTO> getEventos() {
+            return eventos;
+        }
+
+        public Instant getProximoVencimiento() {
+            return proximoVencimiento;
+        }
+
+        /**
+         * Indica si el evento (ID interno) está activo en este snapshot.
+         */
+        public boolean contiene(Long eventoId) {
+            return eventoId != null && ids.contains(eventoId);
+        }
+
+        private Snapshot sinVencidos(Instant ahora) {
+            List<EventoResumenDTO> vigentes = eventos
+                .stream()
+                .filter(e -> e.getFecha() == null || !e.getFecha().isBefore(ahora))
+                .collect(Collectors.toUnmodifiableList());
+            Instant siguiente = vigentes
+                .stream()
+                .map(EventoResumenDTO::getFecha)
+                .filter(f -> f != null)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+            // Vista transitoria: se marca con versión negativa para no confundirla con una publicada
+            return new Snapshot(-version, vigentes, siguiente);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.um.eventosbackend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.um.eventosbackend.service.asientos.MapaAsientosSnapshotService;
+import com.um.eventosbackend.service.dto.EventoDetalleDTO;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache de respuestas ya serializadas (JSON UTF-8 y su variante gzip) para el listado y el detalle de eventos.
+ * <p>
+ * El listado se serializa una vez por versión del snapshot de {@link EventosActivosCache}. El detalle se
+ * guarda por evento y se invalida cuando cambia el catálogo ({@link CatalogoEventosModificadoEvent}). Los
+ * dos llevan un ETag fuerte calculado sobre el contenido: la versión del snapshot es un contador de este
+ * proceso, y otra instancia o un reinicio la repetirían con otro listado.
+ */
+@Component
+public class EventosRespuestaCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventosRespuestaCache.class);
+
+    private final EventosActivosCache eventosActivosCache;
+    private final EventoQueryService eventoQueryService;
+    private final MapaAsientosSnapshotService mapaAsientosSnapshotService;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, RespuestaSerializada> detalles = new ConcurrentHashMap<>();
+    // Se incrementa en cada invalidación para no guardar un detalle leído antes del cambio
+    private final AtomicLong generacion = new AtomicLong();
+
+    private volatile RespuestaSerializada listado;
+
+    public EventosRespuestaCache(
+        EventosActivosCache eventosActivosCache,
+        EventoQueryService eventoQueryService,
+        MapaAsientosSnapshotService mapaAsientosSnapshotService,
+        ObjectMapper objectMapper
+    ) {
+        this.eventosActivosCache = eventosActivosCache;
+        this.eventoQueryService = eventoQueryService;
+        this.mapaAsientosSnapshotService = mapaAsientosSnapshotService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Devuelve el listado de eventos activos serializado para la versión actual del snapshot.
+     */
+    public RespuestaSerializada obtenerListado() {
+        EventosActivosCache.Snapshot snapshot = eventosActivosCache.obtenerSnapshot();
+        RespuestaSerializada actual = listado;
+        if (actual != null && actual.getVersion() == snapshot.getVersion()) {
+            return actual;
+        }
+        byte[] json = aJson(snapshot.getEventos());
+        RespuestaSerializada nueva = new RespuestaSerializada(json, snapshot.getVersion(), "\"eventos-" + hash(json) + "\"");
+        // Las vistas transitorias (versión negativa) no se guardan
+        if (snapshot.getVersion() > 0) {
+            listado = nueva;
+        }
+        return nueva;
+    }
+
+    /**
+     * Devuelve el detalle serializado de un evento activo, o vacío si no existe o no está activo.
+     */
+    public Optional<RespuestaSerializada> obtenerDetalle(Long id) {
+        boolean activo = eventosActivosCache.obtenerSnapshot().contiene(id);
+        if (activo) {
+            RespuestaSerializada cacheada = detalles.get(id);
+            if (cacheada != null) {
+                mapaAsientosSnapshotService.prefetch(id);
+                return Optional.of(cacheada);
+            }
+        }
+
+        long generacionLeida = generacion.get();
+        Optional<EventoDetalleDTO> detalle = eventoQueryService.obtenerDetalleEvento(id);
+        if (detalle.isEmpty()) {
+            return Optional.empty();
+        }
+        byte[] json = aJson(detalle.orElseThrow());
+        RespuestaSerializada nueva = new RespuestaSerializada(json, generacionLeida, "\"evento-" + id + "-" + hash(json) + "\"");
+        if (activo && generacion.get() == generacionLeida) {
+            detalles.put(id, nueva);
+        }
+        return Optional.of(nueva);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogoModificado(CatalogoEventosModificadoEvent event) {
+        // Primero el DTO cacheado, para que una nueva serialización no lea el detalle anterior
+        eventoQueryService.invalidarDetalle(event);
+        generacion.incrementAndGet();
+        if (event.isCatalogoCompleto()) {
+            detalles.clear();
+        } else {
+            detalles.remove(event.getEventoId());
+        }
+        LOG.debug("Respuestas serializadas de eventos invalidadas ({})", event);
+    }
+
+    private byte[] aJson(Object valor) {
+        try {
+            return objectMapper.writeValueAsBytes(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta de eventos", e);
+        }
+    }
+
+    private static String hash(byte[] contenido) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(contenido);
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Respuesta serializada inmutable: JSON UTF-8, variante gzip (calculada una sola vez) y ETag fuerte.
+     * <p>
+     * Un validador fuerte identifica la representación con su codificación (RFC 9110, 8.8.3), así que la
+     * variante gzip lleva su propio ETag: el de la identidad con el sufijo {@code -gz}.
+     */
+    public static final class RespuestaSerializada {
+
+        private final byte[] json;
+        private final long version;
+        private final String etag;
+        private final String etagGzip;
+        private volatile byte[] gzip;
+
+        private RespuestaSerializada(byte[] json, long version, String etag) {
+            this.json = json;
+            this.version = version;
+            this.etag = etag;
+            this.etagGzip = etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getEtagGzip() {
+            return etagGzip;
+        }
+
+        public byte[] getGzip() {
+            byte[] actual = gzip;
+            if (actual == null) {
+                actual = comprimir(json);
+                gzip = actual;
+            }
+            return actual;
+        }
+
+        private static byte[] comprimir(byte[] contenido) {
+            ByteArrayOutputStream salida = new ByteArrayOutputStream(Math.max(64, contenido.length / 4));
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(salida)) {
+                gzipOut.write(contenido);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return salida.toByteArray();
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package com.um.eventosbackend.service.asientos;
 
+import com.um.eventosbackend.config.ApplicationProperties;
+import com.um.eventosbackend.config.ApplicationProperties.Asientos.ModoPrevalidacion;
 import com.um.eventosbackend.service.dto.BloqueoAsientosRequestDTO;
 import com.um.eventosbackend.service.dto.BloqueoAsientosResponseDTO;
 import com.um.eventosbackend.service.dto.EstadoSeleccionDTO;
-import com.um.eventosbackend.service.dto.MapaAsientosDTO;
+import com.um.eventosbackend.service.dto.MejoresAsientosRequestDTO;
+import com.um.eventosbackend.service.dto.MejoresAsientosResponseDTO;
+import com.um.eventosbackend.service.dto.MapaAsientosDTO.AsientoDTO.EstadoAsiento;
 import com.um.eventosbackend.service.proxy.ProxyAsientosService;
 import com.um.eventosbackend.service.sesion.SesionSeleccionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,44 +29,127 @@ public class AsientosService {
 
     private final ProxyAsientosService proxyAsientosService;
     private final SesionSeleccionService sesionSeleccionService;
+    private final MapaAsientosSnapshotService mapaAsientosSnapshotService;
+    private final ModoPrevalidacion modoPrevalidacion;
+
+    private final Counter prevalidacionRechazados;
+    private final Counter prevalidacionAdvertidos;
+    private final Counter prevalidacionAprobados;
+    private final Counter prevalidacionSinSnapshot;
+    private final Counter mejoresEncontrados;
+    private final Counter mejoresSinLugar;
 
     public AsientosService(
         ProxyAsientosService proxyAsientosService,
-        SesionSeleccionService sesionSeleccionService
+        SesionSeleccionService sesionSeleccionService,
+        MapaAsientosSnapshotService mapaAsientosSnapshotService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
     ) {
         this.proxyAsientosService = proxyAsientosService;
         this.sesionSeleccionService = sesionSeleccionService;
+        this.mapaAsientosSnapshotService = mapaAsientosSnapshotService;
+        this.modoPrevalidacion = applicationProperties.getAsientos().getPrevalidacion();
+
+        this.prevalidacionRechazados = prevalidacion(meterRegistry, "rechazado");
+        this.prevalidacionAdvertidos = prevalidacion(meterRegistry, "advertido");
+        this.prevalidacionAprobados = prevalidacion(meterRegistry, "aprobado");
+        this.prevalidacionSinSnapshot = prevalidacion(meterRegistry, "sin_snapshot");
+        this.mejoresEncontrados = Counter.builder("asientos.mejores")
+            .tag("resultado", "encontrado")
+            .description("Búsquedas de mejores asientos contiguos")
+            .register(meterRegistry);
+        this.mejoresSinLugar = Counter.builder("asientos.mejores")
+            .tag("resultado", "sin_lugar")
+            .description("Búsquedas de mejores asientos contiguos")
+            .register(meterRegistry);
+    }
+
+    private static Counter prevalidacion(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("asientos.bloqueo.prevalidacion")
+            .tag("resultado", resultado)
+            .description("Bloqueos validados contra el snapshot del mapa; 'rechazado' son llamadas a la cátedra ahorradas")
+            .register(meterRegistry);
     }
 
     /**
      * Obtiene el mapa de asientos de un evento, incluyendo información de asientos seleccionados por el usuario.
+     * <p>
+     * El mapa es el snapshot compartido del evento; la selección del usuario se aplica al serializar.
      */
-    public MapaAsientosDTO obtenerMapaAsientos(Long eventoId, String userId) {
-        LOG.debug("Obteniendo mapa de asientos para eventoId: {}, userId: {}", eventoId, userId);
+    public MapaAsientosVista obtenerMapaAsientos(Long eventoId, String userId) {
+        return obtenerMapaAsientos(eventoId, userId, null);
+    }
 
-        // Obtener mapa desde el proxy (Redis de la cátedra)
-        MapaAsientosDTO mapa = proxyAsientosService.obtenerMapaAsientos(eventoId);
+    /**
+     * Igual que {@link #obtenerMapaAsientos(Long, String)}, pero limitado a una ventana del mapa. Las posiciones
+     * de la ventana se toman de la grilla del snapshot (costo proporcional a la ventana, no al evento) y se
+     * calcula su versión para que el cliente solo vuelva a descargar las regiones que cambiaron.
+     *
+     * @param region ventana pedida, o {@code null} para el mapa completo.
+     */
+    public MapaAsientosVista obtenerMapaAsientos(Long eventoId, String userId, RegionMapa region) {
+        LOG.debug("Obteniendo mapa de asientos para eventoId: {}, userId: {}, region: {}", eventoId, userId, region);
 
-        // Obtener asientos seleccionados por el usuario
+        MapaAsientosSnapshot snapshot = mapaAsientosSnapshotService.obtener(eventoId);
+
+        // Marcar asientos seleccionados por el usuario
+        BitSet seleccionados = new BitSet(snapshot.size());
         EstadoSeleccionDTO estadoSeleccion = sesionSeleccionService.obtenerEstado(userId);
         if (estadoSeleccion != null && estadoSeleccion.getEventoId() != null && estadoSeleccion.getEventoId().equals(eventoId)) {
-            // Marcar asientos seleccionados por el usuario
-            List<String> asientosSeleccionados = estadoSeleccion.getAsientosSeleccionados()
-                .stream()
-                .map(a -> a.getFila() + "-" + a.getNumero())
-                .collect(Collectors.toList());
-
-            if (mapa.getAsientos() != null) {
-                mapa.getAsientos().forEach(asiento -> {
-                    String clave = asiento.getFila() + "-" + asiento.getNumero();
-                    if (asientosSeleccionados.contains(clave)) {
-                        asiento.setSeleccionado(true);
-                    }
-                });
+            for (EstadoSeleccionDTO.AsientoSeleccionadoDTO asiento : estadoSeleccion.getAsientosSeleccionados()) {
+                int posicion = snapshot.posicion(asiento.getFila(), asiento.getNumero());
+                if (posicion >= 0) {
+                    seleccionados.set(posicion);
+                }
+            }
+        }
+
+        Long id = snapshot.getEventoId() != null ? snapshot.getEventoId() : eventoId;
+        if (region == null) {
+            return new MapaAsientosVista(id, snapshot, seleccionados);
+        }
+        int[] posiciones = posicionesDeRegion(snapshot, region);
+        return new MapaAsientosVista(id, snapshot, seleccionados, region, posiciones, version(snapshot, seleccionados, posiciones));
+    }
+
+    private static int[] posicionesDeRegion(MapaAsientosSnapshot snapshot, RegionMapa region) {
+        int[] posiciones = new int[16];
+        int cantidad = 0;
+        for (int f = 0; f < snapshot.cantidadFilas(); f++) {
+            String fila = snapshot.getFilaGrilla(f);
+            if (!region.incluyeFila(MapaAsientosSnapshot.numeroDeFila(fila))) {
+                continue;
+            }
+            int desde = region.colDesde() != null ? Math.max(region.colDesde(), snapshot.getPrimerNumero(f)) : snapshot.getPrimerNumero(f);
+            int hasta = region.colHasta() != null ? Math.min(region.colHasta(), snapshot.getUltimoNumero(f)) : snapshot.getUltimoNumero(f);
+            for (int numero = desde; numero <= hasta; numero++) {
+                int posicion = snapshot.posicion(fila, numero);
+                if (posicion < 0) {
+                    continue;
+                }
+                if (cantidad == posiciones.length) {
+                    posiciones = Arrays.copyOf(posiciones, cantidad * 2);
+                }
+                posiciones[cantidad++] = posicion;
             }
         }
+        return Arrays.copyOf(posiciones, cantidad);
+    }
 
-        return mapa;
+    /**
+     * Hash de 64 bits (estilo FNV-1a, un paso por asiento) sobre fila, número, estado y selección de la región.
+     */
+    private static String version(MapaAsientosSnapshot snapshot, BitSet seleccionados, int[] posiciones) {
+        long hash = 0xcbf29ce484222325L;
+        for (int posicion : posiciones) {
+            EstadoAsiento estado = snapshot.getEstado(posicion);
+            long valor = ((long) snapshot.getNumero(posicion) << 32) ^ ((long) snapshot.getFila(posicion).hashCode() << 8);
+            valor ^= (estado != null ? estado.ordinal() + 1 : 0) << 1;
+            valor ^= seleccionados.get(posicion) ? 1 : 0;
+            hash = (hash ^ valor) * 0x100000001b3L;
+        }
+        return Long.toHexString(hash);
     }
 
     /**
@@ -82,6 +175,11 @@ public class AsientosService {
             return error;
         }
 
+        Optional<BloqueoAsientosResponseDTO> rechazo = prevalidar(eventoId, estadoSeleccion.getAsientosSeleccionados());
+        if (rechazo.isPresent()) {
+            return rechazo.get();
+        }
+
         // Preparar request de bloqueo
         BloqueoAsientosRequestDTO request = new BloqueoAsientosRequestDTO();
         request.setEventoId(eventoId);
@@ -90,25 +188,7 @@ public class AsientosService {
                 .map(a -> {
                     BloqueoAsientosRequestDTO.AsientoBloqueoDTO dto = new BloqueoAsientosRequestDTO.AsientoBloqueoDTO();
                     // Convertir fila de String a Integer (A=1, B=2, C=3, etc.)
-                    String filaStr = a.getFila();
-                    Integer filaInt = null;
-                    if (filaStr != null && !filaStr.isEmpty()) {
-                        char firstChar = filaStr.toUpperCase().charAt(0);
-                        if (firstChar >= 'A' && firstChar <= 'Z') {
-                            filaInt = firstChar - 'A' + 1; // A=1, B=2, C=3, etc.
-                        } else {
-                            // Intentar parsear como número
-                            try {
-                                filaInt = Integer.parseInt(filaStr);
-                            } catch (NumberFormatException e) {
-                                LOG.warn("No se pudo convertir fila '{}' a Integer, usando 1 por defecto", filaStr);
-                                filaInt = 1;
-                            }
-                        }
-                    } else {
-                        filaInt = 1; // Valor por defecto
-                    }
-                    dto.setFila(filaInt);
+                    dto.setFila(MapaAsientosSnapshot.numeroDeFila(a.getFila()));
                     // El proxy espera "columna", que corresponde al "numero" del asiento
                     dto.setColumna(a.getNumero());
                     return dto;
@@ -116,8 +196,126 @@ public class AsientosService {
                 .collect(Collectors.toList())
         );
 
-        // Enviar solicitud de bloqueo al proxy
-        return proxyAsientosService.bloquearAsientos(request);
+        // Enviar solicitud de bloqueo al proxy; el mapa prefetcheado deja de reflejar el estado
+        BloqueoAsientosResponseDTO respuesta = proxyAsientosService.bloquearAsientos(request);
+        mapaAsientosSnapshotService.invalidar(eventoId);
+        return respuesta;
     }
-}
 
+    /**
+     * Busca los mejores {@code cantidad} asientos libres contiguos del evento en el snapshot compartido del mapa
+     * (ver {@link BuscadorAsientosContiguos}) y, si se pide, los guarda como selección del usuario y los bloquea
+     * en el mismo request, en lugar de que el usuario pruebe asiento por asiento.
+     *
+     * @throws IllegalArgumentException si la cantidad no está entre 1 y {@link SesionSeleccionService#MAX_ASIENTOS}.
+     */
+    public MejoresAsientosResponseDTO buscarMejoresAsientos(Long eventoId, String userId, MejoresAsientosRequestDTO pedido) {
+        Integer cantidad = pedido.getCantidad();
+        if (cantidad == null || cantidad < 1 || cantidad > SesionSeleccionService.MAX_ASIENTOS) {
+            throw new IllegalArgumentException("La cantidad de asientos debe estar entre 1 y " + SesionSeleccionService.MAX_ASIENTOS);
+        }
+        LOG.debug("Buscando {} asientos contiguos para eventoId: {}, userId: {}", cantidad, eventoId, userId);
+
+        MapaAsientosSnapshot snapshot = mapaAsientosSnapshotService.obtener(eventoId);
+        int desde = 0;
+        int hasta = snapshot.cantidadFilas() - 1;
+        if (pedido.getFilaDesde() != null) {
+            int limite = MapaAsientosSnapshot.numeroDeFila(pedido.getFilaDesde());
+            while (desde <= hasta && MapaAsientosSnapshot.numeroDeFila(snapshot.getFilaGrilla(desde)) < limite) {
+                desde++;
+            }
+        }
+        if (pedido.getFilaHasta() != null) {
+            int limite = MapaAsientosSnapshot.numeroDeFila(pedido.getFilaHasta());
+            while (hasta >= desde && MapaAsientosSnapshot.numeroDeFila(snapshot.getFilaGrilla(hasta)) > limite) {
+                hasta--;
+            }
+        }
+
+        MejoresAsientosResponseDTO respuesta = new MejoresAsientosResponseDTO();
+        respuesta.setEventoId(eventoId);
+        Optional<BuscadorAsientosContiguos.Ventana> ventana = BuscadorAsientosContiguos.buscar(
+            snapshot,
+            cantidad,
+            desde,
+            hasta,
+            !Boolean.FALSE.equals(pedido.getPreferirCentro())
+        );
+        if (ventana.isEmpty()) {
+            mejoresSinLugar.increment();
+            respuesta.setEncontrados(false);
+            respuesta.setMensaje("No hay " + cantidad + " asientos contiguos disponibles en las filas pedidas");
+            return respuesta;
+        }
+        mejoresEncontrados.increment();
+
+        String fila = snapshot.getFilaGrilla(ventana.get().fila());
+        EstadoSeleccionDTO.AsientoSeleccionadoDTO[] seleccion = new EstadoSeleccionDTO.AsientoSeleccionadoDTO[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            BloqueoAsientosResponseDTO.AsientoBloqueoDTO asiento = new BloqueoAsientosResponseDTO.AsientoBloqueoDTO();
+            asiento.setFila(fila);
+            asiento.setNumero(ventana.get().primerNumero() + i);
+            respuesta.getAsientos().add(asiento);
+
+            seleccion[i] = new EstadoSeleccionDTO.AsientoSeleccionadoDTO();
+            seleccion[i].setFila(fila);
+            seleccion[i].setNumero(asiento.getNumero());
+        }
+        respuesta.setEncontrados(true);
+
+        if (Boolean.TRUE.equals(pedido.getBloquear())) {
+            sesionSeleccionService.actualizarEventoSeleccionado(userId, eventoId);
+            sesionSeleccionService.actualizarAsientosSeleccionados(userId, seleccion);
+            respuesta.setBloqueo(bloquearAsientos(eventoId, userId));
+        }
+        return respuesta;
+    }
+
+    /**
+     * Valida la selección contra el snapshot fresco del mapa, sin llamar al proxy. La cátedra sigue siendo la
+     * fuente de verdad: solo se descartan asientos que el snapshot ya muestra ocupados, y sin snapshot fresco el
+     * bloqueo se envía igual. Un asiento bloqueado no se rechaza: el snapshot no dice de quién es el bloqueo y
+     * puede ser del mismo usuario que lo renueva (por ejemplo, al reintentar después de un timeout).
+     *
+     * @return la respuesta de rechazo (modo estricto), o vacío si el bloqueo debe enviarse a la cátedra.
+     */
+    private Optional<BloqueoAsientosResponseDTO> prevalidar(Long eventoId, List<EstadoSeleccionDTO.AsientoSeleccionadoDTO> seleccionados) {
+        if (modoPrevalidacion == ModoPrevalidacion.DESACTIVADA) {
+            return Optional.empty();
+        }
+        Optional<MapaAsientosSnapshot> snapshotOpt = mapaAsientosSnapshotService.obtenerFresco(eventoId);
+        if (snapshotOpt.isEmpty()) {
+            prevalidacionSinSnapshot.increment();
+            return Optional.empty();
+        }
+
+        MapaAsientosSnapshot snapshot = snapshotOpt.get();
+        List<BloqueoAsientosResponseDTO.AsientoBloqueoDTO> noDisponibles = new ArrayList<>();
+        for (EstadoSeleccionDTO.AsientoSeleccionadoDTO asiento : seleccionados) {
+            int posicion = snapshot.posicion(asiento.getFila(), asiento.getNumero());
+            if (posicion >= 0 && snapshot.getEstado(posicion) == EstadoAsiento.OCUPADO) {
+                BloqueoAsientosResponseDTO.AsientoBloqueoDTO noDisponible = new BloqueoAsientosResponseDTO.AsientoBloqueoDTO();
+                noDisponible.setFila(asiento.getFila());
+                noDisponible.setNumero(asiento.getNumero());
+                noDisponibles.add(noDisponible);
+            }
+        }
+        if (noDisponibles.isEmpty()) {
+            prevalidacionAprobados.increment();
+            return Optional.empty();
+        }
+        if (modoPrevalidacion == ModoPrevalidacion.ADVERTENCIA) {
+            prevalidacionAdvertidos.increment();
+            LOG.debug("Prevalidación: {} asientos no disponibles según el snapshot del eventoId {}, se envía igual", noDisponibles.size(), eventoId);
+            return Optional.empty();
+        }
+
+        prevalidacionRechazados.increment();
+        LOG.debug("Prevalidación: bloqueo rechazado localmente para eventoId {} ({} asientos no disponibles)", eventoId, noDisponibles.size());
+        BloqueoAsientosResponseDTO rechazo = new BloqueoAsientosResponseDTO();
+        rechazo.setExitoso(false);
+        rechazo.setMensaje("Algunos asientos seleccionados ya no están disponibles");
+        rechazo.setAsientosNoDisponibles(noDisponibles);
+        return Optional.of(rechazo);
+    }
+}
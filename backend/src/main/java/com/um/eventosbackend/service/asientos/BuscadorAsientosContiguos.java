@@ -0,0 +1,67 @@
+package com.um.eventosbackend.service.asientos;
+
+import java.util.BitSet;
+import java.util.Optional;
+
+/**
+ * Búsqueda de los mejores N asientos libres contiguos sobre la grilla de un {@link MapaAsientosSnapshot}.
+ * <p>
+ * Cada fila se recorre por tramos de bits libres ({@code nextSetBit}/{@code nextClearBit}), así que el costo es
+ * proporcional a la cantidad de tramos y no a la de asientos. Dentro de un tramo suficientemente largo se toma la
+ * ventana más cercana al centro de la fila. El puntaje de una ventana es su distancia al centro (en asientos) más
+ * {@value #PESO_FILA} por cada fila hacia atrás desde el inicio del rango; gana el menor. Sin preferencia de
+ * centro gana la primera fila con lugar, y en ella la ventana de más a la izquierda.
+ */
+final class BuscadorAsientosContiguos {
+
+    private static final double PESO_FILA = 1.0;
+
+    private BuscadorAsientosContiguos() {}
+
+    /**
+     * @param desde  primera fila de la grilla a considerar (inclusive).
+     * @param hasta  última fila de la grilla a considerar (inclusive).
+     * @return la ventana elegida, o vacío si ninguna fila del rango tiene {@code cantidad} asientos libres contiguos.
+     */
+    static Optional<Ventana> buscar(MapaAsientosSnapshot snapshot, int cantidad, int desde, int hasta, boolean preferirCentro) {
+        Ventana mejor = null;
+        double mejorPuntaje = Double.MAX_VALUE;
+        for (int fila = Math.max(0, desde); fila <= Math.min(hasta, snapshot.cantidadFilas() - 1); fila++) {
+            BitSet libres = snapshot.libres(fila);
+            if (libres.cardinality() < cantidad) {
+                continue;
+            }
+            double centro = (snapshot.getPrimerNumero(fila) + snapshot.getUltimoNumero(fila)) / 2.0;
+            double penalidadFila = (fila - desde) * PESO_FILA;
+            if (preferirCentro && penalidadFila >= mejorPuntaje) {
+                // Las filas siguientes solo pueden empeorar
+                break;
+            }
+
+            int inicio = libres.nextSetBit(0);
+            while (inicio >= 0) {
+                int fin = libres.nextClearBit(inicio);
+                if (fin - inicio >= cantidad) {
+                    if (!preferirCentro) {
+                        return Optional.of(new Ventana(fila, inicio));
+                    }
+                    // Ventana del tramo más cercana al centro de la fila
+                    int ideal = (int) Math.round(centro - (cantidad - 1) / 2.0);
+                    int primero = Math.max(inicio, Math.min(ideal, fin - cantidad));
+                    double puntaje = Math.abs(primero + (cantidad - 1) / 2.0 - centro) + penalidadFila;
+                    if (puntaje < mejorPuntaje) {
+                        mejorPuntaje = puntaje;
+                        mejor = new Ventana(fila, primero);
+                    }
+                }
+                inicio = libres.nextSetBit(fin);
+            }
+        }
+        return Optional.ofNullable(mejor);
+    }
+
+    /**
+     * Asientos {@code primerNumero .. primerNumero + cantidad - 1} de la fila {@code fila} de la grilla.
+     */
+    record Ventana(int fila, int primerNumero) {}
+}
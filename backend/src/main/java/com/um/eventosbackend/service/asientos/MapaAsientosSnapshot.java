@@ -0,0 +1,171 @@
+package com.um.eventosbackend.service.asientos;
+
+import com.um.eventos.asientos.GrillaAsientos;
+import com.um.eventosbackend.service.dto.MapaAsientosDTO;
+import com.um.eventosbackend.service.dto.MapaAsientosDTO.AsientoDTO.EstadoAsiento;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mapa de asientos inmutable de un evento, compartido por todos los usuarios que lo consultan.
+ * <p>
+ * Los asientos se guardan en arreglos paralelos (orden del proxy) con un índice por (fila, número),
+ * de modo que la selección de cada usuario se representa con un {@link BitSet} sobre esas posiciones.
+ * <p>
+ * Además guarda una grilla de asientos libres: por cada fila (ordenadas según {@link #numeroDeFila}) un
+ * {@link BitSet} con los números de asiento libres, para buscar asientos contiguos sin recorrer el mapa.
+ */
+public final class MapaAsientosSnapshot {
+
+    private final Long eventoId;
+    private final String[] filas;
+    private final int[] numeros;
+    private final EstadoAsiento[] estados;
+    private final Map<String, Integer> indice;
+    // Grilla de libres, filas en orden
+    private final String[] filasGrilla;
+    private final BitSet[] libresPorFila;
+    private final int[] primerNumero;
+    private final int[] ultimoNumero;
+
+    private MapaAsientosSnapshot(Long eventoId, String[] filas, int[] numeros, EstadoAsiento[] estados) {
+        this.eventoId = eventoId;
+        this.filas = filas;
+        this.numeros = numeros;
+        this.estados = estados;
+        this.indice = new HashMap<>(Math.max(16, filas.length * 2));
+        for (int i = 0; i < filas.length; i++) {
+            indice.putIfAbsent(clave(filas[i], numeros[i]), i);
+        }
+
+        TreeMap<Integer, String> orden = new TreeMap<>();
+        for (String fila : filas) {
+            if (fila != null) {
+                orden.putIfAbsent(numeroDeFila(fila), fila);
+            }
+        }
+        this.filasGrilla = orden.values().toArray(new String[0]);
+        Map<String, Integer> filaGrilla = new HashMap<>();
+        for (int f = 0; f < filasGrilla.length; f++) {
+            filaGrilla.put(filasGrilla[f], f);
+        }
+        this.libresPorFila = new BitSet[filasGrilla.length];
+        this.primerNumero = new int[filasGrilla.length];
+        this.ultimoNumero = new int[filasGrilla.length];
+        for (int f = 0; f < filasGrilla.length; f++) {
+            libresPorFila[f] = new BitSet();
+            primerNumero[f] = Integer.MAX_VALUE;
+            ultimoNumero[f] = Integer.MIN_VALUE;
+        }
+        for (int i = 0; i < filas.length; i++) {
+            Integer f = filas[i] != null ? filaGrilla.get(filas[i]) : null;
+            if (f == null || numeros[i] < 0) {
+                continue;
+            }
+            primerNumero[f] = Math.min(primerNumero[f], numeros[i]);
+            ultimoNumero[f] = Math.max(ultimoNumero[f], numeros[i]);
+            if (estados[i] == EstadoAsiento.LIBRE) {
+                libresPorFila[f].set(numeros[i]);
+            }
+        }
+    }
+
+    /**
+     * Construye el snapshot a partir del mapa recibido del proxy (descarta asientos sin número).
+     */
+    public static MapaAsientosSnapshot desde(MapaAsientosDTO mapa) {
+        List<MapaAsientosDTO.AsientoDTO> asientos = mapa.getAsientos() != null ? mapa.getAsientos() : List.of();
+        int cantidad = (int) asientos.stream().filter(a -> a.getNumero() != null).count();
+        String[] filas = new String[cantidad];
+        int[] numeros = new int[cantidad];
+        EstadoAsiento[] estados = new EstadoAsiento[cantidad];
+        int i = 0;
+        for (MapaAsientosDTO.AsientoDTO asiento : asientos) {
+            if (asiento.getNumero() == null) {
+                continue;
+            }
+            filas[i] = asiento.getFila();
+            numeros[i] = asiento.getNumero();
+            estados[i] = asiento.getEstado();
+            i++;
+        }
+        return new MapaAsientosSnapshot(mapa.getEventoId(), filas, numeros, estados);
+    }
+
+    public Long getEventoId() {
+        return eventoId;
+    }
+
+    public int size() {
+        return filas.length;
+    }
+
+    public boolean isEmpty() {
+        return filas.length == 0;
+    }
+
+    public String getFila(int posicion) {
+        return filas[posicion];
+    }
+
+    public int getNumero(int posicion) {
+        return numeros[posicion];
+    }
+
+    public EstadoAsiento getEstado(int posicion) {
+        return estados[posicion];
+    }
+
+    /**
+     * Posición del asiento en el snapshot, o -1 si no existe.
+     */
+    public int posicion(String fila, Integer numero) {
+        if (fila == null || numero == null) {
+            return -1;
+        }
+        return indice.getOrDefault(clave(fila, numero), -1);
+    }
+
+    /**
+     * Cantidad de filas de la grilla de libres.
+     */
+    public int cantidadFilas() {
+        return filasGrilla.length;
+    }
+
+    /**
+     * Fila de la grilla en la posición indicada (en orden de {@link #numeroDeFila}).
+     */
+    public String getFilaGrilla(int fila) {
+        return filasGrilla[fila];
+    }
+
+    /**
+     * Números de asiento libres de la fila de la grilla. Es compartido: no se debe modificar.
+     */
+    BitSet libres(int fila) {
+        return libresPorFila[fila];
+    }
+
+    public int getPrimerNumero(int fila) {
+        return primerNumero[fila];
+    }
+
+    public int getUltimoNumero(int fila) {
+        return ultimoNumero[fila];
+    }
+
+    /**
+     * Número de la fila como lo espera el proxy: A=1, B=2, ...; o la fila misma si es numérica (1 si no se puede convertir).
+     */
+    public static int numeroDeFila(String fila) {
+        return GrillaAsientos.numeroDeFila(fila);
+    }
+
+    private static String clave(String fila, int numero) {
+        return fila + "-" + numero;
+    }
+}
@@ -0,0 +1,235 @@
+package com.um.eventosbackend.service.asientos;
+
+import com.um.eventosbackend.config.ApplicationProperties;
+import com.um.eventosbackend.service.dto.MapaAsientosDTO;
+import com.um.eventosbackend.service.proxy.ProxyAsientosService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Snapshots compartidos del mapa de asientos, uno por evento.
+ * <p>
+ * Cada snapshot es inmutable y vale durante {@code application.asientos.prefetch-ttl-ms}; todos los usuarios
+ * que consultan el mismo evento lo reutilizan y la selección de cada uno se aplica al serializar
+ * ({@link MapaAsientosVista}). Las cargas concurrentes del mismo evento se colapsan en una sola llamada
+ * al proxy: quien llega con una carga en curso la espera hasta {@code application.asientos.espera-carga-ms} y,
+ * si no termina a tiempo o falla, recibe el último snapshot aunque esté vencido (o un mapa vacío) en lugar de
+ * llamar otra vez al proxy. Los snapshots vencidos se conservan un minuto para eso. Al abrir el detalle de un
+ * evento se lanza además un prefetch en segundo plano, porque el
+ * {@code GET /api/asientos/evento/{id}} casi siempre sigue.
+ * <p>
+ * Cada evento tiene una generación que {@link #invalidar} incrementa: una carga que empezó antes de la
+ * invalidación no guarda su resultado, que puede ser anterior al cambio.
+ * <p>
+ * Métricas: {@code asientos.snapshot.consultas} (tag {@code resultado}: hit, en_curso, vencido, miss),
+ * {@code asientos.snapshot.hit.ratio}, {@code asientos.snapshot.prefetch.lanzados} y
+ * {@code asientos.snapshot.prefetch.descartados}.
+ */
+@Service
+public class MapaAsientosSnapshotService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MapaAsientosSnapshotService.class);
+
+    private static final long RETENCION_VENCIDOS_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final ProxyAsientosService proxyAsientosService;
+    private final long ttlNanos;
+    private final long esperaCargaMs;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Map<Long, Entrada> cargados = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<MapaAsientosSnapshot>> enCurso = new ConcurrentHashMap<>();
+    // Solo se modifica y se compara dentro de cargados.compute del mismo evento
+    private final Map<Long, Long> generaciones = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter hitsEnCurso;
+    private final Counter vencidos;
+    private final Counter misses;
+    private final Counter lanzados;
+    private final Counter descartados;
+
+    public MapaAsientosSnapshotService(
+        ProxyAsientosService proxyAsientosService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.proxyAsientosService = proxyAsientosService;
+
+        ApplicationProperties.Asientos config = applicationProperties.getAsientos();
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(config.getPrefetchTtlMs());
+        this.esperaCargaMs = config.getEsperaCargaMs();
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(config.getPrefetchWorkers());
+        executor.setMaxPoolSize(config.getPrefetchWorkers());
+        executor.setQueueCapacity(config.getPrefetchCola());
+        executor.setThreadNamePrefix("asientos-prefetch-");
+        executor.initialize();
+
+        this.hits = consultas(meterRegistry, "hit");
+        this.hitsEnCurso = consultas(meterRegistry, "en_curso");
+        this.vencidos = consultas(meterRegistry, "vencido");
+        this.misses = consultas(meterRegistry, "miss");
+        Gauge.builder("asientos.snapshot.hit.ratio", this, MapaAsientosSnapshotService::hitRatio)
+            .description("Proporción de consultas del mapa de asientos resueltas sin una llamada propia al proxy")
+            .register(meterRegistry);
+        this.lanzados = Counter.builder("asientos.snapshot.prefetch.lanzados")
+            .description("Prefetches del mapa de asientos enviados al proxy")
+            .register(meterRegistry);
+        this.descartados = Counter.builder("asientos.snapshot.prefetch.descartados")
+            .description("Prefetches descartados por cola llena")
+            .register(meterRegistry);
+    }
+
+    private static Counter consultas(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("asientos.snapshot.consultas")
+            .tag("resultado", resultado)
+            .description("Consultas del mapa de asientos según si reutilizaron un snapshot")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Lanza en segundo plano la carga del snapshot del evento, salvo que ya haya uno fresco o uno en curso.
+     */
+    public void prefetch(Long eventoId) {
+        if (eventoId == null || esFresca(cargados.get(eventoId))) {
+            return;
+        }
+        CompletableFuture<MapaAsientosSnapshot> nuevo = new CompletableFuture<>();
+        if (enCurso.putIfAbsent(eventoId, nuevo) != null) {
+            return;
+        }
+        try {
+            executor.execute(() -> cargar(eventoId, nuevo));
+            lanzados.increment();
+        } catch (TaskRejectedException e) {
+            descartados.increment();
+            enCurso.remove(eventoId, nuevo);
+            nuevo.complete(null);
+            LOG.debug("Cola de prefetch llena, se descarta el prefetch de eventoId: {}", eventoId);
+        }
+    }
+
+    /**
+     * Devuelve el snapshot del evento: el fresco si existe, el de una carga en curso, o uno nuevo pedido al proxy.
+     * <p>
+     * Si el proxy no devuelve asientos el snapshot queda vacío y no se guarda. Si la carga en curso de otra
+     * consulta no termina dentro de la espera máxima, o falla, se devuelve el último snapshot vencido o uno vacío.
+     */
+    public MapaAsientosSnapshot obtener(Long eventoId) {
+        Entrada entrada = cargados.get(eventoId);
+        if (esFresca(entrada)) {
+            hits.increment();
+            return entrada.snapshot();
+        }
+
+        CompletableFuture<MapaAsientosSnapshot> nuevo = new CompletableFuture<>();
+        CompletableFuture<MapaAsientosSnapshot> actual = enCurso.putIfAbsent(eventoId, nuevo);
+        if (actual == null) {
+            misses.increment();
+            return cargar(eventoId, nuevo);
+        }
+        try {
+            MapaAsientosSnapshot snapshot = actual.get(esperaCargaMs, TimeUnit.MILLISECONDS);
+            if (snapshot != null) {
+                hitsEnCurso.increment();
+                return snapshot;
+            }
+        } catch (TimeoutException | ExecutionException e) {
+            LOG.debug("La carga en curso del mapa de eventoId {} no terminó a tiempo", eventoId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // La carga compartida falló o tardó demasiado: no se llama otra vez al proxy por cada consulta en espera
+        Entrada anterior = cargados.get(eventoId);
+        if (anterior != null) {
+            vencidos.increment();
+            return anterior.snapshot();
+        }
+        misses.increment();
+        return MapaAsientosSnapshot.desde(vacio(eventoId));
+    }
+
+    /**
+     * Devuelve el snapshot del evento solo si está fresco, sin llamar al proxy.
+     */
+    public Optional<MapaAsientosSnapshot> obtenerFresco(Long eventoId) {
+        Entrada entrada = cargados.get(eventoId);
+        return esFresca(entrada) ? Optional.of(entrada.snapshot()) : Optional.empty();
+    }
+
+    /**
+     * Descarta el snapshot del evento (por ejemplo, después de un bloqueo de asientos). Una carga en curso
+     * sigue respondiendo a quienes ya la esperaban, pero no se guarda y las consultas nuevas lanzan otra.
+     */
+    public void invalidar(Long eventoId) {
+        cargados.compute(eventoId, (id, entrada) -> {
+            generaciones.merge(id, 1L, Long::sum);
+            return null;
+        });
+        enCurso.remove(eventoId);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgarVencidos() {
+        long ahora = System.nanoTime();
+        cargados.values().removeIf(entrada -> ahora - entrada.cargadoNanos() >= ttlNanos + RETENCION_VENCIDOS_NANOS);
+    }
+
+    private MapaAsientosSnapshot cargar(Long eventoId, CompletableFuture<MapaAsientosSnapshot> futuro) {
+        MapaAsientosSnapshot snapshot = null;
+        long generacion = generaciones.getOrDefault(eventoId, 0L);
+        try {
+            snapshot = MapaAsientosSnapshot.desde(proxyAsientosService.obtenerMapaAsientos(eventoId));
+            // El proxy devuelve un mapa vacío ante errores: no se guarda
+            if (!snapshot.isEmpty()) {
+                Entrada nueva = new Entrada(snapshot, System.nanoTime());
+                cargados.compute(eventoId, (id, anterior) -> generaciones.getOrDefault(id, 0L) == generacion ? nueva : anterior);
+            }
+        } catch (Exception e) {
+            LOG.debug("Error al cargar el mapa de eventoId: {}", eventoId, e);
+        } finally {
+            enCurso.remove(eventoId, futuro);
+            futuro.complete(snapshot != null && !snapshot.isEmpty() ? snapshot : null);
+        }
+        return snapshot != null ? snapshot : MapaAsientosSnapshot.desde(vacio(eventoId));
+    }
+
+    private static MapaAsientosDTO vacio(Long eventoId) {
+        MapaAsientosDTO mapa = new MapaAsientosDTO();
+        mapa.setEventoId(eventoId);
+        return mapa;
+    }
+
+    private boolean esFresca(Entrada entrada) {
+        return entrada != null && System.nanoTime() - entrada.cargadoNanos() < ttlNanos;
+    }
+
+    private double hitRatio() {
+        double aciertos = hits.count() + hitsEnCurso.count();
+        double total = aciertos + vencidos.count() + misses.count();
+        return total == 0 ? Double.NaN : aciertos / total;
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdown();
+    }
+
+    private record Entrada(MapaAsientosSnapshot snapshot, long cargadoNanos) {}
+}
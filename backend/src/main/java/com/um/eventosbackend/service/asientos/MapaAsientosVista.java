@@ -0,0 +1,130 @@
+package com.um.eventosbackend.service.asientos;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.util.BitSet;
+
+/**
+ * Mapa de asientos tal como lo ve un usuario: el {@link MapaAsientosSnapshot} compartido del evento
+ * más los asientos que el usuario tiene seleccionados.
+ * <p>
+ * La selección se aplica al serializar, sin copiar el snapshot. El JSON es el mismo que el de
+ * {@link com.um.eventosbackend.service.dto.MapaAsientosDTO}. Si se pidió una {@link RegionMapa}, solo se
+ * serializan las posiciones de esa ventana y se agregan {@code region} y {@code version} (el mismo valor que
+ * el ETag de la respuesta).
+ */
+@JsonSerialize(using = MapaAsientosVista.Serializer.class)
+public final class MapaAsientosVista {
+
+    private final Long eventoId;
+    private final MapaAsientosSnapshot snapshot;
+    private final BitSet seleccionados;
+    private final RegionMapa region;
+    // Posiciones de la región en orden de fila y número; null = todo el snapshot
+    private final int[] posiciones;
+    private final String version;
+
+    public MapaAsientosVista(Long eventoId, MapaAsientosSnapshot snapshot, BitSet seleccionados) {
+        this(eventoId, snapshot, seleccionados, null, null, null);
+    }
+
+    public MapaAsientosVista(
+        Long eventoId,
+        MapaAsientosSnapshot snapshot,
+        BitSet seleccionados,
+        RegionMapa region,
+        int[] posiciones,
+        String version
+    ) {
+        this.eventoId = eventoId;
+        this.snapshot = snapshot;
+        this.seleccionados = seleccionados;
+        this.region = region;
+        this.posiciones = posiciones;
+        this.version = version;
+    }
+
+    public Long getEventoId() {
+        return eventoId;
+    }
+
+    public MapaAsientosSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public boolean isSeleccionado(int posicion) {
+        return seleccionados.get(posicion);
+    }
+
+    public RegionMapa getRegion() {
+        return region;
+    }
+
+    /**
+     * Versión del contenido de la región (cambia si cambia el estado o la selección de algún asiento de ella).
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    int cantidad() {
+        return posiciones != null ? posiciones.length : snapshot.size();
+    }
+
+    int posicion(int indice) {
+        return posiciones != null ? posiciones[indice] : indice;
+    }
+
+    public static class Serializer extends StdSerializer<MapaAsientosVista> {
+
+        public Serializer() {
+            super(MapaAsientosVista.class);
+        }
+
+        @Override
+        public void serialize(MapaAsientosVista vista, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            MapaAsientosSnapshot snapshot = vista.getSnapshot();
+            gen.writeStartObject();
+            if (vista.getEventoId() != null) {
+                gen.writeNumberField("eventoId", vista.getEventoId());
+            } else {
+                gen.writeNullField("eventoId");
+            }
+            RegionMapa region = vista.getRegion();
+            if (region != null) {
+                gen.writeObjectFieldStart("region");
+                escribirLimite(gen, "filaDesde", region.filaDesde());
+                escribirLimite(gen, "filaHasta", region.filaHasta());
+                escribirLimite(gen, "colDesde", region.colDesde());
+                escribirLimite(gen, "colHasta", region.colHasta());
+                gen.writeEndObject();
+                gen.writeStringField("version", vista.getVersion());
+            }
+            gen.writeArrayFieldStart("asientos");
+            for (int indice = 0; indice < vista.cantidad(); indice++) {
+                int i = vista.posicion(indice);
+                gen.writeStartObject();
+                gen.writeStringField("fila", snapshot.getFila(i));
+                gen.writeNumberField("numero", snapshot.getNumero(i));
+                if (snapshot.getEstado(i) != null) {
+                    gen.writeStringField("estado", snapshot.getEstado(i).toValue());
+                } else {
+                    gen.writeNullField("estado");
+                }
+                gen.writeBooleanField("seleccionado", vista.isSeleccionado(i));
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+
+        private static void escribirLimite(JsonGenerator gen, String campo, Integer valor) throws IOException {
+            if (valor != null) {
+                gen.writeNumberField(campo, valor);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.um.eventosbackend.service.asientos;
+
+/**
+ * Ventana rectangular del mapa de asientos pedida por un cliente (filas según
+ * {@link MapaAsientosSnapshot#numeroDeFila}, columnas = número de asiento). Los límites son inclusivos y
+ * cualquiera puede faltar, en cuyo caso la ventana llega hasta el borde del mapa.
+ */
+public record RegionMapa(Integer filaDesde, Integer filaHasta, Integer colDesde, Integer colHasta) {
+    /**
+     * Crea la región, o devuelve {@code null} si no se pidió ningún límite (mapa completo).
+     *
+     * @throws IllegalArgumentException si algún límite es menor que 1 o un rango está invertido.
+     */
+    public static RegionMapa de(Integer filaDesde, Integer filaHasta, Integer colDesde, Integer colHasta) {
+        if (filaDesde == null && filaHasta == null && colDesde == null && colHasta == null) {
+            return null;
+        }
+        validar(filaDesde, filaHasta, "filas");
+        validar(colDesde, colHasta, "columnas");
+        return new RegionMapa(filaDesde, filaHasta, colDesde, colHasta);
+    }
+
+    private static void validar(Integer desde, Integer hasta, String eje) {
+        if ((desde != null && desde < 1) || (hasta != null && hasta < 1) || (desde != null && hasta != null && desde > hasta)) {
+            throw new IllegalArgumentException("Rango de " + eje + " inválido: " + desde + " a " + hasta);
+        }
+    }
+
+    public boolean incluyeFila(int fila) {
+        return (filaDesde == null || fila >= filaDesde) && (filaHasta == null || fila <= filaHasta);
+    }
+}
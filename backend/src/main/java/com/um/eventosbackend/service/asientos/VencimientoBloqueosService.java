@@ -0,0 +1,64 @@
+package com.um.eventosbackend.service.asientos;
+
+import com.um.eventosbackend.config.ApplicationProperties;
+import com.um.eventosbackend.service.dto.BloqueosVencidosDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+
+/**
+ * Procesa los avisos del proxy sobre bloqueos de asientos vencidos.
+ * <p>
+ * El snapshot compartido del evento se descarta, porque todavía muestra esos asientos como bloqueados. Con
+ * {@code application.asientos.push-vencimientos} activo se lanza además un prefetch para tener el mapa nuevo
+ * listo y se publica el aviso en {@code /topic/asientos/{eventoId}}, así los clientes que están mirando el
+ * mapa lo vuelven a pedir en lugar de esperar a refrescar.
+ */
+@Service
+public class VencimientoBloqueosService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VencimientoBloqueosService.class);
+
+    public static final String TOPICO = "/topic/asientos/";
+
+    private final MapaAsientosSnapshotService mapaAsientosSnapshotService;
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final boolean push;
+
+    private final Counter avisos;
+
+    public VencimientoBloqueosService(
+        MapaAsientosSnapshotService mapaAsientosSnapshotService,
+        SimpMessageSendingOperations messagingTemplate,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.mapaAsientosSnapshotService = mapaAsientosSnapshotService;
+        this.messagingTemplate = messagingTemplate;
+        this.push = Boolean.TRUE.equals(applicationProperties.getAsientos().getPushVencimientos());
+        this.avisos = Counter.builder("asientos.bloqueo.vencimientos")
+            .description("Avisos de bloqueos vencidos recibidos del proxy")
+            .register(meterRegistry);
+    }
+
+    public void procesar(BloqueosVencidosDTO vencidos) {
+        Long eventoId = vencidos.getEventoId();
+        if (eventoId == null) {
+            return;
+        }
+        avisos.increment();
+        mapaAsientosSnapshotService.invalidar(eventoId);
+        if (!push) {
+            return;
+        }
+        mapaAsientosSnapshotService.prefetch(eventoId);
+        try {
+            messagingTemplate.convertAndSend(TOPICO + eventoId, vencidos);
+        } catch (Exception e) {
+            LOG.debug("No se pudo publicar el vencimiento de bloqueos del evento {}", eventoId, e);
+        }
+    }
+}
@@ -3,11 +3,13 @@ package com.um.eventosbackend.service.catedra;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.um.eventosbackend.domain.Evento;
 import com.um.eventosbackend.repository.EventoRepository;
+import com.um.eventosbackend.service.CatalogoEventosModificadoEvent;
 import com.um.eventosbackend.service.dto.CatedraEventoDTO;
 import com.um.eventosbackend.service.dto.NotificacionEventoDTO;
 import com.um.eventosbackend.service.mapper.EventoMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,15 +22,18 @@ public class EventoNotificacionService {
     private final EventoRepository eventoRepository;
     private final EventoMapper eventoMapper;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public EventoNotificacionService(
         EventoRepository eventoRepository,
         EventoMapper eventoMapper,
-        ObjectMapper objectMapper
+        ObjectMapper objectMapper,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.eventoRepository = eventoRepository;
         this.eventoMapper = eventoMapper;
         this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     public void procesarNotificacion(NotificacionEventoDTO notificacion) {
@@ -41,6 +46,11 @@ public class EventoNotificacionService {
             notificacion.getEventoIdCatedra(), notificacion.getTipoCambio());
 
         try {
+            // ID interno previo al cambio (en DELETE el evento deja de existir)
+            Long eventoId = eventoRepository.findByEventoIdCatedra(notificacion.getEventoIdCatedra())
+                .map(Evento::getId)
+                .orElse(null);
+
             switch (notificacion.getTipoCambio()) {
                 case CREATE:
                     procesarCreacion(notificacion);
@@ -56,7 +66,18 @@ public class EventoNotificacionService {
                     break;
                 default:
                     LOG.warn("Tipo de cambio desconocido: {}, se omite", notificacion.getTipoCambio());
+                    return;
+            }
+
+            if (eventoId == null) {
+                eventoId = eventoRepository.findByEventoIdCatedra(notificacion.getEventoIdCatedra())
+                    .map(Evento::getId)
+                    .orElse(null);
             }
+            // Las vistas en memoria se reconstruyen después del commit
+            eventPublisher.publishEvent(
+                eventoId != null ? new CatalogoEventosModificadoEvent(eventoId) : CatalogoEventosModificadoEvent.catalogoCompleto()
+            );
         } catch (Exception e) {
             LOG.error("Error al procesar notificación de evento", e);
             throw new RuntimeException("Error al procesar notificación de evento", e);
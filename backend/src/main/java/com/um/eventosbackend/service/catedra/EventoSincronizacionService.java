@@ -2,6 +2,7 @@ package com.um.eventosbackend.service.catedra;
 
 import com.um.eventosbackend.domain.Evento;
 import com.um.eventosbackend.repository.EventoRepository;
+import com.um.eventosbackend.service.CatalogoEventosModificadoEvent;
 import com.um.eventosbackend.service.catedra.exception.CatedraAuthenticationException;
 import com.um.eventosbackend.service.catedra.exception.MissingCatedraTokenException;
 import com.um.eventosbackend.service.dto.CatedraEventoDTO;
@@ -13,6 +14,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -38,15 +40,18 @@ public class EventoSincronizacionService {
     private final RestTemplate catedraRestTemplate;
     private final EventoRepository eventoRepository;
     private final EventoMapper eventoMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public EventoSincronizacionService(
         @org.springframework.beans.factory.annotation.Qualifier("catedraRestTemplate") RestTemplate catedraRestTemplate,
         EventoRepository eventoRepository,
-        EventoMapper eventoMapper
+        EventoMapper eventoMapper,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.catedraRestTemplate = catedraRestTemplate;
         this.eventoRepository = eventoRepository;
         this.eventoMapper = eventoMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -87,6 +92,9 @@ public class EventoSincronizacionService {
             // Marcar eventos expirados
             marcarEventosExpirados();
 
+            // Las vistas en memoria se reconstruyen después del commit
+            eventPublisher.publishEvent(CatalogoEventosModificadoEvent.catalogoCompleto());
+
             LOG.info("Sincronización de eventos completada exitosamente");
 
         } catch (MissingCatedraTokenException e) {
@@ -0,0 +1,38 @@
+package com.um.eventosbackend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Asientos de un evento cuyos bloqueos vencieron en la cátedra, según el aviso del proxy.
+ * <p>
+ * Se publica igual en {@code /topic/asientos/{eventoId}} para que los clientes vuelvan a pedir el mapa.
+ */
+public class BloqueosVencidosDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @JsonProperty("eventoId")
+    private Long eventoId;
+
+    @JsonProperty("asientos")
+    private List<BloqueoAsientosRequestDTO.AsientoBloqueoDTO> asientos = new ArrayList<>();
+
+    public Long getEventoId() {
+        return eventoId;
+    }
+
+    public void setEventoId(Long eventoId) {
+        this.eventoId = eventoId;
+    }
+
+    public List<BloqueoAsientosRequestDTO.AsientoBloqueoDTO> getAsientos() {
+        return asientos;
+    }
+
+    public void setAsientos(List<BloqueoAsientosRequestDTO.AsientoBloqueoDTO> asientos) {
+        this.asientos = asientos;
+    }
+}
@@ -0,0 +1,41 @@
+package com.um.eventosbackend.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Página del listado de eventos paginado por keyset (fecha, id).
+ */
+public class EventoPaginaDTO implements Serializable {
+
+    private List<EventoResumenDTO> eventos = new ArrayList<>();
+
+    /**
+     * Cursor opaco para pedir la página siguiente; {@code null} si no hay más eventos.
+     */
+    private String siguienteCursor;
+
+    public EventoPaginaDTO() {}
+
+    public EventoPaginaDTO(List<EventoResumenDTO> eventos, String siguienteCursor) {
+        this.eventos = eventos;
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public List<EventoResumenDTO> getEventos() {
+        return eventos;
+    }
+
+    public void setEventos(List<EventoResumenDTO> eventos) {
+        this.eventos = eventos;
+    }
+
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public void setSiguienteCursor(String siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+}
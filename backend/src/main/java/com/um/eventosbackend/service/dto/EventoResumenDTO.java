@@ -17,6 +17,21 @@ public class EventoResumenDTO implements Serializable {
     private BigDecimal precio;
     private Boolean cancelado;
 
+    public EventoResumenDTO() {}
+
+    /**
+     * Constructor usado por la proyección JPQL ({@code SELECT new ...}) del listado paginado.
+     */
+    public EventoResumenDTO(Long id, String titulo, String resumen, Instant fecha, String direccion, BigDecimal precio, Boolean cancelado) {
+        this.id = id;
+        this.titulo = titulo;
+        this.resumen = resumen;
+        this.fecha = fecha;
+        this.direccion = direccion;
+        this.precio = precio;
+        this.cancelado = cancelado;
+    }
+
     public Long getId() {
         return id;
     }
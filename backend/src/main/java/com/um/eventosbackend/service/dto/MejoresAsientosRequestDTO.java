@@ -0,0 +1,82 @@
+package com.um.eventosbackend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+
+/**
+ * Pedido de los mejores asientos contiguos disponibles de un evento.
+ */
+public class MejoresAsientosRequestDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Cantidad de asientos contiguos (como máximo los que admite la selección).
+     */
+    @JsonProperty("cantidad")
+    private Integer cantidad;
+
+    /**
+     * Primera fila aceptable (opcional, inclusive).
+     */
+    @JsonProperty("filaDesde")
+    private String filaDesde;
+
+    /**
+     * Última fila aceptable (opcional, inclusive).
+     */
+    @JsonProperty("filaHasta")
+    private String filaHasta;
+
+    /**
+     * Preferir asientos cerca del centro de la fila; si no, se toma la primera ventana libre.
+     */
+    @JsonProperty("preferirCentro")
+    private Boolean preferirCentro = true;
+
+    /**
+     * Guardar los asientos encontrados como selección del usuario y bloquearlos en el mismo request.
+     */
+    @JsonProperty("bloquear")
+    private Boolean bloquear = false;
+
+    public Integer getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(Integer cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public String getFilaDesde() {
+        return filaDesde;
+    }
+
+    public void setFilaDesde(String filaDesde) {
+        this.filaDesde = filaDesde;
+    }
+
+    public String getFilaHasta() {
+        return filaHasta;
+    }
+
+    public void setFilaHasta(String filaHasta) {
+        this.filaHasta = filaHasta;
+    }
+
+    public Boolean getPreferirCentro() {
+        return preferirCentro;
+    }
+
+    public void setPreferirCentro(Boolean preferirCentro) {
+        this.preferirCentro = preferirCentro;
+    }
+
+    public Boolean getBloquear() {
+        return bloquear;
+    }
+
+    public void setBloquear(Boolean bloquear) {
+        this.bloquear = bloquear;
+    }
+}
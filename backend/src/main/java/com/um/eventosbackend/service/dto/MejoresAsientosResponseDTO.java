@@ -0,0 +1,72 @@
+package com.um.eventosbackend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mejores asientos contiguos encontrados y, si se pidió, el resultado de bloquearlos.
+ */
+public class MejoresAsientosResponseDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @JsonProperty("eventoId")
+    private Long eventoId;
+
+    @JsonProperty("encontrados")
+    private Boolean encontrados;
+
+    @JsonProperty("mensaje")
+    private String mensaje;
+
+    @JsonProperty("asientos")
+    private List<BloqueoAsientosResponseDTO.AsientoBloqueoDTO> asientos = new ArrayList<>();
+
+    /**
+     * Resultado del bloqueo; {@code null} si no se pidió bloquear o no se encontraron asientos.
+     */
+    @JsonProperty("bloqueo")
+    private BloqueoAsientosResponseDTO bloqueo;
+
+    public Long getEventoId() {
+        return eventoId;
+    }
+
+    public void setEventoId(Long eventoId) {
+        this.eventoId = eventoId;
+    }
+
+    public Boolean getEncontrados() {
+        return encontrados;
+    }
+
+    public void setEncontrados(Boolean encontrados) {
+        this.encontrados = encontrados;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+
+    public List<BloqueoAsientosResponseDTO.AsientoBloqueoDTO> getAsientos() {
+        return asientos;
+    }
+
+    public void setAsientos(List<BloqueoAsientosResponseDTO.AsientoBloqueoDTO> asientos) {
+        this.asientos = asientos;
+    }
+
+    public BloqueoAsientosResponseDTO getBloqueo() {
+        return bloqueo;
+    }
+
+    public void setBloqueo(BloqueoAsientosResponseDTO bloqueo) {
+        this.bloqueo = bloqueo;
+    }
+}
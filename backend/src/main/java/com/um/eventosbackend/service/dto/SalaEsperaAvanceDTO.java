@@ -0,0 +1,63 @@
+package com.um.eventosbackend.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * Aviso de avance de la sala de espera, publicado en {@code /topic/sala-espera/{eventoId}} una vez por segundo.
+ * <p>
+ * Cada cliente calcula su posición como {@code turno - turnoAdmitido}; con un solo mensaje por evento el
+ * costo de avisar no crece con la cantidad de usuarios en espera.
+ */
+public class SalaEsperaAvanceDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long eventoId;
+    /**
+     * Último turno admitido.
+     */
+    private Long turnoAdmitido;
+    private Integer enEspera;
+    private Integer admisionesPorSegundo;
+
+    public SalaEsperaAvanceDTO() {}
+
+    public SalaEsperaAvanceDTO(Long eventoId, Long turnoAdmitido, Integer enEspera, Integer admisionesPorSegundo) {
+        this.eventoId = eventoId;
+        this.turnoAdmitido = turnoAdmitido;
+        this.enEspera = enEspera;
+        this.admisionesPorSegundo = admisionesPorSegundo;
+    }
+
+    public Long getEventoId() {
+        return eventoId;
+    }
+
+    public void setEventoId(Long eventoId) {
+        this.eventoId = eventoId;
+    }
+
+    public Long getTurnoAdmitido() {
+        return turnoAdmitido;
+    }
+
+    public void setTurnoAdmitido(Long turnoAdmitido) {
+        this.turnoAdmitido = turnoAdmitido;
+    }
+
+    public Integer getEnEspera() {
+        return enEspera;
+    }
+
+    public void setEnEspera(Integer enEspera) {
+        this.enEspera = enEspera;
+    }
+
+    public Integer getAdmisionesPorSegundo() {
+        return admisionesPorSegundo;
+    }
+
+    public void setAdmisionesPorSegundo(Integer admisionesPorSegundo) {
+        this.admisionesPorSegundo = admisionesPorSegundo;
+    }
+}
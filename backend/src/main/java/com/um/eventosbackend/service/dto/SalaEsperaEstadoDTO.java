@@ -0,0 +1,98 @@
+package com.um.eventosbackend.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Estado de un usuario en la sala de espera de un evento.
+ * <p>
+ * Mientras espera trae su turno, la posición estimada y la espera estimada; una vez admitido trae el token
+ * de admisión que debe enviarse en el header {@code X-Admision-Token}.
+ */
+public class SalaEsperaEstadoDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long eventoId;
+    private boolean admitido;
+    /**
+     * Turno del usuario en la cola; se compara con {@code turnoAdmitido} de los avisos por WebSocket.
+     */
+    private Long turno;
+    private Long posicion;
+    private Long esperaEstimadaSegundos;
+    private String token;
+    private Instant expiracionToken;
+
+    public Long getEventoId() {
+        return eventoId;
+    }
+
+    public void setEventoId(Long eventoId) {
+        this.eventoId = eventoId;
+    }
+
+    public boolean isAdmitido() {
+        return admitido;
+    }
+
+    public void setAdmitido(boolean admitido) {
+        this.admitido = admitido;
+    }
+
+    public Long getTurno() {
+        return turno;
+    }
+
+    public void setTurno(Long turno) {
+        this.turno = turno;
+    }
+
+    public Long getPosicion() {
+        return posicion;
+    }
+
+    public void setPosicion(Long posicion) {
+        this.posicion = posicion;
+    }
+
+    public Long getEsperaEstimadaSegundos() {
+        return esperaEstimadaSegundos;
+    }
+
+    public void setEsperaEstimadaSegundos(Long esperaEstimadaSegundos) {
+        this.esperaEstimadaSegundos = esperaEstimadaSegundos;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public Instant getExpiracionToken() {
+        return expiracionToken;
+    }
+
+    public void setExpiracionToken(Instant expiracionToken) {
+        this.expiracionToken = expiracionToken;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "SalaEsperaEstadoDTO{" +
+            "eventoId=" +
+            eventoId +
+            ", admitido=" +
+            admitido +
+            ", turno=" +
+            turno +
+            ", posicion=" +
+            posicion +
+            "}"
+        );
+    }
+}
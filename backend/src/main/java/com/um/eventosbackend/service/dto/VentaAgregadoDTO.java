@@ -0,0 +1,80 @@
+package com.um.eventosbackend.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Totales de ventas de un evento para un resultado (EXITOSA, FALLIDA, PENDIENTE).
+ */
+public class VentaAgregadoDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @JsonProperty("eventoId")
+    private Long eventoId;
+
+    @JsonProperty("resultado")
+    private String resultado;
+
+    @JsonProperty("cantidadVentas")
+    private Long cantidadVentas;
+
+    @JsonProperty("cantidadAsientos")
+    private Long cantidadAsientos;
+
+    @JsonProperty("recaudacion")
+    private BigDecimal recaudacion;
+
+    @JsonProperty("fechaActualizacion")
+    private Instant fechaActualizacion;
+
+    public Long getEventoId() {
+        return eventoId;
+    }
+
+    public void setEventoId(Long eventoId) {
+        this.eventoId = eventoId;
+    }
+
+    public String getResultado() {
+        return resultado;
+    }
+
+    public void setResultado(String resultado) {
+        this.resultado = resultado;
+    }
+
+    public Long getCantidadVentas() {
+        return cantidadVentas;
+    }
+
+    public void setCantidadVentas(Long cantidadVentas) {
+        this.cantidadVentas = cantidadVentas;
+    }
+
+    public Long getCantidadAsientos() {
+        return cantidadAsientos;
+    }
+
+    public void setCantidadAsientos(Long cantidadAsientos) {
+        this.cantidadAsientos = cantidadAsientos;
+    }
+
+    public BigDecimal getRecaudacion() {
+        return recaudacion;
+    }
+
+    public void setRecaudacion(BigDecimal recaudacion) {
+        this.recaudacion = recaudacion;
+    }
+
+    public Instant getFechaActualizacion() {
+        return fechaActualizacion;
+    }
+
+    public void setFechaActualizacion(Instant fechaActualizacion) {
+        this.fechaActualizacion = fechaActualizacion;
+    }
+}
@@ -0,0 +1,41 @@
+package com.um.eventosbackend.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Página del historial de ventas paginado por keyset (fecha de venta, id), de la más reciente a la más vieja.
+ */
+public class VentaPaginaDTO implements Serializable {
+
+    private List<VentaResumenDTO> ventas = new ArrayList<>();
+
+    /**
+     * Cursor opaco para pedir la página siguiente; {@code null} si no hay más ventas.
+     */
+    private String siguienteCursor;
+
+    public VentaPaginaDTO() {}
+
+    public VentaPaginaDTO(List<VentaResumenDTO> ventas, String siguienteCursor) {
+        this.ventas = ventas;
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public List<VentaResumenDTO> getVentas() {
+        return ventas;
+    }
+
+    public void setVentas(List<VentaResumenDTO> ventas) {
+        this.ventas = ventas;
+    }
+
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public void setSiguienteCursor(String siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+}
@@ -1,6 +1,7 @@
 package com.um.eventosbackend.service.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.um.eventosbackend.domain.Venta;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -27,6 +28,27 @@ public class VentaResumenDTO implements Serializable {
     @JsonProperty("cantidadAsientos")
     private Integer cantidadAsientos;
 
+    public VentaResumenDTO() {}
+
+    /**
+     * Constructor para la proyección JPQL del historial, con la cantidad de asientos agrupada.
+     */
+    public VentaResumenDTO(
+        Long id,
+        Long eventoId,
+        Instant fechaVenta,
+        BigDecimal precioVenta,
+        Venta.ResultadoVenta resultado,
+        Long cantidadAsientos
+    ) {
+        this.id = id;
+        this.eventoId = eventoId;
+        this.fechaVenta = fechaVenta;
+        this.precioVenta = precioVenta;
+        this.resultado = resultado != null ? resultado.name() : null;
+        this.cantidadAsientos = cantidadAsientos != null ? cantidadAsientos.intValue() : 0;
+    }
+
     public Long getId() {
         return id;
     }
@@ -1,9 +1,16 @@
 package com.um.eventosbackend.service.proxy;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.um.eventos.asientos.CodecGrillaAsientos;
+import com.um.eventos.asientos.GrillaAsientos;
 import com.um.eventosbackend.config.ApplicationProperties;
 import com.um.eventosbackend.service.dto.BloqueoAsientosRequestDTO;
 import com.um.eventosbackend.service.dto.BloqueoAsientosResponseDTO;
 import com.um.eventosbackend.service.dto.MapaAsientosDTO;
+import com.um.eventosbackend.service.dto.MapaAsientosDTO.AsientoDTO.EstadoAsiento;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpEntity;
@@ -12,6 +19,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 @Service
@@ -20,26 +28,37 @@ public class ProxyAsientosService {
     private static final Logger LOG = LoggerFactory.getLogger(ProxyAsientosService.class);
     private static final String ENDPOINT_MAPA_ASIENTOS = "/api/asientos/evento/";
     private static final String ENDPOINT_BLOQUEO_ASIENTOS = "/api/asientos/bloquear";
+    private static final String SUFIJO_EXISTE = "/existe";
+    private static final MediaType MEDIA_TYPE_GRILLA = MediaType.parseMediaType(CodecGrillaAsientos.MEDIA_TYPE);
 
     private final RestTemplate restTemplate;
     private final ApplicationProperties applicationProperties;
+    private final ObjectMapper objectMapper;
 
     public ProxyAsientosService(
         @org.springframework.beans.factory.annotation.Qualifier("proxyRestTemplate") RestTemplate restTemplate,
-        ApplicationProperties applicationProperties
+        ApplicationProperties applicationProperties,
+        ObjectMapper objectMapper
     ) {
         this.restTemplate = restTemplate;
         this.applicationProperties = applicationProperties;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Obtiene el mapa de asientos de un evento desde el proxy.
+     * <p>
+     * Con {@code application.proxy.grilla-compacta} se pide la grilla {@value CodecGrillaAsientos#MEDIA_TYPE}
+     * (unas decenas de veces más chica que el JSON) aceptando JSON como alternativa, por si el proxy no la soporta.
      */
     public MapaAsientosDTO obtenerMapaAsientos(Long eventoId) {
         String url = applicationProperties.getProxy().getBaseUrl() + ENDPOINT_MAPA_ASIENTOS + eventoId;
         LOG.debug("Obteniendo mapa de asientos desde proxy: {}", url);
 
         try {
+            if (Boolean.TRUE.equals(applicationProperties.getProxy().getGrillaCompacta())) {
+                return obtenerMapaAsientosCompacto(url, eventoId);
+            }
             ResponseEntity<MapaAsientosDTO> response = restTemplate.exchange(
                 url,
                 HttpMethod.GET,
@@ -60,6 +79,61 @@ public class ProxyAsientosService {
         }
     }
 
+    private MapaAsientosDTO obtenerMapaAsientosCompacto(String url, Long eventoId) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MEDIA_TYPE_GRILLA, MediaType.APPLICATION_JSON));
+        ResponseEntity<byte[]> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            LOG.warn("Respuesta vacía o no exitosa del proxy para eventoId: {}", eventoId);
+            return crearMapaVacio(eventoId);
+        }
+        MediaType tipo = response.getHeaders().getContentType();
+        if (tipo == null || !tipo.equalsTypeAndSubtype(MEDIA_TYPE_GRILLA)) {
+            // El proxy respondió JSON
+            return objectMapper.readValue(response.getBody(), MapaAsientosDTO.class);
+        }
+
+        GrillaAsientos grilla = CodecGrillaAsientos.decodificar(response.getBody());
+        MapaAsientosDTO mapa = new MapaAsientosDTO();
+        mapa.setEventoId(grilla.getEventoId() != null ? grilla.getEventoId() : eventoId);
+        List<MapaAsientosDTO.AsientoDTO> asientos = new ArrayList<>(grilla.getCeldas());
+        for (int i = 0; i < grilla.getCeldas(); i++) {
+            byte estado = grilla.getEstado(i);
+            if (estado == GrillaAsientos.SIN_ASIENTO) {
+                continue;
+            }
+            MapaAsientosDTO.AsientoDTO asiento = new MapaAsientosDTO.AsientoDTO();
+            asiento.setFila(grilla.etiquetaDe(i));
+            asiento.setNumero(grilla.columnaDe(i));
+            asiento.setEstado(
+                estado == GrillaAsientos.OCUPADO ? EstadoAsiento.OCUPADO : estado == GrillaAsientos.BLOQUEADO ? EstadoAsiento.BLOQUEADO : EstadoAsiento.LIBRE
+            );
+            asientos.add(asiento);
+        }
+        mapa.setAsientos(asientos);
+        LOG.debug("Grilla de asientos obtenida para eventoId {}: {} bytes, {} asientos", eventoId, response.getBody().length, asientos.size());
+        return mapa;
+    }
+
+    /**
+     * Consulta al proxy si el evento ya tiene su clave en Redis.
+     *
+     * @return {@code true} o {@code false}, o {@code null} si el proxy no respondió.
+     */
+    public Boolean existeMapaEnRedis(Long eventoId) {
+        String url = applicationProperties.getProxy().getBaseUrl() + ENDPOINT_MAPA_ASIENTOS + eventoId + SUFIJO_EXISTE;
+        try {
+            restTemplate.exchange(url, HttpMethod.GET, null, Void.class);
+            return true;
+        } catch (HttpClientErrorException.NotFound e) {
+            return false;
+        } catch (Exception e) {
+            LOG.debug("No se pudo consultar la clave de Redis para eventoId: {} ({})", eventoId, e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Bloquea temporalmente los asientos seleccionados.
      */
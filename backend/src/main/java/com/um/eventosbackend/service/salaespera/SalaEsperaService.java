@@ -0,0 +1,365 @@
+package com.um.eventosbackend.service.salaespera;
+
+import com.um.eventosbackend.config.ApplicationProperties;
+import com.um.eventosbackend.domain.SalaEsperaActiva;
+import com.um.eventosbackend.repository.SalaEsperaActivaRepository;
+import com.um.eventosbackend.service.dto.SalaEsperaAvanceDTO;
+import com.um.eventosbackend.service.dto.SalaEsperaEstadoDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sala de espera virtual para eventos de alta demanda (opcional, por evento).
+ * <p>
+ * Los usuarios que llegan toman un turno en una cola FIFO por evento. Una vez por segundo se admiten
+ * {@code application.sala-espera.admisiones-por-segundo} usuarios, a los que se les emite un token de admisión
+ * firmado (HMAC-SHA256) válido durante {@code token-ttl-segundos}; el mapa de asientos, el bloqueo y la venta
+ * de ese evento exigen el token. Así la carga sobre el proxy y la cátedra queda acotada por
+ * admisiones por segundo × validez del token, sin importar el tamaño de la cola.
+ * <p>
+ * El avance de cada sala se publica en {@code /topic/sala-espera/{eventoId}}. Los usuarios en espera deben
+ * consultar su estado periódicamente: el que deja de hacerlo durante {@code inactividad-segundos} pierde su lugar.
+ * <p>
+ * La cola vive en memoria de este nodo, así que con varios nodos cada uno admite su parte del ritmo total
+ * ({@code admisiones-por-segundo / nodos}) y el balanceador debe mantener a cada usuario en el mismo nodo mientras
+ * espera. El token, en cambio, se firma con una clave derivada del secreto JWT compartido y vale en cualquier nodo.
+ * <p>
+ * Qué eventos tienen sala sí es común a todos los nodos: los de {@code application.sala-espera.eventos} están
+ * siempre activos y los que activa un administrador se guardan en la base ({@link SalaEsperaActiva}). Cada nodo
+ * relee la tabla cada {@value #SINCRONIZACION_MS} ms, así que activar o desactivar llega a los demás nodos en
+ * ese plazo.
+ */
+@Service
+public class SalaEsperaService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SalaEsperaService.class);
+
+    public static final String TOPICO = "/topic/sala-espera/";
+
+    private static final String ALGORITMO_FIRMA = "HmacSHA256";
+
+    static final long SINCRONIZACION_MS = 2000;
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final SalaEsperaActivaRepository salaEsperaActivaRepository;
+    private final Set<Long> eventosConfigurados;
+    private final int admisionesPorSegundo;
+    private final long tokenTtlSegundos;
+    private final long inactividadMs;
+    private final byte[] claveFirma;
+
+    private final Map<Long, Sala> salas = new ConcurrentHashMap<>();
+
+    private final Counter admisiones;
+    private final Counter abandonos;
+    private final Counter rechazos;
+
+    public SalaEsperaService(
+        SimpMessageSendingOperations messagingTemplate,
+        SalaEsperaActivaRepository salaEsperaActivaRepository,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        @Value("${jhipster.security.authentication.jwt.base64-secret}") String jwtSecret
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.salaEsperaActivaRepository = salaEsperaActivaRepository;
+
+        ApplicationProperties.SalaEspera config = applicationProperties.getSalaEspera();
+        int nodos = Math.max(1, config.getNodos());
+        this.admisionesPorSegundo = Math.max(1, (config.getAdmisionesPorSegundo() + nodos - 1) / nodos);
+        this.tokenTtlSegundos = config.getTokenTtlSegundos();
+        this.inactividadMs = config.getInactividadSegundos() * 1000;
+        // Clave propia derivada del secreto JWT: un token de admisión nunca es un JWT válido y viceversa
+        this.claveFirma = firmar(jwtSecret.getBytes(StandardCharsets.UTF_8), "sala-espera".getBytes(StandardCharsets.UTF_8));
+
+        this.eventosConfigurados = Set.copyOf(config.getEventos());
+        eventosConfigurados.forEach(this::abrir);
+
+        this.admisiones = Counter.builder("sala.espera.admisiones").description("Usuarios admitidos desde la sala de espera").register(meterRegistry);
+        this.abandonos = Counter.builder("sala.espera.abandonos")
+            .description("Usuarios que perdieron su lugar por no consultar su estado")
+            .register(meterRegistry);
+        this.rechazos = Counter.builder("sala.espera.rechazos")
+            .description("Requests rechazados por falta de un token de admisión válido")
+            .register(meterRegistry);
+        Gauge.builder("sala.espera.usuarios", salas, s -> s.values().stream().mapToInt(Sala::enEspera).sum())
+            .description("Usuarios en espera en todas las salas")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Activa la sala de espera del evento en todos los nodos (no hace nada si ya estaba activa).
+     */
+    public void activar(Long eventoId) {
+        if (!eventosConfigurados.contains(eventoId) && !salaEsperaActivaRepository.existsById(eventoId)) {
+            salaEsperaActivaRepository.save(new SalaEsperaActiva(eventoId, Instant.now()));
+        }
+        abrir(eventoId);
+    }
+
+    /**
+     * Desactiva la sala de espera del evento en todos los nodos; a partir de ahí no se exige token.
+     *
+     * @throws IllegalStateException si la sala está activada por configuración.
+     */
+    public void desactivar(Long eventoId) {
+        if (eventosConfigurados.contains(eventoId)) {
+            throw new IllegalStateException("La sala de espera del evento " + eventoId + " está activada por configuración");
+        }
+        if (salaEsperaActivaRepository.existsById(eventoId)) {
+            salaEsperaActivaRepository.deleteById(eventoId);
+        }
+        cerrar(eventoId);
+    }
+
+    /**
+     * Alinea las salas de este nodo con las activadas en la base por cualquier nodo.
+     */
+    @Scheduled(fixedDelay = SINCRONIZACION_MS)
+    public void sincronizar() {
+        Set<Long> activas = new HashSet<>(eventosConfigurados);
+        try {
+            activas.addAll(salaEsperaActivaRepository.findEventoIds());
+        } catch (Exception e) {
+            // Sin base se mantienen las salas actuales: desactivarlas dejaría pasar a toda la cola
+            LOG.warn("No se pudieron leer las salas de espera activas: {}", e.getMessage());
+            return;
+        }
+        activas.forEach(this::abrir);
+        for (Long eventoId : Set.copyOf(salas.keySet())) {
+            if (!activas.contains(eventoId)) {
+                cerrar(eventoId);
+            }
+        }
+    }
+
+    private void abrir(Long eventoId) {
+        if (salas.putIfAbsent(eventoId, new Sala(eventoId)) == null) {
+            LOG.info("Sala de espera activada para eventoId: {}", eventoId);
+        }
+    }
+
+    private void cerrar(Long eventoId) {
+        if (salas.remove(eventoId) != null) {
+            LOG.info("Sala de espera desactivada para eventoId: {}", eventoId);
+        }
+    }
+
+    public boolean estaActiva(Long eventoId) {
+        return eventoId != null && salas.containsKey(eventoId);
+    }
+
+    public Set<Long> obtenerEventosActivos() {
+        return Set.copyOf(salas.keySet());
+    }
+
+    /**
+     * Ingresa el usuario a la cola del evento, o devuelve su estado si ya estaba en ella o ya fue admitido.
+     */
+    public SalaEsperaEstadoDTO ingresar(Long eventoId, String login) {
+        return consultar(eventoId, login, true);
+    }
+
+    /**
+     * Devuelve el estado del usuario en la sala del evento sin ingresarlo; cuenta como señal de actividad.
+     */
+    public SalaEsperaEstadoDTO obtenerEstado(Long eventoId, String login) {
+        return consultar(eventoId, login, false);
+    }
+
+    private SalaEsperaEstadoDTO consultar(Long eventoId, String login, boolean ingresar) {
+        SalaEsperaEstadoDTO estado = new SalaEsperaEstadoDTO();
+        estado.setEventoId(eventoId);
+        Sala sala = salas.get(eventoId);
+        if (sala == null) {
+            // Sin sala de espera el acceso es libre y no hace falta token
+            estado.setAdmitido(true);
+            return estado;
+        }
+
+        long ahora = System.currentTimeMillis();
+        synchronized (sala) {
+            Long expiracion = sala.admitidos.get(login);
+            if (expiracion != null && expiracion > ahora) {
+                estado.setAdmitido(true);
+                estado.setToken(generarToken(eventoId, login, expiracion));
+                estado.setExpiracionToken(Instant.ofEpochMilli(expiracion));
+                return estado;
+            }
+
+            EnEspera enEspera = sala.cola.get(login);
+            if (enEspera == null && ingresar) {
+                enEspera = new EnEspera(sala.siguienteTurno++);
+                sala.cola.put(login, enEspera);
+            }
+            if (enEspera != null) {
+                enEspera.ultimaConsulta = ahora;
+                long posicion = Math.max(1, enEspera.turno - sala.turnoAdmitido);
+                estado.setTurno(enEspera.turno);
+                estado.setPosicion(posicion);
+                estado.setEsperaEstimadaSegundos((posicion + admisionesPorSegundo - 1) / admisionesPorSegundo);
+            }
+        }
+        return estado;
+    }
+
+    /**
+     * Verifica que el usuario pueda operar sobre el evento: sin sala de espera siempre puede; con sala,
+     * solo con un token de admisión vigente emitido para ese evento y ese usuario.
+     */
+    public boolean verificarAdmision(Long eventoId, String login, String token) {
+        if (!estaActiva(eventoId)) {
+            return true;
+        }
+        boolean valido = tokenValido(eventoId, login, token);
+        if (!valido) {
+            rechazos.increment();
+        }
+        return valido;
+    }
+
+    /**
+     * Admite los próximos usuarios de cada sala y publica el avance.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void admitir() {
+        for (Sala sala : salas.values()) {
+            SalaEsperaAvanceDTO avance;
+            long ahora = System.currentTimeMillis();
+            synchronized (sala) {
+                sala.admitidos.values().removeIf(expiracion -> expiracion <= ahora);
+
+                int admitidos = 0;
+                Iterator<Map.Entry<String, EnEspera>> it = sala.cola.entrySet().iterator();
+                while (it.hasNext() && admitidos < admisionesPorSegundo) {
+                    Map.Entry<String, EnEspera> entrada = it.next();
+                    it.remove();
+                    sala.turnoAdmitido = entrada.getValue().turno;
+                    if (ahora - entrada.getValue().ultimaConsulta > inactividadMs) {
+                        abandonos.increment();
+                        continue;
+                    }
+                    sala.admitidos.put(entrada.getKey(), ahora + tokenTtlSegundos * 1000);
+                    admitidos++;
+                }
+                admisiones.increment(admitidos);
+                avance = new SalaEsperaAvanceDTO(sala.eventoId, sala.turnoAdmitido, sala.cola.size(), admisionesPorSegundo);
+            }
+            try {
+                messagingTemplate.convertAndSend(TOPICO + sala.eventoId, avance);
+            } catch (Exception e) {
+                LOG.debug("No se pudo publicar el avance de la sala de espera del evento {}", sala.eventoId, e);
+            }
+        }
+    }
+
+    /**
+     * Estado de todas las salas activas (para administración).
+     */
+    public List<SalaEsperaAvanceDTO> obtenerAvances() {
+        List<SalaEsperaAvanceDTO> avances = new ArrayList<>();
+        for (Sala sala : salas.values()) {
+            synchronized (sala) {
+                avances.add(new SalaEsperaAvanceDTO(sala.eventoId, sala.turnoAdmitido, sala.cola.size(), admisionesPorSegundo));
+            }
+        }
+        return avances;
+    }
+
+    /**
+     * Token: {@code base64url(eventoId:expiracion:login)} + "." + {@code base64url(HMAC)}.
+     */
+    private String generarToken(Long eventoId, String login, long expiracion) {
+        byte[] contenido = (eventoId + ":" + expiracion + ":" + login).getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(contenido) + "." + encoder.encodeToString(firmar(claveFirma, contenido));
+    }
+
+    private boolean tokenValido(Long eventoId, String login, String token) {
+        if (token == null || login == null) {
+            return false;
+        }
+        int punto = token.indexOf('.');
+        if (punto <= 0) {
+            return false;
+        }
+        try {
+            byte[] contenido = Base64.getUrlDecoder().decode(token.substring(0, punto));
+            byte[] firma = Base64.getUrlDecoder().decode(token.substring(punto + 1));
+            if (!MessageDigest.isEqual(firma, firmar(claveFirma, contenido))) {
+                return false;
+            }
+            String[] partes = new String(contenido, StandardCharsets.UTF_8).split(":", 3);
+            return (
+                partes.length == 3 &&
+                eventoId.equals(Long.valueOf(partes[0])) &&
+                Long.parseLong(partes[1]) > System.currentTimeMillis() &&
+                login.equals(partes[2])
+            );
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static byte[] firmar(byte[] clave, byte[] contenido) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO_FIRMA);
+            mac.init(new SecretKeySpec(clave, ALGORITMO_FIRMA));
+            return mac.doFinal(contenido);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo firmar el token de admisión", e);
+        }
+    }
+
+    private static final class Sala {
+
+        private final Long eventoId;
+        // Usuarios en espera, en orden de llegada
+        private final LinkedHashMap<String, EnEspera> cola = new LinkedHashMap<>();
+        // Usuarios admitidos y vencimiento de su admisión (epoch ms)
+        private final Map<String, Long> admitidos = new HashMap<>();
+        private long siguienteTurno = 1;
+        private long turnoAdmitido;
+
+        private Sala(Long eventoId) {
+            this.eventoId = eventoId;
+        }
+
+        private synchronized int enEspera() {
+            return cola.size();
+        }
+    }
+
+    private static final class EnEspera {
+
+        private final long turno;
+        private long ultimaConsulta;
+
+        private EnEspera(long turno) {
+            this.turno = turno;
+        }
+    }
+}
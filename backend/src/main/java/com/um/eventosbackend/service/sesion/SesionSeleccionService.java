@@ -16,7 +16,7 @@ public class SesionSeleccionService {
     private static final Logger LOG = LoggerFactory.getLogger(SesionSeleccionService.class);
     private static final long EXPIRACION_MINUTOS = 30;
     private static final long EXPIRACION_MILLIS = EXPIRACION_MINUTOS * 60 * 1000;
-    private static final int MAX_ASIENTOS = 4;
+    public static final int MAX_ASIENTOS = 4;
 
     // Almacenamiento en memoria: userId -> EstadoSeleccionDTO
     private final Map<String, EstadoSeleccionDTO> sesiones = new ConcurrentHashMap<>();
@@ -0,0 +1,201 @@
+package com.um.eventosbackend.service.venta;
+
+import com.um.eventosbackend.domain.Venta;
+import com.um.eventosbackend.domain.Venta.ResultadoVenta;
+import com.um.eventosbackend.domain.VentaAgregado;
+import com.um.eventosbackend.repository.VentaAgregadoRepository;
+import com.um.eventosbackend.service.dto.VentaAgregadoDTO;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Mantiene los totales de ventas por evento y resultado ({@code venta_agregado}).
+ * <p>
+ * Cada cambio de estado de una venta aplica un delta en la misma transacción que el cambio, de modo que un
+ * reporte cuesta una lectura indexada por evento. En PostgreSQL el delta es un upsert nativo
+ * ({@code INSERT ... ON CONFLICT DO UPDATE}); en otras bases (H2 de tests) se busca la fila con lock
+ * pesimista y se crea si no existe. Una reconciliación diaria reconstruye la tabla desde {@code venta} y
+ * {@code asiento_venta}, incluidas en PostgreSQL las particiones ya archivadas.
+ * <p>
+ * Las sentencias nativas declaran {@link VentaAgregado} como única tabla afectada para que Hibernate no
+ * invalide el resto de la cache de segundo nivel.
+ */
+@Service
+@Transactional
+public class VentaAgregadoService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VentaAgregadoService.class);
+
+    private static final String UPSERT =
+        "INSERT INTO venta_agregado (id, evento_id, resultado, cantidad_ventas, cantidad_asientos, recaudacion, fecha_actualizacion) " +
+        "VALUES (nextval('venta_agregado_seq'), :eventoId, :resultado, :ventas, :asientos, :recaudacion, :ahora) " +
+        "ON CONFLICT (evento_id, resultado) DO UPDATE SET " +
+        "cantidad_ventas = venta_agregado.cantidad_ventas + EXCLUDED.cantidad_ventas, " +
+        "cantidad_asientos = venta_agregado.cantidad_asientos + EXCLUDED.cantidad_asientos, " +
+        "recaudacion = venta_agregado.recaudacion + EXCLUDED.recaudacion, " +
+        "fecha_actualizacion = EXCLUDED.fecha_actualizacion";
+
+    private static final String RECONSTRUIR =
+        "INSERT INTO venta_agregado (id, evento_id, resultado, cantidad_ventas, cantidad_asientos, recaudacion, fecha_actualizacion) " +
+        "SELECT nextval('venta_agregado_seq'), t.evento_id, t.resultado, t.ventas, t.asientos, t.recaudacion, :ahora FROM (" +
+        "SELECT v.evento_id, v.resultado, COUNT(*) AS ventas, COALESCE(SUM(a.cantidad), 0) AS asientos, " +
+        "COALESCE(SUM(v.precio_venta), 0) AS recaudacion " +
+        "FROM (SELECT id, evento_id, resultado, precio_venta FROM venta " +
+        "UNION ALL SELECT id, evento_id, resultado, precio_venta FROM venta_archivo) v " +
+        "LEFT JOIN (SELECT venta_id, COUNT(*) AS cantidad FROM (" +
+        "SELECT venta_id FROM asiento_venta UNION ALL SELECT venta_id FROM asiento_venta_archivo) s GROUP BY venta_id) a ON a.venta_id = v.id " +
+        "GROUP BY v.evento_id, v.resultado) t";
+
+    private static final String TOTALES_SIN_ARCHIVO =
+        "SELECT v.evento_id, v.resultado, COUNT(*), COALESCE(SUM(a.cantidad), 0), COALESCE(SUM(v.precio_venta), 0) " +
+        "FROM venta v LEFT JOIN (SELECT venta_id, COUNT(*) AS cantidad FROM asiento_venta GROUP BY venta_id) a " +
+        "ON a.venta_id = v.id GROUP BY v.evento_id, v.resultado";
+
+    private final VentaAgregadoRepository ventaAgregadoRepository;
+    private final EntityManager entityManager;
+    private final boolean postgresql;
+
+    public VentaAgregadoService(VentaAgregadoRepository ventaAgregadoRepository, EntityManager entityManager, DataSource dataSource) {
+        this.ventaAgregadoRepository = ventaAgregadoRepository;
+        this.entityManager = entityManager;
+        this.postgresql = VentaParticionService.esPostgresql(dataSource);
+    }
+
+    /**
+     * Suma una venta nueva a los totales de su resultado. Debe llamarse dentro de la transacción que la guarda.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarAlta(Venta venta) {
+        acumular(venta, venta.getResultado(), 1);
+    }
+
+    /**
+     * Mueve una venta de los totales de {@code anterior} a los de su resultado actual, si cambió.
+     * Debe llamarse dentro de la transacción que cambia el estado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarCambio(Venta venta, ResultadoVenta anterior) {
+        if (anterior == venta.getResultado()) {
+            return;
+        }
+        if (anterior != null) {
+            acumular(venta, anterior, -1);
+        }
+        acumular(venta, venta.getResultado(), 1);
+    }
+
+    @Transactional(readOnly = true)
+    public List<VentaAgregadoDTO> obtenerAgregados(Long eventoId) {
+        List<VentaAgregado> agregados = eventoId != null
+            ? ventaAgregadoRepository.findByEventoIdOrderByResultadoAsc(eventoId)
+            : ventaAgregadoRepository.findAllByOrderByEventoIdAscResultadoAsc();
+        return agregados.stream().map(this::toDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * Reconstruye los totales desde cero.
+     * <p>
+     * Toma un lock exclusivo sobre {@code venta_agregado} antes de borrar: las transacciones de venta que ya
+     * aplicaron su delta terminan antes (y su venta queda incluida en la reconstrucción) y las que llegan
+     * después esperan y aplican su delta sobre la tabla reconstruida.
+     */
+    @Scheduled(cron = "0 30 4 * * *")
+    public void reconciliar() {
+        Instant inicio = Instant.now();
+        int filas;
+        if (postgresql) {
+            nativa("LOCK TABLE venta_agregado IN EXCLUSIVE MODE").executeUpdate();
+            nativa("DELETE FROM venta_agregado").executeUpdate();
+            filas = nativa(RECONSTRUIR).setParameter("ahora", Instant.now()).executeUpdate();
+        } else {
+            filas = reconstruirSinArchivo();
+        }
+        LOG.info("Totales de ventas reconciliados: {} filas en {} ms", filas, Duration.between(inicio, Instant.now()).toMillis());
+    }
+
+    private void acumular(Venta venta, ResultadoVenta resultado, int signo) {
+        BigDecimal precio = venta.getPrecioVenta() != null ? venta.getPrecioVenta() : BigDecimal.ZERO;
+        long asientos = (long) signo * (venta.getAsientos() != null ? venta.getAsientos().size() : 0);
+        BigDecimal recaudacion = signo > 0 ? precio : precio.negate();
+        if (!postgresql) {
+            acumularConLock(venta.getEventoId(), resultado, signo, asientos, recaudacion);
+            return;
+        }
+        nativa(UPSERT)
+            .setParameter("eventoId", venta.getEventoId())
+            .setParameter("resultado", resultado.name())
+            .setParameter("ventas", (long) signo)
+            .setParameter("asientos", asientos)
+            .setParameter("recaudacion", recaudacion)
+            .setParameter("ahora", Instant.now())
+            .executeUpdate();
+    }
+
+    /**
+     * Delta portable para bases sin {@code ON CONFLICT}: busca la fila con lock pesimista o la crea.
+     */
+    private void acumularConLock(Long eventoId, ResultadoVenta resultado, long ventas, long asientos, BigDecimal recaudacion) {
+        VentaAgregado agregado = ventaAgregadoRepository
+            .findConLockByEventoIdAndResultado(eventoId, resultado)
+            .orElseGet(() -> nuevo(eventoId, resultado));
+        agregado.setCantidadVentas(agregado.getCantidadVentas() + ventas);
+        agregado.setCantidadAsientos(agregado.getCantidadAsientos() + asientos);
+        agregado.setRecaudacion(agregado.getRecaudacion().add(recaudacion));
+        agregado.setFechaActualizacion(Instant.now());
+        ventaAgregadoRepository.save(agregado);
+    }
+
+    private int reconstruirSinArchivo() {
+        ventaAgregadoRepository.deleteAllInBatch();
+        Instant ahora = Instant.now();
+        List<?> totales = entityManager.createNativeQuery(TOTALES_SIN_ARCHIVO).getResultList();
+        for (Object fila : totales) {
+            Object[] columnas = (Object[]) fila;
+            VentaAgregado agregado = nuevo(((Number) columnas[0]).longValue(), ResultadoVenta.valueOf((String) columnas[1]));
+            agregado.setCantidadVentas(((Number) columnas[2]).longValue());
+            agregado.setCantidadAsientos(((Number) columnas[3]).longValue());
+            agregado.setRecaudacion(new BigDecimal(columnas[4].toString()));
+            agregado.setFechaActualizacion(ahora);
+            ventaAgregadoRepository.save(agregado);
+        }
+        return totales.size();
+    }
+
+    private static VentaAgregado nuevo(Long eventoId, ResultadoVenta resultado) {
+        VentaAgregado agregado = new VentaAgregado();
+        agregado.setEventoId(eventoId);
+        agregado.setResultado(resultado);
+        agregado.setCantidadVentas(0L);
+        agregado.setCantidadAsientos(0L);
+        agregado.setRecaudacion(BigDecimal.ZERO);
+        return agregado;
+    }
+
+    private NativeQuery<?> nativa(String sql) {
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        return query.addSynchronizedEntityClass(VentaAgregado.class);
+    }
+
+    private VentaAgregadoDTO toDTO(VentaAgregado agregado) {
+        VentaAgregadoDTO dto = new VentaAgregadoDTO();
+        dto.setEventoId(agregado.getEventoId());
+        dto.setResultado(agregado.getResultado().name());
+        dto.setCantidadVentas(agregado.getCantidadVentas());
+        dto.setCantidadAsientos(agregado.getCantidadAsientos());
+        dto.setRecaudacion(agregado.getRecaudacion());
+        dto.setFechaActualizacion(agregado.getFechaActualizacion());
+        return dto;
+    }
+}
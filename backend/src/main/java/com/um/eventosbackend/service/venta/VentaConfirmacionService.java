@@ -0,0 +1,184 @@
+package com.um.eventosbackend.service.venta;
+
+import com.um.eventosbackend.config.ApplicationProperties;
+import com.um.eventosbackend.repository.VentaOutboxRepository;
+import com.um.eventosbackend.service.dto.VentaResponseDTO;
+import com.um.eventosbackend.service.proxy.ProxyVentaService;
+import com.um.eventosbackend.service.sesion.SesionSeleccionService;
+import com.um.eventosbackend.service.venta.VentaService.ConfirmacionPendiente;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Despacha las confirmaciones de venta registradas en el outbox.
+ * <p>
+ * Las confirmaciones se ejecutan en un pool de workers acotado, fuera de cualquier transacción: la
+ * conexión a la base solo se toma en las dos transacciones cortas de {@link VentaService} (reclamar y
+ * registrar el resultado), nunca durante la llamada al proxy. Un barrido periódico recupera filas que
+ * no se pudieron encolar o que quedaron en proceso por un worker caído.
+ */
+@Service
+public class VentaConfirmacionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VentaConfirmacionService.class);
+
+    private static final Duration ANTIGUEDAD_BARRIDO = Duration.ofSeconds(10);
+    private static final Duration RETENCION_PROCESADAS = Duration.ofDays(1);
+    private static final int LOTE_BARRIDO = 100;
+
+    private final VentaService ventaService;
+    private final VentaOutboxRepository ventaOutboxRepository;
+    private final ProxyVentaService proxyVentaService;
+    private final SesionSeleccionService sesionSeleccionService;
+    private final long esperaResultadoMs;
+    private final ThreadPoolTaskExecutor executor;
+
+    // Resultados esperados por el request que originó la venta (solo en este nodo)
+    private final Map<Long, CompletableFuture<VentaResponseDTO>> resultados = new ConcurrentHashMap<>();
+
+    public VentaConfirmacionService(
+        VentaService ventaService,
+        VentaOutboxRepository ventaOutboxRepository,
+        ProxyVentaService proxyVentaService,
+        SesionSeleccionService sesionSeleccionService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.ventaService = ventaService;
+        this.ventaOutboxRepository = ventaOutboxRepository;
+        this.proxyVentaService = proxyVentaService;
+        this.sesionSeleccionService = sesionSeleccionService;
+
+        ApplicationProperties.Venta config = applicationProperties.getVenta();
+        this.esperaResultadoMs = config.getEsperaResultadoMs();
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(config.getConfirmacionWorkers());
+        executor.setMaxPoolSize(config.getConfirmacionWorkers());
+        executor.setQueueCapacity(config.getConfirmacionCola());
+        executor.setThreadNamePrefix("venta-confirmacion-");
+        executor.initialize();
+    }
+
+    /**
+     * Despacha la confirmación cuando la transacción que registró la venta hace commit.
+     */
+    @TransactionalEventListener
+    public void onVentaRegistrada(VentaRegistradaEvent event) {
+        resultados.putIfAbsent(event.getVentaId(), new CompletableFuture<>());
+        despachar(event.getOutboxId());
+    }
+
+    /**
+     * Espera el resultado de la confirmación como máximo {@code application.venta.espera-resultado-ms}.
+     *
+     * @return el resultado final, o vacío si no llegó a tiempo (el cliente debe consultar {@code GET /api/ventas/{id}}).
+     */
+    public Optional<VentaResponseDTO> esperarResultado(Long ventaId) {
+        CompletableFuture<VentaResponseDTO> futuro = resultados.get(ventaId);
+        if (futuro == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(futuro.get(esperaResultadoMs, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            LOG.debug("La confirmación de la venta {} no terminó en {} ms", ventaId, esperaResultadoMs);
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        } finally {
+            resultados.remove(ventaId);
+        }
+    }
+
+    /**
+     * Recupera filas del outbox que no se despacharon (cola llena, reinicio o worker caído) y purga las procesadas.
+     */
+    @Scheduled(fixedDelay = 15000)
+    public void despacharPendientes() {
+        Instant ahora = Instant.now();
+        List<Long> ids = ventaOutboxRepository.findIdsSinDespachar(
+            ahora.minus(ANTIGUEDAD_BARRIDO),
+            ahora.minus(VentaService.RECLAMO_VENCIDO),
+            PageRequest.of(0, LOTE_BARRIDO)
+        );
+        if (!ids.isEmpty()) {
+            LOG.info("Recuperando {} confirmaciones de venta sin despachar", ids.size());
+            ids.forEach(this::despachar);
+        }
+
+        int purgadas = ventaService.purgarOutboxProcesado(RETENCION_PROCESADAS);
+        if (purgadas > 0) {
+            LOG.debug("Purgadas {} filas de outbox procesadas", purgadas);
+        }
+    }
+
+    private void despachar(Long outboxId) {
+        try {
+            executor.execute(() -> confirmar(outboxId));
+        } catch (TaskRejectedException e) {
+            // La fila sigue PENDIENTE y la toma el próximo barrido
+            LOG.warn("Cola de confirmaciones llena, la fila de outbox {} se despacha en el próximo barrido", outboxId);
+        }
+    }
+
+    private void confirmar(Long outboxId) {
+        Optional<ConfirmacionPendiente> confirmacionOpt;
+        try {
+            confirmacionOpt = ventaService.reclamarConfirmacion(outboxId);
+        } catch (Exception e) {
+            LOG.error("Error al reclamar la fila de outbox {}", outboxId, e);
+            return;
+        }
+        if (confirmacionOpt.isEmpty()) {
+            return;
+        }
+
+        ConfirmacionPendiente confirmacion = confirmacionOpt.get();
+        VentaResponseDTO resultado;
+        try {
+            // Llamada remota sin transacción ni conexión a la base
+            VentaResponseDTO respuestaCatedra = proxyVentaService.confirmarVenta(confirmacion.request(), confirmacion.precioVenta());
+            resultado = ventaService.registrarResultadoConfirmacion(confirmacion, respuestaCatedra);
+            if ("EXITOSA".equals(resultado.getResultado())) {
+                sesionSeleccionService.limpiarEstado(confirmacion.userLogin());
+            }
+        } catch (Exception e) {
+            LOG.error("Error al confirmar venta {} con la cátedra", confirmacion.ventaId(), e);
+            try {
+                resultado = ventaService.registrarErrorConfirmacion(confirmacion, e.getMessage());
+            } catch (Exception registroError) {
+                LOG.error("No se pudo registrar el error de confirmación de la venta {}", confirmacion.ventaId(), registroError);
+                return;
+            }
+        }
+
+        CompletableFuture<VentaResponseDTO> futuro = resultados.get(confirmacion.ventaId());
+        if (futuro != null) {
+            futuro.complete(resultado);
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdown();
+    }
+}
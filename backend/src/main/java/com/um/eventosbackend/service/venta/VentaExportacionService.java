@@ -0,0 +1,263 @@
+package com.um.eventosbackend.service.venta;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.um.eventosbackend.domain.Venta;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Exportación de ventas con sus asientos en CSV o NDJSON, para administradores.
+ * <p>
+ * Las filas se leen con un cursor de solo avance ({@code fetchSize}, transacción de solo lectura, consulta
+ * como {@link Stream} de valores escalares sin entidades en el contexto de persistencia) y se escriben
+ * directamente en la salida, por lo que la memoria usada no depende de la cantidad de ventas exportadas.
+ */
+@Service
+public class VentaExportacionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VentaExportacionService.class);
+
+    private static final int FETCH_SIZE = 500;
+    private static final int FILAS_POR_FLUSH = 1000;
+
+    private static final String ENCABEZADO_CSV =
+        "venta_id,venta_id_catedra,evento_id,usuario,fecha_venta,precio_venta,resultado,fila,numero,nombre_persona,apellido_persona";
+
+    public enum Formato {
+        CSV,
+        NDJSON,
+    }
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public VentaExportacionService(EntityManager entityManager, ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Escribe las ventas que cumplen los filtros, ordenadas por fecha de venta.
+     * <p>
+     * En CSV se escribe una línea por asiento (las ventas sin asientos, con las columnas del asiento vacías);
+     * en NDJSON, un objeto por venta con el arreglo de sus asientos.
+     *
+     * @param eventoId filtra por evento (opcional).
+     * @param desde fecha de venta mínima, inclusive (opcional).
+     * @param hasta fecha de venta máxima, exclusiva (opcional).
+     * @return la cantidad de ventas exportadas.
+     */
+    @Transactional(readOnly = true)
+    public long exportar(Long eventoId, Instant desde, Instant hasta, Formato formato, OutputStream salida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        long ventas;
+        try (Stream<Fila> filas = consultar(eventoId, desde, hasta)) {
+            ventas = formato == Formato.CSV ? escribirCsv(filas.iterator(), writer) : escribirNdjson(filas.iterator(), writer);
+        }
+        writer.flush();
+        LOG.info("Exportación de ventas ({}) completada: {} ventas", formato, ventas);
+        return ventas;
+    }
+
+    private Stream<Fila> consultar(Long eventoId, Instant desde, Instant hasta) {
+        StringBuilder jpql = new StringBuilder(
+            "SELECT v.id, v.ventaIdCatedra, v.eventoId, u.login, v.fechaVenta, v.precioVenta, v.resultado, " +
+            "a.fila, a.numero, a.nombrePersona, a.apellidoPersona " +
+            "FROM Venta v JOIN v.usuario u LEFT JOIN v.asientos a WHERE 1 = 1"
+        );
+        if (eventoId != null) {
+            jpql.append(" AND v.eventoId = :eventoId");
+        }
+        if (desde != null) {
+            jpql.append(" AND v.fechaVenta >= :desde");
+        }
+        if (hasta != null) {
+            jpql.append(" AND v.fechaVenta < :hasta");
+        }
+        // Los asientos de una venta llegan consecutivos: NDJSON agrupa sin guardar más de una venta
+        jpql.append(" ORDER BY v.fechaVenta ASC, v.id ASC, a.fila ASC, a.numero ASC");
+
+        TypedQuery<Object[]> query = entityManager
+            .createQuery(jpql.toString(), Object[].class)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .setHint(HibernateHints.HINT_CACHEABLE, false);
+        if (eventoId != null) {
+            query.setParameter("eventoId", eventoId);
+        }
+        if (desde != null) {
+            query.setParameter("desde", desde);
+        }
+        if (hasta != null) {
+            query.setParameter("hasta", hasta);
+        }
+        return query.getResultStream().map(Fila::new);
+    }
+
+    private long escribirCsv(Iterator<Fila> filas, Writer writer) throws IOException {
+        writer.write(ENCABEZADO_CSV);
+        writer.write('\n');
+        long ventas = 0;
+        long lineas = 0;
+        Long ventaActual = null;
+        while (filas.hasNext()) {
+            Fila fila = filas.next();
+            if (!fila.ventaId.equals(ventaActual)) {
+                ventaActual = fila.ventaId;
+                ventas++;
+            }
+            writer.write(String.valueOf(fila.ventaId));
+            writer.write(',');
+            writer.write(csv(fila.ventaIdCatedra));
+            writer.write(',');
+            writer.write(csv(fila.eventoId));
+            writer.write(',');
+            writer.write(csv(fila.usuario));
+            writer.write(',');
+            writer.write(csv(fila.fechaVenta));
+            writer.write(',');
+            writer.write(fila.precioVenta != null ? fila.precioVenta.toPlainString() : "");
+            writer.write(',');
+            writer.write(csv(fila.resultado));
+            writer.write(',');
+            writer.write(csv(fila.fila));
+            writer.write(',');
+            writer.write(csv(fila.numero));
+            writer.write(',');
+            writer.write(csv(fila.nombrePersona));
+            writer.write(',');
+            writer.write(csv(fila.apellidoPersona));
+            writer.write('\n');
+            if (++lineas % FILAS_POR_FLUSH == 0) {
+                writer.flush();
+            }
+        }
+        return ventas;
+    }
+
+    private long escribirNdjson(Iterator<Fila> filas, Writer writer) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Sin el espacio que Jackson pone entre valores raíz: cada venta ocupa exactamente una línea
+        json.setRootValueSeparator(new SerializedString(""));
+        long ventas = 0;
+        Long ventaActual = null;
+        while (filas.hasNext()) {
+            Fila fila = filas.next();
+            if (!fila.ventaId.equals(ventaActual)) {
+                if (ventaActual != null) {
+                    cerrarVenta(json);
+                    if (ventas % FILAS_POR_FLUSH == 0) {
+                        json.flush();
+                    }
+                }
+                ventaActual = fila.ventaId;
+                ventas++;
+                json.writeStartObject();
+                json.writeNumberField("id", fila.ventaId);
+                escribirCampo(json, "ventaIdCatedra", fila.ventaIdCatedra);
+                escribirCampo(json, "eventoId", fila.eventoId);
+                json.writeStringField("usuario", fila.usuario);
+                json.writeStringField("fechaVenta", Objects.toString(fila.fechaVenta, null));
+                if (fila.precioVenta != null) {
+                    json.writeNumberField("precioVenta", fila.precioVenta);
+                } else {
+                    json.writeNullField("precioVenta");
+                }
+                json.writeStringField("resultado", fila.resultado);
+                json.writeArrayFieldStart("asientos");
+            }
+            if (fila.fila != null) {
+                json.writeStartObject();
+                json.writeStringField("fila", fila.fila);
+                escribirCampo(json, "numero", fila.numero);
+                json.writeStringField("nombrePersona", fila.nombrePersona);
+                json.writeStringField("apellidoPersona", fila.apellidoPersona);
+                json.writeEndObject();
+            }
+        }
+        if (ventaActual != null) {
+            cerrarVenta(json);
+        }
+        json.flush();
+        return ventas;
+    }
+
+    private static void cerrarVenta(JsonGenerator json) throws IOException {
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void escribirCampo(JsonGenerator json, String campo, Number valor) throws IOException {
+        if (valor != null) {
+            json.writeNumberField(campo, valor.longValue());
+        } else {
+            json.writeNullField(campo);
+        }
+    }
+
+    /**
+     * Escapa un valor para CSV (RFC 4180): entre comillas si contiene separadores, comillas o saltos de línea.
+     */
+    private static String csv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Una fila del cursor: datos de la venta repetidos por cada asiento.
+     */
+    private static final class Fila {
+
+        private final Long ventaId;
+        private final Long ventaIdCatedra;
+        private final Long eventoId;
+        private final String usuario;
+        private final Instant fechaVenta;
+        private final BigDecimal precioVenta;
+        private final String resultado;
+        private final String fila;
+        private final Integer numero;
+        private final String nombrePersona;
+        private final String apellidoPersona;
+
+        private Fila(Object[] valores) {
+            this.ventaId = (Long) valores[0];
+            this.ventaIdCatedra = (Long) valores[1];
+            this.eventoId = (Long) valores[2];
+            this.usuario = (String) valores[3];
+            this.fechaVenta = (Instant) valores[4];
+            this.precioVenta = (BigDecimal) valores[5];
+            this.resultado = valores[6] != null ? ((Venta.ResultadoVenta) valores[6]).name() : null;
+            this.fila = (String) valores[7];
+            this.numero = (Integer) valores[8];
+            this.nombrePersona = (String) valores[9];
+            this.apellidoPersona = (String) valores[10];
+        }
+    }
+}
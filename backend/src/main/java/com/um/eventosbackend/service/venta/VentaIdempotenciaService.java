@@ -0,0 +1,269 @@
+package com.um.eventosbackend.service.venta;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.um.eventosbackend.config.ApplicationProperties;
+import com.um.eventosbackend.domain.IdempotenciaVenta;
+import com.um.eventosbackend.domain.IdempotenciaVenta.EstadoIdempotencia;
+import com.um.eventosbackend.domain.Venta.ResultadoVenta;
+import com.um.eventosbackend.repository.IdempotenciaVentaRepository;
+import com.um.eventosbackend.service.dto.VentaRequestDTO;
+import com.um.eventosbackend.service.dto.VentaResponseDTO;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Idempotencia de {@code POST /api/ventas} mediante el header {@code Idempotency-Key}.
+ * <p>
+ * La primera request con una clave inserta una fila EN_CURSO (la restricción única (usuario, clave) resuelve
+ * la carrera entre nodos). Si se registra la venta, la clave pasa a COMPLETADA con su {@code venta_id} en la
+ * misma transacción que la venta ({@link #vincularVenta}), así que una clave con venta nunca se vuelve a
+ * procesar; los rechazos sin venta se guardan después con {@link #completar}. Las repeticiones con la misma
+ * clave reciben la respuesta guardada (o el estado actual de la venta) sin volver a registrarla ni llamar al
+ * proxy. Si la original todavía está en curso, la repetición espera un tiempo acotado
+ * ({@code application.venta.idempotencia-espera-en-curso-ms}) a que la clave se complete; la ventana es corta
+ * porque la clave pasa a COMPLETADA en la transacción de la venta. Si se agota, se informa EN_CURSO.
+ */
+@Service
+public class VentaIdempotenciaService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VentaIdempotenciaService.class);
+
+    public static final int LONGITUD_MAXIMA_CLAVE = 100;
+
+    /**
+     * Una clave EN_CURSO sin venta más vieja que esto se considera abandonada (el nodo que la tomó se cayó).
+     */
+    static final Duration ABANDONO = Duration.ofMinutes(2);
+
+    /**
+     * Intervalo entre lecturas de una clave EN_CURSO mientras la repetición espera.
+     */
+    static final Duration INTERVALO_EN_CURSO = Duration.ofMillis(100);
+
+    private final IdempotenciaVentaRepository idempotenciaVentaRepository;
+    private final VentaQueryService ventaQueryService;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration esperaEnCurso;
+
+    public VentaIdempotenciaService(
+        IdempotenciaVentaRepository idempotenciaVentaRepository,
+        VentaQueryService ventaQueryService,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.idempotenciaVentaRepository = idempotenciaVentaRepository;
+        this.ventaQueryService = ventaQueryService;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(applicationProperties.getVenta().getIdempotenciaTtlHoras());
+        this.esperaEnCurso = Duration.ofMillis(applicationProperties.getVenta().getIdempotenciaEsperaEnCursoMs());
+    }
+
+    /**
+     * Registra el inicio de una venta con la clave dada o resuelve la repetición.
+     *
+     * @return {@link Inicio#nueva} con el id del registro si este request debe procesar la venta, o el resultado a
+     * devolver si es una repetición.
+     */
+    public Inicio iniciar(String clave, String userLogin, VentaRequestDTO request) {
+        String requestHash = hash(request);
+        Instant limiteEspera = Instant.now().plus(esperaEnCurso);
+        Inicio inicio = intentar(clave, userLogin, requestHash);
+        while (inicio.tipo() == Inicio.Tipo.EN_CURSO && Instant.now().isBefore(limiteEspera)) {
+            try {
+                Thread.sleep(INTERVALO_EN_CURSO.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return inicio;
+            }
+            inicio = intentar(clave, userLogin, requestHash);
+        }
+        return inicio;
+    }
+
+    private Inicio intentar(String clave, String userLogin, String requestHash) {
+        Instant ahora = Instant.now();
+
+        IdempotenciaVenta nueva = new IdempotenciaVenta();
+        nueva.setClave(clave);
+        nueva.setUserLogin(userLogin);
+        nueva.setRequestHash(requestHash);
+        nueva.setEstado(EstadoIdempotencia.EN_CURSO);
+        nueva.setFechaCreacion(ahora);
+        nueva.setFechaExpiracion(ahora.plus(ttl));
+        try {
+            return Inicio.nueva(idempotenciaVentaRepository.saveAndFlush(nueva).getId());
+        } catch (DataIntegrityViolationException e) {
+            LOG.debug("Idempotency-Key repetida para el usuario {}", userLogin);
+        }
+
+        Optional<IdempotenciaVenta> existenteOpt = idempotenciaVentaRepository.findByUserLoginAndClave(userLogin, clave);
+        if (existenteOpt.isEmpty()) {
+            // La original falló con error interno y liberó la clave: se reintenta desde cero
+            return intentar(clave, userLogin, requestHash);
+        }
+        IdempotenciaVenta existente = existenteOpt.get();
+        if (!existente.getRequestHash().equals(requestHash)) {
+            return Inicio.conflicto();
+        }
+        if (existente.getVentaId() != null) {
+            return repetidaConVenta(existente);
+        }
+        if (existente.getEstado() == EstadoIdempotencia.COMPLETADA) {
+            return Inicio.repetida(existente.getHttpStatus(), leer(existente.getRespuesta()));
+        }
+        Instant limiteAbandono = Instant.now().minus(ABANDONO);
+        if (
+            existente.getFechaCreacion().isBefore(limiteAbandono) &&
+            idempotenciaVentaRepository.retomarAbandonada(existente.getId(), Instant.now(), limiteAbandono) == 1
+        ) {
+            LOG.warn("Retomando Idempotency-Key abandonada del usuario {}", userLogin);
+            return Inicio.nueva(existente.getId());
+        }
+        return Inicio.enCurso();
+    }
+
+    /**
+     * Marca la clave COMPLETADA con la venta registrada. Debe llamarse dentro de la transacción que registra la
+     * venta: si la clave ya no está EN_CURSO, la excepción revierte la venta.
+     */
+    public void vincularVenta(Long registroId, Long ventaId, VentaResponseDTO respuesta) {
+        int actualizadas = idempotenciaVentaRepository.completarConVenta(
+            registroId,
+            ventaId,
+            HttpStatus.ACCEPTED.value(),
+            escribir(respuesta)
+        );
+        if (actualizadas == 0) {
+            throw new IllegalStateException("La Idempotency-Key ya no está en curso");
+        }
+    }
+
+    /**
+     * Guarda una respuesta sin venta registrada (rechazo de validación) para reproducirla ante repeticiones.
+     * <p>
+     * Si falla, la clave queda EN_CURSO sin venta y se puede retomar al considerarse abandonada, sin riesgo de
+     * registrar una segunda venta.
+     */
+    public void completar(String clave, String userLogin, int httpStatus, VentaResponseDTO respuesta) {
+        try {
+            idempotenciaVentaRepository
+                .findByUserLoginAndClave(userLogin, clave)
+                .filter(registro -> registro.getVentaId() == null)
+                .ifPresent(registro -> {
+                    registro.setEstado(EstadoIdempotencia.COMPLETADA);
+                    registro.setHttpStatus(httpStatus);
+                    registro.setRespuesta(escribir(respuesta));
+                    idempotenciaVentaRepository.save(registro);
+                });
+        } catch (Exception e) {
+            LOG.error("No se pudo guardar la respuesta de la Idempotency-Key del usuario {}", userLogin, e);
+        }
+    }
+
+    /**
+     * Libera la clave tras un error interno, para que el cliente pueda reintentar con la misma clave.
+     * Una clave con venta registrada no se libera.
+     */
+    public void liberar(String clave, String userLogin) {
+        try {
+            idempotenciaVentaRepository.deleteSinVenta(userLogin, clave);
+        } catch (Exception e) {
+            LOG.error("No se pudo liberar la Idempotency-Key del usuario {}", userLogin, e);
+        }
+    }
+
+    /**
+     * Repetición de una clave con venta: se responde con el estado actual de la venta ({@code 201} si ya tiene
+     * resultado final, {@code 202} si sigue pendiente).
+     */
+    private Inicio repetidaConVenta(IdempotenciaVenta registro) {
+        Optional<VentaResponseDTO> venta = ventaQueryService.obtenerVenta(registro.getVentaId(), registro.getUserLogin());
+        if (venta.isEmpty()) {
+            return Inicio.repetida(registro.getHttpStatus(), leer(registro.getRespuesta()));
+        }
+        boolean pendiente = ResultadoVenta.PENDIENTE.name().equals(venta.get().getResultado());
+        return Inicio.repetida(pendiente ? HttpStatus.ACCEPTED.value() : HttpStatus.CREATED.value(), venta.get());
+    }
+
+    /**
+     * Elimina las claves vencidas.
+     */
+    @Scheduled(fixedDelay = 3600000)
+    public void purgarExpiradas() {
+        int eliminadas = idempotenciaVentaRepository.deleteExpiradas(Instant.now());
+        if (eliminadas > 0) {
+            LOG.debug("Purgadas {} claves de idempotencia de ventas vencidas", eliminadas);
+        }
+    }
+
+    String hash(VentaRequestDTO request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el request de venta", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private String escribir(VentaResponseDTO respuesta) {
+        try {
+            return objectMapper.writeValueAsString(respuesta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta de venta", e);
+        }
+    }
+
+    private VentaResponseDTO leer(String respuesta) {
+        try {
+            return respuesta != null ? objectMapper.readValue(respuesta, VentaResponseDTO.class) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta guardada de venta", e);
+        }
+    }
+
+    /**
+     * Resultado de {@link #iniciar}.
+     */
+    public record Inicio(Tipo tipo, Long registroId, Integer httpStatus, VentaResponseDTO respuesta) {
+        public enum Tipo {
+            /** Clave nueva: este request procesa la venta. */
+            NUEVA,
+            /** Clave ya completada: se devuelve la respuesta guardada. */
+            REPETIDA,
+            /** La original sigue en curso después de la espera. */
+            EN_CURSO,
+            /** Misma clave con un request distinto. */
+            CONFLICTO,
+        }
+
+        static Inicio nueva(Long registroId) {
+            return new Inicio(Tipo.NUEVA, registroId, null, null);
+        }
+
+        static Inicio repetida(Integer httpStatus, VentaResponseDTO respuesta) {
+            return new Inicio(Tipo.REPETIDA, null, httpStatus, respuesta);
+        }
+
+        static Inicio enCurso() {
+            return new Inicio(Tipo.EN_CURSO, null, null, null);
+        }
+
+        static Inicio conflicto() {
+            return new Inicio(Tipo.CONFLICTO, null, null, null);
+        }
+    }
+}
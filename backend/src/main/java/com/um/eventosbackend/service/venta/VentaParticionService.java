@@ -0,0 +1,92 @@
+package com.um.eventosbackend.service.venta;
+
+import com.um.eventosbackend.config.ApplicationProperties;
+import jakarta.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Mantenimiento de las particiones mensuales de {@code venta} y {@code asiento_venta} (PostgreSQL).
+ * <p>
+ * Crea por adelantado las particiones de los próximos meses y mueve a {@code venta_archivo} /
+ * {@code asiento_venta_archivo} las particiones más viejas que el horizonte configurado, de modo que las
+ * tablas e índices calientes (reintentos, historial reciente) solo contengan los últimos meses. La lógica
+ * está en las funciones {@code crear_particiones_venta} y {@code archivar_particiones_venta} del changelog.
+ * En otras bases (H2 de tests) no hace nada.
+ */
+@Service
+@Transactional
+public class VentaParticionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VentaParticionService.class);
+
+    private final EntityManager entityManager;
+    private final ApplicationProperties.Venta config;
+    private final boolean postgresql;
+
+    public VentaParticionService(EntityManager entityManager, DataSource dataSource, ApplicationProperties applicationProperties) {
+        this.entityManager = entityManager;
+        this.config = applicationProperties.getVenta();
+        this.postgresql = esPostgresql(dataSource);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        try {
+            crearParticiones();
+        } catch (Exception e) {
+            LOG.error("No se pudieron crear las particiones de ventas al iniciar, se reintenta en la próxima ejecución programada", e);
+        }
+    }
+
+    /**
+     * Crea las particiones que falten hasta {@code application.venta.particiones-meses-adelante} meses.
+     */
+    @Scheduled(cron = "0 0 3 * * *")
+    public void crearParticiones() {
+        if (!postgresql) {
+            return;
+        }
+        Number creadas = (Number) entityManager
+            .createNativeQuery("SELECT crear_particiones_venta(:meses)")
+            .setParameter("meses", config.getParticionesMesesAdelante())
+            .getSingleResult();
+        if (creadas.intValue() > 0) {
+            LOG.info("Creadas {} particiones mensuales de ventas", creadas);
+        }
+    }
+
+    /**
+     * Mueve a las tablas de archivo las particiones más viejas que {@code application.venta.archivo-horizonte-meses}.
+     */
+    @Scheduled(cron = "0 15 3 * * *")
+    public void archivarParticiones() {
+        if (!postgresql) {
+            return;
+        }
+        Number archivadas = (Number) entityManager
+            .createNativeQuery("SELECT archivar_particiones_venta(:meses)")
+            .setParameter("meses", config.getArchivoHorizonteMeses())
+            .getSingleResult();
+        if (archivadas.intValue() > 0) {
+            LOG.info("Archivadas {} particiones mensuales de ventas", archivadas);
+        }
+    }
+
+    static boolean esPostgresql(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            LOG.warn("No se pudo determinar la base de datos, se asume una base sin funciones de PostgreSQL", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.um.eventosbackend.service.venta;
+
+import com.um.eventosbackend.repository.VentaRepository;
+import com.um.eventosbackend.service.CursorPaginacion;
+import com.um.eventosbackend.service.dto.VentaPaginaDTO;
+import com.um.eventosbackend.service.dto.VentaResponseDTO;
+import com.um.eventosbackend.service.dto.VentaResumenDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Servicio de consulta de ventas del usuario (historial y detalle).
+ */
+@Service
+@Transactional(readOnly = true)
+public class VentaQueryService {
+
+    public static final int TAMANIO_PAGINA_DEFAULT = 20;
+    public static final int TAMANIO_PAGINA_MAX = 100;
+
+    private final VentaRepository ventaRepository;
+    private final EntityManager entityManager;
+
+    public VentaQueryService(VentaRepository ventaRepository, EntityManager entityManager) {
+        this.ventaRepository = ventaRepository;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Historial de ventas del usuario, de la más reciente a la más vieja, paginado por keyset (fecha de venta, id).
+     * Sin cursor ni tamaño devuelve el historial completo, sin cursor siguiente, como antes de paginar.
+     * <p>
+     * La cantidad de asientos se calcula con un {@code COUNT} agrupado en la misma consulta, sin inicializar
+     * la colección de asientos de cada venta. Usa el índice {@code (user_id, fecha_venta desc, id desc)}.
+     *
+     * @param userLogin login del usuario.
+     * @param cursor cursor devuelto por la página anterior (opcional).
+     * @param tamanio tamaño de página (opcional, {@value #TAMANIO_PAGINA_DEFAULT} si solo viene el cursor, máximo
+     *                {@value #TAMANIO_PAGINA_MAX}).
+     * @throws IllegalArgumentException si el cursor no es válido.
+     */
+    public VentaPaginaDTO buscarHistorial(String userLogin, String cursor, Integer tamanio) {
+        boolean conCursor = cursor != null && !cursor.isBlank();
+        int limite = tamanio == null || tamanio <= 0 ? TAMANIO_PAGINA_DEFAULT : Math.min(tamanio, TAMANIO_PAGINA_MAX);
+
+        StringBuilder jpql = new StringBuilder(
+            "SELECT new com.um.eventosbackend.service.dto.VentaResumenDTO(v.id, v.eventoId, v.fechaVenta, v.precioVenta, v.resultado, COUNT(a.id)) " +
+            "FROM Venta v LEFT JOIN v.asientos a WHERE v.usuario.login = :login"
+        );
+        CursorPaginacion.Posicion posicion = null;
+        if (conCursor) {
+            posicion = CursorPaginacion.decodificar(cursor);
+            jpql.append(" AND (v.fechaVenta < :cursorFecha OR (v.fechaVenta = :cursorFecha AND v.id < :cursorId))");
+        }
+        jpql.append(" GROUP BY v.id, v.eventoId, v.fechaVenta, v.precioVenta, v.resultado");
+        jpql.append(" ORDER BY v.fechaVenta DESC, v.id DESC");
+
+        TypedQuery<VentaResumenDTO> query = entityManager.createQuery(jpql.toString(), VentaResumenDTO.class);
+        query.setParameter("login", userLogin);
+        if (posicion != null) {
+            query.setParameter("cursorFecha", posicion.fecha());
+            query.setParameter("cursorId", posicion.id());
+        }
+        if (!conCursor && tamanio == null) {
+            return new VentaPaginaDTO(query.getResultList(), null);
+        }
+        // Se pide uno de más para saber si hay página siguiente
+        List<VentaResumenDTO> ventas = query.setMaxResults(limite + 1).getResultList();
+
+        String siguienteCursor = null;
+        if (ventas.size() > limite) {
+            ventas = ventas.subList(0, limite);
+            VentaResumenDTO ultima = ventas.get(limite - 1);
+            siguienteCursor = CursorPaginacion.codificar(ultima.getFechaVenta(), ultima.getId());
+        }
+        return new VentaPaginaDTO(List.copyOf(ventas), siguienteCursor);
+    }
+
+    /**
+     * Detalle de una venta del usuario, con sus asientos cargados en la misma consulta.
+     */
+    public Optional<VentaResponseDTO> obtenerVenta(Long id, String userLogin) {
+        return ventaRepository.findConAsientosByIdAndUsuarioLogin(id, userLogin).map(VentaService::convertirAVentaResponseDTO);
+    }
+}
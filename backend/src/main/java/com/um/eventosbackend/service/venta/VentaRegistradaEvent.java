@@ -0,0 +1,30 @@
+package com.um.eventosbackend.service.venta;
+
+/**
+ * Evento de aplicación publicado al registrar una venta PENDIENTE con su fila de outbox.
+ * <p>
+ * {@link VentaConfirmacionService} lo escucha después del commit para despachar la confirmación.
+ */
+public class VentaRegistradaEvent {
+
+    private final Long ventaId;
+    private final Long outboxId;
+
+    public VentaRegistradaEvent(Long ventaId, Long outboxId) {
+        this.ventaId = ventaId;
+        this.outboxId = outboxId;
+    }
+
+    public Long getVentaId() {
+        return ventaId;
+    }
+
+    public Long getOutboxId() {
+        return outboxId;
+    }
+
+    @Override
+    public String toString() {
+        return "VentaRegistradaEvent{" + "ventaId=" + ventaId + ", outboxId=" + outboxId + '}';
+    }
+}
@@ -1,67 +1,215 @@
 package com.um.eventosbackend.service.venta;
 
-import com.um.eventosbackend.domain.Venta;
+import com.um.eventosbackend.config.ApplicationProperties;
 import com.um.eventosbackend.repository.VentaRepository;
+import com.um.eventosbackend.service.dto.VentaResponseDTO;
+import com.um.eventosbackend.service.proxy.ProxyVentaService;
+import com.um.eventosbackend.service.venta.VentaService.ReintentoPendiente;
+import com.um.eventosbackend.service.venta.VentaService.ResultadoReintento;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Servicio para reintentar ventas pendientes automáticamente.
+ * Motor de reintentos de ventas pendientes.
+ * <p>
+ * En cada ronda reclama un lote con {@code FOR UPDATE SKIP LOCKED} (seguro con varios nodos), y confirma las
+ * ventas reclamadas en paralelo en un pool acotado, con una transacción corta antes y otra después de la
+ * llamada a la cátedra. Los reintentos fallidos se reprograman con backoff exponencial y jitter. Si el pool
+ * sigue lleno por una ronda anterior, las ventas que no entran se liberan para la próxima ronda.
  */
 @Service
 public class VentaReintentoService {
 
     private static final Logger LOG = LoggerFactory.getLogger(VentaReintentoService.class);
-    private static final int MAX_INTENTOS_REINTENTO = 5;
 
-    private final VentaRepository ventaRepository;
+    /**
+     * Plazo durante el cual una venta reclamada no la vuelve a tomar otro nodo (cubre una ronda completa).
+     */
+    private static final Duration PLAZO_RECLAMO = Duration.ofMinutes(5);
+    private static final Duration ESPERA_MAXIMA_RONDA = Duration.ofMinutes(2);
+
     private final VentaService ventaService;
+    private final VentaRepository ventaRepository;
+    private final ProxyVentaService proxyVentaService;
+    private final ApplicationProperties.Venta config;
+    private final ThreadPoolTaskExecutor executor;
 
-    public VentaReintentoService(VentaRepository ventaRepository, VentaService ventaService) {
-        this.ventaRepository = ventaRepository;
+    private final AtomicLong pendientes = new AtomicLong();
+    private final AtomicLong antiguedadPendienteSegundos = new AtomicLong();
+    private final Map<ResultadoReintento, Counter> resultados = new EnumMap<>(ResultadoReintento.class);
+    private final Counter errores;
+    private final Counter rechazadas;
+
+    public VentaReintentoService(
+        VentaService ventaService,
+        VentaRepository ventaRepository,
+        ProxyVentaService proxyVentaService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.ventaService = ventaService;
+        this.ventaRepository = ventaRepository;
+        this.proxyVentaService = proxyVentaService;
+        this.config = applicationProperties.getVenta();
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(config.getReintentoWorkers());
+        executor.setMaxPoolSize(config.getReintentoWorkers());
+        // La ronda nunca encola más que el lote reclamado
+        executor.setQueueCapacity(config.getReintentoLote());
+        executor.setThreadNamePrefix("venta-reintento-");
+        executor.initialize();
+
+        Gauge.builder("ventas.reintento.pendientes", pendientes, AtomicLong::get)
+            .description("Ventas pendientes de confirmación")
+            .register(meterRegistry);
+        Gauge.builder("ventas.reintento.pendiente.antiguedad", antiguedadPendienteSegundos, AtomicLong::get)
+            .description("Antigüedad de la venta pendiente más vieja")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        for (ResultadoReintento resultado : ResultadoReintento.values()) {
+            resultados.put(
+                resultado,
+                Counter.builder("ventas.reintento.resultado")
+                    .tag("resultado", resultado.name().toLowerCase())
+                    .description("Resultados de reintentos de confirmación")
+                    .register(meterRegistry)
+            );
+        }
+        this.errores = Counter.builder("ventas.reintento.resultado")
+            .tag("resultado", "error")
+            .description("Resultados de reintentos de confirmación")
+            .register(meterRegistry);
+        this.rechazadas = Counter.builder("ventas.reintento.resultado")
+            .tag("resultado", "rechazada")
+            .description("Resultados de reintentos de confirmación")
+            .register(meterRegistry);
     }
 
     /**
-     * Reintenta automáticamente las ventas pendientes.
-     * Se ejecuta cada 2 minutos.
+     * Reintenta las ventas pendientes cuyo próximo intento ya venció.
      */
-    @Scheduled(fixedRate = 120000) // Cada 2 minutos
-    @Transactional
+    @Scheduled(fixedDelay = 30000)
     public void reintentarVentasPendientes() {
         LOG.debug("Iniciando proceso de reintento de ventas pendientes");
-        
-        List<Venta> ventasPendientes = ventaRepository.findVentasPendientesParaReintento(MAX_INTENTOS_REINTENTO);
-        
-        if (ventasPendientes.isEmpty()) {
+        actualizarMetricasCola();
+
+        List<Long> ventaIds = ventaService.reclamarVentasParaReintento(config.getReintentoLote(), PLAZO_RECLAMO);
+        if (ventaIds.isEmpty()) {
             LOG.debug("No hay ventas pendientes para reintentar");
             return;
         }
 
-        LOG.info("Encontradas {} ventas pendientes para reintentar", ventasPendientes.size());
-        
-        int exitosas = 0;
-        int fallidas = 0;
-        
-        for (Venta venta : ventasPendientes) {
+        LOG.info("Reclamadas {} ventas pendientes para reintentar", ventaIds.size());
+        List<CompletableFuture<Void>> tareas = new ArrayList<>(ventaIds.size());
+        List<Long> sinLugar = new ArrayList<>();
+        for (Long ventaId : ventaIds) {
+            try {
+                tareas.add(CompletableFuture.runAsync(() -> reintentar(ventaId), executor));
+            } catch (RejectedExecutionException e) {
+                // El pool sigue ocupado con una ronda anterior que superó la espera máxima
+                sinLugar.add(ventaId);
+            }
+        }
+        if (!sinLugar.isEmpty()) {
+            liberar(sinLugar);
+        }
+
+        try {
+            CompletableFuture.allOf(tareas.toArray(CompletableFuture[]::new)).get(ESPERA_MAXIMA_RONDA.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOG.warn("La ronda de reintentos no terminó en {}; las ventas restantes siguen reclamadas hasta vencer el plazo", ESPERA_MAXIMA_RONDA);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOG.error("Error en la ronda de reintentos", e);
+        }
+        LOG.info("Proceso de reintento completado para {} ventas", ventaIds.size());
+    }
+
+    private void liberar(List<Long> ventaIds) {
+        rechazadas.increment(ventaIds.size());
+        LOG.warn("Pool de reintentos lleno: {} ventas reclamadas vuelven a la cola para la próxima ronda", ventaIds.size());
+        try {
+            ventaService.liberarReclamoReintento(ventaIds);
+        } catch (Exception e) {
+            LOG.error("No se pudo liberar el reclamo de {} ventas; quedan reclamadas hasta vencer el plazo", ventaIds.size(), e);
+        }
+    }
+
+    private void reintentar(Long ventaId) {
+        try {
+            Optional<ReintentoPendiente> reintentoOpt = ventaService.prepararReintento(ventaId);
+            if (reintentoOpt.isEmpty()) {
+                return;
+            }
+            ReintentoPendiente reintento = reintentoOpt.get();
+
+            // Llamada remota fuera de transacción
+            VentaResponseDTO respuesta;
             try {
-                boolean exitosa = ventaService.reintentarVenta(venta);
-                if (exitosa) {
-                    exitosas++;
-                } else {
-                    fallidas++;
-                }
+                respuesta = proxyVentaService.confirmarVenta(reintento.request(), reintento.precioVenta());
             } catch (Exception e) {
-                LOG.error("Error al reintentar venta id: {}", venta.getId(), e);
-                fallidas++;
+                LOG.error("Error en reintento de venta id: {}", ventaId, e);
+                respuesta = null;
             }
+
+            ResultadoReintento resultado = ventaService.registrarResultadoReintento(
+                reintento,
+                respuesta,
+                Instant.now().plus(backoff(reintento.intento()))
+            );
+            resultados.get(resultado).increment();
+        } catch (Exception e) {
+            errores.increment();
+            LOG.error("Error al reintentar venta id: {}", ventaId, e);
         }
-        
-        LOG.info("Proceso de reintento completado: {} exitosas, {} fallidas", exitosas, fallidas);
     }
-}
 
+    /**
+     * Backoff exponencial con "equal jitter": la mitad fija y la otra mitad aleatoria.
+     */
+    Duration backoff(int intento) {
+        long base = config.getReintentoBackoffBaseSegundos() * 1000;
+        long maximo = config.getReintentoBackoffMaxSegundos() * 1000;
+        long exponencial = Math.min(maximo, base << Math.min(Math.max(intento - 1, 0), 20));
+        long mitad = exponencial / 2;
+        return Duration.ofMillis(mitad + ThreadLocalRandom.current().nextLong(mitad + 1));
+    }
+
+    private void actualizarMetricasCola() {
+        try {
+            pendientes.set(ventaRepository.countPendientes());
+            antiguedadPendienteSegundos.set(
+                ventaRepository.findFechaPendienteMasAntigua().map(f -> Duration.between(f, Instant.now()).toSeconds()).orElse(0L)
+            );
+        } catch (Exception e) {
+            LOG.debug("No se pudieron actualizar las métricas de ventas pendientes", e);
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdown();
+    }
+}
@@ -5,21 +5,28 @@ import com.um.eventosbackend.domain.Evento;
 import com.um.eventosbackend.domain.User;
 import com.um.eventosbackend.domain.Venta;
 import com.um.eventosbackend.domain.Venta.ResultadoVenta;
+import com.um.eventosbackend.domain.VentaOutbox;
+import com.um.eventosbackend.domain.VentaOutbox.EstadoOutbox;
 import com.um.eventosbackend.repository.EventoRepository;
 import com.um.eventosbackend.repository.UserRepository;
+import com.um.eventosbackend.repository.VentaOutboxRepository;
 import com.um.eventosbackend.repository.VentaRepository;
 import com.um.eventosbackend.service.dto.EstadoSeleccionDTO;
 import com.um.eventosbackend.service.dto.VentaRequestDTO;
 import com.um.eventosbackend.service.dto.VentaResponseDTO;
-import com.um.eventosbackend.service.proxy.ProxyVentaService;
 import com.um.eventosbackend.service.sesion.SesionSeleccionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,32 +35,60 @@ import org.springframework.transaction.annotation.Transactional;
 public class VentaService {
 
     private static final Logger LOG = LoggerFactory.getLogger(VentaService.class);
-    private static final int MAX_INTENTOS_REINTENTO = 5;
+    static final int MAX_INTENTOS_REINTENTO = 5;
+    /**
+     * Una fila del outbox en proceso desde hace más que esto se considera de un worker caído.
+     */
+    static final Duration RECLAMO_VENCIDO = Duration.ofMinutes(2);
 
     private final VentaRepository ventaRepository;
+    private final VentaOutboxRepository ventaOutboxRepository;
     private final EventoRepository eventoRepository;
     private final UserRepository userRepository;
-    private final ProxyVentaService proxyVentaService;
     private final SesionSeleccionService sesionSeleccionService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final VentaAgregadoService ventaAgregadoService;
+    private final VentaIdempotenciaService ventaIdempotenciaService;
 
     public VentaService(
         VentaRepository ventaRepository,
+        VentaOutboxRepository ventaOutboxRepository,
         EventoRepository eventoRepository,
         UserRepository userRepository,
-        ProxyVentaService proxyVentaService,
-        SesionSeleccionService sesionSeleccionService
+        SesionSeleccionService sesionSeleccionService,
+        ObjectMapper objectMapper,
+        ApplicationEventPublisher eventPublisher,
+        VentaAgregadoService ventaAgregadoService,
+        VentaIdempotenciaService ventaIdempotenciaService
     ) {
         this.ventaRepository = ventaRepository;
+        this.ventaOutboxRepository = ventaOutboxRepository;
         this.eventoRepository = eventoRepository;
         this.userRepository = userRepository;
-        this.proxyVentaService = proxyVentaService;
         this.sesionSeleccionService = sesionSeleccionService;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.ventaAgregadoService = ventaAgregadoService;
+        this.ventaIdempotenciaService = ventaIdempotenciaService;
     }
 
     /**
-     * Procesa una venta completa: valida, registra localmente y confirma con la cátedra.
+     * Procesa una venta: valida y registra localmente la venta PENDIENTE junto con su fila de outbox.
+     * <p>
+     * La confirmación con la cátedra no se hace dentro de esta transacción: {@link VentaConfirmacionService}
+     * la despacha después del commit.
      */
     public VentaResponseDTO procesarVenta(VentaRequestDTO request, String userLogin) {
+        return procesarVenta(request, userLogin, null);
+    }
+
+    /**
+     * Procesa una venta con {@code Idempotency-Key}: la clave queda COMPLETADA con la venta en la misma transacción.
+     *
+     * @param idempotenciaId registro de la clave devuelto por {@link VentaIdempotenciaService#iniciar}, o {@code null}.
+     */
+    public VentaResponseDTO procesarVenta(VentaRequestDTO request, String userLogin, Long idempotenciaId) {
         LOG.info("Procesando venta para eventoId: {}, usuario: {}", request.getEventoId(), userLogin);
 
         // Obtener usuario
@@ -116,73 +151,177 @@ public class VentaService {
 
         // Guardar venta localmente
         venta = ventaRepository.save(venta);
+        ventaAgregadoService.registrarAlta(venta);
         LOG.info("Venta local creada con id: {}", venta.getId());
 
-        // Intentar confirmar con la cátedra
+        // Registrar la confirmación pendiente en el outbox (misma transacción)
+        VentaOutbox outbox = new VentaOutbox();
+        outbox.setVentaId(venta.getId());
+        outbox.setPayload(serializarRequest(request));
+        outbox.setEstado(EstadoOutbox.PENDIENTE);
+        outbox.setFechaCreacion(Instant.now());
+        outbox = ventaOutboxRepository.save(outbox);
+
+        // Se despacha cuando la transacción hace commit
+        eventPublisher.publishEvent(new VentaRegistradaEvent(venta.getId(), outbox.getId()));
+
+        VentaResponseDTO respuesta = convertirAVentaResponseDTO(venta);
+        respuesta.setMensaje("Venta registrada, confirmación con la cátedra en curso");
+        if (idempotenciaId != null) {
+            ventaIdempotenciaService.vincularVenta(idempotenciaId, venta.getId(), respuesta);
+        }
+        return respuesta;
+    }
+
+    /**
+     * Reclama una fila del outbox y arma los datos para confirmar la venta con la cátedra.
+     *
+     * @return vacío si otro worker ya la tomó o la venta ya no está pendiente.
+     */
+    public Optional<ConfirmacionPendiente> reclamarConfirmacion(Long outboxId) {
+        Instant ahora = Instant.now();
+        if (ventaOutboxRepository.reclamar(outboxId, ahora, ahora.minus(RECLAMO_VENCIDO)) == 0) {
+            return Optional.empty();
+        }
+        VentaOutbox outbox = ventaOutboxRepository.findById(outboxId).orElseThrow();
+        Optional<Venta> ventaOpt = ventaRepository.findConUsuarioById(outbox.getVentaId());
+        if (ventaOpt.isEmpty() || ventaOpt.get().getResultado() != ResultadoVenta.PENDIENTE) {
+            LOG.info("Venta {} ya no está pendiente, se descarta la fila de outbox {}", outbox.getVentaId(), outboxId);
+            marcarProcesado(outbox);
+            return Optional.empty();
+        }
+        Venta venta = ventaOpt.get();
+        try {
+            VentaRequestDTO request = objectMapper.readValue(outbox.getPayload(), VentaRequestDTO.class);
+            return Optional.of(
+                new ConfirmacionPendiente(venta.getId(), outboxId, venta.getUsuario().getLogin(), request, venta.getPrecioVenta())
+            );
+        } catch (JsonProcessingException e) {
+            LOG.error("Payload de outbox inválido para venta {}, queda para reintento", venta.getId(), e);
+            marcarProcesado(outbox);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Registra la respuesta de la cátedra para una confirmación despachada desde el outbox.
+     */
+    public VentaResponseDTO registrarResultadoConfirmacion(ConfirmacionPendiente confirmacion, VentaResponseDTO respuestaCatedra) {
+        Venta venta = ventaRepository.findById(confirmacion.ventaId()).orElseThrow();
+        ResultadoVenta anterior = venta.getResultado();
+
+        if ("EXITOSA".equals(respuestaCatedra.getResultado()) || "EXITOSO".equals(respuestaCatedra.getResultado())) {
+            venta.setResultado(ResultadoVenta.EXITOSA);
+            venta.setVentaIdCatedra(respuestaCatedra.getVentaIdCatedra());
+            venta.setMensaje(respuestaCatedra.getMensaje() != null ? respuestaCatedra.getMensaje() : "Venta confirmada exitosamente");
+            LOG.info("Venta confirmada exitosamente: ventaId={}, ventaIdCatedra={}", venta.getId(), venta.getVentaIdCatedra());
+        } else {
+            venta.setResultado(ResultadoVenta.FALLIDA);
+            venta.setMensaje(respuestaCatedra.getMensaje() != null ? respuestaCatedra.getMensaje() : "Error al confirmar venta con la cátedra");
+            LOG.warn("Venta fallida: ventaId={}, mensaje={}", venta.getId(), venta.getMensaje());
+        }
+        ventaRepository.save(venta);
+        ventaAgregadoService.registrarCambio(venta, anterior);
+        ventaOutboxRepository.findById(confirmacion.outboxId()).ifPresent(this::marcarProcesado);
+        return convertirAVentaResponseDTO(venta);
+    }
+
+    /**
+     * Registra un error de comunicación: la venta queda PENDIENTE y pasa al motor de reintentos.
+     */
+    public VentaResponseDTO registrarErrorConfirmacion(ConfirmacionPendiente confirmacion, String mensajeError) {
+        Venta venta = ventaRepository.findById(confirmacion.ventaId()).orElseThrow();
+        ResultadoVenta anterior = venta.getResultado();
+        venta.setResultado(ResultadoVenta.PENDIENTE);
+        venta.setMensaje("Error al comunicarse con la cátedra: " + mensajeError);
+        venta.setIntentosReintento(0);
+        ventaRepository.save(venta);
+        ventaAgregadoService.registrarCambio(venta, anterior);
+        ventaOutboxRepository.findById(confirmacion.outboxId()).ifPresent(this::marcarProcesado);
+        LOG.error("Error al confirmar venta con la cátedra, marcada como pendiente: ventaId={}", venta.getId());
+
+        VentaResponseDTO respuesta = convertirAVentaResponseDTO(venta);
+        respuesta.setMensaje("Venta registrada localmente, pendiente de confirmación");
+        return respuesta;
+    }
+
+    /**
+     * Borra las filas de outbox procesadas hace más de {@code antiguedad}.
+     */
+    public int purgarOutboxProcesado(Duration antiguedad) {
+        return ventaOutboxRepository.deleteProcesadasAntesDe(Instant.now().minus(antiguedad));
+    }
+
+    private void marcarProcesado(VentaOutbox outbox) {
+        outbox.setEstado(EstadoOutbox.PROCESADO);
+        outbox.setFechaProcesado(Instant.now());
+        ventaOutboxRepository.save(outbox);
+    }
+
+    private String serializarRequest(VentaRequestDTO request) {
         try {
-            VentaResponseDTO respuestaCatedra = proxyVentaService.confirmarVenta(request, precioTotal);
-            
-            if ("EXITOSA".equals(respuestaCatedra.getResultado()) || "EXITOSO".equals(respuestaCatedra.getResultado())) {
-                // Venta exitosa
-                venta.setResultado(ResultadoVenta.EXITOSA);
-                venta.setVentaIdCatedra(respuestaCatedra.getVentaIdCatedra());
-                venta.setMensaje(respuestaCatedra.getMensaje() != null ? respuestaCatedra.getMensaje() : "Venta confirmada exitosamente");
-                ventaRepository.save(venta);
-                
-                // Limpiar sesión de selección
-                sesionSeleccionService.limpiarEstado(userLogin);
-                
-                LOG.info("Venta confirmada exitosamente: ventaId={}, ventaIdCatedra={}", venta.getId(), venta.getVentaIdCatedra());
-            } else {
-                // Venta fallida
-                venta.setResultado(ResultadoVenta.FALLIDA);
-                venta.setMensaje(respuestaCatedra.getMensaje() != null ? respuestaCatedra.getMensaje() : "Error al confirmar venta con la cátedra");
-                ventaRepository.save(venta);
-                
-                LOG.warn("Venta fallida: ventaId={}, mensaje={}", venta.getId(), venta.getMensaje());
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la venta para el outbox", e);
+        }
+    }
+
+    /**
+     * Reclama un lote de ventas pendientes listas para reintento ({@code FOR UPDATE SKIP LOCKED}) y les
+     * corre el próximo intento un plazo de gracia, para que otro nodo no las tome después del commit.
+     *
+     * @return los IDs de las ventas reclamadas.
+     */
+    public List<Long> reclamarVentasParaReintento(int lote, Duration plazoReclamo) {
+        Instant ahora = Instant.now();
+        List<Venta> ventas = ventaRepository.reclamarPendientesParaReintento(MAX_INTENTOS_REINTENTO, ahora, PageRequest.of(0, lote));
+        for (Venta venta : ventas) {
+            venta.setProximoIntento(ahora.plus(plazoReclamo));
+        }
+        return ventas.stream().map(Venta::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * Devuelve a la cola las ventas reclamadas que no se llegaron a reintentar: su próximo intento pasa a ahora
+     * y la próxima ronda (de este u otro nodo) las puede volver a reclamar.
+     */
+    public void liberarReclamoReintento(List<Long> ventaIds) {
+        Instant ahora = Instant.now();
+        for (Venta venta : ventaRepository.findAllById(ventaIds)) {
+            if (venta.getResultado() == ResultadoVenta.PENDIENTE) {
+                venta.setProximoIntento(ahora);
             }
-            
-            return convertirAVentaResponseDTO(venta);
-        } catch (Exception e) {
-            // Error de comunicación - marcar como pendiente para reintento
-            venta.setResultado(ResultadoVenta.PENDIENTE);
-            venta.setMensaje("Error al comunicarse con la cátedra: " + e.getMessage());
-            venta.setIntentosReintento(0);
-            ventaRepository.save(venta);
-            
-            LOG.error("Error al confirmar venta con la cátedra, marcada como pendiente: ventaId={}", venta.getId(), e);
-            
-            VentaResponseDTO respuesta = convertirAVentaResponseDTO(venta);
-            respuesta.setResultado("PENDIENTE");
-            respuesta.setMensaje("Venta registrada localmente, pendiente de confirmación");
-            return respuesta;
         }
     }
 
     /**
-     * Reintenta confirmar una venta pendiente con la cátedra.
+     * Registra un nuevo intento sobre una venta reclamada y arma el request para la cátedra.
+     *
+     * @return vacío si la venta ya no está pendiente o agotó los intentos (en ese caso queda FALLIDA).
      */
-    public boolean reintentarVenta(Venta venta) {
+    public Optional<ReintentoPendiente> prepararReintento(Long ventaId) {
+        Optional<Venta> ventaOpt = ventaRepository.findById(ventaId);
+        if (ventaOpt.isEmpty() || ventaOpt.get().getResultado() != ResultadoVenta.PENDIENTE) {
+            return Optional.empty();
+        }
+        Venta venta = ventaOpt.get();
         LOG.info("Reintentando venta id: {}, intentos previos: {}", venta.getId(), venta.getIntentosReintento());
 
         if (venta.getIntentosReintento() >= MAX_INTENTOS_REINTENTO) {
-            venta.setResultado(ResultadoVenta.FALLIDA);
-            venta.setMensaje("Venta fallida después de " + MAX_INTENTOS_REINTENTO + " intentos");
-            ventaRepository.save(venta);
-            LOG.warn("Venta marcada como fallida después de {} intentos: ventaId={}", MAX_INTENTOS_REINTENTO, venta.getId());
-            return false;
+            marcarFallidaPorIntentos(venta);
+            return Optional.empty();
         }
 
         // Obtener evento para calcular precio
         Optional<Evento> eventoOpt = eventoRepository.findById(venta.getEventoId());
         if (eventoOpt.isEmpty()) {
             LOG.warn("Evento no encontrado para reintentar venta: eventoId={}", venta.getEventoId());
-            return false;
+            return Optional.empty();
         }
         Evento evento = eventoOpt.get();
-        
+
         // Calcular precio total
-        BigDecimal precioTotal = evento.getPrecio() != null 
+        BigDecimal precioTotal = evento.getPrecio() != null
             ? evento.getPrecio().multiply(BigDecimal.valueOf(venta.getAsientos().size()))
             : BigDecimal.ZERO;
 
@@ -202,35 +341,59 @@ public class VentaService {
                 .collect(Collectors.toList())
         );
 
-        try {
-            venta.setUltimoIntentoReintento(Instant.now());
-            venta.setIntentosReintento(venta.getIntentosReintento() + 1);
+        venta.setUltimoIntentoReintento(Instant.now());
+        venta.setIntentosReintento(venta.getIntentosReintento() + 1);
+        ventaRepository.save(venta);
+
+        return Optional.of(new ReintentoPendiente(venta.getId(), venta.getIntentosReintento(), request, precioTotal));
+    }
+
+    /**
+     * Registra el resultado de un reintento. Si no fue exitoso, la venta se reprograma para
+     * {@code proximoIntento} o queda FALLIDA si agotó los intentos.
+     */
+    public ResultadoReintento registrarResultadoReintento(ReintentoPendiente reintento, VentaResponseDTO respuestaCatedra, Instant proximoIntento) {
+        Venta venta = ventaRepository.findById(reintento.ventaId()).orElseThrow();
+        ResultadoVenta anterior = venta.getResultado();
+
+        if (
+            respuestaCatedra != null &&
+            ("EXITOSA".equals(respuestaCatedra.getResultado()) || "EXITOSO".equals(respuestaCatedra.getResultado()))
+        ) {
+            venta.setResultado(ResultadoVenta.EXITOSA);
+            venta.setVentaIdCatedra(respuestaCatedra.getVentaIdCatedra());
+            venta.setMensaje(respuestaCatedra.getMensaje() != null ? respuestaCatedra.getMensaje() : "Venta confirmada exitosamente");
+            venta.setProximoIntento(null);
             ventaRepository.save(venta);
+            ventaAgregadoService.registrarCambio(venta, anterior);
+            LOG.info("Venta confirmada exitosamente en reintento: ventaId={}, ventaIdCatedra={}", venta.getId(), venta.getVentaIdCatedra());
+            return ResultadoReintento.EXITOSA;
+        }
 
-            VentaResponseDTO respuestaCatedra = proxyVentaService.confirmarVenta(request, precioTotal);
-            
-            if ("EXITOSA".equals(respuestaCatedra.getResultado()) || "EXITOSO".equals(respuestaCatedra.getResultado())) {
-                venta.setResultado(ResultadoVenta.EXITOSA);
-                venta.setVentaIdCatedra(respuestaCatedra.getVentaIdCatedra());
-                venta.setMensaje(respuestaCatedra.getMensaje() != null ? respuestaCatedra.getMensaje() : "Venta confirmada exitosamente");
-                ventaRepository.save(venta);
-                
-                LOG.info("Venta confirmada exitosamente en reintento: ventaId={}, ventaIdCatedra={}", venta.getId(), venta.getVentaIdCatedra());
-                return true;
-            } else {
-                LOG.warn("Reintento fallido para venta id: {}, intento: {}", venta.getId(), venta.getIntentosReintento());
-                return false;
-            }
-        } catch (Exception e) {
-            LOG.error("Error en reintento de venta id: {}", venta.getId(), e);
-            return false;
+        LOG.warn("Reintento fallido para venta id: {}, intento: {}", venta.getId(), venta.getIntentosReintento());
+        if (venta.getIntentosReintento() >= MAX_INTENTOS_REINTENTO) {
+            marcarFallidaPorIntentos(venta);
+            return ResultadoReintento.AGOTADA;
         }
+        venta.setProximoIntento(proximoIntento);
+        ventaRepository.save(venta);
+        return ResultadoReintento.REPROGRAMADA;
+    }
+
+    private void marcarFallidaPorIntentos(Venta venta) {
+        ResultadoVenta anterior = venta.getResultado();
+        venta.setResultado(ResultadoVenta.FALLIDA);
+        venta.setMensaje("Venta fallida después de " + MAX_INTENTOS_REINTENTO + " intentos");
+        venta.setProximoIntento(null);
+        ventaRepository.save(venta);
+        ventaAgregadoService.registrarCambio(venta, anterior);
+        LOG.warn("Venta marcada como fallida después de {} intentos: ventaId={}", MAX_INTENTOS_REINTENTO, venta.getId());
     }
 
     /**
      * Convierte una entidad Venta a VentaResponseDTO.
      */
-    private VentaResponseDTO convertirAVentaResponseDTO(Venta venta) {
+    static VentaResponseDTO convertirAVentaResponseDTO(Venta venta) {
         VentaResponseDTO dto = new VentaResponseDTO();
         dto.setId(venta.getId());
         dto.setVentaIdCatedra(venta.getVentaIdCatedra());
@@ -255,5 +418,20 @@ public class VentaService {
         
         return dto;
     }
-}
 
+    /**
+     * Datos necesarios para confirmar una venta con la cátedra fuera de la transacción.
+     */
+    public record ConfirmacionPendiente(Long ventaId, Long outboxId, String userLogin, VentaRequestDTO request, BigDecimal precioVenta) {}
+
+    /**
+     * Datos de un reintento de confirmación, armados en una transacción corta.
+     */
+    public record ReintentoPendiente(Long ventaId, int intento, VentaRequestDTO request, BigDecimal precioVenta) {}
+
+    public enum ResultadoReintento {
+        EXITOSA,
+        REPROGRAMADA,
+        AGOTADA
+    }
+}
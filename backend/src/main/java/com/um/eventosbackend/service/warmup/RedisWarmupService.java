@@ -1,12 +1,26 @@
 package com.um.eventosbackend.service.warmup;
 
+import com.um.eventosbackend.config.ApplicationProperties;
+import com.um.eventosbackend.domain.Evento;
 import com.um.eventosbackend.repository.EventoRepository;
 import com.um.eventosbackend.service.dto.BloqueoAsientosRequestDTO;
 import com.um.eventosbackend.service.dto.BloqueoAsientosResponseDTO;
 import com.um.eventosbackend.service.dto.MapaAsientosDTO;
 import com.um.eventosbackend.service.proxy.ProxyAsientosService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Async;
@@ -14,260 +28,253 @@ import org.springframework.stereotype.Service;
 
 /**
  * Servicio para hacer warm-up de Redis al iniciar la aplicación.
- * Bloquea temporalmente 1 asiento de cada evento activo para asegurar
- * que Redis tenga datos actualizados.
+ * <p>
+ * Bloquea temporalmente 1 asiento de cada evento activo cuya clave {@code evento_{id}} todavía no existe en
+ * Redis, para que la cátedra publique su estado. Los eventos se procesan en paralelo con concurrencia acotada
+ * y un presupuesto de tiempo total; por evento se intentan como máximo {@code application.warmup.intentos-por-evento}
+ * bloqueos sobre asientos que el mapa informa como libres, de modo que la carga sobre la cátedra es O(eventos).
+ * <p>
+ * Métricas: {@code redis.warmup.eventos} (tag {@code resultado}), {@code redis.warmup.bloqueos}
+ * (tag {@code exitoso}) y {@code redis.warmup.duracion}.
  */
 @Service
 public class RedisWarmupService {
 
     private static final Logger LOG = LoggerFactory.getLogger(RedisWarmupService.class);
 
+    private static final long INTERVALO_ESPERA_PROXY_MS = 1000;
+
+    enum ResultadoWarmup {
+        /** La clave ya existía en Redis. */
+        OMITIDO,
+        /** Se bloqueó un asiento. */
+        CALENTADO,
+        /** No se pudo bloquear ningún asiento o el proxy no respondió. */
+        FALLIDO,
+        /** Se agotó el presupuesto de tiempo antes de procesar el evento. */
+        SIN_TIEMPO,
+    }
+
     private final EventoRepository eventoRepository;
     private final ProxyAsientosService proxyAsientosService;
+    private final ApplicationProperties.Warmup config;
+
+    private final Map<ResultadoWarmup, Counter> eventos = new EnumMap<>(ResultadoWarmup.class);
+    private final Counter bloqueosExitosos;
+    private final Counter bloqueosFallidos;
+    private final Timer duracion;
 
     public RedisWarmupService(
         EventoRepository eventoRepository,
-        ProxyAsientosService proxyAsientosService
+        ProxyAsientosService proxyAsientosService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
     ) {
         this.eventoRepository = eventoRepository;
         this.proxyAsientosService = proxyAsientosService;
+        this.config = applicationProperties.getWarmup();
+
+        for (ResultadoWarmup resultado : ResultadoWarmup.values()) {
+            eventos.put(
+                resultado,
+                Counter.builder("redis.warmup.eventos")
+                    .tag("resultado", resultado.name().toLowerCase())
+                    .description("Eventos procesados por el warm-up de Redis")
+                    .register(meterRegistry)
+            );
+        }
+        this.bloqueosExitosos = Counter.builder("redis.warmup.bloqueos")
+            .tag("exitoso", "true")
+            .description("Bloqueos de asientos intentados por el warm-up")
+            .register(meterRegistry);
+        this.bloqueosFallidos = Counter.builder("redis.warmup.bloqueos")
+            .tag("exitoso", "false")
+            .description("Bloqueos de asientos intentados por el warm-up")
+            .register(meterRegistry);
+        this.duracion = Timer.builder("redis.warmup.duracion").description("Duración total del warm-up de Redis").register(meterRegistry);
     }
 
     /**
      * Ejecuta el warm-up de Redis de forma asíncrona.
-     * Intenta bloquear 1 asiento de cada evento activo hasta lograrlo.
      */
     @Async
     public void warmupRedis() {
-        LOG.info("Iniciando warm-up de Redis...");
-        
+        Instant inicio = Instant.now();
+        Instant limite = inicio.plusSeconds(config.getPresupuestoSegundos());
+        LOG.info(
+            "Iniciando warm-up de Redis (concurrencia={}, presupuesto={}s, intentos por evento={})",
+            config.getConcurrencia(),
+            config.getPresupuestoSegundos(),
+            config.getIntentosPorEvento()
+        );
+
         try {
-            // Esperar un poco para asegurar que el proxy esté listo
-            // Esto es importante porque el warm-up se ejecuta al iniciar la aplicación
-            try {
-                Thread.sleep(5000); // Esperar 5 segundos
-                LOG.debug("Espera inicial completada, el proxy debería estar listo");
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                LOG.warn("Interrupción durante la espera inicial del warm-up");
+            List<Evento> activos = eventoRepository
+                .findEventosActivos(Instant.now())
+                .stream()
+                .filter(e -> e.getEventoIdCatedra() != null)
+                .toList();
+            if (activos.isEmpty()) {
+                LOG.info("No hay eventos activos para warm-up");
                 return;
             }
-            
-            // Obtener todos los eventos activos
-            List<com.um.eventosbackend.domain.Evento> eventos = eventoRepository.findEventosActivos(Instant.now());
-            LOG.info("Encontrados {} eventos activos para warm-up", eventos.size());
-
-            int exitosos = 0;
-            int fallidos = 0;
+            if (!esperarProxy(activos.get(0).getEventoIdCatedra(), limite)) {
+                LOG.warn("El proxy no respondió dentro del presupuesto del warm-up, se omite el warm-up de {} eventos", activos.size());
+                eventos.get(ResultadoWarmup.SIN_TIEMPO).increment(activos.size());
+                return;
+            }
+            Map<ResultadoWarmup, AtomicInteger> resumen = procesar(activos, limite);
+            LOG.info("Warm-up de Redis completado en {} ms: {}", Duration.between(inicio, Instant.now()).toMillis(), resumen);
+        } catch (Exception e) {
+            LOG.error("Error durante el warm-up de Redis", e);
+        } finally {
+            duracion.record(Duration.between(inicio, Instant.now()));
+        }
+    }
 
-            for (com.um.eventosbackend.domain.Evento evento : eventos) {
-                Long eventoId = evento.getEventoIdCatedra();
-                if (eventoId == null) {
-                    LOG.warn("Evento {} no tiene eventoIdCatedra, saltando", evento.getId());
-                    fallidos++;
-                    continue;
-                }
+    private Map<ResultadoWarmup, AtomicInteger> procesar(List<Evento> activos, Instant limite) throws InterruptedException {
+        Map<ResultadoWarmup, AtomicInteger> resumen = new EnumMap<>(ResultadoWarmup.class);
+        for (ResultadoWarmup resultado : ResultadoWarmup.values()) {
+            resumen.put(resultado, new AtomicInteger());
+        }
 
-                if (intentarBloquearAsiento(eventoId)) {
-                    exitosos++;
-                    LOG.debug("Warm-up exitoso para eventoId: {}", eventoId);
-                } else {
-                    fallidos++;
-                    LOG.warn("No se pudo hacer warm-up para eventoId: {}", eventoId);
-                }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, config.getConcurrencia()), r -> {
+            Thread thread = new Thread(r, "redis-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> tareas = new ArrayList<>(activos.size());
+            for (Evento evento : activos) {
+                tareas.add(
+                    executor.submit(() -> {
+                        ResultadoWarmup resultado = Instant.now().isBefore(limite) ? calentar(evento, limite) : ResultadoWarmup.SIN_TIEMPO;
+                        resumen.get(resultado).incrementAndGet();
+                        eventos.get(resultado).increment();
+                    })
+                );
             }
+            executor.shutdown();
+            long restanteMs = Math.max(0, Duration.between(Instant.now(), limite).toMillis());
+            if (!executor.awaitTermination(restanteMs, TimeUnit.MILLISECONDS)) {
+                long pendientes = tareas.stream().filter(t -> !t.isDone()).count();
+                LOG.warn("Presupuesto del warm-up agotado con {} eventos sin procesar", pendientes);
+                resumen.get(ResultadoWarmup.SIN_TIEMPO).addAndGet((int) pendientes);
+                eventos.get(ResultadoWarmup.SIN_TIEMPO).increment(pendientes);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return resumen;
+    }
 
-            LOG.info("Warm-up de Redis completado. Exitosos: {}, Fallidos: {}", exitosos, fallidos);
-        } catch (Exception e) {
-            LOG.error("Error durante el warm-up de Redis", e);
+    /**
+     * Espera a que el proxy responda, sin pasar el límite del warm-up.
+     */
+    private boolean esperarProxy(Long eventoIdCatedra, Instant limite) throws InterruptedException {
+        while (Instant.now().isBefore(limite)) {
+            if (proxyAsientosService.existeMapaEnRedis(eventoIdCatedra) != null) {
+                return true;
+            }
+            LOG.debug("Proxy todavía no disponible para el warm-up, reintentando");
+            Thread.sleep(INTERVALO_ESPERA_PROXY_MS);
         }
+        return false;
     }
 
     /**
-     * Intenta bloquear un asiento del evento hasta lograrlo o quedarse sin asientos.
-     * Si no puede bloquear ningún asiento con el método normal, recorre toda la matriz.
-     * 
-     * @param eventoId ID del evento en la cátedra
-     * @return true si logró bloquear un asiento, false en caso contrario
+     * Calienta un evento: si su clave no existe, bloquea uno de los asientos libres candidatos.
      */
-    private boolean intentarBloquearAsiento(Long eventoId) {
+    private ResultadoWarmup calentar(Evento evento, Instant limite) {
+        Long eventoId = evento.getEventoIdCatedra();
         try {
-            // Obtener mapa de asientos
-            MapaAsientosDTO mapa = proxyAsientosService.obtenerMapaAsientos(eventoId);
-            
-            if (mapa == null) {
-                LOG.warn("Mapa de asientos es null para eventoId: {}", eventoId);
-                // Intentar bloquear asiento por defecto (fila 1, columna 1) para inicializar Redis
-                if (bloquearAsiento(eventoId, "1", 1)) {
-                    return true;
-                }
-                // Si falla, intentar recorrer toda la matriz
-                return recorrerTodaMatriz(eventoId);
+            Boolean existe = proxyAsientosService.existeMapaEnRedis(eventoId);
+            if (Boolean.TRUE.equals(existe)) {
+                LOG.debug("Clave de Redis ya presente para eventoId: {}, se omite", eventoId);
+                return ResultadoWarmup.OMITIDO;
             }
-
-            List<MapaAsientosDTO.AsientoDTO> asientos = mapa.getAsientos();
-            
-            // Si el mapa está vacío, Redis probablemente no tiene datos aún
-            // Intentar bloquear un asiento por defecto para inicializar Redis
-            if (asientos == null || asientos.isEmpty()) {
-                LOG.info("Mapa de asientos vacío para eventoId: {} (Redis sin inicializar), intentando bloquear asiento por defecto", eventoId);
-                // Intentar con varios asientos comunes: fila 1 columna 1, fila 1 columna 2, etc.
-                // También intentar con diferentes filas por si acaso
-                for (int fila = 1; fila <= 3; fila++) {
-                    for (int columna = 1; columna <= 5; columna++) {
-                        if (bloquearAsiento(eventoId, String.valueOf(fila), columna)) {
-                            LOG.info("✅ Warm-up exitoso para eventoId: {} usando asiento por defecto (fila {}, columna {})", eventoId, fila, columna);
-                            return true;
-                        }
-                    }
-                }
-                LOG.warn("⚠️ No se pudo bloquear ningún asiento por defecto para eventoId: {}, recorriendo toda la matriz", eventoId);
-                // Si no pudo bloquear ningún asiento por defecto, recorrer toda la matriz
-                return recorrerTodaMatriz(eventoId);
+            if (existe == null) {
+                return ResultadoWarmup.FALLIDO;
             }
 
-            // Buscar el primer asiento LIBRE en el mapa
-            int intentos = 0;
-            int maxIntentos = Math.min(asientos.size(), 20); // Intentar máximo 20 asientos
-            
-            for (MapaAsientosDTO.AsientoDTO asiento : asientos) {
-                if (intentos >= maxIntentos) {
-                    break;
+            for (int[] asiento : candidatos(evento)) {
+                if (Thread.currentThread().isInterrupted() || !Instant.now().isBefore(limite)) {
+                    return ResultadoWarmup.SIN_TIEMPO;
                 }
-                
-                if (asiento.getEstado() == MapaAsientosDTO.AsientoDTO.EstadoAsiento.LIBRE && 
-                    asiento.getFila() != null && 
-                    asiento.getNumero() != null) {
-                    
-                    intentos++;
-                    // Intentar bloquear este asiento
-                    if (bloquearAsiento(eventoId, asiento.getFila(), asiento.getNumero())) {
-                        LOG.debug("Warm-up exitoso para eventoId: {} usando asiento (fila {}, columna {})", 
-                            eventoId, asiento.getFila(), asiento.getNumero());
-                        return true;
-                    }
-                    // Si falla, continuar con el siguiente asiento
+                if (bloquearAsiento(eventoId, asiento[0], asiento[1])) {
+                    LOG.debug("Warm-up exitoso para eventoId: {} (fila {}, columna {})", eventoId, asiento[0], asiento[1]);
+                    return ResultadoWarmup.CALENTADO;
                 }
             }
-
-            LOG.warn("No se encontró ningún asiento libre para bloquear en eventoId: {} después de {} intentos, recorriendo toda la matriz", eventoId, intentos);
-            // Si no pudo bloquear ningún asiento libre, recorrer toda la matriz
-            return recorrerTodaMatriz(eventoId);
+            LOG.warn("No se pudo hacer warm-up para eventoId: {}", eventoId);
+            return ResultadoWarmup.FALLIDO;
         } catch (Exception e) {
-            LOG.error("Error al intentar bloquear asiento para eventoId: {}", eventoId, e);
-            // En caso de error, intentar recorrer toda la matriz como último recurso
-            return recorrerTodaMatriz(eventoId);
+            LOG.warn("Error en el warm-up de eventoId: {} ({})", eventoId, e.getMessage());
+            return ResultadoWarmup.FALLIDO;
         }
     }
 
     /**
-     * Recorre toda la matriz de asientos del evento intentando bloquear cada uno.
-     * 
-     * @param eventoId ID del evento en la cátedra
-     * @return true si logró bloquear un asiento, false en caso contrario
+     * Elige hasta {@code intentos-por-evento} asientos libres según el mapa, empezando por el fondo de la sala
+     * (los menos elegidos por los usuarios). Si el mapa viene vacío se usan las dimensiones del evento.
      */
-    private boolean recorrerTodaMatriz(Long eventoId) {
-        try {
-            LOG.info("🔄 Recorriendo toda la matriz para eventoId: {}", eventoId);
-            
-            // Obtener el evento para acceder a las dimensiones
-            java.util.Optional<com.um.eventosbackend.domain.Evento> eventoOpt = 
-                eventoRepository.findByEventoIdCatedra(eventoId);
-            
-            if (eventoOpt.isEmpty()) {
-                LOG.warn("No se encontró el evento con eventoIdCatedra: {}", eventoId);
-                return false;
-            }
-            
-            com.um.eventosbackend.domain.Evento evento = eventoOpt.get();
-            Integer filas = evento.getFilaAsiento();
-            Integer columnas = evento.getColumnAsiento();
-            
-            if (filas == null || columnas == null || filas <= 0 || columnas <= 0) {
-                LOG.warn("Evento {} no tiene dimensiones válidas (filas={}, columnas={})", eventoId, filas, columnas);
-                return false;
-            }
-            
-            LOG.info("Recorriendo matriz completa: {} filas x {} columnas para eventoId: {}", filas, columnas, eventoId);
-            
-            // Recorrer toda la matriz fila por fila, columna por columna
-            for (int fila = 1; fila <= filas; fila++) {
-                for (int columna = 1; columna <= columnas; columna++) {
-                    if (bloquearAsiento(eventoId, String.valueOf(fila), columna)) {
-                        LOG.info("✅ Warm-up exitoso recorriendo matriz: eventoId={}, fila={}, columna={}", eventoId, fila, columna);
-                        return true;
-                    }
-                    // Pequeña pausa para no saturar el proxy
-                    try {
-                        Thread.sleep(50); // 50ms entre intentos
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        LOG.warn("Interrupción durante el recorrido de matriz");
-                        return false;
-                    }
+    private List<int[]> candidatos(Evento evento) {
+        int maximo = Math.max(1, config.getIntentosPorEvento());
+        List<int[]> candidatos = new ArrayList<>(maximo);
+
+        MapaAsientosDTO mapa = proxyAsientosService.obtenerMapaAsientos(evento.getEventoIdCatedra());
+        List<MapaAsientosDTO.AsientoDTO> asientos = mapa != null ? mapa.getAsientos() : null;
+        if (asientos != null) {
+            for (int i = asientos.size() - 1; i >= 0 && candidatos.size() < maximo; i--) {
+                MapaAsientosDTO.AsientoDTO asiento = asientos.get(i);
+                Integer fila = convertirFilaAInteger(asiento.getFila());
+                if (asiento.getEstado() == MapaAsientosDTO.AsientoDTO.EstadoAsiento.LIBRE && fila != null && asiento.getNumero() != null) {
+                    candidatos.add(new int[] { fila, asiento.getNumero() });
                 }
             }
-            
-            LOG.warn("❌ No se pudo bloquear ningún asiento después de recorrer toda la matriz ({} filas x {} columnas) para eventoId: {}", 
-                filas, columnas, eventoId);
-            return false;
-        } catch (Exception e) {
-            LOG.error("Error al recorrer toda la matriz para eventoId: {}", eventoId, e);
-            return false;
         }
+        if (!candidatos.isEmpty()) {
+            return candidatos;
+        }
+
+        Integer filas = evento.getFilaAsiento();
+        Integer columnas = evento.getColumnAsiento();
+        if (filas == null || columnas == null || filas <= 0 || columnas <= 0) {
+            candidatos.add(new int[] { 1, 1 });
+            return candidatos;
+        }
+        for (int columna = columnas; columna >= 1 && candidatos.size() < maximo; columna--) {
+            candidatos.add(new int[] { filas, columna });
+        }
+        return candidatos;
     }
 
     /**
      * Bloquea un asiento específico.
-     * 
-     * @param eventoId ID del evento
-     * @param fila Fila del asiento (String, puede ser número o letra)
-     * @param numero Número del asiento
+     *
      * @return true si el bloqueo fue exitoso, false en caso contrario
      */
-    private boolean bloquearAsiento(Long eventoId, String fila, Integer numero) {
-        try {
-            // Crear request de bloqueo
-            BloqueoAsientosRequestDTO request = new BloqueoAsientosRequestDTO();
-            request.setEventoId(eventoId);
-            
-            BloqueoAsientosRequestDTO.AsientoBloqueoDTO asientoDto = new BloqueoAsientosRequestDTO.AsientoBloqueoDTO();
-            asientoDto.setFila(convertirFilaAInteger(fila));  // Convertir String a Integer
-            asientoDto.setColumna(numero);  // El método correcto es setColumna
-            
-            request.setAsientos(List.of(asientoDto));
+    private boolean bloquearAsiento(Long eventoId, int fila, int columna) {
+        BloqueoAsientosRequestDTO request = new BloqueoAsientosRequestDTO();
+        request.setEventoId(eventoId);
+        BloqueoAsientosRequestDTO.AsientoBloqueoDTO asientoDto = new BloqueoAsientosRequestDTO.AsientoBloqueoDTO();
+        asientoDto.setFila(fila);
+        asientoDto.setColumna(columna);
+        request.setAsientos(List.of(asientoDto));
 
-            // Intentar bloquear
-            BloqueoAsientosResponseDTO respuesta = proxyAsientosService.bloquearAsientos(request);
-            
-            if (respuesta != null && Boolean.TRUE.equals(respuesta.getExitoso())) {
-                LOG.info("✅ Asiento bloqueado exitosamente para warm-up: eventoId={}, fila={}, numero={}", eventoId, fila, numero);
-                return true;
-            } else {
-                String mensaje = respuesta != null ? respuesta.getMensaje() : "Respuesta nula";
-                
-                // Verificar si es un error de conexión (proxy no disponible)
-                if (mensaje != null && (mensaje.contains("I/O error") || mensaje.contains("Connection refused") || 
-                    mensaje.contains("connect timed out") || mensaje.contains("No route to host"))) {
-                    LOG.warn("⚠️ Proxy no disponible para warm-up: eventoId={}, fila={}, numero={}, error={}", 
-                        eventoId, fila, numero, mensaje);
-                    // No es un error crítico, el warm-up puede fallar si el proxy no está listo
-                    return false;
-                }
-                
-                LOG.debug("❌ No se pudo bloquear asiento: eventoId={}, fila={}, numero={}, motivo={}", 
-                    eventoId, fila, numero, mensaje);
-                // Si la respuesta indica que el asiento no está disponible, es normal (puede estar ocupado)
-                if (mensaje != null && (mensaje.contains("no disponible") || mensaje.contains("ocupado") || mensaje.contains("bloqueado"))) {
-                    LOG.debug("Asiento no disponible (esperado): eventoId={}, fila={}, numero={}", eventoId, fila, numero);
-                }
-                return false;
-            }
-        } catch (Exception e) {
-            LOG.warn("Excepción al bloquear asiento para warm-up: eventoId={}, fila={}, numero={}, error={}", 
-                eventoId, fila, numero, e.getMessage());
-            return false;
+        BloqueoAsientosResponseDTO respuesta = proxyAsientosService.bloquearAsientos(request);
+        boolean exitoso = respuesta != null && Boolean.TRUE.equals(respuesta.getExitoso());
+        (exitoso ? bloqueosExitosos : bloqueosFallidos).increment();
+        if (!exitoso) {
+            LOG.debug(
+                "No se pudo bloquear asiento para warm-up: eventoId={}, fila={}, columna={}, motivo={}",
+                eventoId,
+                fila,
+                columna,
+                respuesta != null ? respuesta.getMensaje() : "Respuesta nula"
+            );
         }
+        return exitoso;
     }
 
     /**
@@ -281,12 +288,12 @@ public class RedisWarmupService {
         }
 
         String filaUpper = fila.trim().toUpperCase();
-        
+
         // Si es una letra (A-Z)
         if (filaUpper.length() == 1 && filaUpper.charAt(0) >= 'A' && filaUpper.charAt(0) <= 'Z') {
             return filaUpper.charAt(0) - 'A' + 1; // A=1, B=2, C=3, etc.
         }
-        
+
         // Si es un número, intentar parsearlo
         try {
             return Integer.parseInt(filaUpper);
@@ -0,0 +1,40 @@
+package com.um.eventosbackend.web.rest;
+
+import com.um.eventosbackend.security.AuthoritiesConstants;
+import com.um.eventosbackend.service.asientos.VencimientoBloqueosService;
+import com.um.eventosbackend.service.dto.BloqueosVencidosDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Avisos del proxy sobre los asientos de un evento.
+ */
+@RestController
+@RequestMapping("/api/admin/asientos")
+@PreAuthorize("hasAuthority('" + AuthoritiesConstants.ADMIN + "')")
+public class AsientosNotificacionResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsientosNotificacionResource.class);
+
+    private final VencimientoBloqueosService vencimientoBloqueosService;
+
+    public AsientosNotificacionResource(VencimientoBloqueosService vencimientoBloqueosService) {
+        this.vencimientoBloqueosService = vencimientoBloqueosService;
+    }
+
+    /**
+     * {@code POST /api/admin/asientos/vencimientos} : vencieron bloqueos de asientos de un evento.
+     */
+    @PostMapping("/vencimientos")
+    public ResponseEntity<Void> recibirVencimientos(@RequestBody BloqueosVencidosDTO vencidos) {
+        LOG.debug("REST request con bloqueos vencidos: eventoId={}, asientos={}", vencidos.getEventoId(), vencidos.getAsientos().size());
+        vencimientoBloqueosService.procesar(vencidos);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,10 +2,20 @@ package com.um.eventosbackend.web.rest;
 
 import com.um.eventosbackend.security.SecurityUtils;
 import com.um.eventosbackend.service.asientos.AsientosService;
+import com.um.eventosbackend.service.asientos.MapaAsientosVista;
+import com.um.eventosbackend.service.asientos.RegionMapa;
 import com.um.eventosbackend.service.dto.BloqueoAsientosResponseDTO;
-import com.um.eventosbackend.service.dto.MapaAsientosDTO;
+import com.um.eventosbackend.service.dto.MejoresAsientosRequestDTO;
+import com.um.eventosbackend.service.dto.MejoresAsientosResponseDTO;
+import com.um.eventosbackend.service.salaespera.SalaEsperaService;
+import com.um.eventosbackend.web.rest.errors.AdmisionRequeridaException;
+import com.um.eventosbackend.web.rest.errors.BadRequestAlertException;
+import java.util.Arrays;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -18,25 +28,96 @@ public class AsientosResource {
     private static final Logger LOG = LoggerFactory.getLogger(AsientosResource.class);
 
     private final AsientosService asientosService;
+    private final SalaEsperaService salaEsperaService;
 
-    public AsientosResource(AsientosService asientosService) {
+    public AsientosResource(AsientosService asientosService, SalaEsperaService salaEsperaService) {
         this.asientosService = asientosService;
+        this.salaEsperaService = salaEsperaService;
     }
 
+    /**
+     * {@code GET /api/asientos/evento/:eventoId} : mapa de asientos del evento.
+     * <p>
+     * Con {@code filaDesde}, {@code filaHasta}, {@code colDesde} y/o {@code colHasta} devuelve solo esa ventana,
+     * con su versión en el ETag: si el cliente envía {@code If-None-Match} con la versión vigente se responde
+     * {@code 304} sin cuerpo, así un cliente que muestra el mapa por regiones solo descarga las que cambiaron.
+     */
     @GetMapping("/evento/{eventoId}")
-    public ResponseEntity<MapaAsientosDTO> obtenerMapaAsientos(@PathVariable Long eventoId) {
+    public ResponseEntity<MapaAsientosVista> obtenerMapaAsientos(
+        @PathVariable Long eventoId,
+        @RequestParam(required = false) Integer filaDesde,
+        @RequestParam(required = false) Integer filaHasta,
+        @RequestParam(required = false) Integer colDesde,
+        @RequestParam(required = false) Integer colHasta,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String versionCliente,
+        @RequestHeader(value = SalaEsperaResource.HEADER_TOKEN, required = false) String tokenAdmision
+    ) {
         String userId = SecurityUtils.getCurrentUserLogin().orElseThrow();
-        LOG.debug("REST request para obtener mapa de asientos: eventoId={}, userId={}", eventoId, userId);
-        MapaAsientosDTO mapa = asientosService.obtenerMapaAsientos(eventoId, userId);
-        return ResponseEntity.ok(mapa);
+        verificarAdmision(eventoId, userId, tokenAdmision);
+        RegionMapa region;
+        try {
+            region = RegionMapa.de(filaDesde, filaHasta, colDesde, colHasta);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), "asientos", "regioninvalida");
+        }
+        LOG.debug("REST request para obtener mapa de asientos: eventoId={}, userId={}, region={}", eventoId, userId, region);
+        MapaAsientosVista mapa = asientosService.obtenerMapaAsientos(eventoId, userId, region);
+        if (region == null) {
+            return ResponseEntity.ok(mapa);
+        }
+        String etag = "\"" + mapa.getVersion() + "\"";
+        if (coincideEtag(versionCliente, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(mapa);
+    }
+
+    private static boolean coincideEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        // Comparación débil (RFC 9110): se ignora el prefijo W/
+        return Arrays.stream(ifNoneMatch.split(","))
+            .map(String::trim)
+            .map(valor -> valor.startsWith("W/") ? valor.substring(2) : valor)
+            .anyMatch(valor -> valor.equals("*") || valor.equals(etag));
     }
 
     @PostMapping("/bloquear/{eventoId}")
-    public ResponseEntity<BloqueoAsientosResponseDTO> bloquearAsientos(@PathVariable Long eventoId) {
+    public ResponseEntity<BloqueoAsientosResponseDTO> bloquearAsientos(
+        @PathVariable Long eventoId,
+        @RequestHeader(value = SalaEsperaResource.HEADER_TOKEN, required = false) String tokenAdmision
+    ) {
         String userId = SecurityUtils.getCurrentUserLogin().orElseThrow();
+        verificarAdmision(eventoId, userId, tokenAdmision);
         LOG.debug("REST request para bloquear asientos: eventoId={}, userId={}", eventoId, userId);
         BloqueoAsientosResponseDTO resultado = asientosService.bloquearAsientos(eventoId, userId);
         return ResponseEntity.ok(resultado);
     }
-}
 
+    /**
+     * {@code POST /api/asientos/mejores/:eventoId} : busca los mejores asientos libres contiguos y, con
+     * {@code bloquear}, los selecciona y bloquea en el mismo request.
+     */
+    @PostMapping("/mejores/{eventoId}")
+    public ResponseEntity<MejoresAsientosResponseDTO> buscarMejoresAsientos(
+        @PathVariable Long eventoId,
+        @RequestBody MejoresAsientosRequestDTO pedido,
+        @RequestHeader(value = SalaEsperaResource.HEADER_TOKEN, required = false) String tokenAdmision
+    ) {
+        String userId = SecurityUtils.getCurrentUserLogin().orElseThrow();
+        verificarAdmision(eventoId, userId, tokenAdmision);
+        LOG.debug("REST request para buscar mejores asientos: eventoId={}, cantidad={}, userId={}", eventoId, pedido.getCantidad(), userId);
+        try {
+            return ResponseEntity.ok(asientosService.buscarMejoresAsientos(eventoId, userId, pedido));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), "asientos", "cantidadinvalida");
+        }
+    }
+
+    private void verificarAdmision(Long eventoId, String userId, String tokenAdmision) {
+        if (!salaEsperaService.verificarAdmision(eventoId, userId, tokenAdmision)) {
+            throw new AdmisionRequeridaException(eventoId);
+        }
+    }
+}
@@ -1,16 +1,26 @@
 package com.um.eventosbackend.web.rest;
 
 import com.um.eventosbackend.service.EventoQueryService;
-import com.um.eventosbackend.service.dto.EventoDetalleDTO;
-import com.um.eventosbackend.service.dto.EventoResumenDTO;
-import java.util.List;
+import com.um.eventosbackend.service.EventosRespuestaCache;
+import com.um.eventosbackend.service.EventosRespuestaCache.RespuestaSerializada;
+import com.um.eventosbackend.service.dto.EventoPaginaDTO;
+import com.um.eventosbackend.web.rest.errors.BadRequestAlertException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -22,21 +32,51 @@ public class EventoResource {
 
     private static final Logger LOG = LoggerFactory.getLogger(EventoResource.class);
 
+    /**
+     * Por debajo de este tamaño no vale la pena enviar la variante gzip.
+     */
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private static final String ENTITY_NAME = "evento";
+
     private final EventoQueryService eventoQueryService;
+    private final EventosRespuestaCache eventosRespuestaCache;
 
-    public EventoResource(EventoQueryService eventoQueryService) {
+    public EventoResource(EventoQueryService eventoQueryService, EventosRespuestaCache eventosRespuestaCache) {
         this.eventoQueryService = eventoQueryService;
+        this.eventosRespuestaCache = eventosRespuestaCache;
     }
 
     /**
      * {@code GET /api/eventos} : listado de eventos activos (no cancelados y no expirados).
+     * <p>
+     * Sin parámetros responde con el JSON ya serializado y un ETag fuerte; con {@code If-None-Match}
+     * coincidente devuelve 304. Con algún filtro, {@code size} o {@code cursor} devuelve una página
+     * ({@link EventoPaginaDTO}) paginada por keyset sobre (fecha, id).
      */
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<EventoResumenDTO>> listarEventos() {
-        LOG.debug("REST request to get active events");
-        List<EventoResumenDTO> eventos = eventoQueryService.obtenerEventosActivos();
-        return ResponseEntity.ok(eventos);
+    public ResponseEntity<?> listarEventos(
+        @RequestParam(required = false) String tipo,
+        @RequestParam(required = false) Instant desde,
+        @RequestParam(required = false) Instant hasta,
+        @RequestParam(required = false) BigDecimal precioMax,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer size,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        if (tipo == null && desde == null && hasta == null && precioMax == null && cursor == null && size == null) {
+            LOG.debug("REST request to get active events");
+            return responder(eventosRespuestaCache.obtenerListado(), ifNoneMatch, acceptEncoding);
+        }
+
+        LOG.debug("REST request to get active events page : tipo={}, desde={}, hasta={}, precioMax={}, size={}", tipo, desde, hasta, precioMax, size);
+        try {
+            return ResponseEntity.ok(eventoQueryService.buscarEventosActivos(tipo, desde, hasta, precioMax, cursor, size));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Cursor de paginación inválido", ENTITY_NAME, "cursorinvalido");
+        }
     }
 
     /**
@@ -44,9 +84,82 @@ public class EventoResource {
      */
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<EventoDetalleDTO> obtenerDetalle(@PathVariable Long id) {
+    public ResponseEntity<byte[]> obtenerDetalle(
+        @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
         LOG.debug("REST request to get event detail : {}", id);
-        return eventoQueryService.obtenerDetalleEvento(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        return eventosRespuestaCache
+            .obtenerDetalle(id)
+            .map(respuesta -> responder(respuesta, ifNoneMatch, acceptEncoding))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<byte[]> responder(RespuestaSerializada respuesta, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = respuesta.getJson().length >= GZIP_MIN_BYTES && aceptaGzip(acceptEncoding);
+        String etag = gzip ? respuesta.getEtagGzip() : respuesta.getEtag();
+        if (coincideEtag(ifNoneMatch, respuesta)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            byte[] cuerpo = respuesta.getGzip();
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").contentLength(cuerpo.length).body(cuerpo);
+        }
+        return builder.contentLength(respuesta.getJson().length).body(respuesta.getJson());
+    }
+
+    /**
+     * El cliente puede tener guardada cualquiera de las dos variantes: las dos describen el mismo contenido.
+     */
+    private static boolean coincideEtag(String ifNoneMatch, RespuestaSerializada respuesta) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        // Comparación débil (RFC 9110): se ignora el prefijo W/
+        return Arrays.stream(ifNoneMatch.split(","))
+            .map(String::trim)
+            .map(valor -> valor.startsWith("W/") ? valor.substring(2) : valor)
+            .anyMatch(valor -> valor.equals("*") || valor.equals(respuesta.getEtag()) || valor.equals(respuesta.getEtagGzip()));
+    }
+
+    /**
+     * {@code gzip} aparece en {@code Accept-Encoding} con un q mayor que 0 (o sin q). Un q que no es un
+     * número se toma como rechazo.
+     */
+    private static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        return Arrays.stream(acceptEncoding.split(",")).anyMatch(EventoResource::aceptaGzipEn);
+    }
+
+    private static boolean aceptaGzipEn(String codificacion) {
+        String[] partes = codificacion.split(";");
+        if (!partes[0].trim().equalsIgnoreCase("gzip")) {
+            return false;
+        }
+        for (int i = 1; i < partes.length; i++) {
+            String parametro = partes[i].trim();
+            int igual = parametro.indexOf('=');
+            if (igual > 0 && parametro.substring(0, igual).trim().equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(parametro.substring(igual + 1).trim()) > 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
     }
 
     /**
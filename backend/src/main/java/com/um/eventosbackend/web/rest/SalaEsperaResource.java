@@ -0,0 +1,93 @@
+package com.um.eventosbackend.web.rest;
+
+import com.um.eventosbackend.security.AuthoritiesConstants;
+import com.um.eventosbackend.security.SecurityUtils;
+import com.um.eventosbackend.service.dto.SalaEsperaAvanceDTO;
+import com.um.eventosbackend.service.dto.SalaEsperaEstadoDTO;
+import com.um.eventosbackend.service.salaespera.SalaEsperaService;
+import com.um.eventosbackend.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller de la sala de espera virtual.
+ * <p>
+ * El cliente ingresa con {@code POST}, consulta su estado con {@code GET} (también sirve como señal de actividad)
+ * y se suscribe a {@code /topic/sala-espera/{eventoId}} para ver el avance. Al ser admitido recibe el token que
+ * debe enviar en el header {@value #HEADER_TOKEN} al mapa de asientos, al bloqueo y a la venta.
+ */
+@RestController
+@RequestMapping("/api")
+public class SalaEsperaResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SalaEsperaResource.class);
+
+    public static final String HEADER_TOKEN = "X-Admision-Token";
+
+    private final SalaEsperaService salaEsperaService;
+
+    public SalaEsperaResource(SalaEsperaService salaEsperaService) {
+        this.salaEsperaService = salaEsperaService;
+    }
+
+    /**
+     * {@code POST /api/sala-espera/:eventoId} : ingresa a la sala de espera del evento (idempotente).
+     */
+    @PostMapping("/sala-espera/{eventoId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SalaEsperaEstadoDTO> ingresar(@PathVariable Long eventoId) {
+        String userLogin = SecurityUtils.getCurrentUserLogin().orElseThrow();
+        LOG.debug("REST request para ingresar a la sala de espera: eventoId={}, usuario={}", eventoId, userLogin);
+        return ResponseEntity.ok(salaEsperaService.ingresar(eventoId, userLogin));
+    }
+
+    /**
+     * {@code GET /api/sala-espera/:eventoId} : estado del usuario en la sala de espera del evento.
+     */
+    @GetMapping("/sala-espera/{eventoId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SalaEsperaEstadoDTO> obtenerEstado(@PathVariable Long eventoId) {
+        String userLogin = SecurityUtils.getCurrentUserLogin().orElseThrow();
+        return ResponseEntity.ok(salaEsperaService.obtenerEstado(eventoId, userLogin));
+    }
+
+    /**
+     * {@code GET /api/admin/sala-espera} : avance de las salas de espera activas.
+     */
+    @GetMapping("/admin/sala-espera")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.ADMIN + "')")
+    public ResponseEntity<List<SalaEsperaAvanceDTO>> obtenerSalas() {
+        return ResponseEntity.ok(salaEsperaService.obtenerAvances());
+    }
+
+    /**
+     * {@code PUT /api/admin/sala-espera/:eventoId} : activa la sala de espera del evento en todos los nodos.
+     */
+    @PutMapping("/admin/sala-espera/{eventoId}")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.ADMIN + "')")
+    public ResponseEntity<Void> activar(@PathVariable Long eventoId) {
+        LOG.debug("REST request para activar la sala de espera: eventoId={}", eventoId);
+        salaEsperaService.activar(eventoId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * {@code DELETE /api/admin/sala-espera/:eventoId} : desactiva la sala de espera del evento en todos los nodos.
+     * Las salas de {@code application.sala-espera.eventos} no se pueden desactivar en caliente ({@code 400}).
+     */
+    @DeleteMapping("/admin/sala-espera/{eventoId}")
+    @PreAuthorize("hasAuthority('" + AuthoritiesConstants.ADMIN + "')")
+    public ResponseEntity<Void> desactivar(@PathVariable Long eventoId) {
+        LOG.debug("REST request para desactivar la sala de espera: eventoId={}", eventoId);
+        try {
+            salaEsperaService.desactivar(eventoId);
+        } catch (IllegalStateException e) {
+            throw new BadRequestAlertException(e.getMessage(), "salaEspera", "salaporconfiguracion");
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
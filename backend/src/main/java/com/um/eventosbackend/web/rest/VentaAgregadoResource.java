@@ -0,0 +1,43 @@
+package com.um.eventosbackend.web.rest;
+
+import com.um.eventosbackend.security.AuthoritiesConstants;
+import com.um.eventosbackend.service.dto.VentaAgregadoDTO;
+import com.um.eventosbackend.service.venta.VentaAgregadoService;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller de solo lectura para los totales de ventas por evento (administradores).
+ */
+@RestController
+@RequestMapping("/api/admin/ventas")
+@PreAuthorize("hasAuthority('" + AuthoritiesConstants.ADMIN + "')")
+public class VentaAgregadoResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VentaAgregadoResource.class);
+
+    private final VentaAgregadoService ventaAgregadoService;
+
+    public VentaAgregadoResource(VentaAgregadoService ventaAgregadoService) {
+        this.ventaAgregadoService = ventaAgregadoService;
+    }
+
+    /**
+     * {@code GET /api/admin/ventas/agregados} : Totales de ventas, asientos y recaudación por evento y resultado.
+     *
+     * @param eventoId ID interno del evento (opcional; sin él se devuelven todos los eventos).
+     * @return el {@link ResponseEntity} con status {@code 200 (OK)} y la lista de totales.
+     */
+    @GetMapping("/agregados")
+    public ResponseEntity<List<VentaAgregadoDTO>> obtenerAgregados(@RequestParam(required = false) Long eventoId) {
+        LOG.debug("REST request para obtener totales de ventas: eventoId={}", eventoId);
+        return ResponseEntity.ok(ventaAgregadoService.obtenerAgregados(eventoId));
+    }
+}
@@ -0,0 +1,84 @@
+package com.um.eventosbackend.web.rest;
+
+import com.um.eventosbackend.config.AsyncWebConfiguration;
+import com.um.eventosbackend.security.AuthoritiesConstants;
+import com.um.eventosbackend.service.venta.VentaExportacionService;
+import com.um.eventosbackend.service.venta.VentaExportacionService.Formato;
+import com.um.eventosbackend.web.rest.errors.BadRequestAlertException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller para exportar ventas con sus asientos (administradores).
+ */
+@RestController
+@RequestMapping("/api/admin/ventas")
+@PreAuthorize("hasAuthority('" + AuthoritiesConstants.ADMIN + "')")
+public class VentaExportacionResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VentaExportacionResource.class);
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final VentaExportacionService ventaExportacionService;
+
+    public VentaExportacionResource(VentaExportacionService ventaExportacionService) {
+        this.ventaExportacionService = ventaExportacionService;
+    }
+
+    /**
+     * {@code GET /api/admin/ventas/exportar} : Exporta las ventas con sus asientos en streaming.
+     * <p>
+     * La respuesta se escribe a medida que se leen las filas, sin cargar las ventas en memoria. Corre como
+     * request asíncrono con su propio límite ({@link AsyncWebConfiguration#TIMEOUT_EXPORTACION_VENTAS}); el resto
+     * de los requests asíncronos mantiene el default del contenedor.
+     *
+     * @param formato {@code csv} (una línea por asiento) o {@code ndjson} (un objeto por venta).
+     * @param eventoId filtra por evento (opcional).
+     * @param desde fecha de venta mínima, inclusive (opcional, ISO-8601).
+     * @param hasta fecha de venta máxima, exclusiva (opcional, ISO-8601).
+     * @return el {@link ResponseEntity} con status {@code 200 (OK)} y el archivo como adjunto.
+     */
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarVentas(
+        @RequestParam(defaultValue = "csv") String formato,
+        @RequestParam(required = false) Long eventoId,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant desde,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant hasta
+    ) {
+        Formato formatoExportacion;
+        try {
+            formatoExportacion = Formato.valueOf(formato.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Formato de exportación inválido: " + formato, "venta", "formatoinvalido");
+        }
+        if (desde != null && hasta != null && !desde.isBefore(hasta)) {
+            throw new BadRequestAlertException("El rango de fechas es inválido", "venta", "rangoinvalido");
+        }
+        LOG.info("REST request para exportar ventas: formato={}, eventoId={}, desde={}, hasta={}", formatoExportacion, eventoId, desde, hasta);
+
+        boolean csv = formatoExportacion == Formato.CSV;
+        String archivo = "ventas" + (eventoId != null ? "-evento-" + eventoId : "") + (csv ? ".csv" : ".ndjson");
+        StreamingResponseBody cuerpo = salida -> ventaExportacionService.exportar(eventoId, desde, hasta, formatoExportacion, salida);
+
+        return ResponseEntity.ok()
+            .contentType(csv ? TEXT_CSV : APPLICATION_NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(archivo).build().toString())
+            .header(HttpHeaders.CACHE_CONTROL, "no-store")
+            .body(cuerpo);
+    }
+}
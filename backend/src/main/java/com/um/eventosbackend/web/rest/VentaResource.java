@@ -1,24 +1,29 @@
 package com.um.eventosbackend.web.rest;
 
-import com.um.eventosbackend.domain.User;
-import com.um.eventosbackend.domain.Venta;
-import com.um.eventosbackend.repository.UserRepository;
-import com.um.eventosbackend.repository.VentaRepository;
 import com.um.eventosbackend.security.SecurityUtils;
+import com.um.eventosbackend.service.dto.VentaPaginaDTO;
 import com.um.eventosbackend.service.dto.VentaRequestDTO;
 import com.um.eventosbackend.service.dto.VentaResponseDTO;
 import com.um.eventosbackend.service.dto.VentaResumenDTO;
+import com.um.eventosbackend.service.salaespera.SalaEsperaService;
+import com.um.eventosbackend.service.venta.VentaConfirmacionService;
+import com.um.eventosbackend.service.venta.VentaIdempotenciaService;
+import com.um.eventosbackend.service.venta.VentaQueryService;
 import com.um.eventosbackend.service.venta.VentaService;
+import com.um.eventosbackend.web.rest.errors.AdmisionRequeridaException;
+import com.um.eventosbackend.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
+import java.net.URI;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
 @RequestMapping("/api/ventas")
@@ -27,76 +32,171 @@ public class VentaResource {
 
     private static final Logger LOG = LoggerFactory.getLogger(VentaResource.class);
 
+    /**
+     * {@code Retry-After} de una repetición cuya venta original sigue en curso.
+     */
+    static final int REINTENTO_EN_CURSO_SEGUNDOS = 1;
+
     private final VentaService ventaService;
-    private final VentaRepository ventaRepository;
-    private final UserRepository userRepository;
+    private final VentaConfirmacionService ventaConfirmacionService;
+    private final VentaIdempotenciaService ventaIdempotenciaService;
+    private final VentaQueryService ventaQueryService;
+    private final SalaEsperaService salaEsperaService;
 
     public VentaResource(
         VentaService ventaService,
-        VentaRepository ventaRepository,
-        UserRepository userRepository
+        VentaConfirmacionService ventaConfirmacionService,
+        VentaIdempotenciaService ventaIdempotenciaService,
+        VentaQueryService ventaQueryService,
+        SalaEsperaService salaEsperaService
     ) {
         this.ventaService = ventaService;
-        this.ventaRepository = ventaRepository;
-        this.userRepository = userRepository;
+        this.ventaConfirmacionService = ventaConfirmacionService;
+        this.ventaIdempotenciaService = ventaIdempotenciaService;
+        this.ventaQueryService = ventaQueryService;
+        this.salaEsperaService = salaEsperaService;
     }
 
     /**
      * {@code POST  /ventas} : Procesa una nueva venta.
+     * <p>
+     * La venta se registra como PENDIENTE y se confirma con la cátedra en segundo plano. Si la confirmación
+     * termina dentro del tiempo de espera se responde {@code 201} con el resultado final; si no, {@code 202}
+     * con la venta PENDIENTE y el header {@code Location} para consultar {@code GET /ventas/:id}.
+     * <p>
+     * Con el header {@code Idempotency-Key}, las repeticiones del mismo request devuelven la respuesta original
+     * sin registrar otra venta; la misma clave con otro request responde {@code 422}. Si la original sigue en curso,
+     * la repetición espera brevemente su resultado; si no termina a tiempo responde {@code 409} con
+     * {@code Retry-After} para que el cliente reintente con la misma clave.
+     * <p>
+     * Si el evento tiene la sala de espera activa se exige el token de admisión ({@code 403} sin él).
      *
      * @param request el DTO de la venta a procesar.
-     * @return el {@link ResponseEntity} con status {@code 201 (Created)} y con el cuerpo de la venta procesada.
+     * @param idempotencyKey clave de idempotencia opcional generada por el cliente.
+     * @param tokenAdmision token de admisión de la sala de espera.
+     * @return el {@link ResponseEntity} con status {@code 201 (Created)} o {@code 202 (Accepted)} y con el cuerpo de la venta.
      */
     @PostMapping
-    public ResponseEntity<VentaResponseDTO> procesarVenta(@Valid @RequestBody VentaRequestDTO request) {
+    public ResponseEntity<VentaResponseDTO> procesarVenta(
+        @Valid @RequestBody VentaRequestDTO request,
+        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+        @RequestHeader(value = SalaEsperaResource.HEADER_TOKEN, required = false) String tokenAdmision
+    ) {
         String userLogin = SecurityUtils.getCurrentUserLogin().orElseThrow();
         LOG.debug("REST request para procesar venta: eventoId={}, usuario={}", request.getEventoId(), userLogin);
-        
+
+        if (!salaEsperaService.verificarAdmision(request.getEventoId(), userLogin, tokenAdmision)) {
+            throw new AdmisionRequeridaException(request.getEventoId());
+        }
+
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return registrarVenta(request, userLogin, null);
+        }
+        if (idempotencyKey.length() > VentaIdempotenciaService.LONGITUD_MAXIMA_CLAVE) {
+            return error(HttpStatus.BAD_REQUEST, "Idempotency-Key demasiado larga");
+        }
+
+        VentaIdempotenciaService.Inicio inicio = ventaIdempotenciaService.iniciar(idempotencyKey, userLogin, request);
+        switch (inicio.tipo()) {
+            case REPETIDA:
+                LOG.debug("Reproduciendo respuesta de Idempotency-Key repetida, usuario={}", userLogin);
+                return respuestaGuardada(inicio.httpStatus(), inicio.respuesta());
+            case EN_CURSO:
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(REINTENTO_EN_CURSO_SEGUNDOS))
+                    .body(cuerpoError("Ya hay una venta en curso con la misma Idempotency-Key"));
+            case CONFLICTO:
+                return error(HttpStatus.UNPROCESSABLE_ENTITY, "La Idempotency-Key ya se usó con otro request");
+            default:
+                break;
+        }
+
+        // Con venta registrada la clave ya quedó COMPLETADA en su transacción; acá solo se resuelven los rechazos
+        ResponseEntity<VentaResponseDTO> respuesta = registrarVenta(request, userLogin, inicio.registroId());
+        if (respuesta.getStatusCode().is5xxServerError()) {
+            ventaIdempotenciaService.liberar(idempotencyKey, userLogin);
+        } else if (respuesta.getStatusCode().is4xxClientError()) {
+            ventaIdempotenciaService.completar(idempotencyKey, userLogin, respuesta.getStatusCode().value(), respuesta.getBody());
+        }
+        return respuesta;
+    }
+
+    private ResponseEntity<VentaResponseDTO> registrarVenta(VentaRequestDTO request, String userLogin, Long idempotenciaId) {
         try {
-            VentaResponseDTO respuesta = ventaService.procesarVenta(request, userLogin);
-            return ResponseEntity.status(HttpStatus.CREATED).body(respuesta);
+            VentaResponseDTO registrada = ventaService.procesarVenta(request, userLogin, idempotenciaId);
+            Optional<VentaResponseDTO> resultado = ventaConfirmacionService.esperarResultado(registrada.getId());
+            if (resultado.isPresent()) {
+                return ResponseEntity.status(HttpStatus.CREATED).body(resultado.get());
+            }
+            return ResponseEntity.accepted().location(URI.create("/api/ventas/" + registrada.getId())).body(registrada);
         } catch (IllegalArgumentException e) {
             LOG.warn("Error de validación al procesar venta: {}", e.getMessage());
-            VentaResponseDTO error = new VentaResponseDTO();
-            error.setResultado("FALLIDA");
-            error.setMensaje(e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
         } catch (IllegalStateException e) {
             LOG.warn("Error de estado al procesar venta: {}", e.getMessage());
-            VentaResponseDTO error = new VentaResponseDTO();
-            error.setResultado("FALLIDA");
-            error.setMensaje(e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
             LOG.error("Error inesperado al procesar venta", e);
-            VentaResponseDTO error = new VentaResponseDTO();
-            error.setResultado("FALLIDA");
-            error.setMensaje("Error interno al procesar la venta");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "Error interno al procesar la venta");
         }
     }
 
     /**
-     * {@code GET  /ventas} : Obtiene todas las ventas del usuario autenticado.
+     * Reconstruye la respuesta guardada de una Idempotency-Key (incluido el {@code Location} de un {@code 202}).
+     */
+    private ResponseEntity<VentaResponseDTO> respuestaGuardada(Integer httpStatus, VentaResponseDTO body) {
+        HttpStatus status = HttpStatus.valueOf(httpStatus);
+        if (status == HttpStatus.ACCEPTED && body != null && body.getId() != null) {
+            return ResponseEntity.accepted().location(URI.create("/api/ventas/" + body.getId())).body(body);
+        }
+        return ResponseEntity.status(status).body(body);
+    }
+
+    private ResponseEntity<VentaResponseDTO> error(HttpStatus status, String mensaje) {
+        return ResponseEntity.status(status).body(cuerpoError(mensaje));
+    }
+
+    private static VentaResponseDTO cuerpoError(String mensaje) {
+        VentaResponseDTO error = new VentaResponseDTO();
+        error.setResultado("FALLIDA");
+        error.setMensaje(mensaje);
+        return error;
+    }
+
+    /**
+     * {@code GET  /ventas} : Obtiene el historial de ventas del usuario autenticado, de la más reciente a la más vieja.
+     * <p>
+     * Sin {@code cursor} ni {@code size} devuelve el historial completo. Con alguno de los dos se pagina por keyset:
+     * si hay más ventas, el header {@code Link} ({@code rel="next"}) trae la URL de la página siguiente con su
+     * {@code cursor}.
      *
+     * @param cursor cursor de la página siguiente (opcional).
+     * @param size tamaño de página (opcional; {@value VentaQueryService#TAMANIO_PAGINA_DEFAULT} si solo viene el cursor).
      * @return el {@link ResponseEntity} con status {@code 200 (OK)} y la lista de ventas resumidas.
      */
     @GetMapping
-    public ResponseEntity<List<VentaResumenDTO>> obtenerVentas() {
+    public ResponseEntity<List<VentaResumenDTO>> obtenerVentas(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer size
+    ) {
         String userLogin = SecurityUtils.getCurrentUserLogin().orElseThrow();
         LOG.debug("REST request para obtener ventas del usuario: {}", userLogin);
-        
-        Optional<User> userOpt = userRepository.findOneByLogin(userLogin);
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+
+        VentaPaginaDTO pagina;
+        try {
+            pagina = ventaQueryService.buscarHistorial(userLogin, cursor, size);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), "venta", "cursorinvalido");
+        }
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (pagina.getSiguienteCursor() != null) {
+            String siguiente = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", pagina.getSiguienteCursor())
+                .toUriString();
+            respuesta.header(HttpHeaders.LINK, "<" + siguiente + ">; rel=\"next\"");
         }
-        
-        List<Venta> ventas = ventaRepository.findByUsuarioOrderByFechaVentaDesc(userOpt.get());
-        List<VentaResumenDTO> ventasDTO = ventas.stream()
-            .map(this::convertirAVentaResumenDTO)
-            .collect(Collectors.toList());
-        
-        return ResponseEntity.ok(ventasDTO);
+        return respuesta.body(pagina.getVentas());
     }
 
     /**
@@ -109,62 +209,11 @@ public class VentaResource {
     public ResponseEntity<VentaResponseDTO> obtenerVenta(@PathVariable Long id) {
         String userLogin = SecurityUtils.getCurrentUserLogin().orElseThrow();
         LOG.debug("REST request para obtener venta id: {}, usuario: {}", id, userLogin);
-        
-        Optional<User> userOpt = userRepository.findOneByLogin(userLogin);
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
-        
-        Venta venta = ventaRepository.findByIdAndUsuario(id, userOpt.get());
-        if (venta == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        }
-        
-        VentaResponseDTO dto = convertirAVentaResponseDTO(venta);
-        return ResponseEntity.ok(dto);
-    }
 
-    /**
-     * Convierte una entidad Venta a VentaResumenDTO.
-     */
-    private VentaResumenDTO convertirAVentaResumenDTO(Venta venta) {
-        VentaResumenDTO dto = new VentaResumenDTO();
-        dto.setId(venta.getId());
-        dto.setEventoId(venta.getEventoId());
-        dto.setFechaVenta(venta.getFechaVenta());
-        dto.setPrecioVenta(venta.getPrecioVenta());
-        dto.setResultado(venta.getResultado().name());
-        dto.setCantidadAsientos(venta.getAsientos() != null ? venta.getAsientos().size() : 0);
-        return dto;
-    }
-
-    /**
-     * Convierte una entidad Venta a VentaResponseDTO.
-     */
-    private VentaResponseDTO convertirAVentaResponseDTO(Venta venta) {
-        VentaResponseDTO dto = new VentaResponseDTO();
-        dto.setId(venta.getId());
-        dto.setVentaIdCatedra(venta.getVentaIdCatedra());
-        dto.setEventoId(venta.getEventoId());
-        dto.setFechaVenta(venta.getFechaVenta());
-        dto.setPrecioVenta(venta.getPrecioVenta());
-        dto.setResultado(venta.getResultado().name());
-        dto.setMensaje(venta.getMensaje());
-        
-        dto.setAsientos(
-            venta.getAsientos().stream()
-                .map(a -> {
-                    VentaResponseDTO.AsientoVentaDTO asientoDTO = new VentaResponseDTO.AsientoVentaDTO();
-                    asientoDTO.setFila(a.getFila());
-                    asientoDTO.setNumero(a.getNumero());
-                    asientoDTO.setNombrePersona(a.getNombrePersona());
-                    asientoDTO.setApellidoPersona(a.getApellidoPersona());
-                    return asientoDTO;
-                })
-                .collect(Collectors.toList())
-        );
-        
-        return dto;
+        return ventaQueryService
+            .obtenerVenta(id, userLogin)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 }
 
@@ -0,0 +1,28 @@
+package com.um.eventosbackend.web.rest.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+/**
+ * El evento tiene la sala de espera activa y el request no trae un token de admisión válido ({@code 403}).
+ */
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class AdmisionRequeridaException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    public AdmisionRequeridaException(Long eventoId) {
+        super(
+            HttpStatus.FORBIDDEN,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.FORBIDDEN.value())
+                .withType(ErrorConstants.ADMISION_REQUERIDA_TYPE)
+                .withTitle("Se requiere un token de admisión de la sala de espera")
+                .withProperty("message", "error.admisionrequerida")
+                .withProperty("eventoId", eventoId)
+                .build(),
+            null
+        );
+    }
+}
@@ -0,0 +1,83 @@
+package com.um.eventosbackend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import com.um.eventosbackend.service.venta.VentaExportacionService;
+import com.um.eventosbackend.web.rest.VentaExportacionResource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Unit tests for {@link AsyncWebConfiguration}: solo la exportación de ventas cambia el timeout asíncrono.
+ */
+class AsyncWebConfigurationTest {
+
+    private AnnotationConfigWebApplicationContext context;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void init() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(Mvc.class, AsyncWebConfiguration.class, VentaExportacionResource.class, OtroStreaming.class);
+        context.refresh();
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @AfterEach
+    void cerrar() {
+        context.close();
+    }
+
+    @Test
+    void laExportacionUsaSuPropioTimeout() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/admin/ventas/exportar")).andExpect(request().asyncStarted()).andReturn();
+
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(
+            AsyncWebConfiguration.TIMEOUT_EXPORTACION_VENTAS.toMillis()
+        );
+    }
+
+    @Test
+    void otroRequestAsincronoMantieneElDefault() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/otro/streaming")).andExpect(request().asyncStarted()).andReturn();
+
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isNotEqualTo(
+            AsyncWebConfiguration.TIMEOUT_EXPORTACION_VENTAS.toMillis()
+        );
+    }
+
+    @Configuration
+    @EnableWebMvc
+    static class Mvc {
+
+        @Bean
+        VentaExportacionService ventaExportacionService() {
+            return mock(VentaExportacionService.class);
+        }
+    }
+
+    @RestController
+    static class OtroStreaming {
+
+        @GetMapping("/api/otro/streaming")
+        StreamingResponseBody streaming() {
+            return salida -> salida.write('x');
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.um.eventosbackend.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import javax.cache.Caching;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.boot.actuate.metrics.cache.JCacheCacheMeterBinderProvider;
+import org.springframework.cache.jcache.JCacheCacheManager;
+
+/**
+ * Unit tests for {@link CacheRegionMetrics}.
+ */
+class CacheRegionMetricsTest {
+
+    private javax.cache.CacheManager jcacheManager;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void init() {
+        jcacheManager = Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider").getCacheManager();
+        jcacheManager.createCache(
+            "heap",
+            Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(100)).build()
+            )
+        );
+        jcacheManager.createCache(
+            "offheap",
+            Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                    Object.class,
+                    Object.class,
+                    ResourcePoolsBuilder.heap(10).offheap(1, MemoryUnit.MB)
+                ).build()
+            )
+        );
+        jcacheManager.enableStatistics("heap", true);
+        jcacheManager.enableStatistics("offheap", true);
+        registry = new SimpleMeterRegistry();
+        JCacheCacheManager cacheManager = new JCacheCacheManager(jcacheManager);
+        cacheManager.afterPropertiesSet();
+        new CacheRegionMetrics(
+            jcacheManager,
+            cacheManager,
+            new CacheMetricsRegistrar(registry, List.of(new JCacheCacheMeterBinderProvider())),
+            registry
+        );
+    }
+
+    @AfterEach
+    void cerrar() {
+        jcacheManager.close();
+    }
+
+    @Test
+    void publicaElTamanioDelTierAutoritativo() {
+        javax.cache.Cache<Object, Object> heap = jcacheManager.getCache("heap");
+        heap.put(1L, "a");
+        heap.put(2L, "b");
+        javax.cache.Cache<Object, Object> offheap = jcacheManager.getCache("offheap");
+        for (long i = 0; i < 30; i++) {
+            offheap.put(i, "v" + i);
+        }
+
+        assertThat(registry.get("cache.region.size").tag("cache", "heap").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("cache.region.size").tag("cache", "offheap").gauge().value()).isEqualTo(30);
+    }
+
+    @Test
+    void registraLasRegionesConJCacheMetrics() {
+        assertThat(registry.find("cache.gets").tag("cache", "heap").tag("cacheManager", "cacheManager").meters()).isNotEmpty();
+        assertThat(registry.find("cache.evictions").tag("cache", "offheap").meters()).isNotEmpty();
+    }
+}
@@ -0,0 +1,39 @@
+package com.um.eventosbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link CursorPaginacion}.
+ */
+class CursorPaginacionTest {
+
+    @Test
+    void decodificaLoCodificadoConNanos() {
+        Instant fecha = Instant.parse("2026-03-01T20:30:00.123456789Z");
+
+        CursorPaginacion.Posicion posicion = CursorPaginacion.decodificar(CursorPaginacion.codificar(fecha, 42L));
+
+        assertThat(posicion.fecha()).isEqualTo(fecha);
+        assertThat(posicion.id()).isEqualTo(42L);
+    }
+
+    @Test
+    void cursorSinBase64ValidoEsInvalido() {
+        assertThatThrownBy(() -> CursorPaginacion.decodificar("no es base64!")).isInstanceOf(IllegalArgumentException.class).hasMessage("Cursor inválido");
+    }
+
+    @Test
+    void cursorConPartesDeMasOMenosEsInvalido() {
+        String dosPartes = Base64.getUrlEncoder().encodeToString("1:2".getBytes(StandardCharsets.UTF_8));
+        String noNumerico = Base64.getUrlEncoder().encodeToString("1:2:x".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> CursorPaginacion.decodificar(dosPartes)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorPaginacion.decodificar(noNumerico)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
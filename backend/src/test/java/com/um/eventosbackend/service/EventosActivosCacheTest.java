@@ -0,0 +1,82 @@
+package com.um.eventosbackend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.um.eventosbackend.repository.EventoRepository;
+import com.um.eventosbackend.service.mapper.EventoMapper;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link EventosActivosCache}: la carga en frío la hace un solo lector.
+ */
+class EventosActivosCacheTest {
+
+    private EventoRepository eventoRepository;
+    private EventosActivosCache cache;
+
+    @BeforeEach
+    void init() {
+        eventoRepository = mock(EventoRepository.class);
+        cache = new EventosActivosCache(eventoRepository, mock(EventoMapper.class));
+    }
+
+    @AfterEach
+    void detener() {
+        cache.detener();
+    }
+
+    @Test
+    void lectoresConcurrentesSinSnapshotConsultanUnaSolaVez() throws Exception {
+        CountDownLatch consultando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(eventoRepository.findEventosActivos(any(Instant.class))).thenAnswer(inv -> {
+            consultando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        ExecutorService lectores = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<EventosActivosCache.Snapshot>> leidos = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                leidos.add(lectores.submit(cache::obtenerSnapshot));
+            }
+            assertThat(consultando.await(5, TimeUnit.SECONDS)).isTrue();
+            // Da tiempo a que el resto de los lectores quede esperando el lock
+            Thread.sleep(100);
+            liberar.countDown();
+
+            EventosActivosCache.Snapshot primero = leidos.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<EventosActivosCache.Snapshot> leido : leidos) {
+                assertThat(leido.get(5, TimeUnit.SECONDS)).isSameAs(primero);
+            }
+        } finally {
+            lectores.shutdownNow();
+        }
+        verify(eventoRepository, times(1)).findEventosActivos(any(Instant.class));
+    }
+
+    @Test
+    void recargarConsultaAunqueYaHayaSnapshot() {
+        when(eventoRepository.findEventosActivos(any(Instant.class))).thenReturn(List.of());
+        cache.obtenerSnapshot();
+
+        cache.recargar();
+
+        verify(eventoRepository, times(2)).findEventosActivos(any(Instant.class));
+    }
+}
@@ -0,0 +1,117 @@
+package com.um.eventosbackend.service.asientos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.um.eventosbackend.service.asientos.BuscadorAsientosContiguos.Ventana;
+import com.um.eventosbackend.service.dto.MapaAsientosDTO;
+import com.um.eventosbackend.service.dto.MapaAsientosDTO.AsientoDTO.EstadoAsiento;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link BuscadorAsientosContiguos}.
+ */
+class BuscadorAsientosContiguosTest {
+
+    @Test
+    void filaVaciaDevuelveLaVentanaCentrada() {
+        MapaAsientosSnapshot snapshot = mapa("..........");
+
+        Optional<Ventana> ventana = BuscadorAsientosContiguos.buscar(snapshot, 2, 0, 0, true);
+
+        // Asientos 1..10, centro 5.5: la ventana centrada es 5-6
+        assertThat(ventana).contains(new Ventana(0, 5));
+    }
+
+    @Test
+    void cantidadImparSeCentraSobreElAsientoMedio() {
+        MapaAsientosSnapshot snapshot = mapa(".........");
+
+        // Asientos 1..9, centro 5: la ventana centrada es 4-6
+        assertThat(BuscadorAsientosContiguos.buscar(snapshot, 3, 0, 0, true)).contains(new Ventana(0, 4));
+    }
+
+    @Test
+    void sinPreferenciaDeCentroTomaLaPrimeraVentanaDeLaPrimeraFila() {
+        MapaAsientosSnapshot snapshot = mapa("XX......XX", "..........");
+
+        assertThat(BuscadorAsientosContiguos.buscar(snapshot, 3, 0, 1, false)).contains(new Ventana(0, 3));
+    }
+
+    @Test
+    void ventanaSeAjustaAlTramoLibreMasCercanoAlCentro() {
+        // Centro ocupado: tramos 1-4 y 7-10
+        MapaAsientosSnapshot snapshot = mapa("....XX....");
+
+        Optional<Ventana> ventana = BuscadorAsientosContiguos.buscar(snapshot, 3, 0, 0, true);
+
+        // 2-4 y 7-9 quedan a la misma distancia; gana el primero encontrado
+        assertThat(ventana).contains(new Ventana(0, 2));
+    }
+
+    @Test
+    void tramosMasCortosQueLaCantidadNoSirven() {
+        MapaAsientosSnapshot snapshot = mapa("..X..X..X.");
+
+        assertThat(BuscadorAsientosContiguos.buscar(snapshot, 3, 0, 0, true)).isEmpty();
+        assertThat(BuscadorAsientosContiguos.buscar(snapshot, 2, 0, 0, true)).isPresent();
+    }
+
+    @Test
+    void filaDelanteraDescentradaPuedePerderContraUnaCentradaMasAtras() {
+        // Fila 0: solo libres en el borde izquierdo (lejos del centro); fila 1: vacía
+        MapaAsientosSnapshot snapshot = mapa("...XXXXXXXXXXXXXXXXX", "....................");
+
+        Optional<Ventana> ventana = BuscadorAsientosContiguos.buscar(snapshot, 2, 0, 1, true);
+
+        assertThat(ventana).contains(new Ventana(1, 10));
+    }
+
+    @Test
+    void filaDelanteraCentradaGanaAUnaDeAtras() {
+        MapaAsientosSnapshot snapshot = mapa("..........", "..........");
+
+        assertThat(BuscadorAsientosContiguos.buscar(snapshot, 2, 0, 1, true)).contains(new Ventana(0, 5));
+    }
+
+    @Test
+    void respetaElRangoDeFilas() {
+        MapaAsientosSnapshot snapshot = mapa("..........", "XXXXXXXXXX", "..........");
+
+        assertThat(BuscadorAsientosContiguos.buscar(snapshot, 2, 1, 1, true)).isEmpty();
+        assertThat(BuscadorAsientosContiguos.buscar(snapshot, 2, 1, 2, true)).contains(new Ventana(2, 5));
+        // Rango fuera de la grilla
+        assertThat(BuscadorAsientosContiguos.buscar(snapshot, 2, 5, 9, true)).isEmpty();
+    }
+
+    @Test
+    void bloqueadosYVendidosNoCuentanComoLibres() {
+        MapaAsientosSnapshot snapshot = mapa(".BV.......");
+
+        assertThat(BuscadorAsientosContiguos.buscar(snapshot, 4, 0, 0, false)).contains(new Ventana(0, 4));
+    }
+
+    /**
+     * Cada cadena es una fila (A, B, ...) con asientos numerados desde 1: '.' libre, 'B' bloqueado, otro ocupado.
+     */
+    private static MapaAsientosSnapshot mapa(String... filas) {
+        List<MapaAsientosDTO.AsientoDTO> asientos = new ArrayList<>();
+        for (int f = 0; f < filas.length; f++) {
+            String fila = String.valueOf((char) ('A' + f));
+            for (int c = 0; c < filas[f].length(); c++) {
+                MapaAsientosDTO.AsientoDTO asiento = new MapaAsientosDTO.AsientoDTO();
+                asiento.setFila(fila);
+                asiento.setNumero(c + 1);
+                char estado = filas[f].charAt(c);
+                asiento.setEstado(estado == '.' ? EstadoAsiento.LIBRE : estado == 'B' ? EstadoAsiento.BLOQUEADO : EstadoAsiento.OCUPADO);
+                asientos.add(asiento);
+            }
+        }
+        MapaAsientosDTO dto = new MapaAsientosDTO();
+        dto.setEventoId(1L);
+        dto.setAsientos(asientos);
+        return MapaAsientosSnapshot.desde(dto);
+    }
+}
@@ -0,0 +1,96 @@
+package com.um.eventosbackend.service.asientos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.um.eventosbackend.config.ApplicationProperties;
+import com.um.eventosbackend.service.dto.MapaAsientosDTO;
+import com.um.eventosbackend.service.dto.MapaAsientosDTO.AsientoDTO.EstadoAsiento;
+import com.um.eventosbackend.service.proxy.ProxyAsientosService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link MapaAsientosSnapshotService}: reutilización e invalidación de snapshots.
+ */
+class MapaAsientosSnapshotServiceTest {
+
+    private static final Long EVENTO = 5L;
+
+    private ProxyAsientosService proxyAsientosService;
+    private MapaAsientosSnapshotService service;
+
+    @BeforeEach
+    void init() {
+        proxyAsientosService = mock(ProxyAsientosService.class);
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getAsientos().setPrefetchTtlMs(60000L);
+        service = new MapaAsientosSnapshotService(proxyAsientosService, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void detener() {
+        service.detener();
+    }
+
+    @Test
+    void elSnapshotFrescoSeReutiliza() {
+        when(proxyAsientosService.obtenerMapaAsientos(EVENTO)).thenReturn(mapa(EstadoAsiento.LIBRE));
+
+        service.obtener(EVENTO);
+        service.obtener(EVENTO);
+
+        verify(proxyAsientosService, times(1)).obtenerMapaAsientos(EVENTO);
+        assertThat(service.obtenerFresco(EVENTO)).isPresent();
+    }
+
+    @Test
+    void invalidarDescartaElSnapshot() {
+        when(proxyAsientosService.obtenerMapaAsientos(EVENTO)).thenReturn(mapa(EstadoAsiento.LIBRE), mapa(EstadoAsiento.OCUPADO));
+        service.obtener(EVENTO);
+
+        service.invalidar(EVENTO);
+
+        assertThat(service.obtenerFresco(EVENTO)).isEmpty();
+        assertThat(service.obtener(EVENTO).getEstado(0)).isEqualTo(EstadoAsiento.OCUPADO);
+    }
+
+    @Test
+    void unaCargaEnCursoDuranteLaInvalidacionNoSeGuarda() {
+        when(proxyAsientosService.obtenerMapaAsientos(EVENTO)).thenAnswer(inv -> {
+            // El bloqueo que invalida llega mientras el proxy todavía responde con el mapa anterior
+            service.invalidar(EVENTO);
+            return mapa(EstadoAsiento.LIBRE);
+        });
+
+        MapaAsientosSnapshot leido = service.obtener(EVENTO);
+
+        assertThat(leido.getEstado(0)).isEqualTo(EstadoAsiento.LIBRE);
+        assertThat(service.obtenerFresco(EVENTO)).isEmpty();
+    }
+
+    @Test
+    void unMapaVacioDelProxyNoSeGuarda() {
+        when(proxyAsientosService.obtenerMapaAsientos(EVENTO)).thenReturn(new MapaAsientosDTO());
+
+        assertThat(service.obtener(EVENTO).isEmpty()).isTrue();
+        assertThat(service.obtenerFresco(EVENTO)).isEmpty();
+    }
+
+    private static MapaAsientosDTO mapa(EstadoAsiento estado) {
+        MapaAsientosDTO.AsientoDTO asiento = new MapaAsientosDTO.AsientoDTO();
+        asiento.setFila("1");
+        asiento.setNumero(1);
+        asiento.setEstado(estado);
+        MapaAsientosDTO mapa = new MapaAsientosDTO();
+        mapa.setEventoId(EVENTO);
+        mapa.setAsientos(List.of(asiento));
+        return mapa;
+    }
+}
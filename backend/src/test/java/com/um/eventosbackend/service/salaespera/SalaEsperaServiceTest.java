@@ -0,0 +1,198 @@
+package com.um.eventosbackend.service.salaespera;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.um.eventosbackend.config.ApplicationProperties;
+import com.um.eventosbackend.repository.SalaEsperaActivaRepository;
+import com.um.eventosbackend.service.dto.SalaEsperaAvanceDTO;
+import com.um.eventosbackend.service.dto.SalaEsperaEstadoDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+/**
+ * Unit tests for {@link SalaEsperaService}: emisión y verificación del token de admisión.
+ */
+class SalaEsperaServiceTest {
+
+    private static final String SECRETO = "c2VjcmV0by1kZS1wcnVlYmEtcGFyYS1sYS1zYWxhLWRlLWVzcGVyYQ==";
+    private static final Long EVENTO = 10L;
+    private static final String LOGIN = "user";
+
+    private ApplicationProperties properties;
+    private SalaEsperaActivaRepository repository;
+    private SalaEsperaService service;
+
+    @BeforeEach
+    void init() {
+        properties = new ApplicationProperties();
+        properties.getSalaEspera().setEventos(List.of(EVENTO));
+        repository = mock(SalaEsperaActivaRepository.class);
+        service = nuevoServicio();
+    }
+
+    @Test
+    void sinSalaNoHaceFaltaToken() {
+        assertThat(service.verificarAdmision(99L, LOGIN, null)).isTrue();
+        assertThat(service.ingresar(99L, LOGIN).isAdmitido()).isTrue();
+    }
+
+    @Test
+    void conSalaSinTokenSeRechaza() {
+        assertThat(service.verificarAdmision(EVENTO, LOGIN, null)).isFalse();
+        assertThat(service.verificarAdmision(EVENTO, LOGIN, "basura")).isFalse();
+    }
+
+    @Test
+    void elAdmitidoRecibeUnTokenValidoSoloParaSuEventoYUsuario() {
+        String token = admitir(service, LOGIN);
+
+        assertThat(service.verificarAdmision(EVENTO, LOGIN, token)).isTrue();
+        assertThat(service.verificarAdmision(EVENTO, "otro", token)).isFalse();
+        service.activar(11L);
+        assertThat(service.verificarAdmision(11L, LOGIN, token)).isFalse();
+    }
+
+    @Test
+    void elTokenValeEnOtroNodoConElMismoSecreto() {
+        String token = admitir(service, LOGIN);
+
+        assertThat(nuevoServicio().verificarAdmision(EVENTO, LOGIN, token)).isTrue();
+    }
+
+    @Test
+    void unTokenAlteradoSeRechaza() {
+        String token = admitir(service, LOGIN);
+        int punto = token.indexOf('.');
+        String otroContenido = Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString((EVENTO + ":" + Long.MAX_VALUE + ":" + LOGIN).getBytes(StandardCharsets.UTF_8));
+        char primero = token.charAt(punto + 1);
+        String otraFirma = token.substring(0, punto + 1) + (primero == 'A' ? 'B' : 'A') + token.substring(punto + 2);
+
+        assertThat(service.verificarAdmision(EVENTO, LOGIN, otroContenido + token.substring(punto))).isFalse();
+        assertThat(service.verificarAdmision(EVENTO, LOGIN, otraFirma)).isFalse();
+        assertThat(service.verificarAdmision(EVENTO, LOGIN, token.substring(0, punto))).isFalse();
+    }
+
+    @Test
+    void unTokenVencidoSeRechaza() throws Exception {
+        String vigente = firmado(EVENTO + ":" + (System.currentTimeMillis() + 60_000) + ":" + LOGIN);
+        String vencido = firmado(EVENTO + ":" + (System.currentTimeMillis() - 1) + ":" + LOGIN);
+
+        assertThat(service.verificarAdmision(EVENTO, LOGIN, vigente)).isTrue();
+        assertThat(service.verificarAdmision(EVENTO, LOGIN, vencido)).isFalse();
+    }
+
+    @Test
+    void admiteEnOrdenDeLlegadaAlRitmoConfigurado() {
+        properties.getSalaEspera().setAdmisionesPorSegundo(2);
+        SalaEsperaService sala = nuevoServicio();
+        for (int i = 1; i <= 3; i++) {
+            sala.ingresar(EVENTO, "u" + i);
+        }
+
+        sala.admitir();
+
+        assertThat(sala.obtenerEstado(EVENTO, "u1").isAdmitido()).isTrue();
+        assertThat(sala.obtenerEstado(EVENTO, "u2").isAdmitido()).isTrue();
+        SalaEsperaEstadoDTO tercero = sala.obtenerEstado(EVENTO, "u3");
+        assertThat(tercero.isAdmitido()).isFalse();
+        assertThat(tercero.getPosicion()).isEqualTo(1L);
+    }
+
+    @Test
+    void elRitmoSeRepartePorNodo() {
+        properties.getSalaEspera().setAdmisionesPorSegundo(5);
+        properties.getSalaEspera().setNodos(2);
+
+        SalaEsperaAvanceDTO avance = nuevoServicio().obtenerAvances().get(0);
+
+        assertThat(avance.getAdmisionesPorSegundo()).isEqualTo(3);
+    }
+
+    @Test
+    void laSalaActivadaEnOtroNodoSeAplicaAlSincronizar() {
+        Long otroEvento = 20L;
+        when(repository.findEventoIds()).thenReturn(List.of(otroEvento));
+
+        service.sincronizar();
+
+        assertThat(service.estaActiva(otroEvento)).isTrue();
+        assertThat(service.verificarAdmision(otroEvento, LOGIN, null)).isFalse();
+        assertThat(service.ingresar(otroEvento, LOGIN).isAdmitido()).isFalse();
+    }
+
+    @Test
+    void laSalaDesactivadaEnOtroNodoSeCierraAlSincronizar() {
+        Long otroEvento = 20L;
+        service.activar(otroEvento);
+        verify(repository).save(any());
+        when(repository.findEventoIds()).thenReturn(List.of());
+
+        service.sincronizar();
+
+        assertThat(service.estaActiva(otroEvento)).isFalse();
+        assertThat(service.estaActiva(EVENTO)).isTrue();
+    }
+
+    @Test
+    void sinBaseSeMantienenLasSalasActuales() {
+        service.activar(20L);
+        when(repository.findEventoIds()).thenThrow(new IllegalStateException("sin conexión"));
+
+        service.sincronizar();
+
+        assertThat(service.estaActiva(20L)).isTrue();
+    }
+
+    @Test
+    void laSalaDeConfiguracionNoSeDesactivaNiSeGuarda() {
+        service.activar(EVENTO);
+
+        assertThatThrownBy(() -> service.desactivar(EVENTO)).isInstanceOf(IllegalStateException.class);
+        assertThat(service.estaActiva(EVENTO)).isTrue();
+        verify(repository, never()).save(any());
+    }
+
+    private SalaEsperaService nuevoServicio() {
+        return new SalaEsperaService(mock(SimpMessageSendingOperations.class), repository, properties, new SimpleMeterRegistry(), SECRETO);
+    }
+
+    private static String admitir(SalaEsperaService sala, String login) {
+        assertThat(sala.ingresar(EVENTO, login).isAdmitido()).isFalse();
+        sala.admitir();
+        SalaEsperaEstadoDTO estado = sala.obtenerEstado(EVENTO, login);
+        assertThat(estado.isAdmitido()).isTrue();
+        assertThat(estado.getToken()).isNotBlank();
+        return estado.getToken();
+    }
+
+    /**
+     * Token firmado como lo hace el servicio: HMAC-SHA256 con la clave derivada del secreto JWT.
+     */
+    private static String firmado(String contenido) throws Exception {
+        byte[] clave = hmac(SECRETO.getBytes(StandardCharsets.UTF_8), "sala-espera".getBytes(StandardCharsets.UTF_8));
+        byte[] bytes = contenido.getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(bytes) + "." + encoder.encodeToString(hmac(clave, bytes));
+    }
+
+    private static byte[] hmac(byte[] clave, byte[] contenido) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(clave, "HmacSHA256"));
+        return mac.doFinal(contenido);
+    }
+}
@@ -0,0 +1,135 @@
+package com.um.eventosbackend.service.venta;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.um.eventosbackend.IntegrationTest;
+import com.um.eventosbackend.domain.Evento;
+import com.um.eventosbackend.domain.Venta.ResultadoVenta;
+import com.um.eventosbackend.domain.VentaAgregado;
+import com.um.eventosbackend.repository.EventoRepository;
+import com.um.eventosbackend.repository.VentaAgregadoRepository;
+import com.um.eventosbackend.service.dto.EstadoSeleccionDTO;
+import com.um.eventosbackend.service.dto.VentaAgregadoDTO;
+import com.um.eventosbackend.service.dto.VentaRequestDTO;
+import com.um.eventosbackend.service.dto.VentaResponseDTO;
+import com.um.eventosbackend.service.sesion.SesionSeleccionService;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link VentaAgregadoService}: una venta registrada contra la base de tests mantiene sus totales.
+ */
+@IntegrationTest
+@Transactional
+class VentaAgregadoServiceIT {
+
+    private static final String LOGIN = "user";
+    private static final Long EVENTO_ID_CATEDRA = 990001L;
+
+    @Autowired
+    private VentaService ventaService;
+
+    @Autowired
+    private VentaAgregadoService ventaAgregadoService;
+
+    @Autowired
+    private VentaAgregadoRepository ventaAgregadoRepository;
+
+    @Autowired
+    private EventoRepository eventoRepository;
+
+    @Autowired
+    private SesionSeleccionService sesionSeleccionService;
+
+    private Evento evento;
+
+    @BeforeEach
+    void init() {
+        evento = new Evento();
+        evento.setEventoIdCatedra(EVENTO_ID_CATEDRA);
+        evento.setTitulo("Evento de prueba");
+        evento.setFecha(Instant.now().plus(30, ChronoUnit.DAYS));
+        evento.setPrecio(new BigDecimal("1500.00"));
+        evento = eventoRepository.saveAndFlush(evento);
+
+        EstadoSeleccionDTO estado = new EstadoSeleccionDTO();
+        estado.setEventoId(EVENTO_ID_CATEDRA);
+        sesionSeleccionService.guardarEstado(LOGIN, estado);
+    }
+
+    @AfterEach
+    void limpiar() {
+        sesionSeleccionService.limpiarEstado(LOGIN);
+    }
+
+    @Test
+    void ventaRegistradaSumaEnLosTotalesPendientes() {
+        ventaService.procesarVenta(request(2), LOGIN);
+
+        List<VentaAgregadoDTO> agregados = ventaAgregadoService.obtenerAgregados(evento.getId());
+        assertThat(agregados).hasSize(1);
+        VentaAgregadoDTO pendientes = agregados.get(0);
+        assertThat(pendientes.getResultado()).isEqualTo(ResultadoVenta.PENDIENTE.name());
+        assertThat(pendientes.getCantidadVentas()).isEqualTo(1L);
+        assertThat(pendientes.getCantidadAsientos()).isEqualTo(2L);
+        assertThat(pendientes.getRecaudacion()).isEqualByComparingTo("3000.00");
+    }
+
+    @Test
+    void confirmacionMueveLaVentaDeResultado() {
+        VentaResponseDTO registrada = ventaService.procesarVenta(request(1), LOGIN);
+        VentaResponseDTO respuestaCatedra = new VentaResponseDTO();
+        respuestaCatedra.setResultado("EXITOSA");
+        respuestaCatedra.setVentaIdCatedra(77L);
+
+        ventaService.registrarResultadoConfirmacion(
+            new VentaService.ConfirmacionPendiente(registrada.getId(), -1L, LOGIN, request(1), registrada.getPrecioVenta()),
+            respuestaCatedra
+        );
+
+        assertThat(totales(ResultadoVenta.PENDIENTE).getCantidadVentas()).isZero();
+        assertThat(totales(ResultadoVenta.EXITOSA).getCantidadVentas()).isEqualTo(1L);
+        assertThat(totales(ResultadoVenta.EXITOSA).getRecaudacion()).isEqualByComparingTo("1500.00");
+    }
+
+    @Test
+    void reconciliacionCoincideConLosDeltas() {
+        ventaService.procesarVenta(request(2), LOGIN);
+        ventaService.procesarVenta(request(1), LOGIN);
+        VentaAgregado antes = totales(ResultadoVenta.PENDIENTE);
+        long ventas = antes.getCantidadVentas();
+        long asientos = antes.getCantidadAsientos();
+
+        ventaAgregadoService.reconciliar();
+
+        VentaAgregado despues = totales(ResultadoVenta.PENDIENTE);
+        assertThat(despues.getCantidadVentas()).isEqualTo(ventas).isEqualTo(2L);
+        assertThat(despues.getCantidadAsientos()).isEqualTo(asientos).isEqualTo(3L);
+        assertThat(despues.getRecaudacion()).isEqualByComparingTo("4500.00");
+    }
+
+    private VentaAgregado totales(ResultadoVenta resultado) {
+        return ventaAgregadoRepository.findConLockByEventoIdAndResultado(evento.getId(), resultado).orElseThrow();
+    }
+
+    private static VentaRequestDTO request(int asientos) {
+        VentaRequestDTO request = new VentaRequestDTO();
+        request.setEventoId(EVENTO_ID_CATEDRA);
+        for (int i = 1; i <= asientos; i++) {
+            VentaRequestDTO.AsientoVentaDTO asiento = new VentaRequestDTO.AsientoVentaDTO();
+            asiento.setFila("1");
+            asiento.setNumero(i);
+            asiento.setNombrePersona("Ana");
+            asiento.setApellidoPersona("Pérez");
+            request.getAsientos().add(asiento);
+        }
+        return request;
+    }
+}
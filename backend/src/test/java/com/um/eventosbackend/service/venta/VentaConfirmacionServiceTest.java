@@ -0,0 +1,123 @@
+package com.um.eventosbackend.service.venta;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.um.eventosbackend.config.ApplicationProperties;
+import com.um.eventosbackend.repository.VentaOutboxRepository;
+import com.um.eventosbackend.service.dto.VentaRequestDTO;
+import com.um.eventosbackend.service.dto.VentaResponseDTO;
+import com.um.eventosbackend.service.proxy.ProxyVentaService;
+import com.um.eventosbackend.service.sesion.SesionSeleccionService;
+import com.um.eventosbackend.service.venta.VentaService.ConfirmacionPendiente;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Unit tests for {@link VentaConfirmacionService}: despacho de filas del outbox y barrido de las que quedaron trabadas.
+ */
+class VentaConfirmacionServiceTest {
+
+    private static final long ESPERA_MS = 2000L;
+
+    private VentaService ventaService;
+    private VentaOutboxRepository ventaOutboxRepository;
+    private ProxyVentaService proxyVentaService;
+    private SesionSeleccionService sesionSeleccionService;
+    private VentaConfirmacionService service;
+
+    @BeforeEach
+    void init() {
+        ventaService = mock(VentaService.class);
+        ventaOutboxRepository = mock(VentaOutboxRepository.class);
+        proxyVentaService = mock(ProxyVentaService.class);
+        sesionSeleccionService = mock(SesionSeleccionService.class);
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getVenta().setConfirmacionWorkers(1);
+        properties.getVenta().setEsperaResultadoMs(ESPERA_MS);
+        service = new VentaConfirmacionService(ventaService, ventaOutboxRepository, proxyVentaService, sesionSeleccionService, properties);
+    }
+
+    @AfterEach
+    void detener() {
+        service.detener();
+    }
+
+    @Test
+    void confirmacionExitosaRegistraElResultadoYLoEntregaAlRequest() {
+        ConfirmacionPendiente confirmacion = confirmacion(10L, 100L);
+        when(ventaService.reclamarConfirmacion(100L)).thenReturn(Optional.of(confirmacion));
+        VentaResponseDTO respuestaCatedra = respuesta("EXITOSA");
+        when(proxyVentaService.confirmarVenta(any(), any())).thenReturn(respuestaCatedra);
+        when(ventaService.registrarResultadoConfirmacion(confirmacion, respuestaCatedra)).thenReturn(respuesta("EXITOSA"));
+
+        service.onVentaRegistrada(new VentaRegistradaEvent(10L, 100L));
+
+        Optional<VentaResponseDTO> resultado = service.esperarResultado(10L);
+        assertThat(resultado).isPresent();
+        assertThat(resultado.get().getResultado()).isEqualTo("EXITOSA");
+        verify(sesionSeleccionService).limpiarEstado("user");
+        verify(ventaService, never()).registrarErrorConfirmacion(any(), anyString());
+    }
+
+    @Test
+    void unErrorDelProxyDejaLaVentaPendiente() {
+        ConfirmacionPendiente confirmacion = confirmacion(10L, 100L);
+        when(ventaService.reclamarConfirmacion(100L)).thenReturn(Optional.of(confirmacion));
+        when(proxyVentaService.confirmarVenta(any(), any())).thenThrow(new IllegalStateException("proxy caído"));
+        when(ventaService.registrarErrorConfirmacion(confirmacion, "proxy caído")).thenReturn(respuesta("PENDIENTE"));
+
+        service.onVentaRegistrada(new VentaRegistradaEvent(10L, 100L));
+
+        assertThat(service.esperarResultado(10L).map(VentaResponseDTO::getResultado)).contains("PENDIENTE");
+        verify(ventaService, never()).registrarResultadoConfirmacion(any(), any());
+        verify(sesionSeleccionService, never()).limpiarEstado(anyString());
+    }
+
+    @Test
+    void unaFilaQueYaTomoOtroWorkerNoLlamaALaCatedra() {
+        when(ventaService.reclamarConfirmacion(100L)).thenReturn(Optional.empty());
+
+        service.onVentaRegistrada(new VentaRegistradaEvent(10L, 100L));
+
+        verify(ventaService, timeout(ESPERA_MS)).reclamarConfirmacion(100L);
+        verify(proxyVentaService, never()).confirmarVenta(any(), any());
+    }
+
+    @Test
+    void elBarridoDespachaLasFilasTrabadasYPurgaLasProcesadas() {
+        when(ventaOutboxRepository.findIdsSinDespachar(any(Instant.class), any(Instant.class), any(Pageable.class))).thenReturn(
+            List.of(100L, 101L)
+        );
+        when(ventaService.reclamarConfirmacion(any())).thenReturn(Optional.empty());
+
+        service.despacharPendientes();
+
+        verify(ventaService, timeout(ESPERA_MS)).reclamarConfirmacion(100L);
+        verify(ventaService, timeout(ESPERA_MS)).reclamarConfirmacion(101L);
+        verify(ventaService).purgarOutboxProcesado(any(Duration.class));
+    }
+
+    private static ConfirmacionPendiente confirmacion(Long ventaId, Long outboxId) {
+        return new ConfirmacionPendiente(ventaId, outboxId, "user", new VentaRequestDTO(), new BigDecimal("1500.00"));
+    }
+
+    private static VentaResponseDTO respuesta(String resultado) {
+        VentaResponseDTO respuesta = new VentaResponseDTO();
+        respuesta.setResultado(resultado);
+        return respuesta;
+    }
+}
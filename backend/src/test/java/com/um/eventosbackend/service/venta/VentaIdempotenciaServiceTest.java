@@ -0,0 +1,221 @@
+package com.um.eventosbackend.service.venta;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.um.eventosbackend.config.ApplicationProperties;
+import com.um.eventosbackend.domain.IdempotenciaVenta;
+import com.um.eventosbackend.domain.IdempotenciaVenta.EstadoIdempotencia;
+import com.um.eventosbackend.repository.IdempotenciaVentaRepository;
+import com.um.eventosbackend.service.dto.VentaRequestDTO;
+import com.um.eventosbackend.service.dto.VentaResponseDTO;
+import com.um.eventosbackend.service.venta.VentaIdempotenciaService.Inicio;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Unit tests for {@link VentaIdempotenciaService}.
+ */
+class VentaIdempotenciaServiceTest {
+
+    private static final String CLAVE = "clave-1";
+    private static final String LOGIN = "user";
+    private static final long ESPERA_EN_CURSO_MS = 300L;
+
+    private IdempotenciaVentaRepository repository;
+    private VentaQueryService ventaQueryService;
+    private VentaIdempotenciaService service;
+
+    @BeforeEach
+    void init() {
+        repository = mock(IdempotenciaVentaRepository.class);
+        ventaQueryService = mock(VentaQueryService.class);
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getVenta().setIdempotenciaEsperaEnCursoMs(ESPERA_EN_CURSO_MS);
+        service = new VentaIdempotenciaService(repository, ventaQueryService, new ObjectMapper(), properties);
+    }
+
+    @Test
+    void claveNuevaDevuelveElRegistroCreado() {
+        when(repository.saveAndFlush(any())).thenAnswer(inv -> {
+            IdempotenciaVenta registro = inv.getArgument(0);
+            registro.setId(7L);
+            return registro;
+        });
+
+        Inicio inicio = service.iniciar(CLAVE, LOGIN, request(1L));
+
+        assertThat(inicio.tipo()).isEqualTo(Inicio.Tipo.NUEVA);
+        assertThat(inicio.registroId()).isEqualTo(7L);
+    }
+
+    @Test
+    void claveRepetidaConOtroRequestEsConflicto() {
+        IdempotenciaVenta existente = existente(EstadoIdempotencia.EN_CURSO, Instant.now());
+        existente.setRequestHash("otro");
+        claveExistente(existente);
+
+        assertThat(service.iniciar(CLAVE, LOGIN, request(1L)).tipo()).isEqualTo(Inicio.Tipo.CONFLICTO);
+    }
+
+    @Test
+    void claveEnCursoQueNoTerminaSigueEnCursoTrasLaEspera() {
+        claveExistente(existente(EstadoIdempotencia.EN_CURSO, Instant.now()));
+        long inicio = System.nanoTime();
+
+        assertThat(service.iniciar(CLAVE, LOGIN, request(1L)).tipo()).isEqualTo(Inicio.Tipo.EN_CURSO);
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isGreaterThanOrEqualTo(Duration.ofMillis(ESPERA_EN_CURSO_MS));
+        verify(repository, never()).retomarAbandonada(anyLong(), any(), any());
+    }
+
+    @Test
+    void claveEnCursoQueTerminaDuranteLaEsperaDevuelveElResultadoOriginal() {
+        IdempotenciaVenta completada = existente(EstadoIdempotencia.COMPLETADA, Instant.now());
+        completada.setVentaId(42L);
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("ux_idempotencia_venta_user_clave"));
+        when(repository.findByUserLoginAndClave(LOGIN, CLAVE)).thenReturn(
+            Optional.of(existente(EstadoIdempotencia.EN_CURSO, Instant.now())),
+            Optional.of(completada)
+        );
+        VentaResponseDTO venta = new VentaResponseDTO();
+        venta.setId(42L);
+        venta.setResultado("EXITOSA");
+        when(ventaQueryService.obtenerVenta(42L, LOGIN)).thenReturn(Optional.of(venta));
+
+        Inicio inicio = service.iniciar(CLAVE, LOGIN, request(1L));
+
+        assertThat(inicio.tipo()).isEqualTo(Inicio.Tipo.REPETIDA);
+        assertThat(inicio.httpStatus()).isEqualTo(201);
+        assertThat(inicio.respuesta().getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void claveAbandonadaSinVentaSeRetoma() {
+        IdempotenciaVenta existente = existente(EstadoIdempotencia.EN_CURSO, Instant.now().minus(VentaIdempotenciaService.ABANDONO).minusSeconds(1));
+        claveExistente(existente);
+        when(repository.retomarAbandonada(eq(existente.getId()), any(), any())).thenReturn(1);
+
+        Inicio inicio = service.iniciar(CLAVE, LOGIN, request(1L));
+
+        assertThat(inicio.tipo()).isEqualTo(Inicio.Tipo.NUEVA);
+        assertThat(inicio.registroId()).isEqualTo(existente.getId());
+    }
+
+    @Test
+    void claveAbandonadaRetomadaPorOtroNodoSigueEnCurso() {
+        claveExistente(existente(EstadoIdempotencia.EN_CURSO, Instant.now().minus(VentaIdempotenciaService.ABANDONO).minusSeconds(1)));
+        when(repository.retomarAbandonada(anyLong(), any(), any())).thenReturn(0);
+
+        assertThat(service.iniciar(CLAVE, LOGIN, request(1L)).tipo()).isEqualTo(Inicio.Tipo.EN_CURSO);
+    }
+
+    @Test
+    void claveConVentaNoSeRetomaYDevuelveElEstadoDeLaVenta() {
+        IdempotenciaVenta existente = existente(EstadoIdempotencia.COMPLETADA, Instant.now().minus(VentaIdempotenciaService.ABANDONO).minusSeconds(1));
+        existente.setVentaId(42L);
+        existente.setHttpStatus(202);
+        claveExistente(existente);
+        VentaResponseDTO venta = new VentaResponseDTO();
+        venta.setId(42L);
+        venta.setResultado("EXITOSA");
+        when(ventaQueryService.obtenerVenta(42L, LOGIN)).thenReturn(Optional.of(venta));
+
+        Inicio inicio = service.iniciar(CLAVE, LOGIN, request(1L));
+
+        assertThat(inicio.tipo()).isEqualTo(Inicio.Tipo.REPETIDA);
+        assertThat(inicio.httpStatus()).isEqualTo(201);
+        assertThat(inicio.respuesta().getId()).isEqualTo(42L);
+        verify(repository, never()).retomarAbandonada(anyLong(), any(), any());
+    }
+
+    @Test
+    void claveConVentaPendienteDevuelve202() {
+        IdempotenciaVenta existente = existente(EstadoIdempotencia.COMPLETADA, Instant.now());
+        existente.setVentaId(42L);
+        claveExistente(existente);
+        VentaResponseDTO venta = new VentaResponseDTO();
+        venta.setId(42L);
+        venta.setResultado("PENDIENTE");
+        when(ventaQueryService.obtenerVenta(42L, LOGIN)).thenReturn(Optional.of(venta));
+
+        assertThat(service.iniciar(CLAVE, LOGIN, request(1L)).httpStatus()).isEqualTo(202);
+    }
+
+    @Test
+    void claveCompletadaSinVentaReproduceLaRespuestaGuardada() {
+        IdempotenciaVenta existente = existente(EstadoIdempotencia.COMPLETADA, Instant.now());
+        existente.setHttpStatus(400);
+        existente.setRespuesta("{\"resultado\":\"FALLIDA\",\"mensaje\":\"Evento no encontrado\"}");
+        claveExistente(existente);
+
+        Inicio inicio = service.iniciar(CLAVE, LOGIN, request(1L));
+
+        assertThat(inicio.tipo()).isEqualTo(Inicio.Tipo.REPETIDA);
+        assertThat(inicio.httpStatus()).isEqualTo(400);
+        assertThat(inicio.respuesta().getMensaje()).isEqualTo("Evento no encontrado");
+    }
+
+    @Test
+    void vincularVentaFallaSiLaClaveYaNoEstaEnCurso() {
+        when(repository.completarConVenta(anyLong(), anyLong(), anyInt(), anyString())).thenReturn(0);
+
+        assertThatThrownBy(() -> service.vincularVenta(7L, 42L, new VentaResponseDTO())).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void vincularVentaMarcaLaClaveConLaVenta() {
+        when(repository.completarConVenta(anyLong(), anyLong(), anyInt(), anyString())).thenReturn(1);
+
+        service.vincularVenta(7L, 42L, new VentaResponseDTO());
+
+        verify(repository).completarConVenta(eq(7L), eq(42L), eq(202), anyString());
+    }
+
+    @Test
+    void completarNoPisaUnaClaveConVenta() {
+        IdempotenciaVenta existente = existente(EstadoIdempotencia.COMPLETADA, Instant.now());
+        existente.setVentaId(42L);
+        when(repository.findByUserLoginAndClave(LOGIN, CLAVE)).thenReturn(Optional.of(existente));
+
+        service.completar(CLAVE, LOGIN, 400, new VentaResponseDTO());
+
+        verify(repository, never()).save(any());
+    }
+
+    private void claveExistente(IdempotenciaVenta existente) {
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("ux_idempotencia_venta_user_clave"));
+        when(repository.findByUserLoginAndClave(LOGIN, CLAVE)).thenReturn(Optional.of(existente));
+    }
+
+    private IdempotenciaVenta existente(EstadoIdempotencia estado, Instant fechaCreacion) {
+        IdempotenciaVenta existente = new IdempotenciaVenta();
+        existente.setId(3L);
+        existente.setClave(CLAVE);
+        existente.setUserLogin(LOGIN);
+        existente.setRequestHash(service.hash(request(1L)));
+        existente.setEstado(estado);
+        existente.setFechaCreacion(fechaCreacion);
+        existente.setFechaExpiracion(fechaCreacion.plusSeconds(3600));
+        return existente;
+    }
+
+    private static VentaRequestDTO request(Long eventoId) {
+        VentaRequestDTO request = new VentaRequestDTO();
+        request.setEventoId(eventoId);
+        return request;
+    }
+}
@@ -0,0 +1,100 @@
+package com.um.eventosbackend.service.venta;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.um.eventosbackend.config.ApplicationProperties;
+import com.um.eventosbackend.repository.VentaRepository;
+import com.um.eventosbackend.service.proxy.ProxyVentaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link VentaReintentoService}.
+ */
+class VentaReintentoServiceTest {
+
+    private VentaService ventaService;
+    private SimpleMeterRegistry meterRegistry;
+    private VentaReintentoService service;
+
+    @BeforeEach
+    void init() {
+        ventaService = mock(VentaService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getVenta().setReintentoWorkers(1);
+        properties.getVenta().setReintentoLote(1);
+        service = new VentaReintentoService(ventaService, mock(VentaRepository.class), mock(ProxyVentaService.class), properties, meterRegistry);
+    }
+
+    @AfterEach
+    void detener() {
+        service.detener();
+    }
+
+    @Test
+    void lasVentasQueNoEntranEnElPoolSeLiberanYLaRondaSigue() {
+        when(ventaService.reclamarVentasParaReintento(anyInt(), any(Duration.class))).thenReturn(List.of(1L, 2L, 3L));
+        CountDownLatch ocupado = new CountDownLatch(1);
+        when(ventaService.prepararReintento(any())).thenAnswer(inv -> {
+            ocupado.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        // Un worker ocupado con la venta 1 y la cola (capacidad 1) con la 2: la 3 se rechaza
+        doAnswer(inv -> {
+            ocupado.countDown();
+            return null;
+        })
+            .when(ventaService)
+            .liberarReclamoReintento(any());
+
+        service.reintentarVentasPendientes();
+
+        verify(ventaService).liberarReclamoReintento(List.of(3L));
+        verify(ventaService).prepararReintento(1L);
+        verify(ventaService).prepararReintento(2L);
+        assertThat(meterRegistry.get("ventas.reintento.resultado").tag("resultado", "rechazada").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void unErrorAlLiberarNoCortaLaRonda() {
+        when(ventaService.reclamarVentasParaReintento(anyInt(), any(Duration.class))).thenReturn(List.of(1L, 2L, 3L));
+        CountDownLatch ocupado = new CountDownLatch(1);
+        when(ventaService.prepararReintento(any())).thenAnswer(inv -> {
+            ocupado.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        doAnswer(inv -> {
+            ocupado.countDown();
+            throw new IllegalStateException("base caída");
+        })
+            .when(ventaService)
+            .liberarReclamoReintento(any());
+
+        service.reintentarVentasPendientes();
+
+        verify(ventaService).prepararReintento(2L);
+    }
+
+    @Test
+    void elBackoffCreceConElIntentoHastaElTope() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(service.backoff(1)).isBetween(Duration.ofSeconds(15), Duration.ofSeconds(30));
+            assertThat(service.backoff(3)).isBetween(Duration.ofSeconds(60), Duration.ofSeconds(120));
+            assertThat(service.backoff(30)).isBetween(Duration.ofSeconds(900), Duration.ofSeconds(1800));
+        }
+    }
+}
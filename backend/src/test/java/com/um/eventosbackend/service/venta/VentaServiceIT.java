@@ -0,0 +1,349 @@
+package com.um.eventosbackend.service.venta;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.um.eventosbackend.IntegrationTest;
+import com.um.eventosbackend.domain.Evento;
+import com.um.eventosbackend.domain.Venta;
+import com.um.eventosbackend.domain.Venta.ResultadoVenta;
+import com.um.eventosbackend.domain.VentaOutbox;
+import com.um.eventosbackend.domain.VentaOutbox.EstadoOutbox;
+import com.um.eventosbackend.repository.EventoRepository;
+import com.um.eventosbackend.repository.VentaOutboxRepository;
+import com.um.eventosbackend.repository.VentaRepository;
+import com.um.eventosbackend.service.dto.EstadoSeleccionDTO;
+import com.um.eventosbackend.service.dto.VentaRequestDTO;
+import com.um.eventosbackend.service.dto.VentaResponseDTO;
+import com.um.eventosbackend.service.sesion.SesionSeleccionService;
+import com.um.eventosbackend.service.venta.VentaService.ConfirmacionPendiente;
+import com.um.eventosbackend.service.venta.VentaService.ReintentoPendiente;
+import com.um.eventosbackend.service.venta.VentaService.ResultadoReintento;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link VentaService}: reclamo y resultado de las confirmaciones del outbox y reclamo de
+ * ventas pendientes para el motor de reintentos.
+ * <p>
+ * Cada paso se separa con flush y clear para leer lo que quedó en la base, como si corriera en su propia transacción.
+ */
+@IntegrationTest
+@Transactional
+class VentaServiceIT {
+
+    private static final String LOGIN = "user";
+    private static final Long EVENTO_ID_CATEDRA = 990002L;
+    private static final Duration PLAZO_RECLAMO = Duration.ofMinutes(5);
+
+    @Autowired
+    private VentaService ventaService;
+
+    @Autowired
+    private VentaRepository ventaRepository;
+
+    @Autowired
+    private VentaOutboxRepository ventaOutboxRepository;
+
+    @Autowired
+    private EventoRepository eventoRepository;
+
+    @Autowired
+    private SesionSeleccionService sesionSeleccionService;
+
+    @Autowired
+    private EntityManager em;
+
+    @BeforeEach
+    void init() {
+        Evento evento = new Evento();
+        evento.setEventoIdCatedra(EVENTO_ID_CATEDRA);
+        evento.setTitulo("Evento de prueba");
+        evento.setFecha(Instant.now().plus(30, ChronoUnit.DAYS));
+        evento.setPrecio(new BigDecimal("1500.00"));
+        eventoRepository.saveAndFlush(evento);
+
+        EstadoSeleccionDTO estado = new EstadoSeleccionDTO();
+        estado.setEventoId(EVENTO_ID_CATEDRA);
+        sesionSeleccionService.guardarEstado(LOGIN, estado);
+    }
+
+    @AfterEach
+    void limpiar() {
+        sesionSeleccionService.limpiarEstado(LOGIN);
+    }
+
+    @Test
+    void reclamarConfirmacionTomaLaFilaUnaSolaVez() {
+        VentaOutbox outbox = registrarVenta();
+
+        Optional<ConfirmacionPendiente> primera = ventaService.reclamarConfirmacion(outbox.getId());
+        sincronizar();
+        Optional<ConfirmacionPendiente> segunda = ventaService.reclamarConfirmacion(outbox.getId());
+
+        assertThat(primera).isPresent();
+        assertThat(primera.get().ventaId()).isEqualTo(outbox.getVentaId());
+        assertThat(primera.get().userLogin()).isEqualTo(LOGIN);
+        assertThat(primera.get().request().getEventoId()).isEqualTo(EVENTO_ID_CATEDRA);
+        assertThat(segunda).isEmpty();
+        VentaOutbox reclamada = ventaOutboxRepository.findById(outbox.getId()).orElseThrow();
+        assertThat(reclamada.getEstado()).isEqualTo(EstadoOutbox.PROCESANDO);
+        assertThat(reclamada.getFechaReclamo()).isNotNull();
+    }
+
+    @Test
+    void unReclamoVencidoSeRetoma() {
+        VentaOutbox outbox = registrarVenta();
+        outbox.setEstado(EstadoOutbox.PROCESANDO);
+        outbox.setFechaReclamo(Instant.now().minus(VentaService.RECLAMO_VENCIDO).minusSeconds(30));
+        ventaOutboxRepository.save(outbox);
+        sincronizar();
+
+        assertThat(ventaService.reclamarConfirmacion(outbox.getId())).isPresent();
+    }
+
+    @Test
+    void unReclamoVigenteNoSeRetoma() {
+        VentaOutbox outbox = registrarVenta();
+        outbox.setEstado(EstadoOutbox.PROCESANDO);
+        outbox.setFechaReclamo(Instant.now().minusSeconds(10));
+        ventaOutboxRepository.save(outbox);
+        sincronizar();
+
+        assertThat(ventaService.reclamarConfirmacion(outbox.getId())).isEmpty();
+    }
+
+    @Test
+    void unaVentaQueYaNoEstaPendienteDescartaLaFila() {
+        VentaOutbox outbox = registrarVenta();
+        Venta venta = ventaRepository.findById(outbox.getVentaId()).orElseThrow();
+        venta.setResultado(ResultadoVenta.EXITOSA);
+        ventaRepository.save(venta);
+        sincronizar();
+
+        assertThat(ventaService.reclamarConfirmacion(outbox.getId())).isEmpty();
+        sincronizar();
+        assertThat(ventaOutboxRepository.findById(outbox.getId()).orElseThrow().getEstado()).isEqualTo(EstadoOutbox.PROCESADO);
+    }
+
+    @Test
+    void registrarResultadoExitosoConfirmaLaVentaYCierraLaFila() {
+        VentaOutbox outbox = registrarVenta();
+        ConfirmacionPendiente confirmacion = ventaService.reclamarConfirmacion(outbox.getId()).orElseThrow();
+        sincronizar();
+        VentaResponseDTO respuestaCatedra = new VentaResponseDTO();
+        respuestaCatedra.setResultado("EXITOSA");
+        respuestaCatedra.setVentaIdCatedra(77L);
+
+        VentaResponseDTO resultado = ventaService.registrarResultadoConfirmacion(confirmacion, respuestaCatedra);
+        sincronizar();
+
+        assertThat(resultado.getResultado()).isEqualTo(ResultadoVenta.EXITOSA.name());
+        Venta venta = ventaRepository.findById(outbox.getVentaId()).orElseThrow();
+        assertThat(venta.getResultado()).isEqualTo(ResultadoVenta.EXITOSA);
+        assertThat(venta.getVentaIdCatedra()).isEqualTo(77L);
+        VentaOutbox procesada = ventaOutboxRepository.findById(outbox.getId()).orElseThrow();
+        assertThat(procesada.getEstado()).isEqualTo(EstadoOutbox.PROCESADO);
+        assertThat(procesada.getFechaProcesado()).isNotNull();
+    }
+
+    @Test
+    void registrarResultadoRechazadoDejaLaVentaFallida() {
+        VentaOutbox outbox = registrarVenta();
+        ConfirmacionPendiente confirmacion = ventaService.reclamarConfirmacion(outbox.getId()).orElseThrow();
+        sincronizar();
+        VentaResponseDTO respuestaCatedra = new VentaResponseDTO();
+        respuestaCatedra.setResultado("FALLIDA");
+        respuestaCatedra.setMensaje("Asiento ocupado");
+
+        ventaService.registrarResultadoConfirmacion(confirmacion, respuestaCatedra);
+        sincronizar();
+
+        Venta venta = ventaRepository.findById(outbox.getVentaId()).orElseThrow();
+        assertThat(venta.getResultado()).isEqualTo(ResultadoVenta.FALLIDA);
+        assertThat(venta.getMensaje()).isEqualTo("Asiento ocupado");
+        assertThat(ventaOutboxRepository.findById(outbox.getId()).orElseThrow().getEstado()).isEqualTo(EstadoOutbox.PROCESADO);
+    }
+
+    @Test
+    void registrarErrorDejaLaVentaPendienteParaElMotorDeReintentos() {
+        VentaOutbox outbox = registrarVenta();
+        ConfirmacionPendiente confirmacion = ventaService.reclamarConfirmacion(outbox.getId()).orElseThrow();
+        sincronizar();
+
+        ventaService.registrarErrorConfirmacion(confirmacion, "timeout");
+        sincronizar();
+
+        Venta venta = ventaRepository.findById(outbox.getVentaId()).orElseThrow();
+        assertThat(venta.getResultado()).isEqualTo(ResultadoVenta.PENDIENTE);
+        assertThat(venta.getIntentosReintento()).isZero();
+        assertThat(ventaOutboxRepository.findById(outbox.getId()).orElseThrow().getEstado()).isEqualTo(EstadoOutbox.PROCESADO);
+        assertThat(ventaService.reclamarVentasParaReintento(100, PLAZO_RECLAMO)).contains(venta.getId());
+    }
+
+    @Test
+    void elBarridoEncuentraFilasViejasYReclamosVencidos() {
+        VentaOutbox vieja = registrarVenta();
+        vieja.setFechaCreacion(Instant.now().minus(1, ChronoUnit.MINUTES));
+        ventaOutboxRepository.save(vieja);
+        VentaOutbox trabada = registrarVenta();
+        trabada.setEstado(EstadoOutbox.PROCESANDO);
+        trabada.setFechaReclamo(Instant.now().minus(VentaService.RECLAMO_VENCIDO).minusSeconds(30));
+        ventaOutboxRepository.save(trabada);
+        VentaOutbox reciente = registrarVenta();
+        sincronizar();
+
+        Instant ahora = Instant.now();
+        List<Long> ids = ventaOutboxRepository.findIdsSinDespachar(
+            ahora.minusSeconds(10),
+            ahora.minus(VentaService.RECLAMO_VENCIDO),
+            PageRequest.of(0, 100)
+        );
+
+        assertThat(ids).contains(vieja.getId(), trabada.getId()).doesNotContain(reciente.getId());
+    }
+
+    @Test
+    void elReclamoParaReintentoExcluyeLasVentasConConfirmacionEnCurso() {
+        VentaOutbox outbox = registrarVenta();
+        sincronizar();
+
+        assertThat(ventaService.reclamarVentasParaReintento(100, PLAZO_RECLAMO)).doesNotContain(outbox.getVentaId());
+    }
+
+    @Test
+    void unaVentaReclamadaNoSeVuelveAReclamarHastaVencerElPlazo() {
+        Long ventaId = ventaPendienteDeReintento();
+
+        List<Long> primera = ventaService.reclamarVentasParaReintento(100, PLAZO_RECLAMO);
+        sincronizar();
+        List<Long> segunda = ventaService.reclamarVentasParaReintento(100, PLAZO_RECLAMO);
+
+        assertThat(primera).contains(ventaId);
+        assertThat(segunda).doesNotContain(ventaId);
+        assertThat(ventaRepository.findById(ventaId).orElseThrow().getProximoIntento()).isAfter(Instant.now().plus(PLAZO_RECLAMO).minusSeconds(30));
+    }
+
+    @Test
+    void liberarElReclamoDevuelveLaVentaALaCola() {
+        Long ventaId = ventaPendienteDeReintento();
+        ventaService.reclamarVentasParaReintento(100, PLAZO_RECLAMO);
+        sincronizar();
+
+        ventaService.liberarReclamoReintento(List.of(ventaId));
+        sincronizar();
+
+        assertThat(ventaService.reclamarVentasParaReintento(100, PLAZO_RECLAMO)).contains(ventaId);
+    }
+
+    @Test
+    void unReintentoFallidoSeReprogramaConBackoff() {
+        Long ventaId = ventaPendienteDeReintento();
+        ventaService.reclamarVentasParaReintento(100, PLAZO_RECLAMO);
+        sincronizar();
+        ReintentoPendiente reintento = ventaService.prepararReintento(ventaId).orElseThrow();
+        sincronizar();
+        Instant proximoIntento = Instant.now().plusSeconds(30).truncatedTo(ChronoUnit.MILLIS);
+
+        ResultadoReintento resultado = ventaService.registrarResultadoReintento(reintento, null, proximoIntento);
+        sincronizar();
+
+        assertThat(resultado).isEqualTo(ResultadoReintento.REPROGRAMADA);
+        Venta venta = ventaRepository.findById(ventaId).orElseThrow();
+        assertThat(venta.getResultado()).isEqualTo(ResultadoVenta.PENDIENTE);
+        assertThat(venta.getIntentosReintento()).isEqualTo(1);
+        assertThat(venta.getProximoIntento()).isEqualTo(proximoIntento);
+        assertThat(ventaService.reclamarVentasParaReintento(100, PLAZO_RECLAMO)).doesNotContain(ventaId);
+    }
+
+    @Test
+    void unReintentoExitosoConfirmaLaVenta() {
+        Long ventaId = ventaPendienteDeReintento();
+        ventaService.reclamarVentasParaReintento(100, PLAZO_RECLAMO);
+        sincronizar();
+        ReintentoPendiente reintento = ventaService.prepararReintento(ventaId).orElseThrow();
+        sincronizar();
+        VentaResponseDTO respuestaCatedra = new VentaResponseDTO();
+        respuestaCatedra.setResultado("EXITOSA");
+        respuestaCatedra.setVentaIdCatedra(88L);
+
+        ResultadoReintento resultado = ventaService.registrarResultadoReintento(reintento, respuestaCatedra, Instant.now());
+        sincronizar();
+
+        assertThat(resultado).isEqualTo(ResultadoReintento.EXITOSA);
+        Venta venta = ventaRepository.findById(ventaId).orElseThrow();
+        assertThat(venta.getResultado()).isEqualTo(ResultadoVenta.EXITOSA);
+        assertThat(venta.getProximoIntento()).isNull();
+    }
+
+    @Test
+    void elUltimoReintentoFallidoDejaLaVentaFallida() {
+        Long ventaId = ventaPendienteDeReintento();
+        Venta venta = ventaRepository.findById(ventaId).orElseThrow();
+        venta.setIntentosReintento(VentaService.MAX_INTENTOS_REINTENTO - 1);
+        ventaRepository.save(venta);
+        sincronizar();
+        ReintentoPendiente reintento = ventaService.prepararReintento(ventaId).orElseThrow();
+        sincronizar();
+
+        ResultadoReintento resultado = ventaService.registrarResultadoReintento(reintento, null, Instant.now());
+        sincronizar();
+
+        assertThat(resultado).isEqualTo(ResultadoReintento.AGOTADA);
+        assertThat(ventaRepository.findById(ventaId).orElseThrow().getResultado()).isEqualTo(ResultadoVenta.FALLIDA);
+        assertThat(ventaService.reclamarVentasParaReintento(100, PLAZO_RECLAMO)).doesNotContain(ventaId);
+    }
+
+    /**
+     * Registra una venta y devuelve su fila de outbox PENDIENTE.
+     */
+    private VentaOutbox registrarVenta() {
+        VentaResponseDTO registrada = ventaService.procesarVenta(request(), LOGIN);
+        sincronizar();
+        return ventaOutboxRepository
+            .findAll()
+            .stream()
+            .filter(outbox -> outbox.getVentaId().equals(registrada.getId()))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    /**
+     * Venta PENDIENTE cuya confirmación inicial falló por comunicación: queda lista para el motor de reintentos.
+     */
+    private Long ventaPendienteDeReintento() {
+        VentaOutbox outbox = registrarVenta();
+        ConfirmacionPendiente confirmacion = ventaService.reclamarConfirmacion(outbox.getId()).orElseThrow();
+        sincronizar();
+        ventaService.registrarErrorConfirmacion(confirmacion, "timeout");
+        sincronizar();
+        return outbox.getVentaId();
+    }
+
+    private void sincronizar() {
+        em.flush();
+        em.clear();
+    }
+
+    private static VentaRequestDTO request() {
+        VentaRequestDTO request = new VentaRequestDTO();
+        request.setEventoId(EVENTO_ID_CATEDRA);
+        VentaRequestDTO.AsientoVentaDTO asiento = new VentaRequestDTO.AsientoVentaDTO();
+        asiento.setFila("1");
+        asiento.setNumero(1);
+        asiento.setNombrePersona("Ana");
+        asiento.setApellidoPersona("Pérez");
+        request.getAsientos().add(asiento);
+        return request;
+    }
+}
@@ -0,0 +1,87 @@
+package com.um.eventosbackend.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.um.eventosbackend.service.EventoQueryService;
+import com.um.eventosbackend.service.EventosActivosCache;
+import com.um.eventosbackend.service.EventosRespuestaCache;
+import com.um.eventosbackend.service.asientos.MapaAsientosSnapshotService;
+import com.um.eventosbackend.service.dto.EventoDetalleDTO;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Unit tests for {@link EventoResource}: ETag por codificación y negociación de gzip.
+ */
+class EventoResourceTest {
+
+    private static final Long EVENTO = 7L;
+
+    private EventoResource resource;
+
+    @BeforeEach
+    void init() {
+        EventosActivosCache eventosActivosCache = mock(EventosActivosCache.class);
+        when(eventosActivosCache.obtenerSnapshot()).thenReturn(mock(EventosActivosCache.Snapshot.class));
+        EventoQueryService eventoQueryService = mock(EventoQueryService.class);
+        EventoDetalleDTO detalle = new EventoDetalleDTO();
+        detalle.setId(EVENTO);
+        detalle.setDescripcion("x".repeat(2048));
+        when(eventoQueryService.obtenerDetalleEvento(EVENTO)).thenReturn(Optional.of(detalle));
+        EventosRespuestaCache cache = new EventosRespuestaCache(
+            eventosActivosCache,
+            eventoQueryService,
+            mock(MapaAsientosSnapshotService.class),
+            new ObjectMapper()
+        );
+        resource = new EventoResource(eventoQueryService, cache);
+    }
+
+    @Test
+    void laVarianteGzipLlevaSuPropioEtag() {
+        ResponseEntity<byte[]> identidad = resource.obtenerDetalle(EVENTO, null, null);
+        ResponseEntity<byte[]> gzip = resource.obtenerDetalle(EVENTO, null, "gzip, deflate");
+
+        assertThat(identidad.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        String etag = identidad.getHeaders().getETag();
+        assertThat(gzip.getHeaders().getETag()).isEqualTo(etag.substring(0, etag.length() - 1) + "-gz\"");
+    }
+
+    @Test
+    void cualquieraDeLosDosEtagDevuelve304() {
+        String etag = resource.obtenerDetalle(EVENTO, null, null).getHeaders().getETag();
+        String etagGzip = resource.obtenerDetalle(EVENTO, null, "gzip").getHeaders().getETag();
+
+        ResponseEntity<byte[]> conGzip = resource.obtenerDetalle(EVENTO, etagGzip, "gzip");
+        ResponseEntity<byte[]> cambioDeCodificacion = resource.obtenerDetalle(EVENTO, "W/" + etagGzip, null);
+        ResponseEntity<byte[]> otro = resource.obtenerDetalle(EVENTO, "\"otro\"", "gzip");
+
+        assertThat(conGzip.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(conGzip.getHeaders().getETag()).isEqualTo(etagGzip);
+        assertThat(cambioDeCodificacion.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(cambioDeCodificacion.getHeaders().getETag()).isEqualTo(etag);
+        assertThat(otro.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void unQCeroEnCualquierFormaRechazaGzip() {
+        for (String acceptEncoding : new String[] { "gzip;q=0", "gzip;q=0.0", "gzip; q=0.00", "br, GZIP;Q=0.000", "gzip;q=abc" }) {
+            assertThat(resource.obtenerDetalle(EVENTO, null, acceptEncoding).getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))
+                .as(acceptEncoding)
+                .isNull();
+        }
+        for (String acceptEncoding : new String[] { "gzip;q=0.001", "deflate, gzip ; q=1", "Gzip" }) {
+            assertThat(resource.obtenerDetalle(EVENTO, null, acceptEncoding).getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))
+                .as(acceptEncoding)
+                .isEqualTo("gzip");
+        }
+    }
+}
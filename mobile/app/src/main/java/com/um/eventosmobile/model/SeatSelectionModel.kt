@@ -2,6 +2,7 @@ package com.um.eventosmobile.model
 
 import com.um.eventosmobile.shared.EventDetail
 import com.um.eventosmobile.shared.SeatMap
+import com.um.eventosmobile.shared.WaitingRoomStateDto
 
 data class SeatSelectionUiState(
     val seatMap: SeatMap? = null,
@@ -10,7 +11,9 @@ data class SeatSelectionUiState(
     val error: String? = null,
     val isBlocking: Boolean = false,
     val selectedSeats: Set<Pair<String, Int>> = emptySet(),
-    val expiresAt: String? = null
+    val expiresAt: String? = null,
+    // Lugar en la sala de espera mientras el evento no admite al usuario
+    val waitingRoom: WaitingRoomStateDto? = null
 )
 
 sealed class SeatSelectionEffect {
@@ -124,6 +124,40 @@ fun SeatSelectionScreen(
                 .padding(padding)
         ) {
             when {
+                uiState.waitingRoom != null -> {
+                    val waitingRoom = uiState.waitingRoom!!
+                    Column(
+                        modifier = Modifier
+                            .fillMaxSize()
+                            .padding(16.dp),
+                        horizontalAlignment = Alignment.CenterHorizontally,
+                        verticalArrangement = Arrangement.Center
+                    ) {
+                        Text(
+                            text = "Sala de espera",
+                            style = MaterialTheme.typography.headlineSmall,
+                            fontWeight = FontWeight.Bold
+                        )
+                        Spacer(modifier = Modifier.height(16.dp))
+                        Text(
+                            text = waitingRoom.posicion?.let { "Tu lugar en la fila: $it" }
+                                ?: "Ingresando a la fila..."
+                        )
+                        waitingRoom.esperaEstimadaSegundos?.let {
+                            Text(
+                                text = "Espera estimada: $it s",
+                                style = MaterialTheme.typography.bodyMedium
+                            )
+                        }
+                        Spacer(modifier = Modifier.height(16.dp))
+                        LinearProgressIndicator(modifier = Modifier.fillMaxWidth())
+                        Spacer(modifier = Modifier.height(8.dp))
+                        Text(
+                            text = "No cierres esta pantalla: el mapa se abre cuando llegue tu turno",
+                            style = MaterialTheme.typography.bodySmall
+                        )
+                    }
+                }
                 uiState.isLoading -> {
                     CircularProgressIndicator(
                         modifier = Modifier.align(Alignment.Center)
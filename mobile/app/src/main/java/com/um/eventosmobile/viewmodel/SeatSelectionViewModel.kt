@@ -9,6 +9,7 @@ import com.um.eventosmobile.shared.MobileApi
 import com.um.eventosmobile.shared.Seat
 import com.um.eventosmobile.shared.SeatMap
 import com.um.eventosmobile.shared.SeatStatus
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.SharedFlow
@@ -39,6 +40,7 @@ class SeatSelectionViewModel(
                 _uiState.emit(_uiState.value.copy(isLoading = true, error = null))
 
                 val event = api.getEventDetail(eventId)
+                awaitAdmission()
                 val map = api.getSeatMap(eventId)
 
                 val completeMap = buildCompleteSeatMap(map, event.filaAsientos, event.columnAsientos)
@@ -72,6 +74,7 @@ class SeatSelectionViewModel(
                 _uiState.emit(
                     _uiState.value.copy(
                         isLoading = false,
+                        waitingRoom = null,
                         error = when {
                             e.message?.contains("401") == true -> "Sesión expirada"
                             e.message?.contains("404") == true -> "Evento no encontrado"
@@ -84,6 +87,19 @@ class SeatSelectionViewModel(
         }
     }
 
+    /**
+     * Espera en la sala de espera del evento hasta ser admitido; sin sala se admite en la primera consulta.
+     */
+    private suspend fun awaitAdmission() {
+        var state = api.enterWaitingRoom(eventId)
+        while (!state.admitido) {
+            _uiState.emit(_uiState.value.copy(isLoading = false, waitingRoom = state))
+            delay(WAITING_ROOM_POLL_MS)
+            state = api.enterWaitingRoom(eventId)
+        }
+        _uiState.emit(_uiState.value.copy(isLoading = true, waitingRoom = null))
+    }
+
     fun toggleSeat(fila: String, numero: Int) {
         val seatKey = fila to numero
         val currentSelected = _uiState.value.selectedSeats
@@ -212,6 +228,11 @@ class SeatSelectionViewModel(
             asientos = allSeats
         )
     }
+
+    private companion object {
+        // Bastante menos que la inactividad con la que el backend descarta un lugar (60 s)
+        const val WAITING_ROOM_POLL_MS = 3000L
+    }
 }
 
 class SeatSelectionViewModelFactory(
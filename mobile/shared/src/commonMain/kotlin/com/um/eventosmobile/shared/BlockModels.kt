@@ -31,3 +31,21 @@ data class AsientoBloqueoDto(
         get() = numero
 }
 
+
+@Serializable
+data class BestSeatsRequestDto(
+    val cantidad: Int,
+    val filaDesde: String? = null,
+    val filaHasta: String? = null,
+    val preferirCentro: Boolean = true,
+    val bloquear: Boolean = false
+)
+
+@Serializable
+data class BestSeatsResponseDto(
+    val eventoId: Long? = null,
+    val encontrados: Boolean = false,
+    val mensaje: String? = null,
+    val asientos: List<AsientoBloqueoDto> = emptyList(),
+    val bloqueo: BlockSeatsResponseDto? = null
+)
@@ -34,6 +34,9 @@ class MobileApi(
         }
     }
     
+    // Tokens de admisión de la sala de espera, por evento
+    private val admissionTokens = mutableMapOf<Long, String>()
+
     // Función helper para agregar token a las peticiones
     private fun HttpRequestBuilder.addAuthToken() {
         tokenProvider()?.let { token ->
@@ -41,6 +44,28 @@ class MobileApi(
         }
     }
 
+    // Eventos sin sala de espera no emiten token y el backend no lo exige
+    private fun HttpRequestBuilder.addAdmissionToken(eventoId: Long) {
+        admissionTokens[eventoId]?.let { token ->
+            header(ADMISSION_TOKEN_HEADER, token)
+        }
+    }
+
+    /**
+     * POST /api/sala-espera/{eventoId} - Ingresa a la sala de espera del evento o devuelve el lugar actual (BACKEND)
+     * Hay que repetirla mientras no se esté admitido: el que deja de consultar pierde su lugar.
+     * Al ser admitido guarda el token para las llamadas siguientes del evento.
+     */
+    suspend fun enterWaitingRoom(eventoId: Long): WaitingRoomStateDto {
+        val state: WaitingRoomStateDto = client.post("$backendUrl/api/sala-espera/$eventoId") {
+            addAuthToken()
+        }.body()
+        if (state.admitido) {
+            state.token?.let { admissionTokens[eventoId] = it } ?: admissionTokens.remove(eventoId)
+        }
+        return state
+    }
+
     /**
      * GET /api/eventos - Obtiene el listado de eventos activos (BACKEND)
      */
@@ -112,6 +137,7 @@ class MobileApi(
     suspend fun getSeatMap(eventoId: Long): SeatMap {
         val dto: SeatMapDto = client.get("$backendUrl/api/asientos/evento/$eventoId") {
             addAuthToken()
+            addAdmissionToken(eventoId)
         }.body()
         
         return SeatMap(
@@ -139,10 +165,24 @@ class MobileApi(
     suspend fun blockSeats(eventoId: Long): BlockSeatsResponseDto {
         return client.post("$backendUrl/api/asientos/bloquear/$eventoId") {
             addAuthToken()
+            addAdmissionToken(eventoId)
             contentType(ContentType.Application.Json)
         }.body()
     }
 
+    /**
+     * POST /api/asientos/mejores/{eventoId} - Busca los mejores asientos contiguos (BACKEND)
+     * Con bloquear = true el backend además los selecciona y los bloquea en la misma llamada
+     */
+    suspend fun findBestSeats(eventoId: Long, request: BestSeatsRequestDto): BestSeatsResponseDto {
+        return client.post("$backendUrl/api/asientos/mejores/$eventoId") {
+            addAuthToken()
+            addAdmissionToken(eventoId)
+            contentType(ContentType.Application.Json)
+            setBody(request)
+        }.body()
+    }
+
     /**
      * POST /api/ventas - Procesa una venta (BACKEND)
      * El backend valida, guarda localmente y confirma con el proxy/cátedra internamente
@@ -150,6 +190,7 @@ class MobileApi(
     suspend fun processSale(request: SaleRequestDto): SaleResponseDto {
         return client.post("$backendUrl/api/ventas") {
             addAuthToken()
+            addAdmissionToken(request.eventoId)
             contentType(ContentType.Application.Json)
             setBody(request)
         }.body()
@@ -247,4 +288,8 @@ class MobileApi(
             addAuthToken()
         }
     }
+
+    companion object {
+        const val ADMISSION_TOKEN_HEADER = "X-Admision-Token"
+    }
 }
@@ -0,0 +1,18 @@
+package com.um.eventosmobile.shared
+
+import kotlinx.serialization.Serializable
+
+/**
+ * Estado del usuario en la sala de espera de un evento. Con admitido = true y un token, ese token
+ * va en el header X-Admision-Token del mapa de asientos, el bloqueo y la venta del evento.
+ */
+@Serializable
+data class WaitingRoomStateDto(
+    val eventoId: Long? = null,
+    val admitido: Boolean = false,
+    val turno: Long? = null,
+    val posicion: Long? = null,
+    val esperaEstimadaSegundos: Long? = null,
+    val token: String? = null,
+    val expiracionToken: String? = null
+)
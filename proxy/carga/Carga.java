@@ -0,0 +1,47 @@
+import java.net.URI;
+import java.net.http.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Alternativa a mapa-asientos.js cuando no hay k6: mantiene N clientes concurrentes (hilos virtuales) durante S
+ * segundos y cuenta solo las respuestas terminadas dentro de la ventana. Requiere Java 21.
+ *
+ *   java carga/Carga.java http://localhost:8081/api/asientos/evento/1 10000 60
+ */
+public class Carga {
+    public static void main(String[] a) throws Exception {
+        String url = a[0]; int vus = Integer.parseInt(a[1]); long segundos = Long.parseLong(a[2]);
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(30)).build();
+        long inicio = System.nanoTime(), fin = inicio + segundos * 1_000_000_000L;
+        List<Long> lat = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong ok = new AtomicLong(), err = new AtomicLong(), enCurso = new AtomicLong();
+        ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor();
+        HttpRequest req = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).build();
+        for (int i = 0; i < vus; i++) exec.submit(() -> {
+            while (System.nanoTime() < fin) {
+                long t = System.nanoTime();
+                enCurso.incrementAndGet();
+                boolean exito;
+                try {
+                    exito = client.send(req, HttpResponse.BodyHandlers.ofByteArray()).statusCode() == 200;
+                } catch (Exception e) { exito = false; }
+                enCurso.decrementAndGet();
+                long ahora = System.nanoTime();
+                if (ahora > fin) break;
+                (exito ? ok : err).incrementAndGet();
+                lat.add(ahora - t);
+            }
+        });
+        Thread.sleep(Math.max(0, (fin - System.nanoTime()) / 1_000_000));
+        long pendientes = enCurso.get();
+        long[] todas;
+        synchronized (lat) { todas = lat.stream().mapToLong(Long::longValue).sorted().toArray(); }
+        System.out.printf("req/s=%.0f p95=%dms p99=%dms errores=%d/%d en_curso_al_final=%d%n", ok.get() / (double) segundos,
+            todas.length == 0 ? -1 : todas[(int) (todas.length * 0.95)] / 1_000_000,
+            todas.length == 0 ? -1 : todas[(int) (todas.length * 0.99)] / 1_000_000, err.get(), ok.get() + err.get(), pendientes);
+        System.exit(0);
+    }
+}
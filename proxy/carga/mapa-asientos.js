@@ -0,0 +1,28 @@
+// Prueba de carga del mapa de asientos del proxy (k6: https://k6.io).
+//
+// Mantiene VUS requests concurrentes contra GET /api/asientos/evento/{id} durante DURACION. Correr una vez con
+// PROXY_HILOS_VIRTUALES=false y otra con true (Java 21+), con el mismo Redis y el mismo evento, y comparar
+// http_reqs (throughput), http_req_duration p95/p99 y http_req_failed.
+//
+//   k6 run -e BASE_URL=http://localhost:8081 -e EVENTO_ID=1 carga/mapa-asientos.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const EVENTO_ID = __ENV.EVENTO_ID || '1';
+
+export const options = {
+  scenarios: {
+    mapa: {
+      executor: 'constant-vus',
+      vus: Number(__ENV.VUS || 10000),
+      duration: __ENV.DURACION || '2m',
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+  const res = http.get(`${BASE_URL}/api/asientos/evento/${EVENTO_ID}`, { timeout: '30s' });
+  check(res, { 'status 200': r => r.status === 200 });
+}
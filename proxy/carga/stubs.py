@@ -0,0 +1,58 @@
+# Redis y backend falsos para correr carga/mapa-asientos.js (o Carga.java) sin el Redis de la cátedra.
+#
+# Redis en 127.0.0.1:6379 (GET devuelve un mapa de 10x10) y backend en 127.0.0.1:8080 (dimensiones 10x10), los
+# dos con LATENCIA segundos por respuesta para simular la red. No reemplazan a la prueba contra la cátedra.
+#
+#   python3 carga/stubs.py 0.02
+import asyncio, json, sys
+LATENCIA = float(sys.argv[1]) if len(sys.argv) > 1 else 0.02
+asientos = [{"fila": f, "columna": c, "estado": "Ocupado" if (f * c) % 7 == 0 else "Libre"} for f in range(1, 11) for c in range(1, 11)]
+PAYLOAD = json.dumps({"eventoId": 1, "asientos": asientos}).encode()
+
+async def resp(reader, writer):
+    try:
+        while True:
+            line = await reader.readline()
+            if not line:
+                break
+            n = int(line[1:])
+            args = []
+            for _ in range(n):
+                ln = int((await reader.readline())[1:])
+                args.append((await reader.readexactly(ln + 2))[:-2])
+            cmd = args[0].upper()
+            if cmd == b"HELLO":
+                writer.write(b"-ERR unknown command 'HELLO'\r\n")
+            elif cmd == b"GET":
+                await asyncio.sleep(LATENCIA)
+                writer.write(b"$%d\r\n%s\r\n" % (len(PAYLOAD), PAYLOAD))
+            elif cmd == b"PING":
+                writer.write(b"+PONG\r\n")
+            else:
+                writer.write(b"+OK\r\n")
+            await writer.drain()
+    except Exception:
+        pass
+    writer.close()
+
+DIM = b'{"filas":10,"columnas":10}'
+async def http(reader, writer):
+    try:
+        while True:
+            line = await reader.readline()
+            if not line:
+                break
+            while (await reader.readline()) not in (b"\r\n", b""):
+                pass
+            await asyncio.sleep(LATENCIA)
+            writer.write(b"HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: %d\r\n\r\n%s" % (len(DIM), DIM))
+            await writer.drain()
+    except Exception:
+        pass
+    writer.close()
+
+async def main():
+    await asyncio.start_server(resp, "127.0.0.1", 6379, backlog=4096)
+    await asyncio.start_server(http, "127.0.0.1", 8080, backlog=4096)
+    await asyncio.Event().wait()
+asyncio.run(main())
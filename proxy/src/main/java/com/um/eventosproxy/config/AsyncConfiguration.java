@@ -0,0 +1,120 @@
+package com.um.eventosproxy.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Ejecutores acotados para las tareas {@code @Async}.
+ * <p>
+ * Sin esta configuración las tareas iban al ejecutor por defecto de Spring, con cola sin límite: una ráfaga de
+ * mensajes de Kafka podía acumular trabajo sin fin. Cada ejecutor tiene nombre, hilos y cola fijos
+ * ({@code application.async.*}) y una política explícita para cuando la cola se llena:
+ * <ul>
+ *   <li>{@value #NOTIFICACIONES}: la tarea la ejecuta quien la envió (el hilo del consumer de Kafka), así no se
+ *   pierde ninguna notificación y el consumo se frena solo. Antes de llegar a eso el consumer se pausa
+ *   (ver {@code ContrapresionKafka}).</li>
+ *   <li>{@value #TAREAS}: la tarea se descarta; son avisos que el backend puede reconstruir en la próxima lectura.</li>
+ * </ul>
+ * Se exportan {@code proxy.async.activos}, {@code proxy.async.encolados} y {@code proxy.async.rechazados}
+ * con el tag {@code ejecutor}.
+ * <p>
+ * En modo de hilos virtuales ({@link HilosVirtuales}) los hilos de cada ejecutor son virtuales pero los límites
+ * se mantienen: no cuidan hilos del proxy sino al backend, que es quien recibe las notificaciones.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfiguration implements AsyncConfigurer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncConfiguration.class);
+
+    public static final String NOTIFICACIONES = "notificacionesExecutor";
+    public static final String TAREAS = "tareasExecutor";
+
+    private final ProxyProperties proxyProperties;
+    private final MeterRegistry meterRegistry;
+    private final HilosVirtuales hilosVirtuales;
+
+    public AsyncConfiguration(ProxyProperties proxyProperties, MeterRegistry meterRegistry, HilosVirtuales hilosVirtuales) {
+        this.proxyProperties = proxyProperties;
+        this.meterRegistry = meterRegistry;
+        this.hilosVirtuales = hilosVirtuales;
+    }
+
+    @Bean(name = NOTIFICACIONES)
+    public ThreadPoolTaskExecutor notificacionesExecutor() {
+        return crearEjecutor("notificaciones", proxyProperties.getAsync().getNotificaciones(), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean(name = TAREAS)
+    public ThreadPoolTaskExecutor tareasExecutor() {
+        return crearEjecutor("tareas", proxyProperties.getAsync().getTareas(), new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Los {@code @Async} sin nombre de ejecutor van a {@value #TAREAS}.
+     */
+    @Override
+    public Executor getAsyncExecutor() {
+        return tareasExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) -> LOG.error("Error no controlado en tarea asíncrona {}", method.getName(), ex);
+    }
+
+    private ThreadPoolTaskExecutor crearEjecutor(String nombre, ProxyProperties.Async.Ejecutor config, RejectedExecutionHandler politica) {
+        int hilos = Math.max(1, config.getHilos());
+        Counter rechazados = Counter.builder("proxy.async.rechazados")
+            .tag("ejecutor", nombre)
+            .description("Tareas que encontraron la cola del ejecutor llena")
+            .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(nombre + "-");
+        if (hilosVirtuales.isActivos()) {
+            executor.setThreadFactory(hilosVirtuales.fabrica(nombre + "-"));
+        }
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(Math.max(hilos, config.getHilosMax()));
+        executor.setQueueCapacity(Math.max(1, config.getCola()));
+        executor.setRejectedExecutionHandler((tarea, pool) -> {
+            rechazados.increment();
+            LOG.warn("Cola del ejecutor '{}' llena ({} tareas), se aplica {}", nombre, pool.getQueue().size(), politica.getClass().getSimpleName());
+            politica.rejectedExecution(tarea, pool);
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        // Spring lo inicializa (afterPropertiesSet); los gauges se leen recién después
+
+        Gauge.builder("proxy.async.activos", executor, ThreadPoolTaskExecutor::getActiveCount)
+            .tag("ejecutor", nombre)
+            .description("Hilos del ejecutor ejecutando una tarea")
+            .register(meterRegistry);
+        Gauge.builder("proxy.async.encolados", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+            .tag("ejecutor", nombre)
+            .description("Tareas esperando en la cola del ejecutor")
+            .register(meterRegistry);
+        LOG.info(
+            "Ejecutor '{}': hilos={}-{}, cola={}, virtuales={}",
+            nombre,
+            executor.getCorePoolSize(),
+            executor.getMaxPoolSize(),
+            config.getCola(),
+            hilosVirtuales.isActivos()
+        );
+        return executor;
+    }
+}
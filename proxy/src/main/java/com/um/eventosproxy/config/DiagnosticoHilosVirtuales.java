@@ -0,0 +1,85 @@
+package com.um.eventosproxy.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Diagnóstico de hilos virtuales fijados (pinning).
+ * <p>
+ * Un hilo virtual que bloquea dentro de un {@code synchronized} (o de un frame nativo) no libera su hilo portador:
+ * si eso pasa en un camino de I/O, unos pocos requests lentos alcanzan para dejar sin portadores a todos los
+ * demás. Con el modo de hilos virtuales activo, se escucha el evento JFR {@code jdk.VirtualThreadPinned} de los
+ * bloqueos que superan {@code application.diagnostico.hilos-fijados-umbral-ms}: cada uno se cuenta en
+ * {@code proxy.hilos.virtuales.fijados} y se registra con los primeros frames de la pila, para encontrar el
+ * {@code synchronized} responsable.
+ */
+@Component
+public class DiagnosticoHilosVirtuales {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DiagnosticoHilosVirtuales.class);
+
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final int FRAMES = 8;
+
+    private final RecordingStream stream;
+
+    public DiagnosticoHilosVirtuales(HilosVirtuales hilosVirtuales, ProxyProperties proxyProperties, MeterRegistry meterRegistry) {
+        ProxyProperties.Diagnostico config = proxyProperties.getDiagnostico();
+        if (!hilosVirtuales.isActivos() || !Boolean.TRUE.equals(config.getHilosFijados())) {
+            this.stream = null;
+            return;
+        }
+
+        Counter fijados = Counter.builder("proxy.hilos.virtuales.fijados")
+            .description("Hilos virtuales que bloquearon fijados a su portador más del umbral")
+            .register(meterRegistry);
+
+        RecordingStream recording = null;
+        try {
+            recording = new RecordingStream();
+            recording.enable(EVENTO).withThreshold(Duration.ofMillis(config.getHilosFijadosUmbralMs())).withStackTrace();
+            recording.onEvent(EVENTO, evento -> {
+                fijados.increment();
+                LOG.warn("Hilo virtual fijado a su portador durante {} ms en:\n{}", evento.getDuration().toMillis(), pila(evento));
+            });
+            recording.startAsync();
+            LOG.info("Diagnóstico de hilos virtuales fijados activo (umbral {} ms)", config.getHilosFijadosUmbralMs());
+        } catch (Exception e) {
+            LOG.warn("No se pudo iniciar el diagnóstico de hilos virtuales fijados: {}", e.getMessage());
+            if (recording != null) {
+                recording.close();
+                recording = null;
+            }
+        }
+        this.stream = recording;
+    }
+
+    private static String pila(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) {
+            return "    (sin pila)";
+        }
+        List<RecordedFrame> frames = evento.getStackTrace().getFrames();
+        return frames
+            .stream()
+            .limit(FRAMES)
+            .map(f -> "    " + f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+            .collect(Collectors.joining("\n"));
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
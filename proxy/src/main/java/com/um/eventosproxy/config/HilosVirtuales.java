@@ -0,0 +1,55 @@
+package com.um.eventosproxy.config;
+
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Modo de hilos virtuales del proxy ({@code spring.threads.virtual.enabled}).
+ * <p>
+ * Casi todo el trabajo del proxy es I/O bloqueante (Redis, cátedra, backend), así que con hilos de plataforma el
+ * rendimiento queda atado al tamaño del pool de Tomcat. Con el modo activo, Spring Boot atiende los requests de
+ * Tomcat en hilos virtuales y los ejecutores {@code @Async} usan las fábricas de esta clase. El consumer de Kafka
+ * sigue en un hilo de plataforma: el cliente de Kafka duerme dentro de {@code synchronized} mientras reintenta la
+ * conexión con el broker y fijaría al portador.
+ * <p>
+ * El proxy compila para Java 17: los hilos virtuales existen recién desde Java 21. Si el modo está pedido pero la
+ * JVM es anterior, se avisa una vez y todo sigue con hilos de plataforma.
+ */
+@Component
+public class HilosVirtuales {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HilosVirtuales.class);
+
+    private static final int VERSION_MINIMA = 21;
+
+    private final boolean activos;
+
+    public HilosVirtuales(@Value("${spring.threads.virtual.enabled:false}") boolean pedidos) {
+        boolean soportados = Runtime.version().feature() >= VERSION_MINIMA;
+        this.activos = pedidos && soportados;
+        if (pedidos && !soportados) {
+            LOG.warn(
+                "spring.threads.virtual.enabled=true pero la JVM es Java {}: se necesita Java {} o superior, se usan hilos de plataforma",
+                Runtime.version().feature(),
+                VERSION_MINIMA
+            );
+        } else if (activos) {
+            LOG.info("Modo de hilos virtuales activo (Tomcat y ejecutores @Async)");
+        }
+    }
+
+    public boolean isActivos() {
+        return activos;
+    }
+
+    /**
+     * Fábrica de hilos virtuales con el prefijo dado; solo con el modo activo.
+     */
+    public ThreadFactory fabrica(String prefijo) {
+        return new VirtualThreadTaskExecutor(prefijo).getVirtualThreadFactory();
+    }
+}
@@ -2,8 +2,10 @@ package com.um.eventosproxy.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,6 +15,9 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.listener.ConsumerAwareListenerErrorHandler;
 
 import java.util.Arrays;
@@ -69,6 +74,9 @@ public class KafkaConfiguration {
         ConcurrentKafkaListenerContainerFactory<String, String> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+
+        // El consumer queda en un hilo de plataforma también en modo de hilos virtuales (ver HilosVirtuales);
+        // solo el ejecutor de notificaciones al que entrega es virtual
         
         // Agregar listener para detectar cuando el consumer se conecta
         factory.getContainerProperties().setConsumerRebalanceListener(
@@ -89,6 +97,36 @@ public class KafkaConfiguration {
         return factory;
     }
 
+    /**
+     * Productor para el tópico de cambios de asientos. Apunta al Kafka local
+     * ({@code application.kafka.cambios-asientos.bootstrap-servers}), no al de la cátedra.
+     * La conexión se abre recién con el primer envío.
+     */
+    @Bean
+    public ProducerFactory<String, String> cambiosAsientosProducerFactory(ProxyProperties proxyProperties) {
+        String servidores = proxyProperties.getKafka().getCambiosAsientos().getBootstrapServers();
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, servidores);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, "1");
+        // Agrupar los cambios de una misma lectura en pocos requests
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        // Sin broker disponible, no quedar trabado esperando metadata
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 2000);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 10000);
+        props.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 5000);
+
+        LOG.info("🔧 Configurando Kafka Producer de cambios de asientos. bootstrap-servers={}", servidores);
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    @Bean
+    public KafkaTemplate<String, String> cambiosAsientosKafkaTemplate(ProducerFactory<String, String> cambiosAsientosProducerFactory) {
+        return new KafkaTemplate<>(cambiosAsientosProducerFactory);
+    }
+
     /**
      * Bean para manejar errores en los listeners de Kafka.
      * Esto permite que la aplicación continúe funcionando aunque haya errores
@@ -8,6 +8,9 @@ public class ProxyProperties {
     private final Backend backend = new Backend();
     private final Kafka kafka = new Kafka();
     private final Catedra catedra = new Catedra();
+    private final Asientos asientos = new Asientos();
+    private final Async async = new Async();
+    private final Diagnostico diagnostico = new Diagnostico();
 
     public Backend getBackend() {
         return backend;
@@ -21,6 +24,18 @@ public class ProxyProperties {
         return catedra;
     }
 
+    public Asientos getAsientos() {
+        return asientos;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public Diagnostico getDiagnostico() {
+        return diagnostico;
+    }
+
     public static class Backend {
         private String baseUrl = "http://localhost:8080";
         private String syncEventsPath = "/api/admin/eventos/sincronizar";
@@ -70,13 +85,24 @@ public class ProxyProperties {
 
     public static class Kafka {
         private final Topic topic = new Topic();
+        private final CambiosAsientos cambiosAsientos = new CambiosAsientos();
+        private final Contrapresion contrapresion = new Contrapresion();
 
         public Topic getTopic() {
             return topic;
         }
 
+        public CambiosAsientos getCambiosAsientos() {
+            return cambiosAsientos;
+        }
+
+        public Contrapresion getContrapresion() {
+            return contrapresion;
+        }
+
         public static class Topic {
             private String eventos = "eventos-changes";
+            private String asientos = "asientos-cambios";
 
             public String getEventos() {
                 return eventos;
@@ -85,6 +111,80 @@ public class ProxyProperties {
             public void setEventos(String eventos) {
                 this.eventos = eventos;
             }
+
+            public String getAsientos() {
+                return asientos;
+            }
+
+            public void setAsientos(String asientos) {
+                this.asientos = asientos;
+            }
+        }
+
+        /**
+         * Publicación de los cambios de estado de cada asiento en un Kafka propio (no el de la cátedra).
+         */
+        public static class CambiosAsientos {
+            private Boolean habilitado = false;
+            private String bootstrapServers = "localhost:9092";
+            private Integer cola = 1000;
+
+            public Boolean getHabilitado() {
+                return habilitado;
+            }
+
+            public void setHabilitado(Boolean habilitado) {
+                this.habilitado = habilitado;
+            }
+
+            public String getBootstrapServers() {
+                return bootstrapServers;
+            }
+
+            public void setBootstrapServers(String bootstrapServers) {
+                this.bootstrapServers = bootstrapServers;
+            }
+
+            public Integer getCola() {
+                return cola;
+            }
+
+            public void setCola(Integer cola) {
+                this.cola = cola;
+            }
+        }
+
+        /**
+         * Pausa del consumer de eventos según el llenado (%) de la cola del ejecutor de notificaciones.
+         */
+        public static class Contrapresion {
+            private Integer pausarPorcentaje = 80;
+            private Integer reanudarPorcentaje = 20;
+            private Long intervaloMs = 250L;
+
+            public Integer getPausarPorcentaje() {
+                return pausarPorcentaje;
+            }
+
+            public void setPausarPorcentaje(Integer pausarPorcentaje) {
+                this.pausarPorcentaje = pausarPorcentaje;
+            }
+
+            public Integer getReanudarPorcentaje() {
+                return reanudarPorcentaje;
+            }
+
+            public void setReanudarPorcentaje(Integer reanudarPorcentaje) {
+                this.reanudarPorcentaje = reanudarPorcentaje;
+            }
+
+            public Long getIntervaloMs() {
+                return intervaloMs;
+            }
+
+            public void setIntervaloMs(Long intervaloMs) {
+                this.intervaloMs = intervaloMs;
+            }
         }
     }
 
@@ -108,5 +208,157 @@ public class ProxyProperties {
             this.authToken = authToken;
         }
     }
-}
 
+    public static class Asientos {
+        /**
+         * Franjas de la tabla de asientos con bloqueo en curso.
+         */
+        private Integer reservaFranjas = 64;
+        /**
+         * Espera máxima por un asiento que otro request está bloqueando; 0 falla de inmediato.
+         */
+        private Long reservaEsperaMs = 0L;
+        /**
+         * Vencimiento de una reserva en curso si el request no la libera (cubre el timeout de la cátedra).
+         */
+        private Long reservaTimeoutMs = 15000L;
+        /**
+         * Duración de un bloqueo en la cátedra.
+         */
+        private Long bloqueoDuracionSegundos = 300L;
+        /**
+         * Margen sobre el vencimiento del bloqueo antes de refrescar (la cátedra lo vence algo después de responder).
+         */
+        private Long vencimientoMargenMs = 2000L;
+        /**
+         * Avisar al backend cuando vencen bloqueos hechos a través del proxy.
+         */
+        private Boolean vencimientoNotificar = true;
+
+        public Integer getReservaFranjas() {
+            return reservaFranjas;
+        }
+
+        public void setReservaFranjas(Integer reservaFranjas) {
+            this.reservaFranjas = reservaFranjas;
+        }
+
+        public Long getReservaEsperaMs() {
+            return reservaEsperaMs;
+        }
+
+        public void setReservaEsperaMs(Long reservaEsperaMs) {
+            this.reservaEsperaMs = reservaEsperaMs;
+        }
+
+        public Long getReservaTimeoutMs() {
+            return reservaTimeoutMs;
+        }
+
+        public void setReservaTimeoutMs(Long reservaTimeoutMs) {
+            this.reservaTimeoutMs = reservaTimeoutMs;
+        }
+
+        public Long getBloqueoDuracionSegundos() {
+            return bloqueoDuracionSegundos;
+        }
+
+        public void setBloqueoDuracionSegundos(Long bloqueoDuracionSegundos) {
+            this.bloqueoDuracionSegundos = bloqueoDuracionSegundos;
+        }
+
+        public Long getVencimientoMargenMs() {
+            return vencimientoMargenMs;
+        }
+
+        public void setVencimientoMargenMs(Long vencimientoMargenMs) {
+            this.vencimientoMargenMs = vencimientoMargenMs;
+        }
+
+        public Boolean getVencimientoNotificar() {
+            return vencimientoNotificar;
+        }
+
+        public void setVencimientoNotificar(Boolean vencimientoNotificar) {
+            this.vencimientoNotificar = vencimientoNotificar;
+        }
+    }
+
+    /**
+     * Ejecutores de las tareas {@code @Async}: notificaciones al backend disparadas por Kafka y tareas de fondo.
+     */
+    public static class Async {
+        private final Ejecutor notificaciones = new Ejecutor(2, 4, 100);
+        private final Ejecutor tareas = new Ejecutor(1, 2, 200);
+
+        public Ejecutor getNotificaciones() {
+            return notificaciones;
+        }
+
+        public Ejecutor getTareas() {
+            return tareas;
+        }
+
+        public static class Ejecutor {
+            private Integer hilos;
+            private Integer hilosMax;
+            private Integer cola;
+
+            public Ejecutor() {}
+
+            Ejecutor(Integer hilos, Integer hilosMax, Integer cola) {
+                this.hilos = hilos;
+                this.hilosMax = hilosMax;
+                this.cola = cola;
+            }
+
+            public Integer getHilos() {
+                return hilos;
+            }
+
+            public void setHilos(Integer hilos) {
+                this.hilos = hilos;
+            }
+
+            public Integer getHilosMax() {
+                return hilosMax;
+            }
+
+            public void setHilosMax(Integer hilosMax) {
+                this.hilosMax = hilosMax;
+            }
+
+            public Integer getCola() {
+                return cola;
+            }
+
+            public void setCola(Integer cola) {
+                this.cola = cola;
+            }
+        }
+    }
+
+    /**
+     * Registro de hilos virtuales fijados a su hilo portador (solo en modo de hilos virtuales).
+     */
+    public static class Diagnostico {
+        private Boolean hilosFijados = true;
+        private Long hilosFijadosUmbralMs = 20L;
+
+        public Boolean getHilosFijados() {
+            return hilosFijados;
+        }
+
+        public void setHilosFijados(Boolean hilosFijados) {
+            this.hilosFijados = hilosFijados;
+        }
+
+        public Long getHilosFijadosUmbralMs() {
+            return hilosFijadosUmbralMs;
+        }
+
+        public void setHilosFijadosUmbralMs(Long hilosFijadosUmbralMs) {
+            this.hilosFijadosUmbralMs = hilosFijadosUmbralMs;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.um.eventosproxy.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * Asientos de un evento cuyos bloqueos (hechos a través del proxy) vencieron.
+ */
+@Data
+public class BloqueosVencidosDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @JsonProperty("eventoId")
+    private Long eventoId;
+
+    @JsonProperty("asientos")
+    private List<BloqueoAsientosResponseDTO.AsientoBloqueoDTO> asientos = new ArrayList<>();
+}
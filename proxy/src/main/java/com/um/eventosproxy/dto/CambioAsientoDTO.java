@@ -0,0 +1,47 @@
+package com.um.eventosproxy.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * Cambio de estado de un asiento, publicado en el tópico {@code application.kafka.topic.asientos} con el
+ * id del evento como clave (todos los cambios de un evento van a la misma partición, en orden).
+ * <p>
+ * Los nombres son cortos a propósito: en un pico de ventas se publica un registro por asiento.
+ */
+@Data
+public class CambioAsientoDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @JsonProperty("e")
+    private Long eventoId;
+
+    @JsonProperty("f")
+    private Integer fila;
+
+    @JsonProperty("n")
+    private Integer numero;
+
+    /**
+     * Estado anterior: L (libre), B (bloqueado) u O (ocupado).
+     */
+    @JsonProperty("de")
+    private String anterior;
+
+    @JsonProperty("a")
+    private String nuevo;
+
+    /**
+     * Versión de la grilla del evento que incluye este cambio.
+     */
+    @JsonProperty("v")
+    private String version;
+
+    /**
+     * Momento en que el proxy observó el cambio (epoch ms).
+     */
+    @JsonProperty("t")
+    private Long instante;
+}
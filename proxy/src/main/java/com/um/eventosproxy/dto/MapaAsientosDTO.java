@@ -21,4 +21,13 @@ public class MapaAsientosDTO implements Serializable {
 
     @JsonProperty("matriz")
     private List<String> matriz = new ArrayList<>();
+
+    // Solo en respuestas recortadas a una región
+    @JsonProperty("region")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private RegionMapaDTO region;
+
+    @JsonProperty("version")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String version;
 }
\ No newline at end of file
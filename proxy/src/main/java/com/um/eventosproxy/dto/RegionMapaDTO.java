@@ -0,0 +1,28 @@
+package com.um.eventosproxy.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * Ventana del mapa de asientos (límites inclusivos; el que falta llega hasta el borde).
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RegionMapaDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @JsonProperty("filaDesde")
+    private Integer filaDesde;
+
+    @JsonProperty("filaHasta")
+    private Integer filaHasta;
+
+    @JsonProperty("colDesde")
+    private Integer colDesde;
+
+    @JsonProperty("colHasta")
+    private Integer colHasta;
+}
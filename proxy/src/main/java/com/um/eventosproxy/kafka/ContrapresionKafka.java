@@ -0,0 +1,99 @@
+package com.um.eventosproxy.kafka;
+
+import com.um.eventosproxy.config.AsyncConfiguration;
+import com.um.eventosproxy.config.ProxyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pausa el consumer de eventos cuando el ejecutor de notificaciones no da abasto.
+ * <p>
+ * Cada {@code intervalo-ms} mira el llenado de la cola de {@value AsyncConfiguration#NOTIFICACIONES}: al llegar a
+ * {@code application.kafka.contrapresion.pausar-porcentaje} pausa el listener (deja de traer mensajes, pero sigue
+ * en el grupo) y al bajar de {@code reanudar-porcentaje} lo reanuda. Los mensajes quedan en Kafka en vez de
+ * acumularse en memoria del proxy.
+ */
+@Component
+public class ContrapresionKafka {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ContrapresionKafka.class);
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final ThreadPoolTaskExecutor notificaciones;
+    private final int capacidad;
+    private final int limitePausa;
+    private final int limiteReanudar;
+
+    private final ScheduledExecutorService reloj;
+    private volatile boolean pausado;
+
+    private final Counter pausas;
+
+    public ContrapresionKafka(
+        KafkaListenerEndpointRegistry registry,
+        @Qualifier(AsyncConfiguration.NOTIFICACIONES) ThreadPoolTaskExecutor notificaciones,
+        ProxyProperties proxyProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.registry = registry;
+        this.notificaciones = notificaciones;
+        ProxyProperties.Kafka.Contrapresion config = proxyProperties.getKafka().getContrapresion();
+        this.capacidad = Math.max(1, proxyProperties.getAsync().getNotificaciones().getCola());
+        this.limitePausa = Math.max(1, capacidad * config.getPausarPorcentaje() / 100);
+        this.limiteReanudar = Math.min(limitePausa - 1, capacidad * config.getReanudarPorcentaje() / 100);
+
+        this.pausas = Counter.builder("proxy.kafka.pausas")
+            .description("Veces que se pausó el consumer de eventos por la cola de notificaciones")
+            .register(meterRegistry);
+        Gauge.builder("proxy.kafka.pausado", this, c -> c.pausado ? 1 : 0)
+            .description("1 mientras el consumer de eventos está pausado")
+            .register(meterRegistry);
+
+        this.reloj = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "kafka-contrapresion");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = Math.max(50, config.getIntervaloMs());
+        reloj.scheduleWithFixedDelay(this::revisar, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    private void revisar() {
+        try {
+            MessageListenerContainer container = registry.getListenerContainer(EventoKafkaConsumer.LISTENER_ID);
+            if (container == null || !container.isRunning()) {
+                return;
+            }
+            int encolados = notificaciones.getThreadPoolExecutor().getQueue().size();
+            if (!pausado && encolados >= limitePausa) {
+                container.pause();
+                pausado = true;
+                pausas.increment();
+                LOG.warn("Consumer de eventos pausado: {} notificaciones encoladas (capacidad {})", encolados, capacidad);
+            } else if (pausado && encolados <= limiteReanudar) {
+                container.resume();
+                pausado = false;
+                LOG.info("Consumer de eventos reanudado: {} notificaciones encoladas", encolados);
+            }
+        } catch (Exception e) {
+            LOG.debug("No se pudo revisar la contrapresión del consumer de eventos", e);
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        reloj.shutdownNow();
+    }
+}
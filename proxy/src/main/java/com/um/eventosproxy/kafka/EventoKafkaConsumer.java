@@ -12,6 +12,8 @@ public class EventoKafkaConsumer {
 
     private static final Logger LOG = LoggerFactory.getLogger(EventoKafkaConsumer.class);
 
+    static final String LISTENER_ID = "eventos";
+
     private final BackendSyncService backendSyncService;
 
     public EventoKafkaConsumer(BackendSyncService backendSyncService) {
@@ -20,6 +22,7 @@ public class EventoKafkaConsumer {
     }
 
     @KafkaListener(
+        id = LISTENER_ID,
         topics = "${application.kafka.topic.eventos}",
         groupId = "${spring.kafka.consumer.group-id}",
         errorHandler = "kafkaErrorHandler",
@@ -35,13 +38,9 @@ public class EventoKafkaConsumer {
         LOG.info("📩 Mensaje Kafka recibido. topic={}, partition={}, offset={}, key={}, value={}",
             topic, partition, offset, key, value);
 
-        try {
-            // Sincronizar eventos con el backend
-            // Cuando se recibe un mensaje de Kafka, se hace un "sync completo" de eventos en el backend
-            backendSyncService.syncEventsWithBackend();
-            LOG.debug("✅ Mensaje Kafka procesado y sincronización iniciada exitosamente");
-        } catch (Exception e) {
-            LOG.error("❌ Error al procesar mensaje de Kafka", e);
-        }
+        // Cuando se recibe un mensaje de Kafka, se hace un "sync completo" de eventos en el backend.
+        // Se encola en el ejecutor de notificaciones (una ráfaga queda en un solo sync); el resultado lo registra
+        // BackendSyncService
+        backendSyncService.syncEventsWithBackend();
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.um.eventosproxy.service;
 
+import com.um.eventosproxy.config.AsyncConfiguration;
 import com.um.eventosproxy.config.ProxyProperties;
+import com.um.eventosproxy.dto.BloqueosVencidosDTO;
 import com.um.eventosproxy.dto.NotificacionEventoDTO;
 import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
@@ -19,6 +21,7 @@ public class BackendNotificationService {
 
     private static final Logger LOG = LoggerFactory.getLogger(BackendNotificationService.class);
     private static final String NOTIFICATION_ENDPOINT = "/api/admin/eventos/notificacion";
+    private static final String VENCIMIENTOS_ENDPOINT = "/api/admin/asientos/vencimientos";
 
     private final RestTemplate restTemplate;
     private final ProxyProperties proxyProperties;
@@ -34,7 +37,7 @@ public class BackendNotificationService {
         this.jwtService = jwtService;
     }
 
-    @Async
+    @Async(AsyncConfiguration.NOTIFICACIONES)
     public CompletableFuture<Void> notificarCambioEvento(NotificacionEventoDTO notificacion) {
         LOG.info("Notificando cambio de evento al backend: eventoId={}, tipoCambio={}", 
             notificacion.getEventoIdCatedra(), notificacion.getTipoCambio());
@@ -68,5 +71,37 @@ public class BackendNotificationService {
             return CompletableFuture.failedFuture(e);
         }
     }
-}
 
+    /**
+     * Avisa al backend que vencieron bloqueos de asientos de un evento, para que refresque su mapa.
+     */
+    @Async(AsyncConfiguration.TAREAS)
+    public CompletableFuture<Void> notificarBloqueosVencidos(BloqueosVencidosDTO vencidos) {
+        LOG.debug("Notificando bloqueos vencidos al backend: eventoId={}, asientos={}",
+            vencidos.getEventoId(), vencidos.getAsientos().size());
+
+        try {
+            String url = proxyProperties.getBackend().getBaseUrl() + VENCIMIENTOS_ENDPOINT;
+            String token = jwtService.generateToken("proxy-service");
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setBearerAuth(token);
+
+            ResponseEntity<Void> response = restTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                new HttpEntity<>(vencidos, headers),
+                Void.class
+            );
+
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                LOG.warn("Backend respondió con código no exitoso al aviso de vencimiento: {}", response.getStatusCode());
+            }
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            LOG.warn("Error al notificar bloqueos vencidos al backend (eventoId={}): {}", vencidos.getEventoId(), e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.um.eventosproxy.service;
 
+import com.um.eventosproxy.config.AsyncConfiguration;
 import com.um.eventosproxy.config.ProxyProperties;
 import com.um.eventosproxy.service.JwtService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -23,22 +27,46 @@ public class BackendSyncService {
     private final RestTemplate restTemplate;
     private final ProxyProperties proxyProperties;
     private final JwtService jwtService;
+    private final Executor notificaciones;
+
+    // Hay un sync encolado que todavía no empezó
+    private final AtomicBoolean pendiente = new AtomicBoolean();
 
     public BackendSyncService(
         RestTemplate restTemplate,
         ProxyProperties proxyProperties,
-        JwtService jwtService
+        JwtService jwtService,
+        @Qualifier(AsyncConfiguration.NOTIFICACIONES) Executor notificaciones
     ) {
         this.restTemplate = restTemplate;
         this.proxyProperties = proxyProperties;
         this.jwtService = jwtService;
+        this.notificaciones = notificaciones;
     }
 
     /**
-     * Sincroniza eventos con el backend llamando al endpoint de sincronización.
-     * Este método se llama cuando se recibe un mensaje de Kafka indicando cambios en eventos.
+     * Pide sincronizar los eventos con el backend. Se llama por cada mensaje de Kafka con cambios en eventos y
+     * el sync corre en el ejecutor de notificaciones para no frenar al consumer.
+     * <p>
+     * Cada sync es completo, así que una ráfaga de mensajes se junta en uno solo: mientras haya un sync encolado
+     * sin empezar no se encola otro. Un mensaje que llega con el sync ya en curso encola el siguiente, porque el
+     * backend pudo haber leído los eventos antes de ese cambio.
      */
     public void syncEventsWithBackend() {
+        if (!pendiente.compareAndSet(false, true)) {
+            LOG.debug("Sync de eventos ya pendiente, se junta con el mensaje recibido");
+            return;
+        }
+        try {
+            notificaciones.execute(this::sincronizar);
+        } catch (RuntimeException e) {
+            pendiente.set(false);
+            throw e;
+        }
+    }
+
+    private void sincronizar() {
+        pendiente.set(false);
         String url = proxyProperties.getBackend().getBaseUrl() + proxyProperties.getBackend().getSyncEventsPath();
         LOG.info("🔄 Notificando a backend para sincronizar eventos: {}", url);
 
@@ -0,0 +1,255 @@
+package com.um.eventosproxy.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.um.eventos.asientos.GrillaAsientos;
+import com.um.eventosproxy.config.ProxyProperties;
+import com.um.eventosproxy.dto.CambioAsientoDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Detecta los cambios de estado de cada asiento (LIBRE → BLOQUEADO → OCUPADO, y vuelta a LIBRE cuando vence
+ * un bloqueo) y los publica en Kafka.
+ * <p>
+ * La cátedra escribe la clave {@code evento_{id}} de Redis directamente, sin avisar qué cambió. Cada vez que el
+ * proxy lee esa clave y el contenido difiere del último que vio, arma la grilla del evento y la compara celda a
+ * celda con la anterior; cada asiento que cambió se publica como un {@link CambioAsientoDTO} con clave = id del
+ * evento, así que los cambios de un evento quedan ordenados en una sola partición. La primera lectura de cada
+ * evento solo fija la base y no publica nada.
+ * <p>
+ * La publicación va por un hilo propio con una cola de {@code application.kafka.cambios-asientos.cola} lotes:
+ * la lectura del mapa nunca espera a Kafka, y si el broker no responde y la cola se llena los lotes se descartan
+ * (y se cuentan).
+ * <p>
+ * Dos lecturas concurrentes del mismo evento pueden llegar aquí en cualquier orden, así que cada una trae la
+ * secuencia con la que Redis la sirvió (ver {@link RedisAsientosService}): una lectura con secuencia menor o igual
+ * a la de la última observada es más vieja que la grilla guardada y se descarta, en lugar de publicarse como una
+ * transición hacia atrás que no ocurrió.
+ */
+@Service
+public class CambiosAsientosService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CambiosAsientosService.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String topico;
+    private final boolean habilitado;
+
+    private final Map<Long, Observacion> ultimas = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor publicador;
+
+    private final Counter publicados;
+    private final Counter descartados;
+    private final Counter fallidos;
+
+    public CambiosAsientosService(
+        KafkaTemplate<String, String> cambiosAsientosKafkaTemplate,
+        ObjectMapper objectMapper,
+        ProxyProperties proxyProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.kafkaTemplate = cambiosAsientosKafkaTemplate;
+        this.objectMapper = objectMapper;
+        ProxyProperties.Kafka config = proxyProperties.getKafka();
+        this.topico = config.getTopic().getAsientos();
+        this.habilitado = Boolean.TRUE.equals(config.getCambiosAsientos().getHabilitado());
+
+        this.publicador = new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, config.getCambiosAsientos().getCola())),
+            r -> {
+                Thread thread = new Thread(r, "asientos-cambios");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+
+        this.publicados = Counter.builder("proxy.asientos.cambios")
+            .tag("resultado", "publicado")
+            .description("Cambios de estado de asientos publicados en Kafka")
+            .register(meterRegistry);
+        this.descartados = Counter.builder("proxy.asientos.cambios")
+            .tag("resultado", "descartado")
+            .description("Cambios de estado de asientos descartados por tener la cola de publicación llena")
+            .register(meterRegistry);
+        this.fallidos = Counter.builder("proxy.asientos.cambios")
+            .tag("resultado", "fallido")
+            .description("Cambios de estado de asientos que Kafka no confirmó")
+            .register(meterRegistry);
+        Gauge.builder("proxy.async.activos", publicador, ThreadPoolExecutor::getActiveCount)
+            .tag("ejecutor", "asientos-cambios")
+            .description("Hilos del ejecutor ejecutando una tarea")
+            .register(meterRegistry);
+        Gauge.builder("proxy.async.encolados", publicador, e -> e.getQueue().size())
+            .tag("ejecutor", "asientos-cambios")
+            .description("Tareas esperando en la cola del ejecutor")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Indica si se publican los cambios; si no, las lecturas no necesitan secuencia.
+     */
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Registra una lectura de la clave del evento en Redis.
+     *
+     * @param secuencia orden de la lectura en Redis; las lecturas más viejas que la última observada se descartan.
+     * @param crudo     contenido leído de Redis; si es igual al de la última lectura no se arma la grilla.
+     * @param grilla    arma la grilla completa del evento a partir de esa lectura.
+     */
+    public void observar(Long eventoId, long secuencia, String crudo, Supplier<GrillaAsientos> grilla) {
+        if (!habilitado || eventoId == null || crudo == null) {
+            return;
+        }
+        Observacion anterior = ultimas.get(eventoId);
+        if (anterior != null && anterior.mismoContenido(crudo)) {
+            // Mismo contenido, pero más reciente: una lectura vieja que llegue después no debe pasar por nueva
+            ultimas.computeIfPresent(eventoId, (id, previa) -> previa.secuencia < secuencia ? previa.conSecuencia(secuencia) : previa);
+            return;
+        }
+        if (anterior != null && secuencia <= anterior.secuencia) {
+            return;
+        }
+
+        GrillaAsientos nueva = grilla.get();
+        Observacion observacion = new Observacion(secuencia, crudo.hashCode(), crudo.length(), nueva);
+        List<CambioAsientoDTO> cambios = new ArrayList<>();
+        ultimas.compute(eventoId, (id, previa) -> {
+            if (previa != null && secuencia <= previa.secuencia) {
+                return previa;
+            }
+            if (previa != null && previa.grilla.getVersion() != nueva.getVersion()) {
+                comparar(previa.grilla, nueva, cambios);
+            }
+            return observacion;
+        });
+        if (!cambios.isEmpty()) {
+            publicar(eventoId, cambios);
+        }
+    }
+
+    /**
+     * Cambios entre dos grillas del mismo evento, en el rectángulo que tienen en común (si el evento cambió de
+     * dimensiones, las celdas que aparecen o desaparecen no son cambios de estado de un asiento).
+     */
+    private static void comparar(GrillaAsientos previa, GrillaAsientos nueva, List<CambioAsientoDTO> cambios) {
+        int filaDesde = Math.max(previa.getFilaInicial(), nueva.getFilaInicial());
+        int filaHasta = Math.min(previa.getFilaInicial() + previa.getFilas(), nueva.getFilaInicial() + nueva.getFilas()) - 1;
+        int colDesde = Math.max(previa.getColumnaInicial(), nueva.getColumnaInicial());
+        int colHasta = Math.min(previa.getColumnaInicial() + previa.getColumnas(), nueva.getColumnaInicial() + nueva.getColumnas()) - 1;
+        String version = Long.toHexString(nueva.getVersion());
+        long instante = System.currentTimeMillis();
+
+        for (int fila = filaDesde; fila <= filaHasta; fila++) {
+            int i = previa.indice(fila, colDesde);
+            int j = nueva.indice(fila, colDesde);
+            for (int col = colDesde; col <= colHasta; col++, i++, j++) {
+                byte de = previa.getEstado(i);
+                byte a = nueva.getEstado(j);
+                if (de == a || de == GrillaAsientos.SIN_ASIENTO || a == GrillaAsientos.SIN_ASIENTO) {
+                    continue;
+                }
+                CambioAsientoDTO cambio = new CambioAsientoDTO();
+                cambio.setEventoId(nueva.getEventoId());
+                cambio.setFila(fila);
+                cambio.setNumero(col);
+                cambio.setAnterior(letra(de));
+                cambio.setNuevo(letra(a));
+                cambio.setVersion(version);
+                cambio.setInstante(instante);
+                cambios.add(cambio);
+            }
+        }
+    }
+
+    private void publicar(Long eventoId, List<CambioAsientoDTO> cambios) {
+        try {
+            publicador.execute(() -> enviar(eventoId, cambios));
+        } catch (RejectedExecutionException e) {
+            descartados.increment(cambios.size());
+            LOG.warn("Cola de publicación de cambios de asientos llena, se descartan {} cambios del evento {}", cambios.size(), eventoId);
+        }
+    }
+
+    private void enviar(Long eventoId, List<CambioAsientoDTO> cambios) {
+        String clave = String.valueOf(eventoId);
+        for (int k = 0; k < cambios.size(); k++) {
+            CambioAsientoDTO cambio = cambios.get(k);
+            String valor;
+            try {
+                valor = objectMapper.writeValueAsString(cambio);
+            } catch (JsonProcessingException e) {
+                LOG.error("No se pudo serializar el cambio de asiento {}", cambio, e);
+                continue;
+            }
+            try {
+                kafkaTemplate
+                    .send(topico, clave, valor)
+                    .whenComplete((resultado, error) -> {
+                        if (error != null) {
+                            fallidos.increment();
+                            LOG.debug("Kafka no confirmó el cambio de asiento del evento {}: {}", eventoId, error.getMessage());
+                        } else {
+                            publicados.increment();
+                        }
+                    });
+            } catch (Exception e) {
+                // Sin broker, send falla a los max.block.ms: el resto del lote correría la misma suerte
+                fallidos.increment(cambios.size() - k);
+                LOG.warn("No se pudieron publicar los cambios de asientos del evento {}: {}", eventoId, e.getMessage());
+                return;
+            }
+        }
+        LOG.debug("Publicados {} cambios de asientos del evento {} en '{}'", cambios.size(), eventoId, topico);
+    }
+
+    private static String letra(byte estado) {
+        return switch (estado) {
+            case GrillaAsientos.OCUPADO -> "O";
+            case GrillaAsientos.BLOQUEADO -> "B";
+            default -> "L";
+        };
+    }
+
+    @PreDestroy
+    public void detener() {
+        publicador.shutdown();
+    }
+
+    /**
+     * Última lectura de un evento: su secuencia, un resumen del contenido crudo (para no rearmar la grilla si no
+     * cambió) y la grilla.
+     */
+    private record Observacion(long secuencia, int hashCrudo, int largoCrudo, GrillaAsientos grilla) {
+        boolean mismoContenido(String crudo) {
+            return largoCrudo == crudo.length() && hashCrudo == crudo.hashCode();
+        }
+
+        Observacion conSecuencia(long nueva) {
+            return new Observacion(nueva, hashCrudo, largoCrudo, grilla);
+        }
+    }
+}
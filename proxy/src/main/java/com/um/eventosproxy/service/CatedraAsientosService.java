@@ -39,26 +39,77 @@ public class CatedraAsientosService {
     private final ProxyProperties proxyProperties;
     private final ObjectMapper objectMapper;
     private final RedisTemplate<String, String> redisTemplate;
+    private final ReservaAsientosService reservaAsientosService;
+    private final VencimientoBloqueosService vencimientoBloqueosService;
     private static final String ENDPOINT_EVENTO_DETALLE = "/api/endpoints/v1/eventos/{id}";
 
     public CatedraAsientosService(
         @org.springframework.beans.factory.annotation.Qualifier("catedraRestTemplate") RestTemplate catedraRestTemplate,
         ProxyProperties proxyProperties,
         ObjectMapper objectMapper,
-        RedisTemplate<String, String> redisTemplate
+        RedisTemplate<String, String> redisTemplate,
+        ReservaAsientosService reservaAsientosService,
+        VencimientoBloqueosService vencimientoBloqueosService
     ) {
         this.catedraRestTemplate = catedraRestTemplate;
         this.proxyProperties = proxyProperties;
         this.objectMapper = objectMapper;
         this.redisTemplate = redisTemplate;
+        this.reservaAsientosService = reservaAsientosService;
+        this.vencimientoBloqueosService = vencimientoBloqueosService;
     }
 
     /**
      * Bloquea temporalmente los asientos en el servicio de la cátedra.
      * <p>
-     * El bloqueo dura 5 minutos según el Issue #15.
+     * El bloqueo dura 5 minutos según el Issue #15. Si otro request ya está bloqueando alguno de los
+     * asientos, se responde sin llamar a la cátedra (ver {@link ReservaAsientosService}). Los asientos
+     * bloqueados se agendan para avisar al backend cuando venzan (ver {@link VencimientoBloqueosService}).
      */
     public BloqueoAsientosResponseDTO bloquearAsientos(BloqueoAsientosRequestDTO request) {
+        ReservaAsientosService.Resultado reserva = reservaAsientosService.reservar(request);
+        if (!reserva.isAdquirida()) {
+            BloqueoAsientosResponseDTO response = crearRespuestaError("Otro usuario está bloqueando alguno de los asientos seleccionados");
+            BloqueoAsientosResponseDTO.AsientoBloqueoDTO enConflicto = new BloqueoAsientosResponseDTO.AsientoBloqueoDTO();
+            enConflicto.setFila(reserva.enConflicto().getFila());
+            enConflicto.setColumna(reserva.enConflicto().getColumna());
+            response.getAsientosNoDisponibles().add(enConflicto);
+            return response;
+        }
+        try {
+            BloqueoAsientosResponseDTO response = enviarBloqueo(request);
+            if (response.obtenerExitoso()) {
+                vencimientoBloqueosService.registrar(request.getEventoId(), asientosBloqueados(request, response));
+            }
+            return response;
+        } finally {
+            reservaAsientosService.liberar(reserva.reserva());
+        }
+    }
+
+    /**
+     * Asientos que quedaron bloqueados; si la cátedra no los detalla, son los pedidos.
+     */
+    private List<BloqueoAsientosResponseDTO.AsientoBloqueoDTO> asientosBloqueados(
+        BloqueoAsientosRequestDTO request,
+        BloqueoAsientosResponseDTO response
+    ) {
+        if (response.getAsientosBloqueados() != null && !response.getAsientosBloqueados().isEmpty()) {
+            return response.getAsientosBloqueados();
+        }
+        List<BloqueoAsientosResponseDTO.AsientoBloqueoDTO> asientos = new ArrayList<>();
+        if (request.getAsientos() != null) {
+            for (BloqueoAsientosRequestDTO.AsientoBloqueoDTO pedido : request.getAsientos()) {
+                BloqueoAsientosResponseDTO.AsientoBloqueoDTO asiento = new BloqueoAsientosResponseDTO.AsientoBloqueoDTO();
+                asiento.setFila(pedido.getFila());
+                asiento.setColumna(pedido.getColumna());
+                asientos.add(asiento);
+            }
+        }
+        return asientos;
+    }
+
+    private BloqueoAsientosResponseDTO enviarBloqueo(BloqueoAsientosRequestDTO request) {
         LOG.info("=== BLOQUEANDO ASIENTOS === eventoId={}, cantidad={}", 
             request.getEventoId(), 
             request.getAsientos() != null ? request.getAsientos().size() : 0);
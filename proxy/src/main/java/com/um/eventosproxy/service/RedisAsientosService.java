@@ -2,14 +2,18 @@ package com.um.eventosproxy.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.um.eventos.asientos.CodecGrillaAsientos;
+import com.um.eventos.asientos.GrillaAsientos;
 import com.um.eventosproxy.dto.AsientoDTO;
 import com.um.eventosproxy.dto.MapaAsientosDTO;
+import com.um.eventosproxy.dto.RegionMapaDTO;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -20,30 +24,60 @@ public class RedisAsientosService {
     // El valor es un JSON con "eventoId" y "asientos"
     private static final String REDIS_KEY_PREFIX = "evento_";
 
+    /**
+     * GET de la clave junto con el reloj de Redis ({@code TIME}, en microsegundos) en un solo paso atómico: Redis
+     * ejecuta los scripts de a uno, así que ese instante ordena las lecturas como las sirvió. Es de solo lectura;
+     * la clave sigue siendo de la cátedra.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LEER_CON_SECUENCIA = RedisScript.of(
+        "local t = redis.call('TIME') return {t[1], t[2], redis.call('GET', KEYS[1])}",
+        List.class
+    );
+
     private final RedisTemplate<String, String> redisTemplate;
     private final ObjectMapper objectMapper;
     private final CatedraAsientosService catedraAsientosService;
     private final BackendAsientosService backendAsientosService;
+    private final CambiosAsientosService cambiosAsientosService;
 
     public RedisAsientosService(
         RedisTemplate<String, String> redisTemplate, 
         ObjectMapper objectMapper,
         CatedraAsientosService catedraAsientosService,
-        BackendAsientosService backendAsientosService
+        BackendAsientosService backendAsientosService,
+        CambiosAsientosService cambiosAsientosService
     ) {
         this.redisTemplate = redisTemplate;
         this.objectMapper = objectMapper;
         this.catedraAsientosService = catedraAsientosService;
         this.backendAsientosService = backendAsientosService;
+        this.cambiosAsientosService = cambiosAsientosService;
+    }
+
+    /**
+     * Indica si la cátedra ya publicó el estado de asientos del evento en Redis (clave "evento_{id}").
+     */
+    public boolean existeMapaAsientos(Long eventoId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(REDIS_KEY_PREFIX + eventoId));
     }
 
     public MapaAsientosDTO obtenerMapaAsientos(Long eventoId) {
+        return obtenerMapaAsientos(eventoId, true);
+    }
+
+    /**
+     * @param conMatriz generar la representación matricial; se omite cuando después se recorta una región,
+     *                  porque formatearla cuesta más que el resto del mapa.
+     */
+    public MapaAsientosDTO obtenerMapaAsientos(Long eventoId, boolean conMatriz) {
         // La cátedra y la guía de la materia usan claves del tipo "evento_{id}"
         String key = REDIS_KEY_PREFIX + eventoId;
         LOG.info("=== CONSULTANDO ASIENTOS === eventoId: {}, buscando key en Redis: '{}'", eventoId, key);
 
         try {
-            String data = redisTemplate.opsForValue().get(key);
+            Lectura lectura = leer(key);
+            String data = lectura.data();
             LOG.info("Resultado de Redis GET para key '{}': data es null={}, vacío={}, longitud={}", 
                 key, data == null, data != null && data.isEmpty(), data != null ? data.length() : 0);
             
@@ -56,7 +90,8 @@ public class RedisAsientosService {
                 
                 if (sincronizado) {
                     // Reintentar leer desde Redis después de la sincronización
-                    data = redisTemplate.opsForValue().get(key);
+                    lectura = leer(key);
+                    data = lectura.data();
                     LOG.info("Después de sincronización, Redis tiene datos: {}", data != null && !data.isEmpty());
                 }
                 
@@ -68,9 +103,11 @@ public class RedisAsientosService {
                     MapaAsientosDTO mapa = generarMapaCompletoAsientos(new ArrayList<>(), dimensiones, eventoId);
                     
                     // Generar representación matricial del mapa de asientos usando las dimensiones del evento
-                    generarMatrizAsientos(mapa, 
-                        dimensiones != null ? dimensiones.get("filas") : null,
-                        dimensiones != null ? dimensiones.get("columnas") : null);
+                    if (conMatriz) {
+                        generarMatrizAsientos(mapa, 
+                            dimensiones != null ? dimensiones.get("filas") : null,
+                            dimensiones != null ? dimensiones.get("columnas") : null);
+                    }
                     
                     return mapa;
                 }
@@ -155,11 +192,17 @@ public class RedisAsientosService {
             
             // Generar mapa completo de asientos usando dimensiones
             MapaAsientosDTO mapa = generarMapaCompletoAsientos(asientos, dimensiones, eventoId);
+
+            // Solo las lecturas reales de Redis cuentan para detectar cambios (no los mapas armados ante errores)
+            List<AsientoDTO> completos = mapa.getAsientos();
+            cambiosAsientosService.observar(eventoId, lectura.secuencia(), data, () -> construirGrilla(eventoId, completos));
             
             // Generar representación matricial del mapa de asientos usando las dimensiones del evento
-            generarMatrizAsientos(mapa, 
-                dimensiones != null ? dimensiones.get("filas") : null,
-                dimensiones != null ? dimensiones.get("columnas") : null);
+            if (conMatriz) {
+                generarMatrizAsientos(mapa, 
+                    dimensiones != null ? dimensiones.get("filas") : null,
+                    dimensiones != null ? dimensiones.get("columnas") : null);
+            }
 
             LOG.debug("Mapa de asientos obtenido: {} asientos totales para eventoId: {}", 
                 mapa.getAsientos() != null ? mapa.getAsientos().size() : 0, eventoId);
@@ -176,14 +219,119 @@ public class RedisAsientosService {
             MapaAsientosDTO mapa = generarMapaCompletoAsientos(new ArrayList<>(), dimensiones, eventoId);
             
             // Generar representación matricial del mapa de asientos usando las dimensiones del evento
-            generarMatrizAsientos(mapa, 
-                dimensiones != null ? dimensiones.get("filas") : null,
-                dimensiones != null ? dimensiones.get("columnas") : null);
+            if (conMatriz) {
+                generarMatrizAsientos(mapa, 
+                    dimensiones != null ? dimensiones.get("filas") : null,
+                    dimensiones != null ? dimensiones.get("columnas") : null);
+            }
             
             return mapa;
         }
     }
 
+    /**
+     * Deja en el mapa solo los asientos de la región y calcula la versión de esa región: un hash de fila,
+     * número y estado de sus asientos que cambia solo si cambia alguno de ellos.
+     */
+    public MapaAsientosDTO recortarRegion(MapaAsientosDTO mapa, RegionMapaDTO region) {
+        List<AsientoDTO> recortados = new ArrayList<>();
+        long hash = 0xcbf29ce484222325L;
+        if (mapa.getAsientos() != null) {
+            for (AsientoDTO asiento : mapa.getAsientos()) {
+                int fila = GrillaAsientos.numeroDeFila(asiento.getFila());
+                Integer numero = asiento.getNumero();
+                if (
+                    numero == null ||
+                    (region.getFilaDesde() != null && fila < region.getFilaDesde()) ||
+                    (region.getFilaHasta() != null && fila > region.getFilaHasta()) ||
+                    (region.getColDesde() != null && numero < region.getColDesde()) ||
+                    (region.getColHasta() != null && numero > region.getColHasta())
+                ) {
+                    continue;
+                }
+                recortados.add(asiento);
+                long valor = ((long) numero << 32) ^ ((long) fila << 8) ^ (asiento.getEstado() != null ? asiento.getEstado().ordinal() + 1 : 0);
+                hash = (hash ^ valor) * 0x100000001b3L;
+            }
+        }
+        mapa.setAsientos(recortados);
+        mapa.setMatriz(new ArrayList<>());
+        mapa.setRegion(region);
+        mapa.setVersion(Long.toHexString(hash));
+        return mapa;
+    }
+
+    /**
+     * Mapa de asientos del evento (o de la región) como grilla para el formato compacto
+     * {@value CodecGrillaAsientos#MEDIA_TYPE}. La grilla cubre el rectángulo de los asientos existentes,
+     * acotado por la región si se pidió.
+     */
+    public GrillaAsientos obtenerGrilla(Long eventoId, RegionMapaDTO region) {
+        MapaAsientosDTO mapa = obtenerMapaAsientos(eventoId, false);
+        if (region != null) {
+            recortarRegion(mapa, region);
+        }
+        return construirGrilla(eventoId, mapa.getAsientos());
+    }
+
+    /**
+     * Lee la clave del evento; con la publicación de cambios activa trae además la secuencia de la lectura.
+     */
+    private Lectura leer(String key) {
+        if (!cambiosAsientosService.isHabilitado()) {
+            return new Lectura(redisTemplate.opsForValue().get(key), 0L);
+        }
+        List<?> resultado = redisTemplate.execute(LEER_CON_SECUENCIA, List.of(key));
+        long segundos = Long.parseLong(String.valueOf(resultado.get(0)));
+        long micros = Long.parseLong(String.valueOf(resultado.get(1)));
+        Object data = resultado.size() > 2 ? resultado.get(2) : null;
+        return new Lectura(data != null ? data.toString() : null, segundos * 1_000_000L + micros);
+    }
+
+    /**
+     * Grilla que cubre el rectángulo de los asientos dados, con su versión calculada.
+     */
+    private GrillaAsientos construirGrilla(Long eventoId, List<AsientoDTO> asientos) {
+        if (asientos == null) {
+            asientos = List.of();
+        }
+
+        int filaMin = Integer.MAX_VALUE, filaMax = Integer.MIN_VALUE, colMin = Integer.MAX_VALUE, colMax = Integer.MIN_VALUE;
+        for (AsientoDTO asiento : asientos) {
+            if (asiento.getNumero() == null) {
+                continue;
+            }
+            int fila = GrillaAsientos.numeroDeFila(asiento.getFila());
+            filaMin = Math.min(filaMin, fila);
+            filaMax = Math.max(filaMax, fila);
+            colMin = Math.min(colMin, asiento.getNumero());
+            colMax = Math.max(colMax, asiento.getNumero());
+        }
+        GrillaAsientos grilla = filaMin > filaMax
+            ? new GrillaAsientos(eventoId, 1, 1, 0, 0)
+            : new GrillaAsientos(eventoId, filaMin, colMin, filaMax - filaMin + 1, colMax - colMin + 1);
+        for (AsientoDTO asiento : asientos) {
+            if (asiento.getNumero() == null) {
+                continue;
+            }
+            int fila = GrillaAsientos.numeroDeFila(asiento.getFila());
+            grilla.setEstado(grilla.indice(fila, asiento.getNumero()), estadoGrilla(asiento.getEstado()));
+            grilla.setEtiquetaFila(fila, asiento.getFila());
+        }
+        grilla.setVersion(grilla.calcularVersion());
+        return grilla;
+    }
+
+    private static byte estadoGrilla(AsientoDTO.EstadoAsiento estado) {
+        if (estado == AsientoDTO.EstadoAsiento.OCUPADO) {
+            return GrillaAsientos.OCUPADO;
+        }
+        if (estado == AsientoDTO.EstadoAsiento.BLOQUEADO) {
+            return GrillaAsientos.BLOQUEADO;
+        }
+        return GrillaAsientos.LIBRE;
+    }
+
     private List<AsientoDTO> parsearAsientos(Map<String, Object> rawData) {
         List<AsientoDTO> asientos = new ArrayList<>();
 
@@ -695,4 +843,6 @@ public class RedisAsientosService {
         mapa.setMatriz(matriz);
         LOG.debug("Matriz completa generada desde dimensiones: {} líneas", matriz.size());
     }
-}
\ No newline at end of file
+
+    private record Lectura(String data, long secuencia) {}
+}
@@ -0,0 +1,173 @@
+package com.um.eventosproxy.service;
+
+import com.um.eventosproxy.config.ProxyProperties;
+import com.um.eventosproxy.dto.BloqueoAsientosRequestDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tabla en memoria de los asientos que tienen un bloqueo en curso contra la cátedra.
+ * <p>
+ * Cada asiento (eventoId, fila, columna) se reserva con una operación CAS sobre una de varias franjas
+ * ({@code application.asientos.reserva-franjas}). Si otro request ya tiene alguno de los asientos en curso,
+ * el bloqueo falla de inmediato (o espera como máximo {@code reserva-espera-ms}) sin llegar a la cátedra.
+ * Los asientos se toman siempre en el mismo orden (fila, columna), así que dos requests con asientos en
+ * común no pueden quedar esperándose mutuamente. Las reservas se liberan al terminar el request o, si no,
+ * vencen a los {@code reserva-timeout-ms}.
+ */
+@Service
+public class ReservaAsientosService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReservaAsientosService.class);
+
+    private static final long PAUSA_ESPERA_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final Comparator<BloqueoAsientosRequestDTO.AsientoBloqueoDTO> ORDEN_ASIENTOS = Comparator.comparing(
+        BloqueoAsientosRequestDTO.AsientoBloqueoDTO::getFila,
+        Comparator.nullsFirst(Comparator.naturalOrder())
+    ).thenComparing(BloqueoAsientosRequestDTO.AsientoBloqueoDTO::getColumna, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Map<ClaveAsiento, Reserva>[] franjas;
+    private final long esperaNanos;
+    private final long timeoutNanos;
+
+    private final Counter adquiridas;
+    private final Counter conflictos;
+
+    @SuppressWarnings("unchecked")
+    public ReservaAsientosService(ProxyProperties proxyProperties, MeterRegistry meterRegistry) {
+        ProxyProperties.Asientos config = proxyProperties.getAsientos();
+        int cantidadFranjas = Math.max(1, config.getReservaFranjas());
+        this.franjas = new Map[cantidadFranjas];
+        for (int i = 0; i < cantidadFranjas; i++) {
+            franjas[i] = new ConcurrentHashMap<>();
+        }
+        this.esperaNanos = TimeUnit.MILLISECONDS.toNanos(config.getReservaEsperaMs());
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getReservaTimeoutMs());
+
+        this.adquiridas = Counter.builder("proxy.asientos.reserva")
+            .tag("resultado", "adquirida")
+            .description("Bloqueos que obtuvieron la reserva de sus asientos")
+            .register(meterRegistry);
+        this.conflictos = Counter.builder("proxy.asientos.reserva")
+            .tag("resultado", "conflicto")
+            .description("Bloqueos rechazados sin llamar a la cátedra porque otro request tenía los asientos en curso")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reserva todos los asientos del request o ninguno.
+     *
+     * @return la reserva, o un resultado con los asientos en conflicto si alguno ya estaba en curso.
+     */
+    public Resultado reservar(BloqueoAsientosRequestDTO request) {
+        List<BloqueoAsientosRequestDTO.AsientoBloqueoDTO> ordenados = new ArrayList<>(
+            request.getAsientos() != null ? request.getAsientos() : List.of()
+        );
+        ordenados.sort(ORDEN_ASIENTOS);
+
+        Reserva reserva = new Reserva(System.nanoTime() + timeoutNanos);
+        List<ClaveAsiento> tomadas = new ArrayList<>(ordenados.size());
+        for (BloqueoAsientosRequestDTO.AsientoBloqueoDTO asiento : ordenados) {
+            ClaveAsiento clave = new ClaveAsiento(request.getEventoId(), asiento.getFila(), asiento.getColumna());
+            if (tomadas.contains(clave)) {
+                continue;
+            }
+            if (!tomar(clave, reserva)) {
+                liberar(tomadas, reserva);
+                conflictos.increment();
+                LOG.debug("Asiento en curso para otro request: eventoId={}, fila={}, columna={}", clave.eventoId(), clave.fila(), clave.columna());
+                return Resultado.conflicto(asiento);
+            }
+            tomadas.add(clave);
+        }
+        adquiridas.increment();
+        reserva.claves = tomadas;
+        return Resultado.adquirida(reserva);
+    }
+
+    /**
+     * Libera los asientos de la reserva (no hace nada con los que ya vencieron y tomó otro request).
+     */
+    public void liberar(Reserva reserva) {
+        if (reserva != null && reserva.claves != null) {
+            liberar(reserva.claves, reserva);
+        }
+    }
+
+    private boolean tomar(ClaveAsiento clave, Reserva reserva) {
+        Map<ClaveAsiento, Reserva> franja = franja(clave);
+        long limite = System.nanoTime() + esperaNanos;
+        while (true) {
+            Reserva actual = franja.putIfAbsent(clave, reserva);
+            if (actual == null) {
+                return true;
+            }
+            // Una reserva vencida (request colgado) se reemplaza con CAS
+            if (actual.vencida() && franja.replace(clave, actual, reserva)) {
+                return true;
+            }
+            if (System.nanoTime() - limite >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(PAUSA_ESPERA_NANOS);
+        }
+    }
+
+    private void liberar(List<ClaveAsiento> claves, Reserva reserva) {
+        for (int i = claves.size() - 1; i >= 0; i--) {
+            ClaveAsiento clave = claves.get(i);
+            franja(clave).remove(clave, reserva);
+        }
+    }
+
+    private Map<ClaveAsiento, Reserva> franja(ClaveAsiento clave) {
+        return franjas[Math.floorMod(clave.hashCode(), franjas.length)];
+    }
+
+    private record ClaveAsiento(Long eventoId, Integer fila, Integer columna) {}
+
+    /**
+     * Asientos reservados por un request; se compara por identidad.
+     */
+    public static final class Reserva {
+
+        private final long venceNanos;
+        private List<ClaveAsiento> claves;
+
+        private Reserva(long venceNanos) {
+            this.venceNanos = venceNanos;
+        }
+
+        private boolean vencida() {
+            return System.nanoTime() - venceNanos >= 0;
+        }
+    }
+
+    /**
+     * Resultado de {@link #reservar}: la reserva obtenida o el primer asiento en conflicto.
+     */
+    public record Resultado(Reserva reserva, BloqueoAsientosRequestDTO.AsientoBloqueoDTO enConflicto) {
+        static Resultado adquirida(Reserva reserva) {
+            return new Resultado(reserva, null);
+        }
+
+        static Resultado conflicto(BloqueoAsientosRequestDTO.AsientoBloqueoDTO asiento) {
+            return new Resultado(null, asiento);
+        }
+
+        public boolean isAdquirida() {
+            return reserva != null;
+        }
+    }
+}
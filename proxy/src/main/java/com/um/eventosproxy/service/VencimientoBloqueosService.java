@@ -0,0 +1,210 @@
+package com.um.eventosproxy.service;
+
+import com.um.eventosproxy.config.ProxyProperties;
+import com.um.eventosproxy.dto.BloqueoAsientosResponseDTO;
+import com.um.eventosproxy.dto.BloqueosVencidosDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Vencimiento de los bloqueos de asientos hechos a través del proxy.
+ * <p>
+ * La cátedra libera un bloqueo a los {@code application.asientos.bloqueo-duracion-segundos} sin avisar a nadie,
+ * así que el mapa que tiene el backend queda mostrando esos asientos como bloqueados hasta que se vuelva a pedir.
+ * Cada bloqueo exitoso se agenda en una rueda de tiempo (hashed timer wheel) de {@value #RANURAS} ranuras de
+ * {@value #TICK_MS} ms: agendar es O(1) y cada tick solo recorre una ranura, sin importar cuántos bloqueos haya
+ * pendientes. Al vencer, los asientos se agrupan por evento y se avisa al backend, que refresca el mapa y lo
+ * publica a los clientes.
+ * <p>
+ * Los bloqueos nuevos entran por una cola concurrente y solo el hilo de la rueda toca las ranuras. Si el asiento
+ * se vendió antes de vencer el aviso sobra, pero es inofensivo: el backend solo vuelve a leer el mapa.
+ */
+@Service
+public class VencimientoBloqueosService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VencimientoBloqueosService.class);
+
+    static final long TICK_MS = 1000;
+    static final int RANURAS = 512;
+
+    private final BackendNotificationService backendNotificationService;
+    private final long vencimientoNanos;
+    private final boolean notificar;
+
+    private final LongSupplier ahoraNanos;
+    private final ScheduledExecutorService reloj;
+    private final long inicioNanos;
+    private final long tickNanos = TimeUnit.MILLISECONDS.toNanos(TICK_MS);
+
+    private final Queue<Vencimiento> nuevos = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendientes = new AtomicInteger();
+    // Solo las usa el hilo de la rueda
+    private final ArrayDeque<Vencimiento>[] ranuras;
+    private long tick;
+
+    private final Counter registrados;
+    private final Counter vencidos;
+
+    @Autowired
+    public VencimientoBloqueosService(
+        BackendNotificationService backendNotificationService,
+        ProxyProperties proxyProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this(backendNotificationService, proxyProperties, meterRegistry, System::nanoTime, true);
+    }
+
+    /**
+     * @param ahoraNanos reloj monotónico de la rueda.
+     * @param iniciarReloj si es {@code false} la rueda solo avanza con llamadas explícitas a {@link #avanzar()}.
+     */
+    @SuppressWarnings("unchecked")
+    VencimientoBloqueosService(
+        BackendNotificationService backendNotificationService,
+        ProxyProperties proxyProperties,
+        MeterRegistry meterRegistry,
+        LongSupplier ahoraNanos,
+        boolean iniciarReloj
+    ) {
+        this.backendNotificationService = backendNotificationService;
+        this.ahoraNanos = ahoraNanos;
+        this.inicioNanos = ahoraNanos.getAsLong();
+        ProxyProperties.Asientos config = proxyProperties.getAsientos();
+        this.vencimientoNanos =
+            TimeUnit.SECONDS.toNanos(config.getBloqueoDuracionSegundos()) + TimeUnit.MILLISECONDS.toNanos(config.getVencimientoMargenMs());
+        this.notificar = Boolean.TRUE.equals(config.getVencimientoNotificar());
+
+        this.ranuras = new ArrayDeque[RANURAS];
+        for (int i = 0; i < RANURAS; i++) {
+            ranuras[i] = new ArrayDeque<>();
+        }
+
+        this.registrados = Counter.builder("proxy.asientos.vencimientos")
+            .tag("resultado", "registrado")
+            .description("Bloqueos agendados para vencer")
+            .register(meterRegistry);
+        this.vencidos = Counter.builder("proxy.asientos.vencimientos")
+            .tag("resultado", "vencido")
+            .description("Bloqueos vencidos")
+            .register(meterRegistry);
+        Gauge.builder("proxy.asientos.vencimientos.pendientes", pendientes, AtomicInteger::get)
+            .description("Bloqueos agendados que todavía no vencieron")
+            .register(meterRegistry);
+
+        if (iniciarReloj) {
+            this.reloj = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "bloqueos-vencimiento");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reloj.scheduleAtFixedRate(this::avanzar, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+        } else {
+            this.reloj = null;
+        }
+    }
+
+    /**
+     * Agenda el vencimiento de los asientos que la cátedra confirmó como bloqueados.
+     */
+    public void registrar(Long eventoId, List<BloqueoAsientosResponseDTO.AsientoBloqueoDTO> asientos) {
+        if (eventoId == null || asientos == null || asientos.isEmpty()) {
+            return;
+        }
+        nuevos.add(new Vencimiento(eventoId, List.copyOf(asientos), ahoraNanos.getAsLong() + vencimientoNanos));
+        pendientes.incrementAndGet();
+        registrados.increment();
+    }
+
+    /**
+     * Procesa los ticks transcurridos desde la última vuelta (normalmente uno; más si el hilo se demoró).
+     */
+    void avanzar() {
+        try {
+            long objetivo = (ahoraNanos.getAsLong() - inicioNanos) / tickNanos;
+            Map<Long, List<BloqueoAsientosResponseDTO.AsientoBloqueoDTO>> porEvento = new LinkedHashMap<>();
+            while (tick < objetivo) {
+                tick++;
+                ubicarNuevos();
+                vencer(ranuras[(int) (tick % RANURAS)], porEvento);
+            }
+            porEvento.forEach(this::avisar);
+        } catch (Exception e) {
+            // Una excepción cancelaría la tarea periódica
+            LOG.error("Error al procesar vencimientos de bloqueos", e);
+        }
+    }
+
+    private void ubicarNuevos() {
+        Vencimiento vencimiento;
+        while ((vencimiento = nuevos.poll()) != null) {
+            long tickVence = Math.max(tick, (vencimiento.venceNanos - inicioNanos + tickNanos - 1) / tickNanos);
+            vencimiento.tickVence = tickVence;
+            ranuras[(int) (tickVence % RANURAS)].add(vencimiento);
+        }
+    }
+
+    private void vencer(ArrayDeque<Vencimiento> ranura, Map<Long, List<BloqueoAsientosResponseDTO.AsientoBloqueoDTO>> porEvento) {
+        Iterator<Vencimiento> it = ranura.iterator();
+        while (it.hasNext()) {
+            Vencimiento vencimiento = it.next();
+            // Los que vencen en una vuelta posterior de la rueda se quedan en la ranura
+            if (vencimiento.tickVence <= tick) {
+                it.remove();
+                pendientes.decrementAndGet();
+                vencidos.increment();
+                porEvento.computeIfAbsent(vencimiento.eventoId, id -> new ArrayList<>()).addAll(vencimiento.asientos);
+            }
+        }
+    }
+
+    private void avisar(Long eventoId, List<BloqueoAsientosResponseDTO.AsientoBloqueoDTO> asientos) {
+        LOG.debug("Vencieron {} bloqueos de asientos del evento {}", asientos.size(), eventoId);
+        if (!notificar) {
+            return;
+        }
+        BloqueosVencidosDTO dto = new BloqueosVencidosDTO();
+        dto.setEventoId(eventoId);
+        dto.setAsientos(asientos);
+        backendNotificationService.notificarBloqueosVencidos(dto);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (reloj != null) {
+            reloj.shutdownNow();
+        }
+    }
+
+    private static final class Vencimiento {
+
+        private final Long eventoId;
+        private final List<BloqueoAsientosResponseDTO.AsientoBloqueoDTO> asientos;
+        private final long venceNanos;
+        private long tickVence;
+
+        private Vencimiento(Long eventoId, List<BloqueoAsientosResponseDTO.AsientoBloqueoDTO> asientos, long venceNanos) {
+            this.eventoId = eventoId;
+            this.asientos = asientos;
+            this.venceNanos = venceNanos;
+        }
+    }
+}
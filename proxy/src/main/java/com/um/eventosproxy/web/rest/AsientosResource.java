@@ -1,13 +1,21 @@
 package com.um.eventosproxy.web.rest;
 
+import com.um.eventos.asientos.CodecGrillaAsientos;
+import com.um.eventos.asientos.GrillaAsientos;
 import com.um.eventosproxy.dto.BloqueoAsientosRequestDTO;
 import com.um.eventosproxy.dto.BloqueoAsientosResponseDTO;
 import com.um.eventosproxy.dto.MapaAsientosDTO;
+import com.um.eventosproxy.dto.RegionMapaDTO;
 import com.um.eventosproxy.service.CatedraAsientosService;
 import com.um.eventosproxy.service.RedisAsientosService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 public class AsientosResource {
 
     private static final Logger LOG = LoggerFactory.getLogger(AsientosResource.class);
+    private static final MediaType MEDIA_TYPE_GRILLA = MediaType.parseMediaType(CodecGrillaAsientos.MEDIA_TYPE);
 
     private final RedisAsientosService redisAsientosService;
     private final CatedraAsientosService catedraAsientosService;
@@ -28,10 +37,67 @@ public class AsientosResource {
         this.catedraAsientosService = catedraAsientosService;
     }
 
+    /**
+     * Mapa de asientos del evento. Con {@code filaDesde}, {@code filaHasta}, {@code colDesde} y/o {@code colHasta}
+     * devuelve solo esa ventana (sin matriz) con su versión como ETag; {@code If-None-Match} con la versión
+     * vigente responde {@code 304}.
+     * <p>
+     * Si el {@code Accept} pide {@value CodecGrillaAsientos#MEDIA_TYPE} se responde la grilla compacta
+     * (2 bits por asiento o RLE) en lugar del JSON, con la versión de la grilla como ETag. Todas las respuestas
+     * (incluidos los {@code 304}) llevan {@code Vary: Accept}, porque la misma URL devuelve uno u otro formato.
+     */
     @GetMapping("/evento/{eventoId}")
-    public ResponseEntity<MapaAsientosDTO> obtenerMapaAsientos(@PathVariable Long eventoId) {
+    public ResponseEntity<?> obtenerMapaAsientos(
+        @PathVariable Long eventoId,
+        @RequestParam(required = false) Integer filaDesde,
+        @RequestParam(required = false) Integer filaHasta,
+        @RequestParam(required = false) Integer colDesde,
+        @RequestParam(required = false) Integer colHasta,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String versionCliente,
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
         LOG.debug("REST request para obtener mapa de asientos del evento: {}", eventoId);
 
+        RegionMapaDTO region = null;
+        if (filaDesde != null || filaHasta != null || colDesde != null || colHasta != null) {
+            region = new RegionMapaDTO();
+            region.setFilaDesde(filaDesde);
+            region.setFilaHasta(filaHasta);
+            region.setColDesde(colDesde);
+            region.setColHasta(colHasta);
+        }
+
+        if (aceptaGrilla(accept)) {
+            GrillaAsientos grilla = redisAsientosService.obtenerGrilla(eventoId, region);
+            String etag = "\"" + Long.toHexString(grilla.getVersion()) + "\"";
+            if (etag.equals(versionCliente)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+            }
+            return ResponseEntity.ok()
+                .contentType(MEDIA_TYPE_GRILLA)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(CodecGrillaAsientos.codificar(grilla));
+        }
+
+        if (region != null) {
+            MapaAsientosDTO recortado = redisAsientosService.recortarRegion(redisAsientosService.obtenerMapaAsientos(eventoId, false), region);
+            String etag = "\"" + recortado.getVersion() + "\"";
+            if (etag.equals(versionCliente)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+            }
+            return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT).body(recortado);
+        }
+
         MapaAsientosDTO mapa = redisAsientosService.obtenerMapaAsientos(eventoId);
         
         // Devolver el mapa completo con todos los asientos y sus estados
@@ -50,7 +116,30 @@ public class AsientosResource {
             LOG.info("Estados de asientos: {} bloqueados, {} ocupados, {} libres", bloqueados, ocupados, libres);
         }
         
-        return ResponseEntity.ok(mapa);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(mapa);
+    }
+
+    private static boolean aceptaGrilla(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        try {
+            // Solo si se pide explícitamente: un */* sigue recibiendo JSON
+            return MediaType.parseMediaTypes(accept).stream().anyMatch(tipo -> tipo.equalsTypeAndSubtype(MEDIA_TYPE_GRILLA) && tipo.getQualityValue() > 0);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Indica si existe la clave del evento en Redis: 204 si existe, 404 si no.
+     * Lo usa el warm-up del backend para no bloquear asientos de eventos que ya tienen datos.
+     */
+    @GetMapping("/evento/{eventoId}/existe")
+    public ResponseEntity<Void> existeMapaAsientos(@PathVariable Long eventoId) {
+        boolean existe = redisAsientosService.existeMapaAsientos(eventoId);
+        LOG.debug("Clave de Redis para eventoId {}: existe={}", eventoId, existe);
+        return existe ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
 
     @PostMapping("/bloquear")
@@ -0,0 +1,84 @@
+package com.um.eventosproxy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.um.eventosproxy.config.ProxyProperties;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Unit tests for {@link BackendSyncService}: los mensajes de una ráfaga se juntan en un solo sync.
+ */
+class BackendSyncServiceTest {
+
+    private RestTemplate restTemplate;
+    private final List<Runnable> encolados = new ArrayList<>();
+    private BackendSyncService service;
+
+    @BeforeEach
+    void init() {
+        restTemplate = mock(RestTemplate.class);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(), eq(String.class))).thenReturn(ResponseEntity.ok("ok"));
+        JwtService jwtService = mock(JwtService.class);
+        when(jwtService.generateToken(anyString())).thenReturn("token");
+        service = new BackendSyncService(restTemplate, new ProxyProperties(), jwtService, encolados::add);
+    }
+
+    @Test
+    void unaRafagaEncolaUnSoloSync() {
+        service.syncEventsWithBackend();
+        service.syncEventsWithBackend();
+        service.syncEventsWithBackend();
+
+        assertThat(encolados).hasSize(1);
+        encolados.get(0).run();
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.POST), any(), eq(String.class));
+    }
+
+    @Test
+    void despuesDelSyncSeEncolaOtro() {
+        service.syncEventsWithBackend();
+        encolados.get(0).run();
+
+        service.syncEventsWithBackend();
+
+        assertThat(encolados).hasSize(2);
+    }
+
+    @Test
+    void unMensajeConElSyncEnCursoEncolaElSiguiente() {
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(), eq(String.class))).thenAnswer(inv -> {
+            service.syncEventsWithBackend();
+            service.syncEventsWithBackend();
+            return ResponseEntity.ok("ok");
+        });
+        service.syncEventsWithBackend();
+
+        encolados.get(0).run();
+
+        assertThat(encolados).hasSize(2);
+    }
+
+    @Test
+    void unErrorDelBackendNoTrabaLosSyncsSiguientes() {
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.POST), any(), eq(String.class))).thenThrow(new IllegalStateException("caído"));
+        service.syncEventsWithBackend();
+        encolados.get(0).run();
+
+        service.syncEventsWithBackend();
+
+        assertThat(encolados).hasSize(2);
+    }
+}
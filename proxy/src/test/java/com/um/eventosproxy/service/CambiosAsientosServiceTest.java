@@ -0,0 +1,107 @@
+package com.um.eventosproxy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.um.eventos.asientos.GrillaAsientos;
+import com.um.eventosproxy.config.ProxyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+
+/**
+ * Unit tests for {@link CambiosAsientosService}: orden de las lecturas concurrentes.
+ */
+class CambiosAsientosServiceTest {
+
+    private static final Long EVENTO = 1L;
+
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private CambiosAsientosService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void init() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(new CompletableFuture<>());
+        ProxyProperties properties = new ProxyProperties();
+        properties.getKafka().getCambiosAsientos().setHabilitado(true);
+        service = new CambiosAsientosService(kafkaTemplate, new ObjectMapper(), properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void detener() {
+        service.detener();
+    }
+
+    @Test
+    void publicaLosAsientosQueCambiaron() {
+        service.observar(EVENTO, 10, "libre", () -> grilla(GrillaAsientos.LIBRE));
+        service.observar(EVENTO, 20, "bloqueado", () -> grilla(GrillaAsientos.BLOQUEADO));
+
+        ArgumentCaptor<String> valor = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate, timeout(2000)).send(anyString(), eq("1"), valor.capture());
+        assertThat(valor.getValue()).contains("\"de\":\"L\"").contains("\"a\":\"B\"");
+    }
+
+    @Test
+    void laPrimeraLecturaSoloFijaLaBase() {
+        service.observar(EVENTO, 10, "libre", () -> grilla(GrillaAsientos.LIBRE));
+
+        verify(kafkaTemplate, after(200).never()).send(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void unaLecturaMasViejaQueLaGuardadaSeDescarta() {
+        service.observar(EVENTO, 10, "libre", () -> grilla(GrillaAsientos.LIBRE));
+        service.observar(EVENTO, 30, "ocupado", () -> grilla(GrillaAsientos.OCUPADO));
+        // Llega tarde una lectura servida entre las dos anteriores: no hay transición O -> B
+        service.observar(EVENTO, 20, "bloqueado", () -> grilla(GrillaAsientos.BLOQUEADO));
+
+        ArgumentCaptor<String> valor = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate, after(300).times(1)).send(anyString(), anyString(), valor.capture());
+        assertThat(valor.getValue()).contains("\"de\":\"L\"").contains("\"a\":\"O\"");
+    }
+
+    @Test
+    void unaLecturaRepetidaAvanzaLaSecuencia() {
+        service.observar(EVENTO, 10, "libre", () -> grilla(GrillaAsientos.LIBRE));
+        service.observar(EVENTO, 30, "libre", () -> {
+            throw new AssertionError("No se rearma la grilla de un contenido ya visto");
+        });
+        service.observar(EVENTO, 20, "bloqueado", () -> grilla(GrillaAsientos.BLOQUEADO));
+
+        verify(kafkaTemplate, after(200).never()).send(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void deshabilitadoNoObserva() {
+        ProxyProperties properties = new ProxyProperties();
+        CambiosAsientosService deshabilitado = new CambiosAsientosService(kafkaTemplate, new ObjectMapper(), properties, new SimpleMeterRegistry());
+
+        assertThat(deshabilitado.isHabilitado()).isFalse();
+        deshabilitado.observar(EVENTO, 10, "libre", () -> grilla(GrillaAsientos.LIBRE));
+        deshabilitado.observar(EVENTO, 20, "ocupado", () -> grilla(GrillaAsientos.OCUPADO));
+
+        verify(kafkaTemplate, after(200).never()).send(anyString(), anyString(), anyString());
+        deshabilitado.detener();
+    }
+
+    private static GrillaAsientos grilla(byte estado) {
+        GrillaAsientos grilla = new GrillaAsientos(EVENTO, 1, 1, 1, 1);
+        grilla.setEstado(0, estado);
+        grilla.setVersion(grilla.calcularVersion());
+        return grilla;
+    }
+}
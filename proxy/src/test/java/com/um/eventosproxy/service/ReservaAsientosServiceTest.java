@@ -0,0 +1,132 @@
+package com.um.eventosproxy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.um.eventosproxy.config.ProxyProperties;
+import com.um.eventosproxy.dto.BloqueoAsientosRequestDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ReservaAsientosService}.
+ */
+class ReservaAsientosServiceTest {
+
+    private final ReservaAsientosService service = servicio(15000L);
+
+    @Test
+    void reservaTodosLosAsientosDelRequest() {
+        ReservaAsientosService.Resultado resultado = service.reservar(request(1L, 1, 1, 1, 2));
+
+        assertThat(resultado.isAdquirida()).isTrue();
+        assertThat(resultado.enConflicto()).isNull();
+    }
+
+    @Test
+    void asientoEnCursoRechazaElRequestCompletoSinDejarAsientosTomados() {
+        service.reservar(request(1L, 1, 2));
+
+        ReservaAsientosService.Resultado resultado = service.reservar(request(1L, 1, 3, 1, 2));
+
+        assertThat(resultado.isAdquirida()).isFalse();
+        assertThat(resultado.enConflicto().getFila()).isEqualTo(1);
+        assertThat(resultado.enConflicto().getColumna()).isEqualTo(2);
+        // (1,3) se tomó antes que (1,2) por el orden, y tuvo que liberarse al fallar
+        assertThat(service.reservar(request(1L, 1, 3)).isAdquirida()).isTrue();
+    }
+
+    @Test
+    void liberarPermiteVolverATomarLosAsientos() {
+        ReservaAsientosService.Resultado primero = service.reservar(request(1L, 2, 5));
+        service.liberar(primero.reserva());
+
+        assertThat(service.reservar(request(1L, 2, 5)).isAdquirida()).isTrue();
+    }
+
+    @Test
+    void mismoAsientoEnOtroEventoNoEntraEnConflicto() {
+        service.reservar(request(1L, 1, 1));
+
+        assertThat(service.reservar(request(2L, 1, 1)).isAdquirida()).isTrue();
+    }
+
+    @Test
+    void asientoRepetidoEnElRequestNoEntraEnConflictoConsigoMismo() {
+        assertThat(service.reservar(request(1L, 4, 4, 4, 4)).isAdquirida()).isTrue();
+    }
+
+    @Test
+    void reservaVencidaSeReemplazaYSuLiberacionTardiaNoLiberaLaNueva() {
+        ReservaAsientosService vencen = servicio(0L);
+        ReservaAsientosService.Resultado colgada = vencen.reservar(request(1L, 3, 3));
+
+        ReservaAsientosService.Resultado nueva = vencen.reservar(request(1L, 3, 3));
+        assertThat(nueva.isAdquirida()).isTrue();
+
+        vencen.liberar(colgada.reserva());
+        // La nueva reserva sigue registrada: se puede liberar y el asiento queda libre
+        vencen.liberar(nueva.reserva());
+        assertThat(vencen.reservar(request(1L, 3, 3)).isAdquirida()).isTrue();
+    }
+
+    @Test
+    void requestsConcurrentesPorElMismoAsientoSoloUnoLoObtiene() throws Exception {
+        int hilos = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (int i = 0; i < hilos; i++) {
+                // Cada request comparte el asiento (7,7) y tiene otro propio, en orden distinto
+                BloqueoAsientosRequestDTO request = i % 2 == 0 ? request(1L, 7, 7, 8, i) : request(1L, 8, i, 7, 7);
+                resultados.add(
+                    executor.submit(() -> {
+                        largada.await();
+                        return service.reservar(request).isAdquirida();
+                    })
+                );
+            }
+            largada.countDown();
+            int adquiridas = 0;
+            for (Future<Boolean> resultado : resultados) {
+                if (resultado.get(5, TimeUnit.SECONDS)) {
+                    adquiridas++;
+                }
+            }
+            assertThat(adquiridas).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ReservaAsientosService servicio(long timeoutMs) {
+        ProxyProperties properties = new ProxyProperties();
+        properties.getAsientos().setReservaFranjas(4);
+        properties.getAsientos().setReservaTimeoutMs(timeoutMs);
+        return new ReservaAsientosService(properties, new SimpleMeterRegistry());
+    }
+
+    /**
+     * @param filaColumna pares (fila, columna).
+     */
+    private static BloqueoAsientosRequestDTO request(Long eventoId, int... filaColumna) {
+        BloqueoAsientosRequestDTO request = new BloqueoAsientosRequestDTO();
+        request.setEventoId(eventoId);
+        List<BloqueoAsientosRequestDTO.AsientoBloqueoDTO> asientos = new ArrayList<>();
+        for (int i = 0; i < filaColumna.length; i += 2) {
+            BloqueoAsientosRequestDTO.AsientoBloqueoDTO asiento = new BloqueoAsientosRequestDTO.AsientoBloqueoDTO();
+            asiento.setFila(filaColumna[i]);
+            asiento.setColumna(filaColumna[i + 1]);
+            asientos.add(asiento);
+        }
+        request.setAsientos(asientos);
+        return request;
+    }
+}
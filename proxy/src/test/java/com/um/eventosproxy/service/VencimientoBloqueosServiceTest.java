@@ -0,0 +1,166 @@
+package com.um.eventosproxy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.um.eventosproxy.config.ProxyProperties;
+import com.um.eventosproxy.dto.BloqueoAsientosResponseDTO;
+import com.um.eventosproxy.dto.BloqueosVencidosDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit tests for {@link VencimientoBloqueosService}, con un reloj manual.
+ */
+class VencimientoBloqueosServiceTest {
+
+    private final AtomicLong ahora = new AtomicLong(1_000_000_000L);
+    private BackendNotificationService backendNotificationService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void init() {
+        backendNotificationService = mock(BackendNotificationService.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void noAvisaAntesDelVencimiento() {
+        VencimientoBloqueosService service = servicio(10, 0);
+        service.registrar(1L, asientos(1, 1));
+
+        avanzarSegundos(service, 9);
+
+        verify(backendNotificationService, never()).notificarBloqueosVencidos(any());
+        assertThat(pendientes()).isEqualTo(1.0);
+    }
+
+    @Test
+    void avisaUnaSolaVezAlVencerAgrupandoPorEvento() {
+        VencimientoBloqueosService service = servicio(10, 0);
+        service.registrar(1L, asientos(1, 1));
+        service.registrar(1L, asientos(1, 2));
+        service.registrar(2L, asientos(5, 5));
+
+        avanzarSegundos(service, 11);
+        avanzarSegundos(service, 30);
+
+        ArgumentCaptor<BloqueosVencidosDTO> captor = ArgumentCaptor.forClass(BloqueosVencidosDTO.class);
+        verify(backendNotificationService, times(2)).notificarBloqueosVencidos(captor.capture());
+        BloqueosVencidosDTO evento1 = captor.getAllValues().stream().filter(dto -> dto.getEventoId() == 1L).findFirst().orElseThrow();
+        assertThat(evento1.getAsientos()).hasSize(2);
+        assertThat(pendientes()).isZero();
+    }
+
+    @Test
+    void incluyeElMargenEnElVencimiento() {
+        VencimientoBloqueosService service = servicio(10, 3000);
+        service.registrar(1L, asientos(1, 1));
+
+        avanzarSegundos(service, 12);
+        verify(backendNotificationService, never()).notificarBloqueosVencidos(any());
+
+        avanzarSegundos(service, 2);
+        verify(backendNotificationService).notificarBloqueosVencidos(any());
+    }
+
+    @Test
+    void vencimientoMasLargoQueUnaVueltaDeLaRuedaEsperaSuVuelta() {
+        long duracion = VencimientoBloqueosService.RANURAS + 100;
+        VencimientoBloqueosService service = servicio(duracion, 0);
+        service.registrar(1L, asientos(1, 1));
+
+        // Pasa por su ranura en la primera vuelta sin vencer
+        for (int i = 0; i < duracion - 1; i++) {
+            avanzarSegundos(service, 1);
+        }
+        verify(backendNotificationService, never()).notificarBloqueosVencidos(any());
+
+        avanzarSegundos(service, 2);
+        verify(backendNotificationService).notificarBloqueosVencidos(any());
+    }
+
+    @Test
+    void hiloDemoradoProcesaTodosLosTicksAtrasados() {
+        VencimientoBloqueosService service = servicio(5, 0);
+        service.registrar(1L, asientos(1, 1));
+        avanzarSegundos(service, 1);
+        service.registrar(2L, asientos(2, 2));
+
+        // Una sola vuelta después de mucho tiempo vence ambos
+        avanzarSegundos(service, 60);
+
+        verify(backendNotificationService, times(2)).notificarBloqueosVencidos(any());
+        assertThat(pendientes()).isZero();
+    }
+
+    @Test
+    void sinNotificarSoloVenceLosBloqueos() {
+        ProxyProperties properties = propiedades(1, 0);
+        properties.getAsientos().setVencimientoNotificar(false);
+        VencimientoBloqueosService service = new VencimientoBloqueosService(
+            backendNotificationService,
+            properties,
+            meterRegistry,
+            ahora::get,
+            false
+        );
+        service.registrar(1L, asientos(1, 1));
+
+        avanzarSegundos(service, 5);
+
+        verify(backendNotificationService, never()).notificarBloqueosVencidos(any());
+        assertThat(pendientes()).isZero();
+    }
+
+    @Test
+    void ignoraBloqueosSinAsientos() {
+        VencimientoBloqueosService service = servicio(1, 0);
+        service.registrar(1L, List.of());
+        service.registrar(null, asientos(1, 1));
+
+        assertThat(pendientes()).isZero();
+    }
+
+    private VencimientoBloqueosService servicio(long duracionSegundos, long margenMs) {
+        return new VencimientoBloqueosService(
+            backendNotificationService,
+            propiedades(duracionSegundos, margenMs),
+            meterRegistry,
+            ahora::get,
+            false
+        );
+    }
+
+    private static ProxyProperties propiedades(long duracionSegundos, long margenMs) {
+        ProxyProperties properties = new ProxyProperties();
+        properties.getAsientos().setBloqueoDuracionSegundos(duracionSegundos);
+        properties.getAsientos().setVencimientoMargenMs(margenMs);
+        return properties;
+    }
+
+    private void avanzarSegundos(VencimientoBloqueosService service, long segundos) {
+        ahora.addAndGet(TimeUnit.SECONDS.toNanos(segundos));
+        service.avanzar();
+    }
+
+    private double pendientes() {
+        return meterRegistry.get("proxy.asientos.vencimientos.pendientes").gauge().value();
+    }
+
+    private static List<BloqueoAsientosResponseDTO.AsientoBloqueoDTO> asientos(int fila, int columna) {
+        BloqueoAsientosResponseDTO.AsientoBloqueoDTO asiento = new BloqueoAsientosResponseDTO.AsientoBloqueoDTO();
+        asiento.setFila(fila);
+        asiento.setColumna(columna);
+        return List.of(asiento);
+    }
+}